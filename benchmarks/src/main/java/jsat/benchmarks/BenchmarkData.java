@@ -0,0 +1,134 @@
+package jsat.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import jsat.classifiers.CategoricalData;
+import jsat.classifiers.ClassificationDataSet;
+import jsat.linear.DenseMatrix;
+import jsat.linear.DenseVector;
+import jsat.linear.SparseVector;
+import jsat.linear.Vec;
+import jsat.utils.random.XORWOW;
+
+/**
+ * Shared generators for the synthetic data used by the benchmark suites. All
+ * data is generated from a fixed seed so that every fork of a benchmark sees
+ * the same problem. Data shapes are described by the number of rows <i>n</i>,
+ * the dimension <i>d</i>, and the <i>sparsity</i>, which is the fraction of
+ * values in each row that are zero.
+ */
+public class BenchmarkData {
+
+    /**
+     * The seed used by all the generators
+     */
+    public static final long SEED = 1337;
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * @return a new source of randomness using the fixed benchmark seed
+     */
+    public static Random getRandom() {
+        return new XORWOW(SEED);
+    }
+
+    /**
+     * Creates a new vector of the given dimension. If <tt>sparsity</tt> is
+     * zero a {@link DenseVector} is returned, otherwise a {@link SparseVector}
+     * is returned with roughly {@code (1-sparsity)*d} non-zero values.
+     *
+     * @param d        the dimension of the vector
+     * @param sparsity the fraction of values that should be zero, in [0, 1)
+     * @param rand     the source of randomness
+     * @return a random vector
+     */
+    public static Vec randomVec(int d, double sparsity, Random rand) {
+        if (sparsity <= 0) {
+            DenseVector v = new DenseVector(d);
+            for (int i = 0; i < d; i++)
+                v.set(i, rand.nextGaussian());
+            return v;
+        }
+
+        int nnz = Math.max(1, (int) Math.round(d * (1 - sparsity)));
+        SparseVector v = new SparseVector(d, nnz);
+        for (int i = 0; i < nnz; i++)
+            v.set(rand.nextInt(d), rand.nextGaussian());
+        return v;
+    }
+
+    /**
+     * Creates a list of <tt>n</tt> random vectors
+     *
+     * @param n        the number of vectors to create
+     * @param d        the dimension of each vector
+     * @param sparsity the fraction of values that should be zero, in [0, 1)
+     * @param rand     the source of randomness
+     * @return a list of random vectors
+     * @see #randomVec(int, double, java.util.Random)
+     */
+    public static List<Vec> randomVecs(int n, int d, double sparsity, Random rand) {
+        List<Vec> vecs = new ArrayList<>(n);
+        for (int i = 0; i < n; i++)
+            vecs.add(randomVec(d, sparsity, rand));
+        return vecs;
+    }
+
+    /**
+     * Creates a dense matrix filled with standard normal values
+     *
+     * @param rows the number of rows
+     * @param cols the number of columns
+     * @param rand the source of randomness
+     * @return a random matrix
+     */
+    public static DenseMatrix randomMatrix(int rows, int cols, Random rand) {
+        DenseMatrix m = new DenseMatrix(rows, cols);
+        for (int i = 0; i < rows; i++)
+            for (int j = 0; j < cols; j++)
+                m.set(i, j, rand.nextGaussian());
+        return m;
+    }
+
+    /**
+     * Creates a classification problem with <tt>k</tt> classes, where each
+     * class is centered at a different random mean so that the problem is
+     * learnable but not trivial.
+     *
+     * @param n        the number of data points
+     * @param d        the number of numeric features
+     * @param sparsity the fraction of feature values that should be zero
+     * @param k        the number of classes
+     * @param rand     the source of randomness
+     * @return a random classification problem
+     */
+    public static ClassificationDataSet classification(int n, int d, double sparsity, int k, Random rand) {
+        Vec[] means = new Vec[k];
+        for (int c = 0; c < k; c++)
+            means[c] = randomVec(d, 0.0, rand);
+
+        ClassificationDataSet data = new ClassificationDataSet(d, new CategoricalData[0], new CategoricalData(k));
+        int nnz = Math.max(1, (int) Math.round(d * (1 - sparsity)));
+        for (int i = 0; i < n; i++) {
+            int c = rand.nextInt(k);
+            Vec x;
+            if (sparsity <= 0) {
+                x = randomVec(d, 0.0, rand);
+                x.mutableAdd(means[c]);
+            }
+            else {//only shift the non-zero values so the data stays sparse
+                x = new SparseVector(d, nnz);
+                for (int j = 0; j < nnz; j++) {
+                    int indx = rand.nextInt(d);
+                    x.set(indx, rand.nextGaussian() + means[c].get(indx));
+                }
+            }
+            data.addDataPoint(x, c);
+        }
+        return data;
+    }
+}
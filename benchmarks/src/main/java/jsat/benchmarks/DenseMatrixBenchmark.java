@@ -0,0 +1,116 @@
+package jsat.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import jsat.linear.ContiguousDenseMatrix;
+import jsat.linear.DenseMatrix;
+import jsat.linear.DenseVector;
+import jsat.linear.Matrix;
+import jsat.linear.Vec;
+import jsat.utils.concurrent.ParallelUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the dense matrix multiplication routines used by
+ * RidgeRegression, PCA, MatrixStatistics and the neural network trainers,
+ * comparing the row array {@link DenseMatrix} against the single array
+ * {@link ContiguousDenseMatrix} in both layouts.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DenseMatrixBenchmark {
+
+    /**
+     * The number of rows of the left hand matrix
+     */
+    @Param({"128", "512", "1024"})
+    public int n;
+
+    /**
+     * The shared inner and output dimension
+     */
+    @Param({"64", "256"})
+    public int d;
+
+    @Param({"Dense", "ContiguousRowMajor", "ContiguousColumnMajor"})
+    public String matrix;
+
+    private Matrix A;
+    private Matrix B;
+    private Matrix C;
+    private Matrix AtA;
+    private Vec x;
+    private Vec y;
+
+    @Setup
+    public void setup() {
+        Random rand = BenchmarkData.getRandom();
+        A = asType(BenchmarkData.randomMatrix(n, d, rand));
+        B = asType(BenchmarkData.randomMatrix(d, d, rand));
+        C = asType(new DenseMatrix(n, d));
+        AtA = asType(new DenseMatrix(d, d));
+        x = BenchmarkData.randomVec(d, 0.0, rand);
+        y = new DenseVector(n);
+    }
+
+    private Matrix asType(DenseMatrix m) {
+        switch (matrix) {
+            case "ContiguousRowMajor":
+                return new ContiguousDenseMatrix(m, ContiguousDenseMatrix.Layout.ROW_MAJOR);
+            case "ContiguousColumnMajor":
+                return new ContiguousDenseMatrix(m, ContiguousDenseMatrix.Layout.COLUMN_MAJOR);
+            default:
+                return m;
+        }
+    }
+
+    @Benchmark
+    public Matrix multiply() {
+        C.zeroOut();
+        A.multiply(B, C);
+        return C;
+    }
+
+    @Benchmark
+    public Matrix multiplyParallel() {
+        C.zeroOut();
+        A.multiply(B, C, ParallelUtils.CACHED_THREAD_POOL);
+        return C;
+    }
+
+    @Benchmark
+    public Matrix transposeMultiply() {
+        AtA.zeroOut();
+        A.transposeMultiply(A, AtA);
+        return AtA;
+    }
+
+    @Benchmark
+    public Matrix transposeMultiplyParallel() {
+        AtA.zeroOut();
+        A.transposeMultiply(A, AtA, ParallelUtils.CACHED_THREAD_POOL);
+        return AtA;
+    }
+
+    @Benchmark
+    public Vec multiplyVec() {
+        y.zeroOut();
+        A.multiply(x, 1.0, y);
+        return y;
+    }
+}
@@ -0,0 +1,140 @@
+package jsat.benchmarks;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import jsat.linear.Vec;
+import jsat.linear.distancemetrics.ChebyshevDistance;
+import jsat.linear.distancemetrics.CosineDistance;
+import jsat.linear.distancemetrics.DistanceMetric;
+import jsat.linear.distancemetrics.EuclideanDistance;
+import jsat.linear.distancemetrics.ManhattanDistance;
+import jsat.linear.distancemetrics.SquaredEuclideanDistance;
+import jsat.utils.DoubleList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks {@link DistanceMetric#dist(jsat.linear.Vec, jsat.linear.Vec) }
+ * and the cache accelerated distance methods for the common metrics. Each
+ * invocation computes the distance from one query to a block of the <i>n</i>
+ * points, cycling through all of them across invocations, and the reported
+ * time is per distance computation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DistanceMetricBenchmark {
+
+    /**
+     * The number of distance computations done per invocation. The indices
+     * used cycle through all <i>n</i> points across invocations.
+     */
+    private static final int OPS = 1000;
+
+    @Param({"1000", "100000"})
+    public int n;
+
+    @Param({"10", "100", "1000"})
+    public int d;
+
+    @Param({"0.0", "0.9"})
+    public double sparsity;
+
+    @Param({"Euclidean", "SquaredEuclidean", "Cosine", "Manhattan", "Chebyshev"})
+    public String metric;
+
+    private DistanceMetric dm;
+    private List<Vec> points;
+    private DoubleList cache;
+    private Vec query;
+    private DoubleList qi;
+    private int offset;
+
+    @Setup
+    public void setup() {
+        Random rand = BenchmarkData.getRandom();
+        dm = getMetric(metric);
+        points = BenchmarkData.randomVecs(n, d, sparsity, rand);
+        cache = dm.getPrimitiveAccelerationCache(points);
+        query = BenchmarkData.randomVec(d, sparsity, rand);
+        qi = dm.getPrimitiveQueryInfo(query);
+    }
+
+    static DistanceMetric getMetric(String name) {
+        switch (name) {
+            case "Euclidean":
+                return new EuclideanDistance();
+            case "SquaredEuclidean":
+                return new SquaredEuclideanDistance();
+            case "Cosine":
+                return new CosineDistance();
+            case "Manhattan":
+                return new ManhattanDistance();
+            case "Chebyshev":
+                return new ChebyshevDistance();
+            default:
+                throw new IllegalArgumentException("Unknown metric " + name);
+        }
+    }
+
+    private int nextIndex() {
+        int i = offset;
+        if (++offset == n)
+            offset = 0;
+        return i;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public double dist() {
+        double sum = 0;
+        for (int j = 0; j < OPS; j++) {
+            int i = nextIndex();
+            sum += dm.dist(query, points.get(i));
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public double distCached() {
+        double sum = 0;
+        for (int j = 0; j < OPS; j++) {
+            int i = nextIndex();
+            sum += dm.dist(i, query, qi, points, cache);
+        }
+        return sum;
+    }
+
+    /**
+     * Uses the {@code List<Double>} overloads, as done by callers that hold the
+     * cache by its interface type.
+     */
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public double distCachedList() {
+        List<Double> listCache = cache;
+        List<Double> listQi = qi;
+        double sum = 0;
+        for (int j = 0; j < OPS; j++) {
+            int i = nextIndex();
+            sum += dm.dist(i, query, listQi, points, listCache);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,96 @@
+package jsat.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import jsat.classifiers.ClassificationDataSet;
+import jsat.io.CSV;
+import jsat.io.JSATData;
+import jsat.io.LIBSVMLoader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the parsing speed of the {@link JSATData}, {@link CSV}, and
+ * {@link LIBSVMLoader} formats. The serialized form of a random dataset is
+ * kept in memory so that the benchmark measures parsing and not the disk.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class IOBenchmark {
+
+    @Param({"10000", "100000"})
+    public int n;
+
+    @Param({"10", "100"})
+    public int d;
+
+    @Param({"0.0", "0.9"})
+    public double sparsity;
+
+    private byte[] jsatFP64;
+    private byte[] jsatFP32;
+    private String csv;
+    private byte[] libsvm;
+
+    @Setup
+    public void setup() throws IOException {
+        ClassificationDataSet data = BenchmarkData.classification(n, d, sparsity, 2, BenchmarkData.getRandom());
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        JSATData.writeData(data, baos, JSATData.FloatStorageMethod.FP64);
+        jsatFP64 = baos.toByteArray();
+
+        baos = new ByteArrayOutputStream();
+        JSATData.writeData(data, baos, JSATData.FloatStorageMethod.FP32);
+        jsatFP32 = baos.toByteArray();
+
+        StringWriter sw = new StringWriter();
+        CSV.write(data, sw);
+        csv = sw.toString();
+
+        baos = new ByteArrayOutputStream();
+        LIBSVMLoader.write(data, baos);
+        libsvm = baos.toByteArray();
+    }
+
+    @Benchmark
+    public ClassificationDataSet jsatDataFP64() throws IOException {
+        return JSATData.loadClassification(new ByteArrayInputStream(jsatFP64));
+    }
+
+    @Benchmark
+    public ClassificationDataSet jsatDataFP32() throws IOException {
+        return JSATData.loadClassification(new ByteArrayInputStream(jsatFP32));
+    }
+
+    @Benchmark
+    public ClassificationDataSet csv() throws IOException {
+        return CSV.readC(0, new StringReader(csv), 0, Collections.emptySet());
+    }
+
+    @Benchmark
+    public ClassificationDataSet libsvm() throws IOException {
+        return LIBSVMLoader.loadC(new InputStreamReader(new ByteArrayInputStream(libsvm), StandardCharsets.UTF_8), 0.5, d);
+    }
+}
@@ -0,0 +1,170 @@
+package jsat.benchmarks;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import jsat.distributions.kernels.KernelTrick;
+import jsat.distributions.kernels.LinearKernel;
+import jsat.distributions.kernels.PolynomialKernel;
+import jsat.distributions.kernels.RBFKernel;
+import jsat.linear.Vec;
+import jsat.utils.DoubleList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks {@link KernelTrick} evaluations, both the plain
+ * {@link KernelTrick#eval(jsat.linear.Vec, jsat.linear.Vec) } and the cache
+ * accelerated versions used by the kernel methods when evaluating against a
+ * training set. Each invocation evaluates one query against a block of the
+ * <i>n</i> points, cycling through all of them across invocations, and the
+ * reported time is per kernel evaluation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KernelTrickBenchmark {
+
+    /**
+     * The number of distance computations done per invocation. The indices
+     * used cycle through all <i>n</i> points across invocations.
+     */
+    private static final int OPS = 1000;
+
+    @Param({"1000", "100000"})
+    public int n;
+
+    @Param({"10", "100", "1000"})
+    public int d;
+
+    @Param({"0.0", "0.9"})
+    public double sparsity;
+
+    @Param({"RBF", "Linear", "Polynomial"})
+    public String kernel;
+
+    private KernelTrick k;
+    private List<Vec> points;
+    private DoubleList cache;
+    private Vec query;
+    private DoubleList qi;
+    private int offset;
+    private double[] alpha;
+
+    @Setup
+    public void setup() {
+        Random rand = BenchmarkData.getRandom();
+        switch (kernel) {
+            case "RBF":
+                k = new RBFKernel(Math.sqrt(d));
+                break;
+            case "Linear":
+                k = new LinearKernel();
+                break;
+            case "Polynomial":
+                k = new PolynomialKernel(3);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown kernel " + kernel);
+        }
+        points = BenchmarkData.randomVecs(n, d, sparsity, rand);
+        cache = k.getPrimitiveAccelerationCache(points);
+        query = BenchmarkData.randomVec(d, sparsity, rand);
+        qi = k.getPrimitiveQueryInfo(query);
+        alpha = new double[n];
+        for (int i = 0; i < n; i++)
+            alpha[i] = rand.nextDouble();
+    }
+
+    private int nextIndex() {
+        int i = offset;
+        if (++offset == n)
+            offset = 0;
+        return i;
+    }
+
+    /**
+     * @return the start of the next block of {@link #OPS} consecutive points,
+     * cycling through all of the points across invocations
+     */
+    private int nextBlock() {
+        if (offset + OPS > n)
+            offset = 0;
+        int start = offset;
+        offset += OPS;
+        return start;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public double eval() {
+        double sum = 0;
+        for (int j = 0; j < OPS; j++) {
+            int i = nextIndex();
+            sum += k.eval(query, points.get(i));
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public double evalCached() {
+        double sum = 0;
+        for (int j = 0; j < OPS; j++) {
+            int i = nextIndex();
+            sum += k.eval(i, query, qi, points, cache);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public double evalSum() {
+        int start = nextBlock();
+        return k.evalSum(points, cache, alpha, query, qi, start, start + OPS);
+    }
+
+    /**
+     * Uses the {@code List<Double>} overloads, as done by callers that hold the
+     * cache by its interface type.
+     */
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public double evalCachedList() {
+        List<Double> listCache = cache;
+        List<Double> listQi = qi;
+        double sum = 0;
+        for (int j = 0; j < OPS; j++) {
+            int i = nextIndex();
+            sum += k.eval(i, query, listQi, points, listCache);
+        }
+        return sum;
+    }
+
+    /**
+     * Uses the {@code List<Double>} overload of evalSum, as done by callers
+     * that hold the cache by its interface type.
+     */
+    @Benchmark
+    @OperationsPerInvocation(OPS)
+    public double evalSumList() {
+        List<Double> listCache = cache;
+        List<Double> listQi = qi;
+        int start = nextBlock();
+        return k.evalSum(points, listCache, alpha, query, listQi, start, start + OPS);
+    }
+}
@@ -0,0 +1,79 @@
+package jsat.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import jsat.classifiers.ClassificationDataSet;
+import jsat.classifiers.trees.DecisionStump;
+import jsat.classifiers.trees.DecisionTree;
+import jsat.classifiers.trees.RandomForest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the training time of the tree based learners, which is dominated
+ * by the search for the best split on each numeric feature.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TreeTrainingBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int n;
+
+    @Param({"10", "50"})
+    public int d;
+
+    @Param({"0.0", "0.9"})
+    public double sparsity;
+
+    @Param({"4"})
+    public int classes;
+
+    private ClassificationDataSet data;
+
+    @Setup
+    public void setup() {
+        data = BenchmarkData.classification(n, d, sparsity, classes, BenchmarkData.getRandom());
+    }
+
+    @Benchmark
+    public DecisionStump decisionStump() {
+        DecisionStump stump = new DecisionStump();
+        stump.train(data);
+        return stump;
+    }
+
+    @Benchmark
+    public DecisionTree decisionTree() {
+        DecisionTree tree = new DecisionTree();
+        tree.train(data);
+        return tree;
+    }
+
+    @Benchmark
+    public RandomForest randomForest() {
+        RandomForest forest = new RandomForest(50);
+        forest.train(data);
+        return forest;
+    }
+
+    @Benchmark
+    public RandomForest randomForestParallel() {
+        RandomForest forest = new RandomForest(50);
+        forest.train(data, true);
+        return forest;
+    }
+}
@@ -0,0 +1,88 @@
+package jsat.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import jsat.linear.DenseVector;
+import jsat.linear.Vec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the basic {@link Vec} arithmetic that almost every algorithm in
+ * JSAT is built on, for dense and sparse vectors of varying dimension and
+ * sparsity.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VecBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int d;
+
+    @Param({"0.0", "0.9", "0.99"})
+    public double sparsity;
+
+    private Vec a;
+    private Vec b;
+    private DenseVector dense;
+    private DenseVector accumulator;
+
+    @Setup
+    public void setup() {
+        Random rand = BenchmarkData.getRandom();
+        a = BenchmarkData.randomVec(d, sparsity, rand);
+        b = BenchmarkData.randomVec(d, sparsity, rand);
+        dense = (DenseVector) BenchmarkData.randomVec(d, 0.0, rand);
+        accumulator = new DenseVector(d);
+    }
+
+    @Benchmark
+    public double dot() {
+        return a.dot(b);
+    }
+
+    @Benchmark
+    public double dotDense() {
+        return a.dot(dense);
+    }
+
+    @Benchmark
+    public Vec mutableAddToDense() {
+        accumulator.mutableAdd(1e-3, a);
+        return accumulator;
+    }
+
+    @Benchmark
+    public Vec add() {
+        return a.add(b);
+    }
+
+    @Benchmark
+    public double pNorm() {
+        return a.pNorm(2);
+    }
+
+    @Benchmark
+    public double pNormDist() {
+        return a.pNormDist(2, b);
+    }
+
+    @Benchmark
+    public double pNormDistDense() {
+        return a.pNormDist(2, dense);
+    }
+}
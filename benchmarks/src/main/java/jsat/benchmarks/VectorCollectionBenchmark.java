@@ -0,0 +1,134 @@
+package jsat.benchmarks;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import jsat.linear.Vec;
+import jsat.linear.distancemetrics.EuclideanDistance;
+import jsat.linear.vectorcollection.BallTree;
+import jsat.linear.vectorcollection.CoverTree;
+import jsat.linear.vectorcollection.KDTree;
+import jsat.linear.vectorcollection.VPTree;
+import jsat.linear.vectorcollection.VectorArray;
+import jsat.linear.vectorcollection.VectorCollection;
+import jsat.utils.DoubleList;
+import jsat.utils.IntList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks construction and query time of the exact
+ * {@link VectorCollection} implementations. Search benchmarks cycle through a
+ * fixed pool of queries drawn from the same distribution as the indexed data,
+ * and report the time per query. The sparse settings, high dimensional data
+ * with most values zero, mimic the text and click-log shaped data that the
+ * collections are often used on in practice.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VectorCollectionBenchmark {
+
+    private static final int QUERIES = 1024;
+
+    @Param({"10000", "100000"})
+    public int n;
+
+    @Param({"3", "10", "50", "1000"})
+    public int d;
+
+    @Param({"0.0", "0.9"})
+    public double sparsity;
+
+    @Param({"KDTree", "VPTree", "BallTree", "CoverTree", "VectorArray"})
+    public String collection;
+
+    @Param({"10"})
+    public int k;
+
+    private List<Vec> points;
+    private List<Vec> queries;
+    private VectorCollection<Vec> vc;
+    private double radius;
+    private int nextQuery;
+    private final IntList neighbors = new IntList();
+    private final DoubleList distances = new DoubleList();
+
+    @Setup
+    public void setup() {
+        Random rand = BenchmarkData.getRandom();
+        points = BenchmarkData.randomVecs(n, d, sparsity, rand);
+        queries = BenchmarkData.randomVecs(QUERIES, d, sparsity, rand);
+        vc = newCollection(collection);
+        vc.build(points, new EuclideanDistance());
+
+        //pick a radius that will return about k points on average
+        double sum = 0;
+        for (int i = 0; i < 32; i++) {
+            neighbors.clear();
+            distances.clear();
+            vc.search(queries.get(i), k, neighbors, distances);
+            sum += distances.getD(distances.size() - 1);
+        }
+        radius = sum / 32;
+    }
+
+    static VectorCollection<Vec> newCollection(String name) {
+        switch (name) {
+            case "KDTree":
+                return new KDTree<>();
+            case "VPTree":
+                return new VPTree<>();
+            case "BallTree":
+                return new BallTree<>();
+            case "CoverTree":
+                return new CoverTree<>(new EuclideanDistance());
+            case "VectorArray":
+                return new VectorArray<>();
+            default:
+                throw new IllegalArgumentException("Unknown collection " + name);
+        }
+    }
+
+    private Vec nextQuery() {
+        nextQuery = (nextQuery + 1) & (QUERIES - 1);
+        return queries.get(nextQuery);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public VectorCollection<Vec> build() {
+        VectorCollection<Vec> toBuild = newCollection(collection);
+        toBuild.build(points, new EuclideanDistance());
+        return toBuild;
+    }
+
+    @Benchmark
+    public IntList searchKNN() {
+        neighbors.clear();
+        distances.clear();
+        vc.search(nextQuery(), k, neighbors, distances);
+        return neighbors;
+    }
+
+    @Benchmark
+    public IntList searchRange() {
+        neighbors.clear();
+        distances.clear();
+        vc.search(nextQuery(), radius, neighbors, distances);
+        return neighbors;
+    }
+}
@@ -735,6 +735,23 @@ public abstract class DataSet<Type extends DataSet> {
         return new MatrixOfVecs(getDataVectors());
     }
 
+    /**
+     * Creates a compressed sparse matrix from the data set, where each row is
+     * a data point and each column is one of the numeric features. The non
+     * zero values of each data point are copied directly into the compressed
+     * arrays, without creating any intermediate vectors. <br>
+     * This matrix can be altered and will not effect any of the values in the
+     * data set.
+     *
+     * @param format   the format to store the matrix in
+     * @param parallel {@code true} to copy the data points using multiple
+     *                 threads
+     * @return a compressed sparse matrix of the data points
+     */
+    public CompressedSparseMatrix getCompressedDataMatrix(CompressedSparseMatrix.Format format, boolean parallel) {
+        return CompressedSparseMatrix.fromRows(getDataVectors(), getNumNumericalVars(), format, parallel);
+    }
+
     /**
      * Returns the number of features in this data set, which is the sum of {@link #getNumCategoricalVars() } and {@link #getNumNumericalVars() }
      *
@@ -0,0 +1,590 @@
+package jsat;
+
+import java.io.ObjectStreamException;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import jsat.classifiers.CategoricalData;
+import jsat.classifiers.DataPoint;
+import jsat.linear.DenseVector;
+import jsat.linear.FloatDenseVector;
+import jsat.linear.IndexValue;
+import jsat.linear.Vec;
+import jsat.math.OnLineStatistics;
+
+/**
+ * A compact data store for dense data. Instead of keeping an object for every
+ * data point, all numeric values are held in one row-major {@code double[]},
+ * or {@code float[]} if single precision is enough, and each categorical feature is held in a single {@code byte[]}, which is
+ * widened to a {@code short[]} or {@code int[]} only once a value needs it.
+ * <br>
+ * <br>
+ * The data points returned by {@link #getDataPoint(int) } are light weight
+ * views: their numeric vector is backed by the store's array, so reading one
+ * does not copy the values and altering it alters the store. The categorical
+ * values are a copy. A view is no longer backed by the store once the number
+ * of numeric features changes or the store has to grow while adding points.
+ * Use {@link #getNumericColumnView(int) } to work with a whole column without
+ * copying it. <br>
+ * <br>
+ * Sparse inputs are stored densely, so this store should be used for data
+ * that is mostly non-zero. {@link RowMajorStore} or {@link ColumnMajorStore}
+ * are better choices for sparse data.
+ */
+public class PackedStore implements DataStore {
+    /**
+     * The numeric values and how they are laid out, replaced as a whole so
+     * that a reader never sees an array with the wrong width
+     */
+    private volatile Layout layout;
+    private int size;
+    /**
+     * The number of rows there is space for in the layout and each
+     * categorical column
+     */
+    private int capacity;
+    private CatColumn[] cat_columns;
+    private CategoricalData[] cat_info;
+    /**
+     * Guards against changing the layout while another thread is setting
+     * points, as happens when a transform changes the dimension in parallel
+     */
+    private final ReadWriteLock layoutLock = new ReentrantReadWriteLock();
+
+    /**
+     * Creates a new Data Store to add points to, where the number of features
+     * is not known in advance.
+     */
+    public PackedStore() {
+        this(0, null);
+    }
+
+    /**
+     * Creates a new Data Store with the intent for a specific number of
+     * features known ahead of time.
+     *
+     * @param numNumeric the number of numeric features to be in the data store
+     * @param cat_info   the information about the categorical data
+     */
+    public PackedStore(int numNumeric, CategoricalData[] cat_info) {
+        this(numNumeric, cat_info, 16);
+    }
+
+    /**
+     * Creates a new Data Store with the intent for a specific number of
+     * features and data points known ahead of time.
+     *
+     * @param numNumeric the number of numeric features to be in the data store
+     * @param cat_info   the information about the categorical data
+     * @param capacity   the number of data points to allocate space for
+     */
+    public PackedStore(int numNumeric, CategoricalData[] cat_info, int capacity) {
+        this(numNumeric, cat_info, capacity, false);
+    }
+
+    /**
+     * Creates a new Data Store with the intent for a specific number of
+     * features and data points known ahead of time.
+     *
+     * @param numNumeric   the number of numeric features to be in the data store
+     * @param cat_info     the information about the categorical data
+     * @param capacity     the number of data points to allocate space for
+     * @param floatStorage {@code true} to store numeric values in single
+     *                     precision, halving the memory used. The points
+     *                     returned will then have a {@link FloatDenseVector}.
+     */
+    public PackedStore(int numNumeric, CategoricalData[] cat_info, int capacity, boolean floatStorage) {
+        if (numNumeric < 0)
+            throw new IllegalArgumentException("Can not store a negative number of features (" + numNumeric + ")");
+        if (capacity < 0)
+            throw new IllegalArgumentException("Capacity must be non-negative, not " + capacity);
+        this.capacity = capacity;
+        this.layout = new Layout(floatStorage, checkedLength(capacity, numNumeric), numNumeric, null);
+        this.cat_info = cat_info;
+        this.cat_columns = new CatColumn[cat_info == null ? 0 : cat_info.length];
+        for (int j = 0; j < cat_columns.length; j++)
+            cat_columns[j] = new CatColumn(capacity);
+    }
+
+    /**
+     * Copy constructor
+     *
+     * @param toCopy the object to copy
+     */
+    public PackedStore(PackedStore toCopy) {
+        Layout l = toCopy.layout;
+        this.size = toCopy.size;
+        this.capacity = toCopy.size;
+        this.layout = l.resize(size, l.width, size, l.rowLengths);
+        this.cat_columns = new CatColumn[toCopy.cat_columns.length];
+        for (int j = 0; j < cat_columns.length; j++)
+            cat_columns[j] = new CatColumn(toCopy.cat_columns[j], size);
+        if (toCopy.cat_info != null)
+            this.cat_info = CategoricalData.copyOf(toCopy.cat_info);
+    }
+
+    private static int checkedLength(int rows, int cols) {
+        long length = (long) rows * cols;
+        if (length > Integer.MAX_VALUE - 8)
+            throw new IllegalStateException(rows + " data points with " + cols + " numeric features is too many values for a single array");
+        return (int) length;
+    }
+
+    @Override
+    public void setCategoricalDataInfo(CategoricalData[] cat_info) {
+        this.cat_info = cat_info;
+        setNumCategorical(cat_info.length);
+    }
+
+    @Override
+    public CategoricalData[] getCategoricalDataInfo() {
+        return cat_info;
+    }
+
+    /**
+     * Changes the number of categorical columns, new ones are filled with the
+     * missing value indicator.
+     */
+    private void setNumCategorical(int d) {
+        if (d == cat_columns.length)
+            return;
+        int old = cat_columns.length;
+        cat_columns = Arrays.copyOf(cat_columns, d);
+        for (int j = old; j < d; j++) {
+            cat_columns[j] = new CatColumn(capacity);
+            cat_columns[j].fill(0, size, -1);
+        }
+    }
+
+    @Override
+    public void addDataPoint(DataPoint dp) {
+        Vec x = dp.getNumericalValues();
+        int[] x_c = dp.getCategoricalValues();
+        if (x.length() > layout.width)
+            setNumNumeric(x.length());
+        if (x_c.length > cat_columns.length)
+            setNumCategorical(x_c.length);
+
+        if (size == capacity) {
+            Layout l = layout;
+            capacity = Math.max(16, capacity + capacity / 2);
+            layout = l.resize(capacity, l.width, size, l.rowLengths);
+            for (CatColumn col : cat_columns)
+                col.setCapacity(capacity);
+        }
+        int pos = size++;
+        writeRow(pos, x, x_c);
+    }
+
+    @Override
+    public DataPoint getDataPoint(int i) {
+        if (i < 0 || i >= size)
+            throw new IndexOutOfBoundsException("Requested datapoint " + i + " but store has only " + size + " datums");
+        int[] cat = new int[cat_columns.length];
+        for (int j = 0; j < cat.length; j++)
+            cat[j] = cat_columns[j].get(i);
+        Layout l = layout;
+        int start = i * l.width;
+        int length = l.rowLengths == null ? l.width : l.rowLengths[i];
+        Vec x = l.values != null ? new DenseVector(l.values, start, start + length) : new FloatDenseVector(l.fvalues, start, start + length);
+        return new DataPoint(x, cat, cat_info);
+    }
+
+    @Override
+    public void setDataPoint(int i, DataPoint dp) {
+        if (i < 0 || i >= size)
+            throw new IndexOutOfBoundsException("Requested datapoint " + i + " but store has only " + size + " datums");
+        Vec x = dp.getNumericalValues();
+        int[] x_c = dp.getCategoricalValues();
+        if (x.length() > layout.width || x_c.length > cat_columns.length || !catsFit(x_c)) {
+            layoutLock.writeLock().lock();
+            try {
+                if (x.length() > layout.width)//rows not yet set keep their old length
+                    relayout(x.length(), true);
+                if (x_c.length > cat_columns.length)
+                    setNumCategorical(x_c.length);
+                for (int j = 0; j < x_c.length; j++)
+                    cat_columns[j].widen(x_c[j]);
+            } finally {
+                layoutLock.writeLock().unlock();
+            }
+        }
+
+        layoutLock.readLock().lock();
+        try {
+            writeRow(i, x, x_c);
+        } finally {
+            layoutLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return {@code true} if every categorical value can be stored without
+     * widening its column
+     */
+    private boolean catsFit(int[] x_c) {
+        for (int j = 0; j < x_c.length && j < cat_columns.length; j++)
+            if (!cat_columns[j].fits(x_c[j]))
+                return false;
+        return true;
+    }
+
+    /**
+     * Writes the given values into row <tt>i</tt>, the store must already be
+     * large enough to hold them. Features not given are set to zero or the
+     * missing value indicator.
+     */
+    private void writeRow(int i, Vec x, int[] x_c) {
+        Layout l = layout;
+        int start = i * l.width;
+        if (x.isSparse()) {
+            l.zero(start, start + l.width);
+            for (IndexValue iv : x)
+                l.set(start + iv.getIndex(), iv.getValue());
+        } else {
+            //x may be a view of this very row, so each value is read before it is replaced
+            int n = x.length();
+            for (int j = 0; j < n; j++)
+                l.set(start + j, x.get(j));
+            l.zero(start + n, start + l.width);
+        }
+        if (l.rowLengths != null)
+            l.rowLengths[i] = l.width;
+
+        for (int j = 0; j < cat_columns.length; j++)
+            cat_columns[j].set(i, j < x_c.length ? x_c[j] : -1);
+    }
+
+    @Override
+    public void finishAdding() {
+        if (cat_info == null) {
+            cat_info = new CategoricalData[cat_columns.length];
+            for (int j = 0; j < cat_info.length; j++) {
+                int options = 1;
+                for (int i = 0; i < size; i++)
+                    options = Math.max(options, cat_columns[j].get(i) + 1);
+                cat_info[j] = new CategoricalData(options);
+            }
+        }
+    }
+
+    @Override
+    public int numNumeric() {
+        return layout.width;
+    }
+
+    @Override
+    public void setNumNumeric(int d) {
+        if (d < 0)
+            throw new RuntimeException("Can not store a negative number of features (" + d + ")");
+        relayout(d, false);
+    }
+
+    /**
+     * Changes the number of numeric values stored for each row.
+     *
+     * @param d             the new number of numeric features
+     * @param keepOldLength {@code true} if the rows should still report their
+     *                      old number of features until they are set again.
+     *                      This happens when a transform that adds features
+     *                      has only replaced some of the points so far.
+     */
+    private void relayout(int d, boolean keepOldLength) {
+        Layout l = layout;
+        int[] rowLengths = null;
+        if (keepOldLength) {
+            rowLengths = l.rowLengths;
+            if (rowLengths == null) {
+                rowLengths = new int[capacity];
+                Arrays.fill(rowLengths, l.width);
+            }
+        }
+        layout = l.resize(capacity, d, size, rowLengths);
+    }
+
+    @Override
+    public int numCategorical() {
+        return cat_columns.length;
+    }
+
+    /**
+     * Returns a view of the <tt>i</tt>'th numeric column that is backed by
+     * this store, so no values are copied. Altering the returned vector will
+     * alter the data in this store. The view is no longer backed by the store
+     * once the number of numeric features changes or more points are added.
+     *
+     * @param i the <tt>i</tt>'th numerical variable to obtain all values of
+     * @return a vector of length {@link #size() } backed by this store
+     */
+    public Vec getNumericColumnView(int i) {
+        Layout l = layout;
+        if (i < 0 || i >= l.width)
+            throw new IndexOutOfBoundsException("There is no index for column " + i);
+        return new ColumnView(l, i, size);
+    }
+
+    @Override
+    public int[] getCatColumn(int i) {
+        if (i < 0 || i >= numCategorical())
+            throw new IndexOutOfBoundsException("There is no index for column " + i);
+        int[] toRet = new int[size];
+        for (int z = 0; z < size; z++)
+            toRet[z] = cat_columns[i].get(z);
+        return toRet;
+    }
+
+    @Override
+    public Vec[] getNumericColumns(Set<Integer> skipColumns) {
+        Layout l = layout;
+        int numNumeric = l.width;
+        double[][] cols = new double[numNumeric][];
+        for (int j = 0; j < numNumeric; j++)
+            if (!skipColumns.contains(j))
+                cols[j] = new double[size];
+
+        for (int i = 0; i < size; i++) {
+            int start = i * numNumeric;
+            for (int j = 0; j < numNumeric; j++)
+                if (cols[j] != null)
+                    cols[j][i] = l.get(start + j);
+        }
+
+        Vec[] toRet = new Vec[numNumeric];
+        for (int j = 0; j < numNumeric; j++)
+            if (cols[j] != null)
+                toRet[j] = new DenseVector(cols[j]);
+        return toRet;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public OnLineStatistics getSparsityStats() {
+        OnLineStatistics stats = new OnLineStatistics();
+        //every point is stored densely
+        if (size > 0)
+            stats.add(1.0, size);
+        return stats;
+    }
+
+    @Override
+    public PackedStore clone() {
+        return new PackedStore(this);
+    }
+
+    @Override
+    public PackedStore emptyClone() {
+        return new PackedStore(layout.width, cat_info, 16, layout.fvalues != null);
+    }
+
+    /**
+     * The row-major numeric values, where feature <i>j</i> of row <i>i</i> is
+     * at <i>i</i>*{@link #width} + <i>j</i>. Exactly one of {@link #values}
+     * and {@link #fvalues} is used.
+     */
+    private static final class Layout {
+        final double[] values;
+        final float[] fvalues;
+        final int width;
+        /**
+         * The number of features of each row if they are not all
+         * {@link #width}, or {@code null}
+         */
+        final int[] rowLengths;
+
+        Layout(boolean floatStorage, int length, int width, int[] rowLengths) {
+            this.values = floatStorage ? null : new double[length];
+            this.fvalues = floatStorage ? new float[length] : null;
+            this.width = width;
+            this.rowLengths = rowLengths;
+        }
+
+        /**
+         * Creates a new layout with the same values
+         *
+         * @param capacity   the number of rows to make space for
+         * @param width      the number of features of each row
+         * @param size       the number of rows to copy
+         * @param rowLengths the lengths of each row, or {@code null}
+         * @return the new layout
+         */
+        Layout resize(int capacity, int width, int size, int[] rowLengths) {
+            Layout l = new Layout(fvalues != null, checkedLength(capacity, width), width,
+                    rowLengths == null ? null : Arrays.copyOf(rowLengths, capacity));
+            int toCopy = Math.min(width, this.width);
+            for (int i = 0; i < size; i++)
+                if (values != null)
+                    System.arraycopy(values, i * this.width, l.values, i * width, toCopy);
+                else
+                    System.arraycopy(fvalues, i * this.width, l.fvalues, i * width, toCopy);
+            return l;
+        }
+
+        double get(int pos) {
+            return values != null ? values[pos] : fvalues[pos];
+        }
+
+        void set(int pos, double val) {
+            if (values != null)
+                values[pos] = val;
+            else
+                fvalues[pos] = (float) val;
+        }
+
+        void zero(int from, int to) {
+            if (values != null)
+                Arrays.fill(values, from, to, 0.0);
+            else
+                Arrays.fill(fvalues, from, to, 0f);
+        }
+    }
+
+    /**
+     * A categorical column that uses the smallest primitive type able to hold
+     * every value stored so far.
+     */
+    private static final class CatColumn {
+        private byte[] b;
+        private short[] s;
+        private int[] v;
+
+        CatColumn(int capacity) {
+            b = new byte[capacity];
+        }
+
+        CatColumn(CatColumn toCopy, int length) {
+            if (toCopy.b != null)
+                b = Arrays.copyOf(toCopy.b, length);
+            else if (toCopy.s != null)
+                s = Arrays.copyOf(toCopy.s, length);
+            else
+                v = Arrays.copyOf(toCopy.v, length);
+        }
+
+        int get(int i) {
+            if (b != null)
+                return b[i];
+            else if (s != null)
+                return s[i];
+            return v[i];
+        }
+
+        boolean fits(int val) {
+            if (b != null)
+                return val == (byte) val;
+            else if (s != null)
+                return val == (short) val;
+            return true;
+        }
+
+        /**
+         * Changes to a wider type if needed to store the given value
+         */
+        void widen(int val) {
+            if (b != null && val != (byte) val) {
+                s = new short[b.length];
+                for (int z = 0; z < b.length; z++)
+                    s[z] = b[z];
+                b = null;
+            }
+            if (s != null && val != (short) val) {
+                v = new int[s.length];
+                for (int z = 0; z < s.length; z++)
+                    v[z] = s[z];
+                s = null;
+            }
+        }
+
+        void set(int i, int val) {
+            widen(val);
+            if (b != null)
+                b[i] = (byte) val;
+            else if (s != null)
+                s[i] = (short) val;
+            else
+                v[i] = val;
+        }
+
+        void fill(int from, int to, int val) {
+            for (int i = from; i < to; i++)
+                set(i, val);
+        }
+
+        void setCapacity(int capacity) {
+            if (b != null)
+                b = Arrays.copyOf(b, capacity);
+            else if (s != null)
+                s = Arrays.copyOf(s, capacity);
+            else
+                v = Arrays.copyOf(v, capacity);
+        }
+    }
+
+    /**
+     * A view of one column of the row-major values of the store
+     */
+    private static class ColumnView extends Vec {
+        private static final long serialVersionUID = -2830640373613372281L;
+        private final Layout layout;
+        private final int offset;
+        private final int stride;
+        private final int length;
+
+        ColumnView(Layout layout, int offset, int length) {
+            this.layout = layout;
+            this.offset = offset;
+            this.stride = layout.width;
+            this.length = length;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public double get(int index) {
+            if (index < 0 || index >= length)
+                throw new IndexOutOfBoundsException("Index " + index + " is out of bounds for length " + length);
+            return layout.get(offset + index * stride);
+        }
+
+        @Override
+        public void set(int index, double val) {
+            if (index < 0 || index >= length)
+                throw new IndexOutOfBoundsException("Index " + index + " is out of bounds for length " + length);
+            layout.set(offset + index * stride, val);
+        }
+
+        @Override
+        public void setLength(int length) {
+            if (length != this.length)
+                throw new UnsupportedOperationException("The length of a column view can not be changed");
+        }
+
+        @Override
+        public boolean isSparse() {
+            return false;
+        }
+
+        @Override
+        public Vec clone() {
+            double[] copy = new double[length];
+            for (int i = 0; i < length; i++)
+                copy[i] = layout.get(offset + i * stride);
+            return new DenseVector(copy);
+        }
+
+        /**
+         * The view is serialized as a copy
+         */
+        private Object writeReplace() throws ObjectStreamException {
+            return clone();
+        }
+    }
+}
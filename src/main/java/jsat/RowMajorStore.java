@@ -8,6 +8,8 @@ import java.util.Set;
 import jsat.classifiers.CategoricalData;
 import jsat.classifiers.DataPoint;
 import jsat.linear.DenseVector;
+import jsat.linear.FloatDenseVector;
+import jsat.linear.FloatSparseVector;
 import jsat.linear.IndexValue;
 import jsat.linear.SparseVector;
 import jsat.linear.Vec;
@@ -21,6 +23,11 @@ public class RowMajorStore implements DataStore {
     protected int num_numeric = 0;
     protected int num_cat = 0;
     protected CategoricalData[] cat_info;
+    /**
+     * If {@code true}, numeric values are converted to single precision vectors
+     * as they are added
+     */
+    protected boolean floatStorage = false;
 
     /**
      * Creates a new Data Store to add points to, where the number of features is not known in advance.
@@ -42,6 +49,21 @@ public class RowMajorStore implements DataStore {
         datapoints = new ArrayList<>();
     }
 
+    /**
+     * Creates a new Data Store with the intent for a specific number of features known ahead of time.
+     *
+     * @param numNumeric   the number of numeric features to be in the data store
+     * @param cat_info     the information about the categorical data
+     * @param floatStorage {@code true} to store the numeric values of every
+     *                     point in a {@link FloatDenseVector} or
+     *                     {@link FloatSparseVector}, halving the memory used
+     *                     at the cost of precision.
+     */
+    public RowMajorStore(int numNumeric, CategoricalData[] cat_info, boolean floatStorage) {
+        this(numNumeric, cat_info);
+        this.floatStorage = floatStorage;
+    }
+
     public RowMajorStore(List<DataPoint> collection) {
         this(collection.get(0).numNumericalValues(), collection.get(0).getCategoricalData());
         for (DataPoint dp : collection)
@@ -59,10 +81,31 @@ public class RowMajorStore implements DataStore {
             this.cat_info = CategoricalData.copyOf(toCopy.cat_info);
         this.num_cat = toCopy.num_cat;
         this.num_numeric = toCopy.numNumeric();
+        this.floatStorage = toCopy.floatStorage;
+    }
+
+    /**
+     * @return {@code true} if numeric values are stored in single precision
+     */
+    public boolean isFloatStorage() {
+        return floatStorage;
+    }
+
+    /**
+     * Converts the numeric values of the given point to single precision if
+     * this store uses float storage and they are not already.
+     */
+    private DataPoint toStorage(DataPoint dp) {
+        Vec x = dp.getNumericalValues();
+        if (!floatStorage || x instanceof FloatDenseVector || x instanceof FloatSparseVector)
+            return dp;
+        Vec fx = x.isSparse() ? new FloatSparseVector(x) : new FloatDenseVector(x);
+        return new DataPoint(fx, dp.getCategoricalValues(), dp.getCategoricalData());
     }
 
     @Override
     public void addDataPoint(DataPoint dp) {
+        dp = toStorage(dp);
         datapoints.add(dp);
         num_numeric = Math.max(dp.getNumericalValues().length(), num_numeric);
         num_cat = Math.max(dp.getCategoricalValues().length, num_cat);
@@ -81,7 +124,7 @@ public class RowMajorStore implements DataStore {
 
     @Override
     public void setDataPoint(int i, DataPoint dp) {
-        datapoints.set(i, dp);
+        datapoints.set(i, toStorage(dp));
     }
 
     @Override
@@ -184,7 +227,7 @@ public class RowMajorStore implements DataStore {
 
     @Override
     public RowMajorStore emptyClone() {
-        return new RowMajorStore(num_numeric, cat_info);
+        return new RowMajorStore(num_numeric, cat_info, floatStorage);
     }
 
     @Override
@@ -1,9 +1,12 @@
 package jsat.classifiers;
 
+import java.io.IOException;
 import java.util.Collections;
 
+import jsat.io.StreamingDataSource;
 import jsat.utils.IntList;
 import jsat.utils.ListUtils;
+import jsat.utils.concurrent.ParallelUtils;
 
 /**
  * A base implementation of the UpdateableClassifier.
@@ -89,6 +92,49 @@ public abstract class BaseUpdateableClassifier implements UpdateableClassifier {
         }
     }
 
+    /**
+     * Performs training on an updateable classifier by going over the whole
+     * data set in random order one observation at a time, multiple times. If
+     * {@code parallel} is {@code true}, the data set is split between threads
+     * that call {@link UpdateableClassifier#update(jsat.classifiers.DataPoint, double, int) update}
+     * concurrently without any locking, in the style of "Hogwild!". This must
+     * only be used with models whose updates tolerate racing with each other.
+     * See {@link ParallelUtils#runHogwild(boolean, int, int, int, java.util.function.IntConsumer) }.
+     *
+     * @param dataSet      the data set to train from
+     * @param toTrain      the classifier to train
+     * @param epochs       the number of passes through the data set
+     * @param parallel     {@code true} to train with multiple threads
+     * @param maxStaleness the number of updates each thread may make before
+     *                     waiting for all other threads to catch up, or a
+     *                     non-positive value to never wait.
+     */
+    public static void trainEpochs(ClassificationDataSet dataSet, UpdateableClassifier toTrain, int epochs, boolean parallel, int maxStaleness) {
+        if (epochs < 1)
+            throw new IllegalArgumentException("epochs must be positive");
+        toTrain.setUp(dataSet.getCategories(), dataSet.getNumNumericalVars(),
+                dataSet.getPredicting());
+        ParallelUtils.runHogwild(parallel, dataSet.size(), epochs, maxStaleness, i ->
+                toTrain.update(dataSet.getDataPoint(i), dataSet.getWeight(i), dataSet.getDataPointCategory(i)));
+    }
+
+    /**
+     * Performs training on an updateable classifier by reading the data from
+     * a streaming source one row at a time, rather than from a data set held
+     * in memory. The number of passes over the data and the order of the rows
+     * are controlled by the source.
+     *
+     * @param data    the source of the data to train from
+     * @param toTrain the classifier to train
+     * @throws IOException if an error occurred reading the data
+     */
+    public static void trainStreaming(StreamingDataSource<Integer> data, UpdateableClassifier toTrain) throws IOException {
+        if (data.getPredicting() == null)
+            throw new IllegalArgumentException("Source does not contain a classification problem");
+        toTrain.setUp(data.getCategories(), data.getNumNumericalVars(), data.getPredicting());
+        data.forEach(row -> toTrain.update(row.getDataPoint(), row.getWeight(), row.getTarget()));
+    }
+
     @Override
     abstract public UpdateableClassifier clone();
 
@@ -5,6 +5,7 @@ import jsat.SingleWeightVectorModel;
 import jsat.classifiers.BaseUpdateableClassifier;
 import jsat.classifiers.CategoricalData;
 import jsat.classifiers.CategoricalResults;
+import jsat.classifiers.ClassificationDataSet;
 import jsat.classifiers.DataPoint;
 import jsat.classifiers.calibration.BinaryScoreClassifier;
 import jsat.distributions.Distribution;
@@ -45,6 +46,7 @@ public class AROW extends BaseUpdateableClassifier implements BinaryScoreClassif
      */
     private Vec sigmaV;
     private boolean diagonalOnly = false;
+    private int maxStaleness = 0;
     private double r;
 
     /**
@@ -81,6 +83,7 @@ public class AROW extends BaseUpdateableClassifier implements BinaryScoreClassif
     protected AROW(AROW other) {
         this.r = other.r;
         this.diagonalOnly = other.diagonalOnly;
+        this.maxStaleness = other.maxStaleness;
         if (other.w != null)
             this.w = other.w.clone();
         if (other.sigmaM != null)
@@ -113,6 +116,40 @@ public class AROW extends BaseUpdateableClassifier implements BinaryScoreClassif
         return diagonalOnly;
     }
 
+    /**
+     * Sets how far apart the threads may drift when training in parallel. Each
+     * thread will wait for all others after making this many updates. A value
+     * of zero (the default) lets the threads run freely.
+     *
+     * @param maxStaleness the number of updates a thread may make before
+     *                     waiting on the other threads, or zero to never wait
+     */
+    public void setMaxStaleness(int maxStaleness) {
+        if (maxStaleness < 0)
+            throw new IllegalArgumentException("maxStaleness must be non-negative, not " + maxStaleness);
+        this.maxStaleness = maxStaleness;
+    }
+
+    /**
+     * @return the number of updates a thread may make before waiting on the
+     * other threads, or zero if they never wait
+     */
+    public int getMaxStaleness() {
+        return maxStaleness;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <br>
+     * Only the {@link #setDiagonalOnly(boolean) diagonal} version is trained
+     * in parallel, with all threads updating the model without locking. The
+     * full covariance matrix version is always trained serially.
+     */
+    @Override
+    public void train(ClassificationDataSet dataSet, boolean parallel) {
+        trainEpochs(dataSet, this, epochs, parallel && diagonalOnly, maxStaleness);
+    }
+
     /**
      * Sets the r parameter of AROW, which controls the regularization. Larger
      * values reduce the change in the model on each update.
@@ -212,8 +249,8 @@ public class AROW extends BaseUpdateableClassifier implements BinaryScoreClassif
             Matrix.OuterProductUpdate(sigmaM, Sigma_xt, Sigma_xt, -1 / b_t_inv);
         }
 
-        //Zero out temp store
-        if (diagonalOnly)
+        //Zero out temp store, the diagonal version never uses it
+        if (!diagonalOnly)
             Sigma_xt.zeroOut();
     }
 
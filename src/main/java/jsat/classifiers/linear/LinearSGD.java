@@ -7,6 +7,7 @@ import jsat.SimpleWeightVectorModel;
 import jsat.classifiers.BaseUpdateableClassifier;
 import jsat.classifiers.CategoricalData;
 import jsat.classifiers.CategoricalResults;
+import jsat.classifiers.ClassificationDataSet;
 import jsat.classifiers.DataPoint;
 import jsat.distributions.Distribution;
 import jsat.distributions.LogUniform;
@@ -54,6 +55,10 @@ import jsat.regression.UpdateableRegressor;
  * of the ACL and the 4th International Joint Conference on Natural Language
  * Processing of the AFNLP, 1, 477. doi:10.3115/1687878.1687946</li>
  * </ul>
+ * <br>
+ * When trained in parallel, all threads update the same weight vectors
+ * without locking, in the "Hogwild!" style. This works best for sparse data,
+ * where updates rarely overlap.
  *
  * @author Edward Raff
  */
@@ -73,6 +78,7 @@ public class LinearSGD extends BaseUpdateableClassifier implements UpdateableReg
     private double l1U;
     private double[][] l1Q;
     private boolean useBias = true;
+    private int maxStaleness = 0;
 
     /**
      * Creates a new LinearSGD learner for multi-class classification problems.
@@ -125,6 +131,7 @@ public class LinearSGD extends BaseUpdateableClassifier implements UpdateableReg
         this.lambda1 = toClone.lambda1;
         this.l1U = toClone.l1U;
         this.useBias = toClone.useBias;
+        this.maxStaleness = toClone.maxStaleness;
         this.gradientUpdater = toClone.gradientUpdater;
         if (toClone.l1Q != null) {
             this.l1Q = new double[toClone.l1Q.length][];
@@ -282,6 +289,28 @@ public class LinearSGD extends BaseUpdateableClassifier implements UpdateableReg
         return useBias;
     }
 
+    /**
+     * Sets how far apart the threads may drift when training in parallel. Each
+     * thread will wait for all others after making this many updates. A value
+     * of zero (the default) lets the threads run freely.
+     *
+     * @param maxStaleness the number of updates a thread may make before
+     *                     waiting on the other threads, or zero to never wait
+     */
+    public void setMaxStaleness(int maxStaleness) {
+        if (maxStaleness < 0)
+            throw new IllegalArgumentException("maxStaleness must be non-negative, not " + maxStaleness);
+        this.maxStaleness = maxStaleness;
+    }
+
+    /**
+     * @return the number of updates a thread may make before waiting on the
+     * other threads, or zero if they never wait
+     */
+    public int getMaxStaleness() {
+        return maxStaleness;
+    }
+
     @Override
     public LinearSGD clone() {
         return new LinearSGD(this);
@@ -454,9 +483,14 @@ public class LinearSGD extends BaseUpdateableClassifier implements UpdateableReg
         }
     }
 
+    @Override
+    public void train(ClassificationDataSet dataSet, boolean parallel) {
+        BaseUpdateableClassifier.trainEpochs(dataSet, this, getEpochs(), parallel, maxStaleness);
+    }
+
     @Override
     public void train(RegressionDataSet dataSet, boolean parallel) {
-        train(dataSet);
+        BaseUpdateableRegressor.trainEpochs(dataSet, this, getEpochs(), parallel, maxStaleness);
     }
 
     @Override
@@ -24,6 +24,10 @@ import jsat.regression.UpdateableRegressor;
  * <a href="http://dl.acm.org/citation.cfm?id=1248566">
  * <i>Online passive-aggressive algorithms</i></a>. Journal of Machine Learning
  * Research, 7, 551–585.
+ * <br><br>
+ * When trained in parallel, all threads update the same weight vector without
+ * locking, in the "Hogwild!" style. This works best for sparse data, where
+ * updates rarely overlap.
  *
  * @author Edward Raff
  */
@@ -35,6 +39,7 @@ public class PassiveAggressive implements UpdateableClassifier, BinaryScoreClass
     private double eps = 0.001;
     private Vec w;
     private Mode mode;
+    private int maxStaleness = 0;
 
     /**
      * Creates a new Passive Aggressive learner that does 10 epochs and uses
@@ -161,6 +166,28 @@ public class PassiveAggressive implements UpdateableClassifier, BinaryScoreClass
         return epochs;
     }
 
+    /**
+     * Sets how far apart the threads may drift when training in parallel. Each
+     * thread will wait for all others after making this many updates. A value
+     * of zero (the default) lets the threads run freely.
+     *
+     * @param maxStaleness the number of updates a thread may make before
+     *                     waiting on the other threads, or zero to never wait
+     */
+    public void setMaxStaleness(int maxStaleness) {
+        if (maxStaleness < 0)
+            throw new IllegalArgumentException("maxStaleness must be non-negative, not " + maxStaleness);
+        this.maxStaleness = maxStaleness;
+    }
+
+    /**
+     * @return the number of updates a thread may make before waiting on the
+     * other threads, or zero if they never wait
+     */
+    public int getMaxStaleness() {
+        return maxStaleness;
+    }
+
     @Override
     public Vec getRawWeight() {
         return w;
@@ -210,7 +237,7 @@ public class PassiveAggressive implements UpdateableClassifier, BinaryScoreClass
 
     @Override
     public void train(ClassificationDataSet dataSet, boolean parallel) {
-        train(dataSet);
+        BaseUpdateableClassifier.trainEpochs(dataSet, this, epochs, parallel, maxStaleness);
     }
 
     @Override
@@ -286,7 +313,7 @@ public class PassiveAggressive implements UpdateableClassifier, BinaryScoreClass
 
     @Override
     public void train(RegressionDataSet dataSet, boolean parallel) {
-        train(dataSet);
+        BaseUpdateableRegressor.trainEpochs(dataSet, this, epochs, parallel, maxStaleness);
     }
 
     @Override
@@ -299,6 +326,7 @@ public class PassiveAggressive implements UpdateableClassifier, BinaryScoreClass
         PassiveAggressive clone = new PassiveAggressive(epochs, mode);
         clone.eps = this.eps;
         clone.C = this.C;
+        clone.maxStaleness = this.maxStaleness;
         if (this.w != null)
             clone.w = this.w;
 
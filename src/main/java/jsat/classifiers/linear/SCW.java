@@ -3,6 +3,7 @@ package jsat.classifiers.linear;
 import jsat.classifiers.BaseUpdateableClassifier;
 import jsat.classifiers.CategoricalData;
 import jsat.classifiers.CategoricalResults;
+import jsat.classifiers.ClassificationDataSet;
 import jsat.classifiers.DataPoint;
 import jsat.distributions.Normal;
 import jsat.exceptions.FailedToFitException;
@@ -76,6 +77,7 @@ public class SCW extends BaseUpdateableClassifier implements BinaryScoreClassifi
     private Vec Sigma_xt;
 
     private boolean diagonalOnly = false;
+    private int maxStaleness = 0;
 
     /**
      * More than one escape point, makes sure to zero out {@link #Sigma_xt}
@@ -142,6 +144,7 @@ public class SCW extends BaseUpdateableClassifier implements BinaryScoreClassifi
     protected SCW(SCW other) {
         this.C = other.C;
         this.diagonalOnly = other.diagonalOnly;
+        this.maxStaleness = other.maxStaleness;
         this.mode = other.mode;
         this.setEta(other.eta);
         if (other.w != null)
@@ -246,6 +249,40 @@ public class SCW extends BaseUpdateableClassifier implements BinaryScoreClassifi
         return diagonalOnly;
     }
 
+    /**
+     * Sets how far apart the threads may drift when training in parallel. Each
+     * thread will wait for all others after making this many updates. A value
+     * of zero (the default) lets the threads run freely.
+     *
+     * @param maxStaleness the number of updates a thread may make before
+     *                     waiting on the other threads, or zero to never wait
+     */
+    public void setMaxStaleness(int maxStaleness) {
+        if (maxStaleness < 0)
+            throw new IllegalArgumentException("maxStaleness must be non-negative, not " + maxStaleness);
+        this.maxStaleness = maxStaleness;
+    }
+
+    /**
+     * @return the number of updates a thread may make before waiting on the
+     * other threads, or zero if they never wait
+     */
+    public int getMaxStaleness() {
+        return maxStaleness;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <br>
+     * Only the {@link #setDiagonalOnly(boolean) diagonal} version is trained
+     * in parallel, with all threads updating the model without locking. The
+     * full covariance matrix version is always trained serially.
+     */
+    @Override
+    public void train(ClassificationDataSet dataSet, boolean parallel) {
+        trainEpochs(dataSet, this, epochs, parallel && diagonalOnly, maxStaleness);
+    }
+
     /**
      * Returns the weight vector used to compute results via a dot product. <br>
      * Do not modify this value, or you will alter the results returned.
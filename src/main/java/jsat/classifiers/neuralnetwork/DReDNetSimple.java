@@ -4,7 +4,6 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
 
 import jsat.classifiers.CategoricalResults;
 import jsat.classifiers.ClassificationDataSet;
@@ -22,7 +21,6 @@ import jsat.math.optimization.stochastic.AdaDelta;
 import jsat.parameters.Parameterized;
 import jsat.utils.IntList;
 import jsat.utils.ListUtils;
-import jsat.utils.concurrent.ParallelUtils;
 
 /**
  * This class provides a neural network based on Geoffrey Hinton's
@@ -141,8 +139,6 @@ public class DReDNetSimple implements Classifier, Parameterized {
         List<Vec> Xmini = new ArrayList<>(batchSize);
         List<Vec> Ymini = new ArrayList<>(batchSize);
 
-        ExecutorService threadPool = ParallelUtils.getNewExecutor(parallel);
-
         for (int epoch = 0; epoch < epochs; epoch++) {
             long start = System.currentTimeMillis();
             double epochError = 0;
@@ -152,16 +148,11 @@ public class DReDNetSimple implements Classifier, Parameterized {
                 Xmini.clear();
                 Ymini.clear();
                 for (int j = i; j < to; j++) {
-                    Xmini.add(X.get(j));
-                    Ymini.add(Y.get(j));
+                    Xmini.add(X.get(randOrder.getI(j)));
+                    Ymini.add(Y.get(randOrder.getI(j)));
                 }
 
-                double localErr;
-                if (parallel)
-                    localErr = network.updateMiniBatch(Xmini, Ymini, threadPool);
-                else
-                    localErr = network.updateMiniBatch(Xmini, Ymini);
-                epochError += localErr;
+                epochError += network.updateMiniBatch(Xmini, Ymini, parallel);
             }
             long end = System.currentTimeMillis();
 //            System.out.println("Epoch " + epoch + " had error " + epochError + " took " + (end-start)/1000.0 + " seconds");
@@ -19,6 +19,7 @@ import jsat.classifiers.neuralnetwork.regularizers.Max2NormRegularizer;
 import jsat.classifiers.neuralnetwork.regularizers.WeightRegularizer;
 import jsat.linear.DenseMatrix;
 import jsat.linear.DenseVector;
+import jsat.linear.IndexValue;
 import jsat.linear.Matrix;
 import jsat.linear.Vec;
 import jsat.math.decayrates.DecayRate;
@@ -26,12 +27,21 @@ import jsat.math.decayrates.NoDecay;
 import jsat.math.optimization.stochastic.GradientUpdater;
 import jsat.math.optimization.stochastic.SimpleSGD;
 import jsat.utils.SystemInfo;
+import jsat.utils.concurrent.ParallelUtils;
 import jsat.utils.random.RandomUtil;
 
 /**
  * This class provides a highly configurable and generalized method of training
  * a neural network using Stochastic Gradient Decent.<br>
  * <br>
+ * Mini-batches can be trained in parallel in two ways. Passing an
+ * {@link ExecutorService} splits the matrix operations of the whole mini-batch
+ * between threads. Passing {@code parallel = true} instead splits the
+ * mini-batch itself into one micro-batch per thread, each processed
+ * independently with its own buffers, and then sums their gradients before
+ * updating the shared weights. The data-parallel mode synchronizes far less
+ * often, and is usually faster for small networks and large batches.<br>
+ * <br>
  * Note, the API of this class may change in the future.
  *
  * @author Edward Raff
@@ -131,6 +141,12 @@ public class SGDNetworkTrainer implements Serializable {
     private Matrix[] activations;
     private Matrix[] unactivated;
     private Matrix[] deltas;
+    /**
+     * The buffers used by each thread for
+     * {@link #updateMiniBatch(java.util.List, java.util.List, boolean) },
+     * created as needed and reused for every mini-batch
+     */
+    private transient Workspace[] workspaces;
 
     /**
      * Creates a new SGD network training that uses dropout
@@ -178,7 +194,7 @@ public class SGDNetworkTrainer implements Serializable {
                 for (GradientUpdater item : updaters)
                     copyUpdaters.add(item.clone());
             }
-            this.B_updaters = new ArrayList<GradientUpdater>(toCopy.B_updaters);
+            this.B_updaters = new ArrayList<GradientUpdater>(toCopy.B_updaters.size());
             for (GradientUpdater item : toCopy.B_updaters)
                 this.B_updaters.add(item.clone());
         }
@@ -411,7 +427,7 @@ public class SGDNetworkTrainer implements Serializable {
         activations = new Matrix[layersActivation.size()];
         unactivated = new Matrix[layersActivation.size()];
         deltas = new Matrix[layersActivation.size()];
-
+        workspaces = null;
     }
 
     /**
@@ -425,6 +441,7 @@ public class SGDNetworkTrainer implements Serializable {
         B_deltas = null;
         B_updaters = null;
         activations = unactivated = deltas = null;
+        workspaces = null;
         W.get(0).mutableMultiply(1.0 - p_i);
         B.get(0).mutableMultiply(1.0 - p_i);
         for (int i = 1; i < W.size(); i++) {
@@ -442,7 +459,66 @@ public class SGDNetworkTrainer implements Serializable {
      * @return the error incurred on the given mini batch
      */
     public double updateMiniBatch(List<Vec> x, List<Vec> y) {
-        return updateMiniBatch(x, y, null);
+        return updateMiniBatch(x, y, false);
+    }
+
+    /**
+     * Performs a mini-batch update of the network using the given input and
+     * output pairs. When done in parallel, the mini-batch is split into a
+     * micro-batch for each thread. Every thread feeds its micro-batch forward
+     * and back-propagates the error using its own buffers, and their gradients
+     * are then summed to update the weights. The buffers are kept between
+     * calls, so no memory is allocated unless the mini-batch size changes.
+     *
+     * @param x        the list of input values
+     * @param y        the list of output values
+     * @param parallel {@code true} to split the mini-batch between threads
+     * @return the error incurred on the given mini batch
+     */
+    public double updateMiniBatch(List<Vec> x, List<Vec> y, boolean parallel) {
+        return updateMiniBatch(x, y, parallel ? SystemInfo.LogicalCores : 1);
+    }
+
+    /**
+     * Performs a data-parallel mini-batch update with a specific number of
+     * threads.
+     *
+     * @param x       the list of input values
+     * @param y       the list of output values
+     * @param threads the number of micro-batches to split the mini-batch into
+     * @return the error incurred on the given mini batch
+     */
+    double updateMiniBatch(List<Vec> x, List<Vec> y, int threads) {
+        final int n = x.size();
+        final int P = Math.max(1, Math.min(threads, n));
+        if (workspaces == null || workspaces.length < P) {
+            Workspace[] old = workspaces;
+            workspaces = new Workspace[P];
+            for (int i = 0; i < P; i++)
+                workspaces[i] = old != null && i < old.length ? old[i] : new Workspace(i == 0);
+        }
+
+        final double invN = 1.0 / n;
+        ParallelUtils.run(P > 1, P, (start, end) ->
+        {
+            for (int id = start; id < end; id++) {
+                int from = ParallelUtils.getStartBlock(n, id, P);
+                int to = ParallelUtils.getEndBlock(n, id, P);
+                workspaces[id].process(x.subList(from, to), y.subList(from, to), invN);
+            }
+        }, ParallelUtils.CACHED_THREAD_POOL);
+
+        double errorMade = 0;
+        for (int id = 0; id < P; id++)
+            errorMade += workspaces[id].error;
+
+        double eta_cur = etaDecay.rate(time++, eta);
+        if (P == 1)
+            applyGradient(eta_cur);
+        else
+            applyGradient(eta_cur, P);
+
+        return errorMade;
     }
 
     /**
@@ -456,6 +532,8 @@ public class SGDNetworkTrainer implements Serializable {
      * @return the error incurred on the given mini batch
      */
     public double updateMiniBatch(List<Vec> x, List<Vec> y, ExecutorService ex) {
+        if (ex == null)
+            return updateMiniBatch(x, y, false);
         Random rand = RandomUtil.getRandom();
         for (Matrix w : W_deltas)
             w.zeroOut();
@@ -485,7 +563,7 @@ public class SGDNetworkTrainer implements Serializable {
 
         errorMade = backpropagateError(deltas, activations, x, y, errorMade, ex, unactivated);
 
-        accumulateUpdates(X, activations, deltas, ex, x);
+        accumulateUpdates(X, activations, deltas, ex, 1.0 / x.size(), W_deltas, B_deltas);
 
         double eta_cur = etaDecay.rate(time++, eta);
         if (ex == null) applyGradient(eta_cur);
@@ -593,17 +671,25 @@ public class SGDNetworkTrainer implements Serializable {
         return errorMade;
     }
 
-    private void accumulateUpdates(Matrix X, Matrix[] activationsM, Matrix[] deltasM, ExecutorService ex, final List<Vec> x) {
-        final double invXsize = 1.0 / x.size();
+    /**
+     * Adds the gradients of the weights and biases to the given matrices and
+     * vectors, which should be zeroed out beforehand.
+     *
+     * @param invXsize the value to scale the gradients by, normally one over
+     *                 the mini-batch size
+     * @param W_d      the matrices to store the weight gradients in
+     * @param B_d      the vectors to store the bias gradients in
+     */
+    private void accumulateUpdates(Matrix X, Matrix[] activationsM, Matrix[] deltasM, ExecutorService ex, final double invXsize, List<Matrix> W_d, List<Vec> B_d) {
         //accumulate updates
         for (int l = 0; l < layersActivation.size(); l++) {
             final Matrix a_lprev = (l == 0 ? X : activationsM[(l - 1)]);
             final Matrix delta_l = deltasM[l];
-            if (ex == null) delta_l.multiplyTranspose(a_lprev, W_deltas.get(l));
-            else delta_l.multiplyTranspose(a_lprev, W_deltas.get(l), ex);
-            W_deltas.get(l).mutableMultiply(invXsize);
+            if (ex == null) delta_l.multiplyTranspose(a_lprev, W_d.get(l));
+            else delta_l.multiplyTranspose(a_lprev, W_d.get(l), ex);
+            W_d.get(l).mutableMultiply(invXsize);
 
-            final Vec B_delta_l = B_deltas.get(l);
+            final Vec B_delta_l = B_d.get(l);
             if (ex == null) for (int i = 0; i < delta_l.rows(); i++) {
                 double change = 0;
                 for (int j = 0; j < delta_l.cols(); j++)
@@ -651,6 +737,39 @@ public class SGDNetworkTrainer implements Serializable {
         }
     }
 
+    /**
+     * Sums the gradients of the first {@code P} workspaces and applies them,
+     * splitting the rows of each layer between threads.
+     *
+     * @param eta_cur the learning rate to use
+     * @param P       the number of workspaces with gradients
+     */
+    private void applyGradient(final double eta_cur, final int P) {
+        for (int l = 0; l < layersActivation.size(); l++) {
+            final int L = l;
+            final Matrix W_l = W.get(l);
+            final Matrix W_dl = W_deltas.get(l);
+            final Vec B_l = B.get(l);
+            final Vec B_dl = B_deltas.get(l);
+            //the first workspace's gradients are W_deltas and B_deltas
+            for (int id = 1; id < P; id++)
+                B_dl.mutableAdd(workspaces[id].B_grad.get(l));
+            B_updaters.get(l).update(B_l, B_dl, eta_cur);
+
+            ParallelUtils.run(true, W_l.rows(), (start, end) ->
+            {
+                for (int i = start; i < end; i++) {
+                    Vec W_dli = W_dl.getRowView(i);
+                    for (int id = 1; id < P; id++)
+                        W_dli.mutableAdd(workspaces[id].W_grad.get(L).getRowView(i));
+                    Vec W_li = W_l.getRowView(i);
+                    W_updaters.get(L).get(i).update(W_li, W_dli, eta_cur);
+                    B_l.set(i, regularizer.applyRegularizationToRow(W_li, B_l.get(i)));
+                }
+            }, ParallelUtils.CACHED_THREAD_POOL);
+        }
+    }
+
     private void applyGradient(final double eta_cur, ExecutorService ex) {
         List<Future<?>> futures = new ArrayList<Future<?>>();
         //apply gradient
@@ -718,6 +837,75 @@ public class SGDNetworkTrainer implements Serializable {
         }
     }
 
+    /**
+     * The buffers one thread needs to process a micro-batch. They are
+     * reallocated only when the size of the micro-batch changes.
+     */
+    private class Workspace {
+        final Random rand = RandomUtil.getRandom();
+        final List<Matrix> W_grad;
+        final List<Vec> B_grad;
+        Matrix X;
+        final Matrix[] activations = new Matrix[layersActivation.size()];
+        final Matrix[] unactivated = new Matrix[layersActivation.size()];
+        final Matrix[] deltas = new Matrix[layersActivation.size()];
+        double error;
+
+        /**
+         * @param shared {@code true} if the gradients should be stored directly
+         *               in {@link #W_deltas} and {@link #B_deltas}
+         */
+        Workspace(boolean shared) {
+            if (shared) {
+                W_grad = W_deltas;
+                B_grad = B_deltas;
+            } else {
+                W_grad = new ArrayList<>(W_deltas.size());
+                B_grad = new ArrayList<>(B_deltas.size());
+                for (int l = 1; l < layerSizes.length; l++) {
+                    W_grad.add(new DenseMatrix(layerSizes[l], layerSizes[l - 1]));
+                    B_grad.add(new DenseVector(layerSizes[l]));
+                }
+            }
+        }
+
+        /**
+         * Computes the error and gradients of a micro-batch
+         *
+         * @param x    the inputs of the micro-batch
+         * @param y    the outputs of the micro-batch
+         * @param invN one over the size of the whole mini-batch
+         */
+        void process(List<Vec> x, List<Vec> y, double invN) {
+            final int n = x.size();
+            if (X == null || X.cols() != n) {
+                X = new DenseMatrix(layerSizes[0], n);
+                for (int i = 0; i < activations.length; i++) {
+                    activations[i] = new DenseMatrix(layerSizes[i + 1], n);
+                    unactivated[i] = new DenseMatrix(layerSizes[i + 1], n);
+                    deltas[i] = new DenseMatrix(layerSizes[i + 1], n);
+                }
+            }
+            for (Matrix w : W_grad)
+                w.zeroOut();
+            for (Vec b : B_grad)
+                b.zeroOut();
+            error = 0;
+            if (n == 0)
+                return;
+
+            X.zeroOut();
+            for (int j = 0; j < n; j++)
+                for (IndexValue iv : x.get(j))
+                    X.set(iv.getIndex(), j, iv.getValue());
+            if (p_i > 0) applyDropout(X, p_i_intThresh, rand, null);
+
+            feedforward(X, activations, unactivated, null, rand);
+            error = backpropagateError(deltas, activations, x, y, 0, null, unactivated);
+            accumulateUpdates(X, activations, deltas, null, invN, W_grad, B_grad);
+        }
+    }
+
     @Override
     protected SGDNetworkTrainer clone() {
         return new SGDNetworkTrainer(this);
@@ -1,6 +1,7 @@
 package jsat.classifiers.svm;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import jsat.DataSet;
 import jsat.SingleWeightVectorModel;
@@ -13,6 +14,7 @@ import jsat.linear.*;
 import jsat.parameters.Parameterized;
 import jsat.utils.IntList;
 import jsat.utils.ListUtils;
+import jsat.utils.concurrent.ParallelUtils;
 
 /**
  * Implements the linear kernel mini-batch version of the Pegasos SVM
@@ -24,6 +26,11 @@ import jsat.utils.ListUtils;
  * Estimated sub-GrAdient SOlver for SVM</i>. 24th international conference on
  * Machine learning (pp. 807–814). New York, NY: ACM.
  * doi:10.1145/1273496.1273598
+ * <br><br>
+ * When trained in parallel without the {@link #setProjectionStep(boolean)
+ * projection step}, all threads update the same weight vector without locking,
+ * in the "Hogwild!" style. The mini-batches are then drawn once before
+ * training, rather than every epoch.
  *
  * @author Edward Raff
  */
@@ -34,6 +41,7 @@ public class Pegasos implements BinaryScoreClassifier, Parameterized, SingleWeig
     private double reg;
     private int batchSize;
     private boolean projectionStep = false;
+    private int maxStaleness = 0;
     private Vec w;
     private double bias;
 
@@ -83,6 +91,7 @@ public class Pegasos implements BinaryScoreClassifier, Parameterized, SingleWeig
             this.w = toCopy.w.clone();
         this.bias = toCopy.bias;
         this.projectionStep = toCopy.projectionStep;
+        this.maxStaleness = toCopy.maxStaleness;
     }
 
     /**
@@ -146,6 +155,28 @@ public class Pegasos implements BinaryScoreClassifier, Parameterized, SingleWeig
         return projectionStep;
     }
 
+    /**
+     * Sets how far apart the threads may drift when training in parallel. Each
+     * thread will wait for all others after making this many updates. A value
+     * of zero (the default) lets the threads run freely.
+     *
+     * @param maxStaleness the number of updates a thread may make before
+     *                     waiting on the other threads, or zero to never wait
+     */
+    public void setMaxStaleness(int maxStaleness) {
+        if (maxStaleness < 0)
+            throw new IllegalArgumentException("maxStaleness must be non-negative, not " + maxStaleness);
+        this.maxStaleness = maxStaleness;
+    }
+
+    /**
+     * @return the number of updates a thread may make before waiting on the
+     * other threads, or zero if they never wait
+     */
+    public int getMaxStaleness() {
+        return maxStaleness;
+    }
+
     /**
      * Sets the regularization constant used for learning. The regularization
      * must be positive, and the learning rate is proportional to the
@@ -224,20 +255,29 @@ public class Pegasos implements BinaryScoreClassifier, Parameterized, SingleWeig
 
     @Override
     public void train(ClassificationDataSet dataSet, boolean parallel) {
-        train(dataSet);
+        if (!parallel || projectionStep) {
+            train(dataSet);
+            return;
+        }
+        setUpTraining(dataSet);
+        final int m = dataSet.size();
+        IntList randOrder = new IntList(m);
+        ListUtils.addRange(randOrder, 0, m, 1);
+        Collections.shuffle(randOrder);
+
+        final AtomicInteger t = new AtomicInteger();
+        final int batches = (m + batchSize - 1) / batchSize;
+        ParallelUtils.runHogwild(true, batches, epochs, maxStaleness, b ->
+        {
+            List<Integer> miniBatch = new IntList(randOrder.subList(b * batchSize, Math.min((b + 1) * batchSize, m)));
+            performUpdate(dataSet, miniBatch, t.incrementAndGet());
+        });
     }
 
     @Override
     public void train(ClassificationDataSet dataSet) {
-        if (dataSet.getClassSize() != 2)
-            throw new FailedToFitException("SVM only supports binary classificaiton problems");
+        setUpTraining(dataSet);
         final int m = dataSet.size();
-        w = new DenseVector(dataSet.getNumNumericalVars());
-        if (projectionStep)
-            w = new VecWithNorm(w, 0.0);
-        w = new ScaledVector(w);
-        bias = 0;
-
 
         IntList miniBatch = new IntList(batchSize);
         IntList randOrder = new IntList(m);
@@ -252,36 +292,61 @@ public class Pegasos implements BinaryScoreClassifier, Parameterized, SingleWeig
                 t++;
                 miniBatch.clear();
                 miniBatch.addAll(randOrder.subList(indx, Math.min(indx + batchSize, m)));
-                //Filter to only the points that have the correct label
-                Iterator<Integer> iter = miniBatch.iterator();
-                while (iter.hasNext()) {
-                    int i = iter.next();
-                    if (getSign(dataSet, i) * (w.dot(getX(dataSet, i)) + bias) >= 1)
-                        iter.remove();
-                }
-
-                final double nt = 1.0 / (reg * t);
-
-                w.mutableMultiply(1.0 - nt * reg);
-
-                for (int i : miniBatch) {
-                    double sign = getSign(dataSet, i);
-                    Vec x = getX(dataSet, i);
-                    final double s = sign * nt / batchSize;
-                    w.mutableAdd(s, x);
-                    bias += s;
-                }
-
-                if (projectionStep) {
-                    double norm = w.pNorm(2);
-                    double mult = Math.min(1, 1.0 / (Math.sqrt(reg) * norm));
-                    w.mutableMultiply(mult);
-                    bias *= mult;
-                }
+                performUpdate(dataSet, miniBatch, t);
             }
         }
     }
 
+    private void setUpTraining(ClassificationDataSet dataSet) {
+        if (dataSet.getClassSize() != 2)
+            throw new FailedToFitException("SVM only supports binary classificaiton problems");
+        w = new DenseVector(dataSet.getNumNumericalVars());
+        if (projectionStep)
+            w = new VecWithNorm(w, 0.0);
+        w = new ScaledVector(w);
+        bias = 0;
+    }
+
+    /**
+     * Performs one update of the model from a mini-batch
+     *
+     * @param dataSet   the data set being trained on
+     * @param miniBatch the indices of the points in the mini-batch, which will
+     *                  be altered
+     * @param t         the iteration number, starting from 1
+     */
+    private void performUpdate(ClassificationDataSet dataSet, List<Integer> miniBatch, int t) {
+        //Filter to only the points that have the correct label
+        Iterator<Integer> iter = miniBatch.iterator();
+        while (iter.hasNext()) {
+            int i = iter.next();
+            if (getSign(dataSet, i) * (w.dot(getX(dataSet, i)) + bias) >= 1)
+                iter.remove();
+        }
+
+        final double nt = 1.0 / (reg * t);
+
+        //the first step would scale by zero, but w is still zero. Skipping it
+        //also keeps a zero scale from being seen by other threads
+        if (t > 1)
+            w.mutableMultiply(1.0 - nt * reg);
+
+        for (int i : miniBatch) {
+            double sign = getSign(dataSet, i);
+            Vec x = getX(dataSet, i);
+            final double s = sign * nt / batchSize;
+            w.mutableAdd(s, x);
+            bias += s;
+        }
+
+        if (projectionStep) {
+            double norm = w.pNorm(2);
+            double mult = Math.min(1, 1.0 / (Math.sqrt(reg) * norm));
+            w.mutableMultiply(mult);
+            bias *= mult;
+        }
+    }
+
     @Override
     public boolean supportsWeightedData() {
         return false;
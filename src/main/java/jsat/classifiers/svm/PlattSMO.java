@@ -3,6 +3,7 @@ package jsat.classifiers.svm;
 import static java.lang.Math.*;
 
 import java.util.*;
+import java.util.concurrent.ExecutorService;
 
 import jsat.DataSet;
 import jsat.classifiers.*;
@@ -20,6 +21,7 @@ import jsat.parameters.*;
 import jsat.parameters.Parameter.WarmParameter;
 import jsat.regression.*;
 import jsat.utils.ListUtils;
+import jsat.utils.concurrent.ParallelUtils;
 
 /**
  * An implementation of SVMs using Platt's Sequential Minimum Optimization (SMO)
@@ -29,7 +31,11 @@ import jsat.utils.ListUtils;
  * algorithm implementing the {@link BinaryScoreClassifier} interface. For
  * regression any algorithm can be used as a warms start. For best results, warm
  * starts should be from algorithms that will have a similar solution to
- * PlattSMO.
+ * PlattSMO. <br>
+ * <br>
+ * For classification, a {@link #setSecondOrder(boolean) second order} solver
+ * with shrinking can be used instead, which is usually faster on larger
+ * problems and can make use of multiple threads.
  * <br><br>
  * See:<br>
  * <ul>
@@ -50,6 +56,9 @@ import jsat.utils.ListUtils;
  * . <i>Improvements to the SMO algorithm for SVM regression</i>. IEEE
  * transactions on neural networks / a publication of the IEEE Neural Networks
  * Council, 11(5), 1188–93. doi:10.1109/72.870050</li>
+ * <li>Fan, R.-E., Chen, P.-H.,&amp;Lin, C.-J. (2005). <i>Working Set Selection
+ * Using Second Order Information for Training Support Vector Machines</i>.
+ * Journal of Machine Learning Research, 6, 1889–1918.</li>
  * </ul>
  *
  * @author Edward Raff
@@ -68,6 +77,18 @@ public class PlattSMO extends SupportVectorLearner implements BinaryScoreClassif
 
     private int maxIterations = 10000;
     private boolean modificationOne = true;
+    private boolean secondOrder = false;
+    private boolean shrinking = true;
+
+    /**
+     * Ensures that the second order solver only spreads work over threads
+     * when there is enough of it to be worth the overhead
+     */
+    private static final int PARALLEL_MIN_WORK = 4096;
+    /**
+     * Used in place of a non-positive curvature in the second order solver
+     */
+    private static final double TAU = 1e-12;
 
     protected double[] fcache;
 
@@ -165,22 +186,25 @@ public class PlattSMO extends SupportVectorLearner implements BinaryScoreClassif
 
     @Override
     public void train(ClassificationDataSet dataSet, Classifier warmSolution, boolean parallel) {
-        train(dataSet, warmSolution);
+        if (secondOrder)
+            trainC_secondOrder(dataSet, warmSolution, parallel);
+        else
+            trainC_warm_and_normal(dataSet, warmSolution);
     }
 
     @Override
     public void train(ClassificationDataSet dataSet, boolean parallel) {
-        train(dataSet);
+        train(dataSet, null, parallel);
     }
 
     @Override
     public void train(ClassificationDataSet dataSet, Classifier warmSolution) {
-        trainC_warm_and_normal(dataSet, warmSolution);
+        train(dataSet, warmSolution, false);
     }
 
     @Override
     public void train(ClassificationDataSet dataSet) {
-        trainC_warm_and_normal(dataSet, null);
+        train(dataSet, null, false);
     }
 
     private void trainC_warm_and_normal(ClassificationDataSet dataSet, Classifier warmSolution) {
@@ -236,49 +260,7 @@ public class PlattSMO extends SupportVectorLearner implements BinaryScoreClassif
         if (warmSolution instanceof PlattSMO || warmSolution instanceof BinaryScoreClassifier) {
             examinAll = false;
 
-            WarmScope:
-//We need to use one of the methods to detemrine if the model is a fit
-            {
-                if (warmSolution instanceof PlattSMO) {
-                    //if this SMO object was learend on the same data, we can get a very good guess on C
-                    PlattSMO warmSMO = (PlattSMO) warmSolution;
-
-                    //first, we need to make sure we were actually trained on the same data
-                    //TODO find a better way to ensure this is true, it is POSSIBLE that we could have same labels and different data
-                    if (warmSMO.alphas == null)//whats going on? just break out
-                        break WarmScope;
-                    boolean sameData = alphas.length == warmSMO.alphas.length;
-                    if (sameData)
-                        for (int i = 0; i < this.label.length && sameData; i++)
-                            //copy sign used so that -0.0 gets picked up as -1.0 and 0.0 as 1.0
-                            if (this.label[i] != Math.copySign(1.0, warmSMO.alphas[i]))
-                                sameData = false;
-
-                    if (sameData) {
-                        double C_prev = warmSMO.C;
-                        double multiplier = this.C / C_prev;
-                        for (int i = 0; i < vecs.size(); i++)
-                            this.alphas[i] = fuzzyClamp(multiplier * Math.abs(warmSMO.alphas[i]), this.C);
-                        break WarmScope;//init sucessful
-                    }
-                    //else, fall through and let 2nd case cick in
-                }
-
-                //last case, should be true
-                if (warmSolution instanceof BinaryScoreClassifier) {
-                    //In this case we can take a decent guess at the values of alpha
-                    BinaryScoreClassifier warmSC = (BinaryScoreClassifier) warmSolution;
-
-                    for (int i = 0; i < vecs.size(); i++) {
-                        //get the loss, normaly wrapped by max(x, 0), but that will be handled by the clamp
-                        double guess = 1 - label[i] * warmSC.getScore(dataSet.getDataPoint(i));
-                        this.alphas[i] = fuzzyClamp(C * guess, C);
-                    }
-                } else//how did this happen?
-                {
-                    throw new FailedToFitException("BUG: Should not have been able to reach");
-                }
-            }
+            warmStartAlphas(dataSet, warmSolution);
             fcache[i_up] = 0;
             fcache[i_low] = 0;
             for (int i = 0; i < vecs.size(); i++) {
@@ -380,6 +362,509 @@ public class PlattSMO extends SupportVectorLearner implements BinaryScoreClassif
         setAlphas(alphas);
     }
 
+    /**
+     * Trains the classifier using the second order working set selection of
+     * Fan et al. with shrinking of the active set, as used by LIBSVM. The
+     * kernel rows and the gradient updates over the active set are spread
+     * over multiple threads when {@code parallel} is {@code true}.
+     *
+     * @param dataSet      the data set to train on
+     * @param warmSolution the warm start solution, or {@code null}
+     * @param parallel     {@code true} to use multiple threads
+     */
+    private void trainC_secondOrder(ClassificationDataSet dataSet, Classifier warmSolution, boolean parallel) {
+        if (dataSet.getClassSize() != 2)
+            throw new FailedToFitException("SVM does not support non binary decisions");
+
+        final int N = dataSet.size();
+        vecs = new ArrayList<Vec>(N);
+        label = new double[N];
+        weights = new DenseVector(N);
+        boolean allWeightsAreOne = true;
+        for (int i = 0; i < N; i++) {
+            vecs.add(dataSet.getDataPoint(i).getNumericalValues());
+            weights.set(i, dataSet.getWeight(i));
+            if (dataSet.getWeight(i) != 1)
+                allWeightsAreOne = false;
+            label[i] = dataSet.getDataPointCategory(i) == 0 ? -1 : 1;
+        }
+        if (allWeightsAreOne)
+            weights = new ConstantVector(1.0, N);
+
+        setCacheMode(getCacheMode());//Initiates the cahce
+        alphas = new double[N];
+        if (warmSolution instanceof PlattSMO || warmSolution instanceof BinaryScoreClassifier)
+            warmStartAlphas(dataSet, warmSolution);
+
+        ExecutorService threadPool = ParallelUtils.getNewExecutor(parallel);
+        try {
+            new SecondOrderSolver(N, parallel, threadPool).solve();
+        } finally {
+            threadPool.shutdownNow();
+        }
+
+        //collapse label into signed alphas
+        for (int i = 0; i < label.length; i++)
+            alphas[i] *= label[i];
+
+        label = null;
+        weights = null;
+
+        setCacheMode(null);
+        setAlphas(alphas);
+    }
+
+    /**
+     * The state of the second order solver. The gradient G<sub>i</sub> =
+     * y<sub>i</sub> &sum;<sub>j</sub> &alpha;<sub>j</sub> y<sub>j</sub>
+     * k(x<sub>i</sub>, x<sub>j</sub>) - 1 is only kept up to date for the
+     * points in the active set, which are the first {@link #activeSize}
+     * entries of {@link #index}. G_bar holds the part of the gradient due to
+     * the points at their upper bound, so that the gradient of shrunk points
+     * can be reconstructed.
+     */
+    private class SecondOrderSolver {
+        private final int N;
+        private final boolean parallel;
+        private final ExecutorService threadPool;
+        /**
+         * Permutation of the data point indices, with the active points first
+         */
+        private final int[] index;
+        private int activeSize;
+        private final double[] G;
+        private final double[] G_bar;
+        /**
+         * The upper bound C * weight of each alpha
+         */
+        private final double[] Cs;
+        /**
+         * k(x<sub>i</sub>, x<sub>i</sub>)
+         */
+        private final double[] QD;
+        /**
+         * Kernel rows of the working set, by position in {@link #index}
+         */
+        private final double[] K_i, K_j;
+        private boolean unshrink = false;
+
+        public SecondOrderSolver(int N, boolean parallel, ExecutorService threadPool) {
+            this.N = N;
+            this.parallel = parallel;
+            this.threadPool = threadPool;
+            index = new int[N];
+            activeSize = N;
+            G = new double[N];
+            G_bar = new double[N];
+            Cs = new double[N];
+            QD = new double[N];
+            K_i = new double[N];
+            K_j = new double[N];
+            for (int i = 0; i < N; i++) {
+                index[i] = i;
+                Cs[i] = C * weights.get(i);
+                QD[i] = k(i, i);//diagonal is not worth a cache row
+            }
+        }
+
+        private boolean isUpperBound(int i) {
+            return alphas[i] >= Cs[i];
+        }
+
+        private boolean isLowerBound(int i) {
+            return alphas[i] <= 0;
+        }
+
+        private boolean inParallel(int work) {
+            return parallel && work >= PARALLEL_MIN_WORK;
+        }
+
+        /**
+         * Fills the given row with the kernel values of the i'th point against
+         * the points at positions [from, to) of {@link #index}
+         */
+        private void kernelRow(int i, int from, int to, double[] row) {
+            kEvalRow(i, index, from, to, row, inParallel(to - from), threadPool);
+        }
+
+        /**
+         * Adds {@code scale * y_t * k(x_i, x_t)} to {@code target[t]} for every
+         * point at positions [from, to), using the kernel row already in
+         * {@code row}
+         */
+        private void addRow(double[] target, double[] row, double scale, int from, int to) {
+            ParallelUtils.run(inParallel(to - from), to - from, (start, end) ->
+            {
+                for (int p = from + start; p < from + end; p++) {
+                    int t = index[p];
+                    target[t] += scale * label[t] * row[p];
+                }
+            }, threadPool);
+        }
+
+        public void solve() {
+            //feasible solutions need sum y_i alpha_i = 0, which a warm start may not give
+            double posSum = 0, negSum = 0;
+            for (int i = 0; i < N; i++) {
+                alphas[i] = min(alphas[i], Cs[i]);
+                if (label[i] > 0)
+                    posSum += alphas[i];
+                else
+                    negSum += alphas[i];
+            }
+            if (posSum != negSum)
+                for (int i = 0; i < N; i++)
+                    if (label[i] > 0 && posSum > negSum)
+                        alphas[i] *= negSum / posSum;
+                    else if (label[i] < 0 && negSum > posSum)
+                        alphas[i] *= posSum / negSum;
+
+            Arrays.fill(G, -1);
+            for (int i = 0; i < N; i++) {
+                if (isLowerBound(i))
+                    continue;
+                kernelRow(i, 0, N, K_i);
+                addRow(G, K_i, alphas[i] * label[i], 0, N);
+                if (isUpperBound(i))
+                    addRow(G_bar, K_i, Cs[i] * label[i], 0, N);
+            }
+
+            //each pass of the original solver looks at every point
+            final long maxIter = (long) maxIterations * N;
+            long iter = 0;
+            int counter = min(N, 1000) + 1;
+            int[] ws = new int[2];
+            while (iter < maxIter) {
+                if (--counter == 0) {
+                    counter = min(N, 1000);
+                    if (shrinking)
+                        doShrinking();
+                }
+
+                if (!selectWorkingSet(ws)) {
+                    //optimal on the active set, check the whole problem
+                    reconstructGradient();
+                    activeSize = N;
+                    if (!selectWorkingSet(ws))
+                        break;
+                    else
+                        counter = 1;//shrink on the next iteration
+                }
+                iter++;
+
+                update(ws[0], ws[1]);
+            }
+
+            reconstructGradient();
+            activeSize = N;
+            b = calculateBias();
+        }
+
+        /**
+         * Selects the working set, leaving the positions of i and j in
+         * {@code ws} and the kernel rows of i and j in {@link #K_i} and
+         * {@link #K_j}
+         *
+         * @return {@code false} if the active set is already optimal
+         */
+        private boolean selectWorkingSet(int[] ws) {
+            //i = argmax { -y_t G_t | t in I_up }
+            double[] maxI = ParallelUtils.run(inParallel(activeSize), activeSize, (start, end) ->
+            {
+                double Gmax = Double.NEGATIVE_INFINITY;
+                int pos = -1;
+                for (int p = start; p < end; p++) {
+                    int t = index[p];
+                    if (label[t] > 0) {
+                        if (!isUpperBound(t) && -G[t] >= Gmax) {
+                            Gmax = -G[t];
+                            pos = p;
+                        }
+                    } else if (!isLowerBound(t) && G[t] >= Gmax) {
+                        Gmax = G[t];
+                        pos = p;
+                    }
+                }
+                return new double[]{Gmax, pos};
+            }, (x, y) -> y[0] >= x[0] && y[1] >= 0 ? y : x, threadPool);
+            if (maxI == null || maxI[1] < 0)
+                return false;
+            final double Gmax = maxI[0];
+            final int ip = (int) maxI[1];
+            final int i = index[ip];
+            kernelRow(i, 0, activeSize, K_i);
+
+            //j = argmin of the second order decrease, over t in I_low
+            double[] minJ = ParallelUtils.run(inParallel(activeSize), activeSize, (start, end) ->
+            {
+                double Gmax2 = Double.NEGATIVE_INFINITY;
+                double objMin = Double.POSITIVE_INFINITY;
+                int pos = -1;
+                for (int p = start; p < end; p++) {
+                    int t = index[p];
+                    double gradDiff;
+                    if (label[t] > 0) {
+                        if (isLowerBound(t))
+                            continue;
+                        gradDiff = Gmax + G[t];
+                        Gmax2 = max(Gmax2, G[t]);
+                    } else {
+                        if (isUpperBound(t))
+                            continue;
+                        gradDiff = Gmax - G[t];
+                        Gmax2 = max(Gmax2, -G[t]);
+                    }
+                    if (gradDiff > 0) {
+                        double quad = QD[i] + QD[t] - 2 * K_i[p];
+                        double objDiff = -(gradDiff * gradDiff) / (quad > 0 ? quad : TAU);
+                        if (objDiff <= objMin) {
+                            objMin = objDiff;
+                            pos = p;
+                        }
+                    }
+                }
+                return new double[]{Gmax2, objMin, pos};
+            }, (x, y) ->
+            {
+                double[] best = y[1] <= x[1] && y[2] >= 0 ? y : x;
+                return new double[]{max(x[0], y[0]), best[1], best[2]};
+            }, threadPool);
+
+            if (Gmax + minJ[0] < 2 * tolerance || minJ[2] < 0)
+                return false;
+            ws[0] = ip;
+            ws[1] = (int) minJ[2];
+            kernelRow(index[ws[1]], 0, activeSize, K_j);
+            return true;
+        }
+
+        /**
+         * Solves the two variable sub problem for the points at positions ip
+         * and jp, and updates the gradients
+         */
+        private void update(int ip, int jp) {
+            final int i = index[ip], j = index[jp];
+            final double C_i = Cs[i], C_j = Cs[j];
+            final double oldA_i = alphas[i], oldA_j = alphas[j];
+            double quad = QD[i] + QD[j] - 2 * K_i[jp];
+            if (quad <= 0)
+                quad = TAU;
+
+            double a_i = oldA_i, a_j = oldA_j;
+            if (label[i] != label[j]) {
+                double delta = (-G[i] - G[j]) / quad;
+                double diff = a_i - a_j;
+                a_i += delta;
+                a_j += delta;
+                if (diff > 0) {
+                    if (a_j < 0) {
+                        a_j = 0;
+                        a_i = diff;
+                    }
+                } else if (a_i < 0) {
+                    a_i = 0;
+                    a_j = -diff;
+                }
+                if (diff > C_i - C_j) {
+                    if (a_i > C_i) {
+                        a_i = C_i;
+                        a_j = C_i - diff;
+                    }
+                } else if (a_j > C_j) {
+                    a_j = C_j;
+                    a_i = C_j + diff;
+                }
+            } else {
+                double delta = (G[i] - G[j]) / quad;
+                double sum = a_i + a_j;
+                a_i -= delta;
+                a_j += delta;
+                if (sum > C_i) {
+                    if (a_i > C_i) {
+                        a_i = C_i;
+                        a_j = sum - C_i;
+                    }
+                } else if (a_j < 0) {
+                    a_j = 0;
+                    a_i = sum;
+                }
+                if (sum > C_j) {
+                    if (a_j > C_j) {
+                        a_j = C_j;
+                        a_i = sum - C_j;
+                    }
+                } else if (a_i < 0) {
+                    a_i = 0;
+                    a_j = sum;
+                }
+            }
+
+            final boolean wasUpper_i = isUpperBound(i), wasUpper_j = isUpperBound(j);
+            alphas[i] = a_i;
+            alphas[j] = a_j;
+
+            final double scale_i = (a_i - oldA_i) * label[i];
+            final double scale_j = (a_j - oldA_j) * label[j];
+            ParallelUtils.run(inParallel(activeSize), activeSize, (start, end) ->
+            {
+                for (int p = start; p < end; p++) {
+                    int t = index[p];
+                    G[t] += label[t] * (scale_i * K_i[p] + scale_j * K_j[p]);
+                }
+            }, threadPool);
+
+            if (wasUpper_i != isUpperBound(i)) {
+                kernelRow(i, 0, N, K_i);
+                addRow(G_bar, K_i, (wasUpper_i ? -C_i : C_i) * label[i], 0, N);
+            }
+            if (wasUpper_j != isUpperBound(j)) {
+                kernelRow(j, 0, N, K_j);
+                addRow(G_bar, K_j, (wasUpper_j ? -C_j : C_j) * label[j], 0, N);
+            }
+        }
+
+        private boolean beShrunk(int t, double Gmax1, double Gmax2) {
+            if (isUpperBound(t))
+                return label[t] > 0 ? -G[t] > Gmax1 : -G[t] > Gmax2;
+            else if (isLowerBound(t))
+                return label[t] > 0 ? G[t] > Gmax2 : G[t] > Gmax1;
+            return false;
+        }
+
+        /**
+         * Removes from the active set the points at a bound that are unlikely
+         * to move
+         */
+        private void doShrinking() {
+            double Gmax1 = Double.NEGATIVE_INFINITY;//max { -y_t G_t | t in I_up }
+            double Gmax2 = Double.NEGATIVE_INFINITY;//max { y_t G_t | t in I_low }
+            for (int p = 0; p < activeSize; p++) {
+                int t = index[p];
+                double yG = label[t] * G[t];
+                if (label[t] > 0 ? !isUpperBound(t) : !isLowerBound(t))
+                    Gmax1 = max(Gmax1, -yG);
+                if (label[t] > 0 ? !isLowerBound(t) : !isUpperBound(t))
+                    Gmax2 = max(Gmax2, yG);
+            }
+
+            if (!unshrink && Gmax1 + Gmax2 <= 20 * tolerance) {
+                //close to done, give every point one more chance
+                unshrink = true;
+                reconstructGradient();
+                activeSize = N;
+            }
+
+            for (int p = 0; p < activeSize; p++)
+                if (beShrunk(index[p], Gmax1, Gmax2)) {
+                    activeSize--;
+                    while (activeSize > p) {
+                        if (!beShrunk(index[activeSize], Gmax1, Gmax2)) {
+                            int tmp = index[p];
+                            index[p] = index[activeSize];
+                            index[activeSize] = tmp;
+                            break;
+                        }
+                        activeSize--;
+                    }
+                }
+        }
+
+        /**
+         * Recomputes the gradient of the points that are not in the active set
+         */
+        private void reconstructGradient() {
+            if (activeSize == N)
+                return;
+            for (int p = activeSize; p < N; p++) {
+                int t = index[p];
+                G[t] = G_bar[t] - 1;
+            }
+            for (int p = 0; p < activeSize; p++) {
+                int j = index[p];
+                if (isLowerBound(j) || isUpperBound(j))
+                    continue;
+                kernelRow(j, activeSize, N, K_j);
+                addRow(G, K_j, alphas[j] * label[j], activeSize, N);
+            }
+        }
+
+        /**
+         * @return the bias term, from the free points if there are any
+         */
+        private double calculateBias() {
+            double ub = Double.POSITIVE_INFINITY, lb = Double.NEGATIVE_INFINITY, sumFree = 0;
+            int numFree = 0;
+            for (int t = 0; t < N; t++) {
+                double yG = label[t] * G[t];
+                if (isUpperBound(t)) {
+                    if (label[t] < 0)
+                        ub = min(ub, yG);
+                    else
+                        lb = max(lb, yG);
+                } else if (isLowerBound(t)) {
+                    if (label[t] > 0)
+                        ub = min(ub, yG);
+                    else
+                        lb = max(lb, yG);
+                } else {
+                    numFree++;
+                    sumFree += yG;
+                }
+            }
+            return numFree > 0 ? sumFree / numFree : (ub + lb) / 2;
+        }
+    }
+
+    /**
+     * Sets the initial values of {@link #alphas} from a warm start solution.
+     * {@link #label} and {@link #vecs} must already be set up.
+     *
+     * @param dataSet      the data set being trained on
+     * @param warmSolution a {@link PlattSMO} or {@link BinaryScoreClassifier}
+     *                     to take the initial values from
+     */
+    private void warmStartAlphas(ClassificationDataSet dataSet, Classifier warmSolution) {
+        if (warmSolution instanceof PlattSMO) {
+            //if this SMO object was learend on the same data, we can get a very good guess on C
+            PlattSMO warmSMO = (PlattSMO) warmSolution;
+
+            //first, we need to make sure we were actually trained on the same data
+            //TODO find a better way to ensure this is true, it is POSSIBLE that we could have same labels and different data
+            if (warmSMO.alphas == null)//whats going on? just break out
+                return;
+            boolean sameData = alphas.length == warmSMO.alphas.length;
+            if (sameData)
+                for (int i = 0; i < this.label.length && sameData; i++)
+                    //copy sign used so that -0.0 gets picked up as -1.0 and 0.0 as 1.0
+                    if (this.label[i] != Math.copySign(1.0, warmSMO.alphas[i]))
+                        sameData = false;
+
+            if (sameData) {
+                double C_prev = warmSMO.C;
+                double multiplier = this.C / C_prev;
+                for (int i = 0; i < vecs.size(); i++)
+                    this.alphas[i] = fuzzyClamp(multiplier * Math.abs(warmSMO.alphas[i]), this.C);
+                return;//init sucessful
+            }
+            //else, fall through and let 2nd case cick in
+        }
+
+        //last case, should be true
+        if (warmSolution instanceof BinaryScoreClassifier) {
+            //In this case we can take a decent guess at the values of alpha
+            BinaryScoreClassifier warmSC = (BinaryScoreClassifier) warmSolution;
+
+            for (int i = 0; i < vecs.size(); i++) {
+                //get the loss, normaly wrapped by max(x, 0), but that will be handled by the clamp
+                double guess = 1 - label[i] * warmSC.getScore(dataSet.getDataPoint(i));
+                this.alphas[i] = fuzzyClamp(C * guess, C);
+            }
+        } else//how did this happen?
+        {
+            throw new FailedToFitException("BUG: Should not have been able to reach");
+        }
+    }
+
     /**
      * Updates the index set I0
      *
@@ -968,6 +1453,9 @@ public class PlattSMO extends SupportVectorLearner implements BinaryScoreClassif
         copy.eps = this.eps;
         copy.epsilon = this.epsilon;
         copy.maxIterations = this.maxIterations;
+        copy.modificationOne = this.modificationOne;
+        copy.secondOrder = this.secondOrder;
+        copy.shrinking = this.shrinking;
         if (this.label != null)
             copy.label = Arrays.copyOf(this.label, this.label.length);
         copy.tolerance = this.tolerance;
@@ -1048,6 +1536,61 @@ public class PlattSMO extends SupportVectorLearner implements BinaryScoreClassif
         return modificationOne;
     }
 
+    /**
+     * Sets whether or not the second order solver should be used for
+     * classification problems. Instead of the first order working set
+     * selection of Keerthi et al., it selects the pair of points that gives
+     * the greatest decrease of the objective using second order information
+     * (Fan et al., 2005), as LIBSVM does. It also supports
+     * {@link #setShrinking(boolean) shrinking}, and computes kernel rows and
+     * updates the gradient in parallel when training with multiple threads.
+     * This is usually much faster on larger data sets. <br>
+     * When in use, the {@link #setMaxIterations(int) maximum iterations} is
+     * the number of passes over the data set, so that at most
+     * maxIterations*N pairs of points will be optimized. The
+     * {@link #setModificationOne(boolean) modification} setting is not used.
+     * Regression problems always use the first order solver.
+     *
+     * @param secondOrder {@code true} to use the second order solver for
+     *                    classification, {@code false} to use the solver of
+     *                    Keerthi et al.
+     */
+    public void setSecondOrder(boolean secondOrder) {
+        this.secondOrder = secondOrder;
+    }
+
+    /**
+     * Returns true if the second order solver is used for classification
+     *
+     * @return true if the second order solver is used for classification
+     */
+    public boolean isSecondOrder() {
+        return secondOrder;
+    }
+
+    /**
+     * Sets whether or not the second order solver will shrink the problem.
+     * Points at a bound that are unlikely to move are temporarily removed
+     * from consideration, so that each iteration only needs to work over the
+     * remaining active points. The solution is always checked against every
+     * point before finishing.
+     *
+     * @param shrinking {@code true} to use shrinking, {@code false} to always
+     *                  consider every point
+     */
+    public void setShrinking(boolean shrinking) {
+        this.shrinking = shrinking;
+    }
+
+    /**
+     * Returns true if the second order solver will shrink the problem
+     *
+     * @return true if the second order solver will shrink the problem
+     */
+    public boolean isShrinking() {
+        return shrinking;
+    }
+
     /**
      * Sets the tolerance for the solution. Higher values converge to worse
      * solutions, but do so faster
@@ -2,6 +2,7 @@ package jsat.classifiers.svm;
 
 import java.io.Serializable;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
 
 import jsat.distributions.kernels.KernelTrick;
 import jsat.distributions.kernels.LinearKernel;
@@ -10,6 +11,7 @@ import jsat.parameters.Parameter.ParameterHolder;
 import jsat.utils.DoubleList;
 import jsat.utils.ListUtils;
 import jsat.utils.concurrent.ConcurrentCacheLRU;
+import jsat.utils.concurrent.ParallelUtils;
 
 /**
  * Base class for support vector style learners. This means that the learner
@@ -48,7 +50,7 @@ public abstract class SupportVectorLearner implements Serializable {
     /**
      * Kernel evaluation acceleration cache
      */
-    protected List<Double> accelCache = null;
+    protected DoubleList accelCache = null;
 
     private double[][] fullCache;
     /**
@@ -85,7 +87,7 @@ public abstract class SupportVectorLearner implements Serializable {
      */
     protected void setAlphas(double[] alphas) {
         this.alphas = alphas;
-        accelCache = kernel.getAccelerationCache(vecs);
+        accelCache = kernel.getPrimitiveAccelerationCache(vecs);
     }
 
     /**
@@ -266,7 +268,7 @@ public abstract class SupportVectorLearner implements Serializable {
         this.cacheMode = cacheMode;
 
         if (vecs != null)
-            accelCache = kernel.getAccelerationCache(vecs);
+            accelCache = kernel.getPrimitiveAccelerationCache(vecs);
         evalCount = 0;
         cacheEvictions = 0;
 
@@ -354,23 +356,12 @@ public abstract class SupportVectorLearner implements Serializable {
             if (specific_row_cache_row == a)
                 cache = specific_row_cache_values;
             else
-                cache = partialCache.get(a);
-            if (cache == null)//not present
-            {
-                //make a row
-                cache = new double[vecs.size()];
-                Arrays.fill(cache, Double.NaN);
-
-                double[] cache_missed = partialCache.putIfAbsentAndGet(a, cache);
-                if (cache_missed != null)
-                    cache = cache_missed;
-
-                if (Double.isNaN(cache[b]))
-                    return cache[b] = k(a, b);
-                else
-                    return cache[b];
+                cache = getCacheRow(a);
 
-            }
+            if (Double.isNaN(cache[b]))
+                return cache[b] = k(a, b);
+            else
+                return cache[b];
         }
         return k(a, b);
     }
@@ -394,22 +385,86 @@ public abstract class SupportVectorLearner implements Serializable {
         }
 
         if (cacheMode == CacheMode.ROWS) {
-            double[] cache = partialCache.get(r);
-            if (cache == null)//not present
-            {
-                //make a row
-                cache = new double[vecs.size()];
-                Arrays.fill(cache, Double.NaN);
-
-                double[] cache_missed = partialCache.putIfAbsentAndGet(r, cache);
-                if (cache_missed != null)
-                    cache = cache_missed;
-            }
-            specific_row_cache_values = cache;
+            specific_row_cache_values = getCacheRow(r);
             specific_row_cache_row = r;
         }
     }
 
+    /**
+     * Returns the row of the {@link CacheMode#ROWS} cache for the given index,
+     * inserting a new row of uncomputed values if it is not present.
+     *
+     * @param r the row to get
+     * @return the cached row
+     */
+    private double[] getCacheRow(int r) {
+        double[] cache = partialCache.get(r);
+        if (cache == null)//not present
+        {
+            //make a row
+            cache = new double[vecs.size()];
+            Arrays.fill(cache, Double.NaN);
+
+            double[] cache_missed = partialCache.putIfAbsentAndGet(r, cache);
+            if (cache_missed != null)
+                cache = cache_missed;
+            cacheEvictions = (int) partialCache.getEvictionCount();
+        }
+        return cache;
+    }
+
+    /**
+     * Computes the kernel evaluations between the a'th vector and the vectors
+     * {@code indices[from]} through {@code indices[to-1]}, storing k(a,
+     * indices[t]) in {@code row[t]}. Values are taken from and stored into the
+     * cache the same way as {@link #kEval(int, int) }, but the row only needs
+     * to be looked up once, and the evaluations may be done in parallel. No
+     * other thread may use the cache while this method is running.
+     *
+     * @param a          the index of the row to compute
+     * @param indices    the indices of the columns to compute
+     * @param from       the first position in {@code indices} to compute,
+     *                   inclusive
+     * @param to         the last position in {@code indices} to compute,
+     *                   exclusive
+     * @param row        the array to store the kernel values in
+     * @param parallel   {@code true} if the values should be computed in
+     *                   parallel
+     * @param threadPool the source of threads for a parallel computation
+     */
+    protected void kEvalRow(int a, int[] indices, int from, int to, double[] row, boolean parallel, ExecutorService threadPool) {
+        final double[] cache = cacheMode == CacheMode.ROWS ? getCacheRow(a) : null;
+        ParallelUtils.run(parallel, to - from, (start, end) ->
+        {
+            int evals = 0;
+            for (int t = from + start; t < from + end; t++) {
+                int b = indices[t];
+                double val;
+                if (cacheMode == CacheMode.FULL) {
+                    int lo = Math.min(a, b), hi = Math.max(a, b);
+                    val = fullCache[lo][hi - lo];
+                    if (Double.isNaN(val)) {
+                        val = fullCache[lo][hi - lo] = kernel.eval(a, b, vecs, accelCache);
+                        evals++;
+                    }
+                } else if (cache != null) {
+                    val = cache[b];
+                    if (Double.isNaN(val)) {
+                        val = cache[b] = kernel.eval(a, b, vecs, accelCache);
+                        evals++;
+                    }
+                } else {
+                    val = kernel.eval(a, b, vecs, accelCache);
+                    evals++;
+                }
+                row[t] = val;
+            }
+            synchronized (this) {
+                evalCount += evals;
+            }
+        }, threadPool);
+    }
+
     /**
      * Internal kernel eval source. Only call directly if you KNOW you will not
      * be re-using the resulting value and intentionally wish to skip the
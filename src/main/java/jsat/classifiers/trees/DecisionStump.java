@@ -85,6 +85,15 @@ public class DecisionStump implements Classifier, Regressor, Parameterized {
      * split to occur.
      */
     private int minResultSplitSize = 10;
+    /**
+     * The number of bins to quantize numeric features into, or zero to find
+     * splits by sorting
+     */
+    private int numericBins = 0;
+    /**
+     * Bins found ahead of time to use when {@link #numericBins} is positive
+     */
+    private FeatureBins featureBins;
 
     /**
      * Creates a new decision stump
@@ -155,6 +164,71 @@ public class DecisionStump implements Classifier, Regressor, Parameterized {
         return minResultSplitSize;
     }
 
+    /**
+     * Sets the number of bins that numeric features are quantized into when
+     * searching for a split. When positive, the values of each numeric
+     * feature are mapped to at most this many bins, and the best split is
+     * found from a histogram over the bins instead of by sorting the values.
+     * This is much faster on large data sets, and splits are only considered
+     * at the bin boundaries. The default of zero disables binning, so every
+     * possible split is considered.
+     *
+     * @param numericBins the number of bins to use in [2, {@value FeatureBins#MAX_BINS}],
+     *                    or zero to find splits by sorting
+     */
+    public void setNumericBins(int numericBins) {
+        if (numericBins != 0 && (numericBins < 2 || numericBins > FeatureBins.MAX_BINS))
+            throw new IllegalArgumentException("Number of bins must be zero or in [2, " + FeatureBins.MAX_BINS + "], not " + numericBins);
+        this.numericBins = numericBins;
+    }
+
+    /**
+     * @return the number of bins numeric features are quantized into, or zero
+     * if splits are found by sorting
+     */
+    public int getNumericBins() {
+        return numericBins;
+    }
+
+    /**
+     * Sets the bins to use for the numeric features when
+     * {@link #setNumericBins(int) binning} is enabled, so that they do not
+     * need to be found again on each call to train. This is useful when many
+     * models are trained on samples of the same data. If {@code null}, or if
+     * the bins do not match the data being trained on, new bins are found
+     * from the training data.
+     *
+     * @param featureBins the bins to use, or {@code null} to find them from
+     *                    the training data
+     */
+    public void setFeatureBins(FeatureBins featureBins) {
+        this.featureBins = featureBins;
+    }
+
+    /**
+     * @return the bins to use when binning is enabled, or {@code null} if
+     * they are found from the training data
+     */
+    public FeatureBins getFeatureBins() {
+        return featureBins;
+    }
+
+    /**
+     * Creates the histograms of the given data if binning is enabled.
+     *
+     * @param data the data to train on
+     * @return the histograms for the data, or {@code null} if splits should
+     * be found by sorting
+     */
+    NodeHistogram getHistogram(DataSet<?> data) {
+        if (numericBins <= 0)
+            return null;
+        FeatureBins bins = featureBins;
+        if (bins == null || bins.getNumFeatures() != data.getNumNumericalVars())
+            bins = FeatureBins.fit(data, numericBins);
+        return new NodeHistogram(bins, data);
+    }
+
     /**
      * Returns the attribute that this stump has decided to use to compute
      * results. Numeric features start from 0, and categorical features start
@@ -354,6 +428,22 @@ public class DecisionStump implements Classifier, Regressor, Parameterized {
     }
 
     public List<ClassificationDataSet> trainC(final ClassificationDataSet data, Set<Integer> options, boolean parallel) {
+        return trainC(data, options, parallel, getHistogram(data));
+    }
+
+    /**
+     * Trains this stump, using the given histograms to find splits on numeric
+     * features.
+     *
+     * @param data     the data to train on
+     * @param options  the set of attributes that this classifier may choose
+     *                 from. The attribute it does choose will be removed from the set.
+     * @param parallel whether or not to consider the attributes in parallel
+     * @param hist     the histograms of the data, or {@code null} to find
+     *                 splits by sorting
+     * @return the data that would have followed each path
+     */
+    List<ClassificationDataSet> trainC(final ClassificationDataSet data, Set<Integer> options, boolean parallel, final NodeHistogram hist) {
         //TODO remove paths that have zero probability of occuring, so that stumps do not have an inflated branch value 
         if (predicting == null)
             throw new RuntimeException("Predicting value has not been set");
@@ -460,8 +550,12 @@ public class DecisionStump implements Classifier, Regressor, Parameterized {
                         //Create a list of lists to hold the split variables
                         aSplit = listOfLists(data, 2);//Size at least 2
                         split_scores = new ImpurityScore[2];
-                        tmp = createNumericCSplit(DPs, N, attribute, aSplit,
-                                origScoreObj, gainRet, split_scores);
+                        if (hist != null)
+                            tmp = createBinnedCSplit(DPs, N, hist, attribute, aSplit,
+                                    origScoreObj, gainRet, split_scores);
+                        else
+                            tmp = createNumericCSplit(DPs, N, attribute, aSplit,
+                                    origScoreObj, gainRet, split_scores);
                         if (tmp == null) {
                             latch.countDown();
                             return;
@@ -659,6 +753,91 @@ public class DecisionStump implements Classifier, Regressor, Parameterized {
 
     }
 
+    /**
+     * Finds the best binary split on a numeric attribute from its histogram.
+     * The arguments and return value are the same as for
+     * {@link #createNumericCSplit(jsat.classifiers.ClassificationDataSet, int, int, java.util.List, jsat.classifiers.trees.ImpurityScore, double[], jsat.classifiers.trees.ImpurityScore[]) }.
+     *
+     * @param hist the histograms of the data points
+     */
+    private PairedReturn<List<Double>, List<Integer>> createBinnedCSplit(
+            ClassificationDataSet dataPoints, int N, NodeHistogram hist, final int attribute,
+            List<ClassificationDataSet> aSplit, ImpurityScore origScore, double[] finalGain, ImpurityScore[] subScores) {
+        final double[] h = hist.get(attribute);
+        final int stride = hist.getStride();
+        final int B = h.length / stride;
+
+        //every point that isn't missing starts on the right
+        ImpurityScore rightSide = new ImpurityScore(N, gainMethod);
+        ImpurityScore leftSide = new ImpurityScore(N, gainMethod);
+        double rightCount = 0;
+        for (int b = 0; b < B; b++) {
+            for (int c = 0; c < N; c++)
+                if (h[b * stride + c] > 0)
+                    rightSide.addPoint(h[b * stride + c], c);
+            rightCount += h[b * stride + N];
+        }
+        if (rightCount < minResultSplitSize * 2)
+            return null;
+        double wholeRescale = rightSide.getSumOfWeights() / origScore.getSumOfWeights();
+
+        double bestGain = Double.NEGATIVE_INFINITY;
+        int bestBin = -1;
+        double leftCount = 0;
+        for (int b = 0; b < B - 1; b++) {
+            double count = h[b * stride + N];
+            if (count == 0)//same split as the last bin
+                continue;
+            for (int c = 0; c < N; c++)
+                if (h[b * stride + c] > 0) {
+                    leftSide.addPoint(h[b * stride + c], c);
+                    rightSide.removePoint(h[b * stride + c], c);
+                }
+            leftCount += count;
+            rightCount -= count;
+            if (leftCount < minResultSplitSize)
+                continue;
+            else if (rightCount < minResultSplitSize)
+                break;
+
+            double curGain = ImpurityScore.gain(origScore, wholeRescale, leftSide, rightSide);
+            if (curGain > bestGain) {
+                bestGain = curGain;
+                bestBin = b;
+                subScores[0] = leftSide.clone();
+                subScores[1] = rightSide.clone();
+            }
+        }
+        if (bestBin == -1)
+            return null;
+
+        if (finalGain != null)
+            finalGain[0] = bestGain;
+        double threshold = hist.getBins().getThreshold(attribute, bestBin);
+        ClassificationDataSet cds_left = dataPoints.emptyClone();
+        ClassificationDataSet cds_right = dataPoints.emptyClone();
+        IntList wasNaN = new IntList();
+        for (int i = 0; i < dataPoints.size(); i++) {
+            double val = dataPoints.getDataPoint(i).getNumericalValues().get(attribute);
+            if (Double.isNaN(val))
+                wasNaN.add(i);
+            else if (val <= threshold)
+                cds_left.addDataPoint(dataPoints.getDataPoint(i), dataPoints.getDataPointCategory(i), dataPoints.getWeight(i));
+            else
+                cds_right.addDataPoint(dataPoints.getDataPoint(i), dataPoints.getDataPointCategory(i), dataPoints.getWeight(i));
+        }
+
+        aSplit.set(0, cds_left);
+        aSplit.set(1, cds_right);
+        if (wasNaN.size() > 0) {
+            double weightScale = subScores[0].getSumOfWeights() / (subScores[0].getSumOfWeights() + subScores[1].getSumOfWeights() + 0.0);
+            distributMissing(aSplit, new double[]{weightScale, 1 - weightScale}, dataPoints, wasNaN);
+        }
+        return new PairedReturn<>(
+                Arrays.asList(threshold, Double.POSITIVE_INFINITY),
+                Arrays.asList(0, 1));
+    }
+
     /**
      * Distributes a list of datapoints that had missing values to each split, re-weighted by the indicated fractions
      *
@@ -705,6 +884,23 @@ public class DecisionStump implements Classifier, Regressor, Parameterized {
     }
 
     public List<RegressionDataSet> trainR(final RegressionDataSet data, Set<Integer> options, boolean parallel) {
+        return trainR(data, options, parallel, getHistogram(data));
+    }
+
+    /**
+     * Trains this stump, using the given histograms to find splits on numeric
+     * features.
+     *
+     * @param data     the data to train on
+     * @param options  the set of attributes that this regressor may choose
+     *                 from. The attribute it does choose will be removed from the set.
+     * @param parallel whether or not to consider the attributes in parallel
+     * @param hist     the histograms of the data, or {@code null} to find
+     *                 splits by sorting
+     * @return the data that would have followed each path, or {@code null}
+     * if no split could be found
+     */
+    List<RegressionDataSet> trainR(final RegressionDataSet data, Set<Integer> options, boolean parallel, final NodeHistogram hist) {
         catAttributes = data.getCategories();
         numNumericFeatures = data.getNumNumericalVars();
         //Not enough points for a split to occur
@@ -774,6 +970,12 @@ public class DecisionStump implements Classifier, Regressor, Parameterized {
 
                     if (!wasMissing.isEmpty())
                         distributMissing(thisSplit, thisRatio, DPs, wasMissing);
+                } else if (hist != null)//binary split from the histogram
+                {
+                    thisSplit = listOfLists(DPs, 2);
+                    thisMeans = new double[3];
+                    thisRatio = new double[2];
+                    thisSplitSqrdErr = createBinnedRSplit(DPs, hist, attribute - catAttributes.length, thisSplit, thisMeans, thisRatio);
                 } else//Findy a binary split that reduces the variance!
                 {
                     final int numAttri = attribute - catAttributes.length;
@@ -891,6 +1093,88 @@ public class DecisionStump implements Classifier, Regressor, Parameterized {
         return bestSplit;
     }
 
+    /**
+     * Finds the binary split on a numeric attribute, from its histogram, that
+     * minimizes the weighted squared error of the two sides.
+     *
+     * @param data      the data points to split
+     * @param hist      the histograms of the data points
+     * @param numAttri  the numeric attribute to split on
+     * @param split     the list of two data sets to place the split data into
+     * @param means     the array to store the mean of each side and the split
+     *                  value in
+     * @param ratio     the array to store the fraction of weight on each side
+     *                  in
+     * @return the squared error of the split, or negative infinity if no
+     * split could be made
+     */
+    private double createBinnedRSplit(RegressionDataSet data, NodeHistogram hist, int numAttri,
+                                      List<RegressionDataSet> split, double[] means, double[] ratio) {
+        final double[] h = hist.get(numAttri);
+        final int stride = hist.getStride();
+        final int B = h.length / stride;
+
+        //count, weight, weighted sum, and weighted sum of squares of each side
+        double rC = 0, rW = 0, rS = 0, rSS = 0;
+        for (int b = 0; b < B; b++) {
+            rC += h[b * stride];
+            rW += h[b * stride + 1];
+            rS += h[b * stride + 2];
+            rSS += h[b * stride + 3];
+        }
+        final double allWeight = rW;
+        double lC = 0, lW = 0, lS = 0, lSS = 0;
+
+        double bestErr = Double.POSITIVE_INFINITY;
+        int bestBin = -1;
+        for (int b = 0; b < B - 1; b++) {
+            int pos = b * stride;
+            if (h[pos] == 0)//same split as the last bin
+                continue;
+            lC += h[pos];
+            lW += h[pos + 1];
+            lS += h[pos + 2];
+            lSS += h[pos + 3];
+            rC -= h[pos];
+            rW -= h[pos + 1];
+            rS -= h[pos + 2];
+            rSS -= h[pos + 3];
+            if (lC < minResultSplitSize)
+                continue;
+            else if (rC < minResultSplitSize)
+                break;
+            if (lW <= 0 || rW <= 0)
+                continue;
+
+            double err = (lSS - lS * lS / lW) + (rSS - rS * rS / rW);
+            if (err < bestErr && !Double.isInfinite(err)) {
+                bestErr = err;
+                bestBin = b;
+                means[0] = lS / lW;
+                means[1] = rS / rW;
+                ratio[0] = lW / allWeight;
+                ratio[1] = rW / allWeight;
+            }
+        }
+        if (bestBin == -1)
+            return Double.NEGATIVE_INFINITY;
+
+        //Third spot contains the split value!
+        means[2] = hist.getBins().getThreshold(numAttri, bestBin);
+        IntList wasNaN = new IntList();
+        for (int i = 0; i < data.size(); i++) {
+            double val = data.getDataPoint(i).getNumericalValues().get(numAttri);
+            if (Double.isNaN(val))
+                wasNaN.add(i);
+            else
+                split.get(val <= means[2] ? 0 : 1).addDataPoint(data.getDataPoint(i), data.getTargetValue(i), data.getWeight(i));
+        }
+        if (wasNaN.size() > 0)
+            distributMissing(split, ratio, data, wasNaN);
+        //rounding can make a perfect split slightly negative
+        return Math.max(bestErr, 0.0);
+    }
+
     private static <T extends DataSet<T>> List<T> listOfLists(T type, int n) {
         List<T> aSplit = new ArrayList<>(n);
         for (int i = 0; i < n; i++)
@@ -953,6 +1237,8 @@ public class DecisionStump implements Classifier, Regressor, Parameterized {
         copy.minResultSplitSize = this.minResultSplitSize;
         copy.gainMethod = this.gainMethod;
         copy.numNumericFeatures = this.numNumericFeatures;
+        copy.numericBins = this.numericBins;
+        copy.featureBins = this.featureBins;
         return copy;
     }
 }
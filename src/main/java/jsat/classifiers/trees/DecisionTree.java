@@ -73,7 +73,7 @@ public class DecisionTree implements Classifier, Regressor, Parameterized, TreeL
 
     public void train(RegressionDataSet dataSet, Set<Integer> options, boolean parallel) {
         ModifiableCountDownLatch mcdl = new ModifiableCountDownLatch(1);
-        root = makeNodeR(dataSet, options, 0, parallel, mcdl);
+        root = makeNodeR(dataSet, options, 0, parallel, mcdl, baseStump.getHistogram(dataSet));
         try {
             mcdl.await();
         } catch (InterruptedException ex) {
@@ -193,6 +193,50 @@ public class DecisionTree implements Classifier, Regressor, Parameterized, TreeL
         return baseStump.getMinResultSplitSize();
     }
 
+    /**
+     * Sets the number of bins that numeric features are quantized into when
+     * searching for splits. When positive, the bins are found once for the
+     * whole tree, and each node finds its split from histograms over the bins
+     * instead of sorting its data. The histograms of the largest child of a
+     * node are found by subtracting those of its siblings from the parent's.
+     * The default of zero disables binning.
+     *
+     * @param numericBins the number of bins to use in [2, {@value FeatureBins#MAX_BINS}],
+     *                    or zero to find splits by sorting
+     * @see DecisionStump#setNumericBins(int)
+     */
+    public void setNumericBins(int numericBins) {
+        baseStump.setNumericBins(numericBins);
+    }
+
+    /**
+     * @return the number of bins numeric features are quantized into, or zero
+     * if splits are found by sorting
+     */
+    public int getNumericBins() {
+        return baseStump.getNumericBins();
+    }
+
+    /**
+     * Sets the bins to use for the numeric features when binning is enabled,
+     * so that they do not need to be found again each time a tree is trained.
+     *
+     * @param featureBins the bins to use, or {@code null} to find them from
+     *                    the training data
+     * @see DecisionStump#setFeatureBins(jsat.classifiers.trees.FeatureBins)
+     */
+    public void setFeatureBins(FeatureBins featureBins) {
+        baseStump.setFeatureBins(featureBins);
+    }
+
+    /**
+     * @return the bins to use when binning is enabled, or {@code null} if
+     * they are found from the training data
+     */
+    public FeatureBins getFeatureBins() {
+        return baseStump.getFeatureBins();
+    }
+
     /**
      * Sets the maximum depth that this classifier may build trees to.
      *
@@ -325,7 +369,7 @@ public class DecisionTree implements Classifier, Regressor, Parameterized, TreeL
                 test = train;
         }
 
-        this.root = makeNodeC(dataSet, options, 0, parallel, mcdl);
+        this.root = makeNodeC(dataSet, options, 0, parallel, mcdl, baseStump.getHistogram(dataSet));
 
         try {
             mcdl.await();
@@ -351,10 +395,12 @@ public class DecisionTree implements Classifier, Regressor, Parameterized, TreeL
      * @param depth      the current depth of the tree
      * @param parallel   whether or not to use multiple threads when training
      * @param mcdl       count down latch
+     * @param hist       the histograms of the data points, or {@code null} if
+     *                   splits are found by sorting
      * @return the node created, or null if no node was created
      */
     protected Node makeNodeC(ClassificationDataSet dataPoints, final Set<Integer> options, final int depth,
-                             final boolean parallel, final ModifiableCountDownLatch mcdl) {
+                             final boolean parallel, final ModifiableCountDownLatch mcdl, NodeHistogram hist) {
         //figure out what level of parallelism we are going to use, feature wise or depth wise
         boolean mePara = (1L << depth) < SystemInfo.LogicalCores * 2;//should THIS node use the Stump parallelism
         boolean depthPara = (1L << (depth + 1)) >= SystemInfo.LogicalCores * 2;//should the NEXT node use the stump parallelism
@@ -366,24 +412,23 @@ public class DecisionTree implements Classifier, Regressor, Parameterized, TreeL
         DecisionStump stump = baseStump.clone();
         stump.setPredicting(this.predicting);
         final List<ClassificationDataSet> splits;
-        if (mePara)
-            splits = stump.trainC(dataPoints, options, parallel);
-        else
-            splits = stump.trainC(dataPoints, options);
+        splits = stump.trainC(dataPoints, options, mePara && parallel, hist);
 
         final Node node = new Node(stump);
+        final NodeHistogram[] childHists = hist == null || stump.getNumberOfPaths() <= 1 ? null : hist.children(splits);
         if (stump.getNumberOfPaths() > 1)//If there is 1 path, we are perfectly classifier - nothing more to do
             for (int i = 0; i < node.paths.length; i++) {
                 final int ii = i;
                 final ClassificationDataSet splitI = splits.get(i);
+                final NodeHistogram histI = childHists == null ? null : childHists[i];
                 mcdl.countUp();
                 if (depthPara) {
                     (parallel ? ParallelUtils.CACHED_THREAD_POOL : new FakeExecutor()).submit(() ->
                     {
-                        node.paths[ii] = makeNodeC(splitI, new IntSet(options), depth + 1, parallel, mcdl);
+                        node.paths[ii] = makeNodeC(splitI, new IntSet(options), depth + 1, parallel, mcdl, histI);
                     });
                 } else
-                    node.paths[ii] = makeNodeC(splitI, new IntSet(options), depth + 1, parallel, mcdl);
+                    node.paths[ii] = makeNodeC(splitI, new IntSet(options), depth + 1, parallel, mcdl, histI);
             }
 
         mcdl.countDown();
@@ -398,10 +443,12 @@ public class DecisionTree implements Classifier, Regressor, Parameterized, TreeL
      * @param depth      the current depth of the tree
      * @param parallel   whether or not to perform parallel computation
      * @param mcdl       count down latch
+     * @param hist       the histograms of the data points, or {@code null} if
+     *                   splits are found by sorting
      * @return the node created, or null if no node was created
      */
     protected Node makeNodeR(RegressionDataSet dataPoints, final Set<Integer> options, final int depth,
-                             final boolean parallel, final ModifiableCountDownLatch mcdl) {
+                             final boolean parallel, final ModifiableCountDownLatch mcdl, NodeHistogram hist) {
         //figure out what level of parallelism we are going to use, feature wise or depth wise
         boolean mePara = (1L << depth) < SystemInfo.LogicalCores * 2;//should THIS node use the Stump parallelism
         boolean depthPara = (1L << (depth + 1)) >= SystemInfo.LogicalCores * 2;//should the NEXT node use the stump parallelism
@@ -412,10 +459,7 @@ public class DecisionTree implements Classifier, Regressor, Parameterized, TreeL
         }
         DecisionStump stump = baseStump.clone();
         final List<RegressionDataSet> splits;
-        if (mePara)
-            splits = stump.trainR(dataPoints, options, parallel);
-        else
-            splits = stump.trainR(dataPoints, options);
+        splits = stump.trainR(dataPoints, options, mePara && parallel, hist);
         if (splits == null)//an error occured, probably not enough data for many categorical values
         {
             mcdl.countDown();
@@ -423,19 +467,21 @@ public class DecisionTree implements Classifier, Regressor, Parameterized, TreeL
         }
 
         final Node node = new Node(stump);
+        final NodeHistogram[] childHists = hist == null || stump.getNumberOfPaths() <= 1 ? null : hist.children(splits);
         if (stump.getNumberOfPaths() > 1)//If there is 1 path, we are perfectly classifier - nothing more to do
             for (int i = 0; i < node.paths.length; i++) {
                 final int ii = i;
                 final RegressionDataSet splitI = splits.get(i);
+                final NodeHistogram histI = childHists == null ? null : childHists[i];
                 mcdl.countUp();
                 if (depthPara) {
                     (parallel ? ParallelUtils.CACHED_THREAD_POOL : new FakeExecutor())
                             .submit(() ->
                             {
-                                node.paths[ii] = makeNodeR(splitI, new IntSet(options), depth + 1, parallel, mcdl);
+                                node.paths[ii] = makeNodeR(splitI, new IntSet(options), depth + 1, parallel, mcdl, histI);
                             });
                 } else
-                    node.paths[ii] = makeNodeR(splitI, new IntSet(options), depth + 1, parallel, mcdl);
+                    node.paths[ii] = makeNodeR(splitI, new IntSet(options), depth + 1, parallel, mcdl, histI);
             }
 
         mcdl.countDown();
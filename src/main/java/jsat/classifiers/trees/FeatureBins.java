@@ -0,0 +1,149 @@
+package jsat.classifiers.trees;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import jsat.DataSet;
+import jsat.linear.IndexValue;
+import jsat.linear.Vec;
+
+/**
+ * This class quantizes each numeric feature of a data set into a small number
+ * of bins. The bin boundaries are found once, from the quantiles of each
+ * feature, and can then be re-used by every node of a tree and every tree of
+ * an ensemble. Tree learners can then find splits by accumulating histograms
+ * over the bins instead of sorting the values of every feature at every node.
+ * <br><br>
+ * A feature with no more distinct values than the number of bins gets one bin
+ * per distinct value, so splits on it are the same as when sorting. Missing
+ * values are not placed in any bin.
+ */
+public class FeatureBins implements Serializable {
+
+    private static final long serialVersionUID = -2538236813599045014L;
+    /**
+     * The largest number of bins that may be used for a feature
+     */
+    public static final int MAX_BINS = 256;
+
+    /**
+     * The upper boundary of every bin but the last, for each numeric feature.
+     * A value <i>v</i> goes in the first bin <i>b</i> with
+     * <i>v &le; thresholds[b]</i>, or the last bin if there is none.
+     */
+    private final double[][] thresholds;
+
+    private FeatureBins(double[][] thresholds) {
+        this.thresholds = thresholds;
+    }
+
+    /**
+     * Finds the bins for every numeric feature in the given data set. Values
+     * are weighted by count, not by the data point weights, so the bins
+     * follow the distribution of the values themselves.
+     *
+     * @param data    the data set to find the bins of
+     * @param maxBins the maximum number of bins to use for any one feature, in
+     *                the range [2, {@value #MAX_BINS}]
+     * @return the bins for each numeric feature of the data set
+     */
+    public static FeatureBins fit(DataSet data, int maxBins) {
+        if (maxBins < 2 || maxBins > MAX_BINS)
+            throw new IllegalArgumentException("Number of bins must be in [2, " + MAX_BINS + "], not " + maxBins);
+        double[][] thresholds = new double[data.getNumNumericalVars()][];
+        for (int j = 0; j < thresholds.length; j++)
+            thresholds[j] = fitFeature(data.getNumericColumn(j), data.size(), maxBins);
+        return new FeatureBins(thresholds);
+    }
+
+    private static double[] fitFeature(Vec column, int n, int maxBins) {
+        //zeros are implicit in sparse columns, so count them in directly
+        double[] vals = new double[n];
+        int pos = 0;
+        for (IndexValue iv : column)
+            if (!Double.isNaN(iv.getValue()))
+                vals[pos++] = iv.getValue();
+        int zeros = n - column.nnz();
+        for (int i = 0; i < zeros; i++)
+            vals[pos++] = 0.0;
+        Arrays.sort(vals, 0, pos);
+        if (pos == 0 || vals[0] == vals[pos - 1])
+            return new double[0];
+
+        //one candidate boundary between every pair of distinct values
+        int distinct = 1;
+        for (int i = 1; i < pos; i++)
+            if (vals[i] != vals[i - 1])
+                distinct++;
+
+        double[] thresholds = new double[Math.min(distinct, maxBins) - 1];
+        if (distinct <= maxBins) {
+            int t = 0;
+            for (int i = 1; i < pos; i++)
+                if (vals[i] != vals[i - 1])
+                    thresholds[t++] = midpoint(vals[i - 1], vals[i]);
+            return thresholds;
+        }
+
+        //else, close a bin once it holds its share of the remaining values
+        int t = 0;
+        int binStart = 0;
+        for (int i = 1; i < pos && t < thresholds.length; i++) {
+            if (vals[i] == vals[i - 1])
+                continue;
+            double perBin = (pos - binStart) / (double) (thresholds.length - t + 1);
+            if (i - binStart >= perBin) {
+                thresholds[t++] = midpoint(vals[i - 1], vals[i]);
+                binStart = i;
+            }
+        }
+        return Arrays.copyOf(thresholds, t);
+    }
+
+    private static double midpoint(double a, double b) {
+        double mid = a + (b - a) / 2;
+        //with adjacent doubles the midpoint may round up to b, which would put b in the lower bin
+        return mid < b ? mid : a;
+    }
+
+    /**
+     * @return the number of numeric features these bins were fit to
+     */
+    public int getNumFeatures() {
+        return thresholds.length;
+    }
+
+    /**
+     * @param feature the numeric feature index
+     * @return the number of bins used for the feature, which is one for a
+     * feature that had only one value
+     */
+    public int getNumBins(int feature) {
+        return thresholds[feature].length + 1;
+    }
+
+    /**
+     * Returns the bin the given value falls in.
+     *
+     * @param feature the numeric feature index
+     * @param value   the value of the feature, which must not be NaN
+     * @return the bin of the value, in [0, {@link #getNumBins(int) })
+     */
+    public int getBin(int feature, double value) {
+        int pos = Arrays.binarySearch(thresholds[feature], value);
+        return pos >= 0 ? pos : -pos - 1;
+    }
+
+    /**
+     * Returns the largest value that falls into the given bin. A split after
+     * this bin sends every value &le; this threshold one way, and every larger
+     * value the other.
+     *
+     * @param feature the numeric feature index
+     * @param bin     the bin, which may not be the last one
+     * @return the upper boundary of the bin
+     */
+    public double getThreshold(int feature, int bin) {
+        return thresholds[feature][bin];
+    }
+}
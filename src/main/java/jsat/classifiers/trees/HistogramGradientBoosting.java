@@ -0,0 +1,991 @@
+package jsat.classifiers.trees;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import jsat.DataSet;
+import jsat.classifiers.CategoricalData;
+import jsat.classifiers.CategoricalResults;
+import jsat.classifiers.ClassificationDataSet;
+import jsat.classifiers.Classifier;
+import jsat.classifiers.DataPoint;
+import jsat.distributions.Distribution;
+import jsat.distributions.LogUniform;
+import jsat.distributions.discrete.UniformDiscrete;
+import jsat.exceptions.FailedToFitException;
+import jsat.exceptions.UntrainedModelException;
+import jsat.linear.DenseVector;
+import jsat.linear.Vec;
+import jsat.lossfunctions.LogisticLoss;
+import jsat.lossfunctions.LossC;
+import jsat.lossfunctions.LossR;
+import jsat.lossfunctions.SoftmaxLoss;
+import jsat.lossfunctions.SquaredLoss;
+import jsat.parameters.Parameterized;
+import jsat.regression.RegressionDataSet;
+import jsat.regression.Regressor;
+import jsat.utils.IntList;
+import jsat.utils.concurrent.ParallelUtils;
+import jsat.utils.random.RandomUtil;
+
+/**
+ * Gradient boosted decision trees built on binned features. Every feature is
+ * quantized once into at most {@value #MAX_BINS} bins and stored as one byte
+ * per value, and each tree is grown from histograms of the first and second
+ * derivatives of the loss over the bins. Leaf values are Newton steps, so the
+ * first and second derivatives of the loss are both used. <br>
+ * <br>
+ * Trees are grown leaf-wise: the leaf whose best split most reduces the loss
+ * is split next, until {@link #setMaxLeaves(int) max leaves} is reached. The
+ * histograms of the larger child of a split are found by subtracting those of
+ * the smaller child from the parent's, and histograms are built in parallel
+ * across features. <br>
+ * <br>
+ * Regression uses a {@link LossR}, binary classification a {@link LossC}, and
+ * problems with more than two classes fit one tree per class in each round
+ * with the {@link SoftmaxLoss softmax loss}. Missing values are kept in their
+ * own bin, and each split learns which side to send them to. Categorical
+ * features are split on the order of their category values. <br>
+ * <br>
+ * See:<br>
+ * <ul>
+ * <li>Chen, T., &amp; Guestrin, C. (2016). <i>XGBoost: A Scalable Tree Boosting
+ * System</i>. In Proceedings of the 22nd ACM SIGKDD International Conference
+ * on Knowledge Discovery and Data Mining (pp. 785–794).</li>
+ * <li>Ke, G., Meng, Q., Finley, T., Wang, T., Chen, W., Ma, W., … Liu, T.-Y.
+ * (2017). <i>LightGBM: A Highly Efficient Gradient Boosting Decision Tree</i>.
+ * In Advances in Neural Information Processing Systems 30 (pp. 3146–3154).</li>
+ * </ul>
+ */
+public class HistogramGradientBoosting implements Classifier, Regressor, Parameterized {
+
+    private static final long serialVersionUID = 4179427283531337856L;
+    /**
+     * The largest number of bins a feature may be quantized into. One value of
+     * each byte is kept to mark missing values.
+     */
+    public static final int MAX_BINS = FeatureBins.MAX_BINS - 1;
+    /**
+     * Stride of the histograms: the sum of first derivatives, the sum of second
+     * derivatives, and the number of points in each bin
+     */
+    private static final int STRIDE = 3;
+
+    private int maxIterations = 100;
+    private double learningRate = 0.1;
+    private int maxLeaves = 31;
+    private int minLeafSize = 20;
+    private double lambda = 1.0;
+    private int maxBins = MAX_BINS;
+    private double rowSampling = 1.0;
+    private double columnSampling = 1.0;
+    private double validationFraction = 0.0;
+    private int earlyStoppingRounds = 10;
+    private LossC classificationLoss = new LogisticLoss();
+    private LossR regressionLoss = new SquaredLoss();
+
+    /**
+     * The target variable for classification, or {@code null} for regression
+     */
+    private CategoricalData predicting;
+    /**
+     * The number of trees added each round, one for each score
+     */
+    private int numScores;
+    private int numCategorical;
+    private double[] baseScore;
+    /**
+     * The trees in the order they were built, {@link #numScores} per round
+     */
+    private List<Tree> trees;
+
+    /**
+     * Creates a new gradient boosting learner with the default parameters
+     */
+    public HistogramGradientBoosting() {
+    }
+
+    /**
+     * Creates a new gradient boosting learner
+     *
+     * @param maxIterations the number of rounds of boosting to perform
+     * @param learningRate  the multiplier applied to the output of each tree
+     * @param maxLeaves     the maximum number of leaves in each tree
+     */
+    public HistogramGradientBoosting(int maxIterations, double learningRate, int maxLeaves) {
+        setMaxIterations(maxIterations);
+        setLearningRate(learningRate);
+        setMaxLeaves(maxLeaves);
+    }
+
+    /**
+     * Copy constructor
+     *
+     * @param toCopy the object to copy
+     */
+    public HistogramGradientBoosting(HistogramGradientBoosting toCopy) {
+        this.maxIterations = toCopy.maxIterations;
+        this.learningRate = toCopy.learningRate;
+        this.maxLeaves = toCopy.maxLeaves;
+        this.minLeafSize = toCopy.minLeafSize;
+        this.lambda = toCopy.lambda;
+        this.maxBins = toCopy.maxBins;
+        this.rowSampling = toCopy.rowSampling;
+        this.columnSampling = toCopy.columnSampling;
+        this.validationFraction = toCopy.validationFraction;
+        this.earlyStoppingRounds = toCopy.earlyStoppingRounds;
+        this.classificationLoss = (LossC) toCopy.classificationLoss.clone();
+        this.regressionLoss = (LossR) toCopy.regressionLoss.clone();
+        if (toCopy.predicting != null)
+            this.predicting = toCopy.predicting.clone();
+        this.numScores = toCopy.numScores;
+        this.numCategorical = toCopy.numCategorical;
+        if (toCopy.baseScore != null)
+            this.baseScore = Arrays.copyOf(toCopy.baseScore, toCopy.baseScore.length);
+        if (toCopy.trees != null)
+            this.trees = new ArrayList<>(toCopy.trees);//trees are not altered once built
+    }
+
+    /**
+     * Sets the maximum number of rounds of boosting to perform. Fewer may be
+     * performed if early stopping is used.
+     *
+     * @param maxIterations the maximum number of rounds of boosting
+     */
+    public void setMaxIterations(int maxIterations) {
+        if (maxIterations < 1)
+            throw new IllegalArgumentException("Number of iterations must be positive, not " + maxIterations);
+        this.maxIterations = maxIterations;
+    }
+
+    /**
+     * @return the maximum number of rounds of boosting to perform
+     */
+    public int getMaxIterations() {
+        return maxIterations;
+    }
+
+    /**
+     * Sets the learning rate, which is multiplied by the output of each tree.
+     * Smaller values need more iterations but usually generalize better.
+     *
+     * @param learningRate the learning rate in (0, 1]
+     */
+    public void setLearningRate(double learningRate) {
+        if (!(learningRate > 0 && learningRate <= 1))
+            throw new IllegalArgumentException("Learning rate must be in (0, 1], not " + learningRate);
+        this.learningRate = learningRate;
+    }
+
+    /**
+     * @return the learning rate
+     */
+    public double getLearningRate() {
+        return learningRate;
+    }
+
+    /**
+     * Sets the maximum number of leaves in each tree.
+     *
+     * @param maxLeaves the maximum number of leaves, at least 2
+     */
+    public void setMaxLeaves(int maxLeaves) {
+        if (maxLeaves < 2)
+            throw new IllegalArgumentException("Trees must be allowed at least 2 leaves, not " + maxLeaves);
+        this.maxLeaves = maxLeaves;
+    }
+
+    /**
+     * @return the maximum number of leaves in each tree
+     */
+    public int getMaxLeaves() {
+        return maxLeaves;
+    }
+
+    /**
+     * Sets the minimum number of data points that must end up in each leaf.
+     *
+     * @param minLeafSize the minimum number of points in a leaf
+     */
+    public void setMinLeafSize(int minLeafSize) {
+        if (minLeafSize < 1)
+            throw new IllegalArgumentException("Minimum leaf size must be positive, not " + minLeafSize);
+        this.minLeafSize = minLeafSize;
+    }
+
+    /**
+     * @return the minimum number of data points that must end up in each leaf
+     */
+    public int getMinLeafSize() {
+        return minLeafSize;
+    }
+
+    /**
+     * Sets the L<sub>2</sub> regularization applied to the leaf values, which
+     * is added to the sum of second derivatives in each leaf.
+     *
+     * @param lambda the non-negative regularization penalty
+     */
+    public void setLambda(double lambda) {
+        if (!(lambda >= 0) || Double.isInfinite(lambda))
+            throw new IllegalArgumentException("Lambda must be a non-negative value, not " + lambda);
+        this.lambda = lambda;
+    }
+
+    /**
+     * @return the L<sub>2</sub> regularization applied to the leaf values
+     */
+    public double getLambda() {
+        return lambda;
+    }
+
+    /**
+     * Sets the maximum number of bins each numeric feature is quantized into.
+     *
+     * @param maxBins the number of bins in [2, {@value #MAX_BINS}]
+     */
+    public void setMaxBins(int maxBins) {
+        if (maxBins < 2 || maxBins > MAX_BINS)
+            throw new IllegalArgumentException("Number of bins must be in [2, " + MAX_BINS + "], not " + maxBins);
+        this.maxBins = maxBins;
+    }
+
+    /**
+     * @return the maximum number of bins each numeric feature is quantized
+     * into
+     */
+    public int getMaxBins() {
+        return maxBins;
+    }
+
+    /**
+     * Sets the fraction of the training data sampled, without replacement, to
+     * build each round of trees.
+     *
+     * @param rowSampling the fraction of rows used in each round, in (0, 1]
+     */
+    public void setRowSampling(double rowSampling) {
+        if (!(rowSampling > 0 && rowSampling <= 1))
+            throw new IllegalArgumentException("Row sampling fraction must be in (0, 1], not " + rowSampling);
+        this.rowSampling = rowSampling;
+    }
+
+    /**
+     * @return the fraction of the training data used to build each round of
+     * trees
+     */
+    public double getRowSampling() {
+        return rowSampling;
+    }
+
+    /**
+     * Sets the fraction of the features sampled, without replacement, that
+     * each tree may split on.
+     *
+     * @param columnSampling the fraction of features used by each tree, in (0, 1]
+     */
+    public void setColumnSampling(double columnSampling) {
+        if (!(columnSampling > 0 && columnSampling <= 1))
+            throw new IllegalArgumentException("Column sampling fraction must be in (0, 1], not " + columnSampling);
+        this.columnSampling = columnSampling;
+    }
+
+    /**
+     * @return the fraction of the features each tree may split on
+     */
+    public double getColumnSampling() {
+        return columnSampling;
+    }
+
+    /**
+     * Sets the fraction of the training data held out to decide when to stop
+     * early. If positive, training stops once the loss on the held out data
+     * has not improved for {@link #setEarlyStoppingRounds(int) a number of rounds},
+     * and the model is cut back to the round with the lowest loss. The default
+     * of zero uses all of the data to train and always performs
+     * {@link #setMaxIterations(int) max iterations} rounds.
+     *
+     * @param validationFraction the fraction of data to hold out, in [0, 1)
+     */
+    public void setValidationFraction(double validationFraction) {
+        if (!(validationFraction >= 0 && validationFraction < 1))
+            throw new IllegalArgumentException("Validation fraction must be in [0, 1), not " + validationFraction);
+        this.validationFraction = validationFraction;
+    }
+
+    /**
+     * @return the fraction of the training data held out to decide when to
+     * stop early
+     */
+    public double getValidationFraction() {
+        return validationFraction;
+    }
+
+    /**
+     * Sets how many rounds may pass without the validation loss improving
+     * before training stops. Only used when the
+     * {@link #setValidationFraction(double) validation fraction} is positive.
+     *
+     * @param earlyStoppingRounds the number of rounds without improvement to
+     *                            allow
+     */
+    public void setEarlyStoppingRounds(int earlyStoppingRounds) {
+        if (earlyStoppingRounds < 1)
+            throw new IllegalArgumentException("Early stopping rounds must be positive, not " + earlyStoppingRounds);
+        this.earlyStoppingRounds = earlyStoppingRounds;
+    }
+
+    /**
+     * @return how many rounds may pass without the validation loss improving
+     * before training stops
+     */
+    public int getEarlyStoppingRounds() {
+        return earlyStoppingRounds;
+    }
+
+    /**
+     * Sets the loss to use for binary classification. Problems with more than
+     * two classes always use the {@link SoftmaxLoss}.
+     *
+     * @param classificationLoss the loss for binary classification
+     */
+    public void setClassificationLoss(LossC classificationLoss) {
+        this.classificationLoss = classificationLoss;
+    }
+
+    /**
+     * @return the loss used for binary classification
+     */
+    public LossC getClassificationLoss() {
+        return classificationLoss;
+    }
+
+    /**
+     * Sets the loss to use for regression.
+     *
+     * @param regressionLoss the loss for regression
+     */
+    public void setRegressionLoss(LossR regressionLoss) {
+        this.regressionLoss = regressionLoss;
+    }
+
+    /**
+     * @return the loss used for regression
+     */
+    public LossR getRegressionLoss() {
+        return regressionLoss;
+    }
+
+    /**
+     * @return the number of rounds of boosting kept in the trained model
+     */
+    public int getNumRounds() {
+        return trees == null ? 0 : trees.size() / numScores;
+    }
+
+    /**
+     * Guesses the distribution to use for the learning rate
+     *
+     * @param d the data set to get the guess for
+     * @return the guess for the learning rate parameter
+     */
+    public static Distribution guessLearningRate(DataSet d) {
+        return new LogUniform(0.01, 0.3);
+    }
+
+    /**
+     * Guesses the distribution to use for the maximum number of leaves
+     *
+     * @param d the data set to get the guess for
+     * @return the guess for the max leaves parameter
+     */
+    public static Distribution guessMaxLeaves(DataSet d) {
+        return new UniformDiscrete(4, 128);
+    }
+
+    /**
+     * Guesses the distribution to use for the regularization penalty
+     *
+     * @param d the data set to get the guess for
+     * @return the guess for the lambda parameter
+     */
+    public static Distribution guessLambda(DataSet d) {
+        return new LogUniform(1e-2, 1e2);
+    }
+
+    @Override
+    public CategoricalResults classify(DataPoint data) {
+        if (trees == null || predicting == null)
+            throw new UntrainedModelException("Model has not been trained for classification");
+        double[] scores = predictScores(data);
+        if (numScores == 1)
+            return classificationLoss.getClassification(scores[0]);
+        Vec p = new DenseVector(scores);
+        SoftmaxLoss softmax = new SoftmaxLoss();
+        softmax.process(p, p);
+        return softmax.getClassification(p);
+    }
+
+    @Override
+    public double regress(DataPoint data) {
+        if (trees == null || predicting != null)
+            throw new UntrainedModelException("Model has not been trained for regression");
+        return regressionLoss.getRegression(predictScores(data)[0]);
+    }
+
+    private double[] predictScores(DataPoint data) {
+        double[] scores = Arrays.copyOf(baseScore, numScores);
+        for (int t = 0; t < trees.size(); t++)
+            scores[t % numScores] += trees.get(t).predict(data, numCategorical);
+        return scores;
+    }
+
+    @Override
+    public void train(ClassificationDataSet dataSet, boolean parallel) {
+        predicting = dataSet.getPredicting();
+        int[] labels = new int[dataSet.size()];
+        for (int i = 0; i < labels.length; i++)
+            labels[i] = dataSet.getDataPointCategory(i);
+        fit(dataSet, null, labels, dataSet.getClassSize(), parallel);
+    }
+
+    @Override
+    public void train(RegressionDataSet dataSet, boolean parallel) {
+        predicting = null;
+        fit(dataSet, dataSet.getTargetValues().arrayCopy(), null, 0, parallel);
+    }
+
+    /**
+     * Performs the boosting for either kind of problem
+     *
+     * @param data       the data to train on
+     * @param targets    the regression targets, or {@code null} for
+     *                   classification
+     * @param labels     the class labels, or {@code null} for regression
+     * @param numClasses the number of classes, or zero for regression
+     * @param parallel   whether or not to use multiple threads
+     */
+    private void fit(DataSet<?> data, final double[] targets, final int[] labels, int numClasses, boolean parallel) {
+        final int n = data.size();
+        if (n < minLeafSize * 2)
+            throw new FailedToFitException("There are only " + n + " data points, at least " + minLeafSize * 2 + " are needed to split");
+        numScores = numClasses > 2 ? numClasses : 1;
+        final int K = numScores;
+        final double[] weights = data.getDataWeights().arrayCopy();
+        final Binned binned = new Binned(data, maxBins, parallel);
+        numCategorical = data.getNumCategoricalVars();
+        final int F = binned.binCount.length;
+        Random rand = RandomUtil.getRandom();
+
+        //split off the rows used to decide when to stop
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++)
+            order[i] = i;
+        shuffle(order, n, rand);
+        int numVal = (int) Math.round(n * validationFraction);
+        final int[] trainRows = Arrays.copyOfRange(order, numVal, n);
+        final int[] valRows = Arrays.copyOfRange(order, 0, numVal);
+        Arrays.sort(trainRows);
+
+        baseScore = initialScores(targets, labels, numClasses, weights, trainRows);
+        final double[] scores = new double[n * K];
+        for (int i = 0; i < n; i++)
+            System.arraycopy(baseScore, 0, scores, i * K, K);
+
+        final double[][] g = new double[K][n];
+        final double[][] h = new double[K][n];
+        final SoftmaxLoss softmax = new SoftmaxLoss();
+        trees = new ArrayList<>(maxIterations * K);
+        double bestValLoss = Double.POSITIVE_INFINITY;
+        int bestRound = -1;
+        int rowsPerRound = Math.max((int) Math.round(trainRows.length * rowSampling), 1);
+        int featuresPerTree = Math.max((int) Math.round(F * columnSampling), 1);
+        int[] featureOrder = new int[F];
+        for (int f = 0; f < F; f++)
+            featureOrder[f] = f;
+
+        for (int iter = 0; iter < maxIterations; iter++) {
+            ParallelUtils.run(parallel, trainRows.length, (start, end) ->
+            {
+                Vec p = new DenseVector(K);
+                for (int pos = start; pos < end; pos++) {
+                    int i = trainRows[pos];
+                    if (targets != null) {
+                        g[0][i] = regressionLoss.getDeriv(scores[i], targets[i]) * weights[i];
+                        h[0][i] = regressionLoss.getDeriv2(scores[i], targets[i]) * weights[i];
+                    } else if (K == 1) {
+                        double y = labels[i] * 2 - 1;
+                        g[0][i] = classificationLoss.getDeriv(scores[i], y) * weights[i];
+                        h[0][i] = classificationLoss.getDeriv2(scores[i], y) * weights[i];
+                    } else {
+                        for (int k = 0; k < K; k++)
+                            p.set(k, scores[i * K + k]);
+                        softmax.process(p, p);
+                        for (int k = 0; k < K; k++) {
+                            double p_k = p.get(k);
+                            g[k][i] = (k == labels[i] ? p_k - 1 : p_k) * weights[i];
+                            h[k][i] = p_k * (1 - p_k) * weights[i];
+                        }
+                    }
+                }
+            });
+
+            int[] rows = trainRows;
+            if (rowsPerRound < trainRows.length) {
+                rows = trainRows.clone();
+                shuffle(rows, rowsPerRound, rand);
+                rows = Arrays.copyOf(rows, rowsPerRound);
+                Arrays.sort(rows);//keeps memory access in order when building histograms
+            }
+
+            final Tree[] round = new Tree[K];
+            for (int k = 0; k < K; k++) {
+                boolean[] useFeature = new boolean[F];
+                shuffle(featureOrder, featuresPerTree, rand);
+                for (int j = 0; j < featuresPerTree; j++)
+                    useFeature[featureOrder[j]] = true;
+                round[k] = growTree(binned, useFeature, rows, g[k], h[k], parallel);
+                trees.add(round[k]);
+            }
+
+            ParallelUtils.run(parallel, n, (start, end) ->
+            {
+                for (int i = start; i < end; i++)
+                    for (int k = 0; k < K; k++)
+                        scores[i * K + k] += round[k].predict(binned, i);
+            });
+
+            if (valRows.length > 0) {
+                double valLoss = 0;
+                Vec p = new DenseVector(K);
+                for (int i : valRows) {
+                    double loss;
+                    if (targets != null)
+                        loss = regressionLoss.getLoss(scores[i], targets[i]);
+                    else if (K == 1)
+                        loss = classificationLoss.getLoss(scores[i], labels[i] * 2 - 1);
+                    else {
+                        for (int k = 0; k < K; k++)
+                            p.set(k, scores[i * K + k]);
+                        softmax.process(p, p);
+                        loss = softmax.getLoss(p, labels[i]);
+                    }
+                    valLoss += loss * weights[i];
+                }
+                if (valLoss < bestValLoss) {
+                    bestValLoss = valLoss;
+                    bestRound = iter;
+                } else if (iter - bestRound >= earlyStoppingRounds)
+                    break;
+            }
+        }
+
+        if (valRows.length > 0)//drop the rounds after the best one
+            trees = new ArrayList<>(trees.subList(0, (bestRound + 1) * K));
+    }
+
+    /**
+     * Finds the constant scores that the trees start from
+     */
+    private double[] initialScores(double[] targets, int[] labels, int numClasses, double[] weights, int[] rows) {
+        double[] init = new double[numScores];
+        if (targets != null) {
+            double sum = 0, weightSum = 0;
+            for (int i : rows) {
+                sum += targets[i] * weights[i];
+                weightSum += weights[i];
+            }
+            init[0] = sum / weightSum;
+        } else {
+            double[] prior = new double[numClasses];
+            for (int i : rows)
+                prior[labels[i]] += weights[i];
+            if (numScores == 1)//log odds, kept finite if a class is missing
+                init[0] = Math.log((prior[1] + 1e-3) / (prior[0] + 1e-3));
+            else {
+                double total = 0;
+                for (double w : prior)
+                    total += w;
+                for (int k = 0; k < numClasses; k++)
+                    init[k] = Math.log((prior[k] + 1e-3) / total);
+            }
+        }
+        return init;
+    }
+
+    /**
+     * Moves a random selection of {@code count} values to the front of the
+     * array
+     */
+    private static void shuffle(int[] a, int count, Random rand) {
+        for (int i = 0; i < count && i < a.length - 1; i++) {
+            int j = i + rand.nextInt(a.length - i);
+            int tmp = a[i];
+            a[i] = a[j];
+            a[j] = tmp;
+        }
+    }
+
+    /**
+     * Grows one tree leaf-wise on the given derivatives
+     *
+     * @param binned     the binned training data
+     * @param useFeature which features the tree may split on
+     * @param rows       the rows to build the tree from, in increasing order
+     * @param g          the weighted first derivative of each row
+     * @param h          the weighted second derivative of each row
+     * @param parallel   whether or not to use multiple threads
+     * @return the tree
+     */
+    private Tree growTree(Binned binned, boolean[] useFeature, int[] rows, double[] g, double[] h, boolean parallel) {
+        Tree tree = new Tree(maxLeaves);
+        Leaf root = new Leaf(0, rows);
+        for (int i : rows) {
+            root.G += g[i];
+            root.H += h[i];
+        }
+        tree.value[0] = leafValue(root.G, root.H);
+        root.hist = buildHistograms(binned, useFeature, rows, g, h, parallel);
+        findSplit(binned, root, parallel);
+
+        PriorityQueue<Leaf> toSplit = new PriorityQueue<>((a, b) -> Double.compare(b.gain, a.gain));
+        if (root.feature >= 0)
+            toSplit.add(root);
+        int leaves = 1;
+        while (leaves < maxLeaves && !toSplit.isEmpty()) {
+            Leaf leaf = toSplit.poll();
+            int f = leaf.feature;
+            byte[] col = binned.bins[f];
+            int missingBin = binned.binCount[f];
+            IntList leftRows = new IntList();
+            IntList rightRows = new IntList();
+            for (int i : leaf.rows) {
+                int b = col[i] & 0xFF;
+                if (b == missingBin ? leaf.missingLeft : b <= leaf.bin)
+                    leftRows.add(i);
+                else
+                    rightRows.add(i);
+            }
+
+            int leftNode = tree.addNode();
+            int rightNode = tree.addNode();
+            tree.split(leaf.node, f, leaf.bin, binned.threshold(f, leaf.bin), leaf.missingLeft, leftNode, rightNode);
+            Leaf left = new Leaf(leftNode, toArray(leftRows));
+            Leaf right = new Leaf(rightNode, toArray(rightRows));
+            left.G = leaf.leftG;
+            left.H = leaf.leftH;
+            right.G = leaf.G - leaf.leftG;
+            right.H = leaf.H - leaf.leftH;
+            tree.value[leftNode] = leafValue(left.G, left.H);
+            tree.value[rightNode] = leafValue(right.G, right.H);
+            leaves++;
+
+            //only the smaller child needs to go over its data
+            Leaf small = left.rows.length <= right.rows.length ? left : right;
+            Leaf large = small == left ? right : left;
+            small.hist = buildHistograms(binned, useFeature, small.rows, g, h, parallel);
+            large.hist = leaf.hist;
+            for (int j = 0; j < large.hist.length; j++)
+                if (large.hist[j] != null)
+                    for (int b = 0; b < large.hist[j].length; b++)
+                        large.hist[j][b] -= small.hist[j][b];
+            leaf.hist = null;
+
+            for (Leaf child : new Leaf[]{left, right}) {
+                if (child.rows.length >= minLeafSize * 2)
+                    findSplit(binned, child, parallel);
+                if (child.feature >= 0)
+                    toSplit.add(child);
+                else
+                    child.hist = null;
+            }
+        }
+        tree.trim();
+        return tree;
+    }
+
+    private static int[] toArray(IntList list) {
+        int[] a = new int[list.size()];
+        for (int i = 0; i < a.length; i++)
+            a[i] = list.getI(i);
+        return a;
+    }
+
+    private double leafValue(double G, double H) {
+        return H + lambda > 0 ? -G / (H + lambda) * learningRate : 0;
+    }
+
+    /**
+     * The reduction in loss, up to a constant factor, from giving a leaf with
+     * these sums its Newton step value
+     */
+    private double leafScore(double G, double H) {
+        return H + lambda > 0 ? G * G / (H + lambda) : 0;
+    }
+
+    private double[][] buildHistograms(Binned binned, boolean[] useFeature, int[] rows, double[] g, double[] h, boolean parallel) {
+        final double[][] hist = new double[useFeature.length][];
+        //small leaves are not worth the overhead of threads
+        ParallelUtils.run(parallel && rows.length >= 1024, useFeature.length, (start, end) ->
+        {
+            for (int f = start; f < end; f++) {
+                if (!useFeature[f] || binned.binCount[f] < 2)
+                    continue;
+                byte[] col = binned.bins[f];
+                double[] hf = hist[f] = new double[(binned.binCount[f] + 1) * STRIDE];
+                for (int i : rows) {
+                    int pos = (col[i] & 0xFF) * STRIDE;
+                    hf[pos] += g[i];
+                    hf[pos + 1] += h[i];
+                    hf[pos + 2]++;
+                }
+            }
+        });
+        return hist;
+    }
+
+    /**
+     * Finds the best split of the given leaf from its histograms, and stores
+     * it in the leaf. The leaf's feature is left negative if no split reduces
+     * the loss.
+     */
+    private void findSplit(Binned binned, Leaf leaf, boolean parallel) {
+        final int F = leaf.hist.length;
+        final double[] gains = new double[F];
+        final int[] splitBins = new int[F];
+        final boolean[] missingLeft = new boolean[F];
+        final double[] leftG = new double[F];
+        final double[] leftH = new double[F];
+        final double parentScore = leafScore(leaf.G, leaf.H);
+        final double count = leaf.rows.length;
+
+        ParallelUtils.run(parallel && leaf.rows.length >= 1024, F, (start, end) ->
+        {
+            for (int f = start; f < end; f++) {
+                double[] hf = leaf.hist[f];
+                if (hf == null)
+                    continue;
+                int B = binned.binCount[f];
+                double missG = hf[B * STRIDE], missH = hf[B * STRIDE + 1], missC = hf[B * STRIDE + 2];
+                double GL = 0, HL = 0, CL = 0;
+                for (int b = 0; b < B - 1; b++) {
+                    double c = hf[b * STRIDE + 2];
+                    if (c == 0 && b > 0)//same split as the last bin
+                        continue;
+                    GL += hf[b * STRIDE];
+                    HL += hf[b * STRIDE + 1];
+                    CL += c;
+                    //try sending the missing values each way
+                    for (int side = 0; side < (missC > 0 ? 2 : 1); side++) {
+                        double gl = side == 0 ? GL : GL + missG;
+                        double hl = side == 0 ? HL : HL + missH;
+                        double cl = side == 0 ? CL : CL + missC;
+                        if (cl < minLeafSize || count - cl < minLeafSize)
+                            continue;
+                        double gain = leafScore(gl, hl) + leafScore(leaf.G - gl, leaf.H - hl) - parentScore;
+                        if (gain > gains[f]) {
+                            gains[f] = gain;
+                            splitBins[f] = b;
+                            missingLeft[f] = side == 1;
+                            leftG[f] = gl;
+                            leftH[f] = hl;
+                        }
+                    }
+                }
+            }
+        });
+
+        leaf.feature = -1;
+        leaf.gain = 0;
+        for (int f = 0; f < F; f++)
+            if (gains[f] > leaf.gain) {
+                leaf.gain = gains[f];
+                leaf.feature = f;
+                leaf.bin = splitBins[f];
+                leaf.missingLeft = missingLeft[f];
+                leaf.leftG = leftG[f];
+                leaf.leftH = leftH[f];
+            }
+    }
+
+    @Override
+    public boolean supportsWeightedData() {
+        return true;
+    }
+
+    @Override
+    public HistogramGradientBoosting clone() {
+        return new HistogramGradientBoosting(this);
+    }
+
+    /**
+     * The training data with every feature quantized to one byte per value.
+     * Categorical features come first, followed by the numeric features, the
+     * same order used by {@link DecisionStump}.
+     */
+    private static class Binned {
+
+        /**
+         * The bin of every value, stored by feature. The bin one past the last
+         * holds the missing values.
+         */
+        final byte[][] bins;
+        /**
+         * The number of bins of each feature, not counting the missing bin. A
+         * feature with fewer than 2 bins can not be split on.
+         */
+        final int[] binCount;
+        final int numCategorical;
+        final FeatureBins numericBins;
+
+        Binned(DataSet<?> data, int maxBins, boolean parallel) {
+            numCategorical = data.getNumCategoricalVars();
+            numericBins = FeatureBins.fit(data, maxBins);
+            final int F = numCategorical + data.getNumNumericalVars();
+            final int n = data.size();
+            binCount = new int[F];
+            bins = new byte[F][n];
+            for (int f = 0; f < F; f++)
+                if (f < numCategorical)//too many categories to fit in a byte are not used
+                    binCount[f] = data.getCategories()[f].getNumOfCategories() <= MAX_BINS ? data.getCategories()[f].getNumOfCategories() : 0;
+                else
+                    binCount[f] = numericBins.getNumBins(f - numCategorical);
+
+            ParallelUtils.run(parallel, n, (start, end) ->
+            {
+                for (int i = start; i < end; i++) {
+                    DataPoint dp = data.getDataPoint(i);
+                    for (int f = 0; f < numCategorical; f++) {
+                        int c = dp.getCategoricalValue(f);
+                        bins[f][i] = (byte) (c < 0 || c >= binCount[f] ? binCount[f] : c);
+                    }
+                    Vec x = dp.getNumericalValues();
+                    for (int j = 0; j < F - numCategorical; j++) {
+                        int f = j + numCategorical;
+                        double v = x.get(j);
+                        bins[f][i] = (byte) (Double.isNaN(v) ? binCount[f] : numericBins.getBin(j, v));
+                    }
+                }
+            });
+        }
+
+        /**
+         * @return the raw feature value that splits the given bin from the
+         * next one
+         */
+        double threshold(int f, int bin) {
+            return f < numCategorical ? bin : numericBins.getThreshold(f - numCategorical, bin);
+        }
+    }
+
+    /**
+     * A leaf that may still be split while a tree is grown
+     */
+    private static class Leaf {
+
+        final int node;
+        final int[] rows;
+        double G, H;
+        /**
+         * The histogram of each feature, or {@code null} for features that are
+         * not used
+         */
+        double[][] hist;
+        double gain;
+        int feature = -1;
+        int bin;
+        boolean missingLeft;
+        double leftG, leftH;
+
+        Leaf(int node, int[] rows) {
+            this.node = node;
+            this.rows = rows;
+        }
+    }
+
+    /**
+     * A binary tree stored in arrays, where leaves have a negative feature
+     */
+    private static class Tree implements Serializable {
+
+        private static final long serialVersionUID = -3467129084917281306L;
+        private int size;
+        private int[] feature;
+        /**
+         * The last bin sent left, used while training
+         */
+        private int[] bin;
+        private double[] threshold;
+        private boolean[] missingLeft;
+        private int[] left;
+        private int[] right;
+        private double[] value;
+
+        Tree(int maxLeaves) {
+            int maxNodes = maxLeaves * 2 - 1;
+            feature = new int[maxNodes];
+            Arrays.fill(feature, -1);
+            bin = new int[maxNodes];
+            threshold = new double[maxNodes];
+            missingLeft = new boolean[maxNodes];
+            left = new int[maxNodes];
+            right = new int[maxNodes];
+            value = new double[maxNodes];
+            size = 1;
+        }
+
+        int addNode() {
+            return size++;
+        }
+
+        void split(int node, int f, int splitBin, double splitValue, boolean missLeft, int leftNode, int rightNode) {
+            feature[node] = f;
+            bin[node] = splitBin;
+            threshold[node] = splitValue;
+            missingLeft[node] = missLeft;
+            left[node] = leftNode;
+            right[node] = rightNode;
+        }
+
+        void trim() {
+            feature = Arrays.copyOf(feature, size);
+            bin = Arrays.copyOf(bin, size);
+            threshold = Arrays.copyOf(threshold, size);
+            missingLeft = Arrays.copyOf(missingLeft, size);
+            left = Arrays.copyOf(left, size);
+            right = Arrays.copyOf(right, size);
+            value = Arrays.copyOf(value, size);
+        }
+
+        double predict(Binned binned, int row) {
+            int node = 0;
+            while (feature[node] >= 0) {
+                int f = feature[node];
+                int b = binned.bins[f][row] & 0xFF;
+                boolean goLeft = b == binned.binCount[f] ? missingLeft[node] : b <= bin[node];
+                node = goLeft ? left[node] : right[node];
+            }
+            return value[node];
+        }
+
+        double predict(DataPoint dp, int numCategorical) {
+            int node = 0;
+            while (feature[node] >= 0) {
+                int f = feature[node];
+                double v;
+                if (f < numCategorical) {
+                    int c = dp.getCategoricalValue(f);
+                    v = c < 0 ? Double.NaN : c;
+                } else
+                    v = dp.getNumericalValues().get(f - numCategorical);
+                boolean goLeft = Double.isNaN(v) ? missingLeft[node] : v <= threshold[node];
+                node = goLeft ? left[node] : right[node];
+            }
+            return value[node];
+        }
+    }
+}
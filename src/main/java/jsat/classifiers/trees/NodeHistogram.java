@@ -0,0 +1,173 @@
+package jsat.classifiers.trees;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import jsat.DataSet;
+import jsat.classifiers.ClassificationDataSet;
+import jsat.regression.RegressionDataSet;
+
+/**
+ * Holds the histograms of the numeric features of the data that reaches one
+ * node of a tree, using the bins from a {@link FeatureBins}. The histogram of
+ * a feature is only built when it is first needed. <br>
+ * <br>
+ * For classification each bin holds the weight of every class followed by the
+ * number of points in it. For regression each bin holds the number of points,
+ * the sum of weights, the weighted sum of targets, and the weighted sum of
+ * squared targets. <br>
+ * <br>
+ * When a node is split into children that partition its data, the largest
+ * child gets its histograms by subtracting those of its siblings from the
+ * parent's, so only the smaller children have to go over their data.
+ */
+final class NodeHistogram {
+
+    private final FeatureBins bins;
+    private final DataSet<?> data;
+    /**
+     * The number of values stored for each bin
+     */
+    private final int stride;
+    private final int numClasses;
+    private final AtomicReferenceArray<double[]> histograms;
+    /**
+     * The node this one was split from, if the histograms may be found by
+     * subtraction. Only set for the largest child.
+     */
+    private final NodeHistogram parent;
+    /**
+     * The other children of the parent, set together with {@link #parent}
+     */
+    private NodeHistogram[] siblings;
+
+    private NodeHistogram(FeatureBins bins, DataSet<?> data, NodeHistogram parent) {
+        this.bins = bins;
+        this.data = data;
+        this.parent = parent;
+        if (data instanceof ClassificationDataSet) {
+            numClasses = ((ClassificationDataSet) data).getClassSize();
+            stride = numClasses + 1;
+        } else {
+            numClasses = 0;
+            stride = 4;
+        }
+        this.histograms = new AtomicReferenceArray<>(bins.getNumFeatures());
+    }
+
+    /**
+     * Creates the histograms for the root of a tree
+     *
+     * @param bins the bins of every numeric feature
+     * @param data the data at the root
+     */
+    NodeHistogram(FeatureBins bins, DataSet<?> data) {
+        this(bins, data, null);
+    }
+
+    FeatureBins getBins() {
+        return bins;
+    }
+
+    /**
+     * @return the number of values stored for each bin of a histogram
+     */
+    int getStride() {
+        return stride;
+    }
+
+    /**
+     * Creates the histograms for the children of this node. If the children
+     * hold exactly the points of this node, the largest one will use
+     * subtraction.
+     *
+     * @param splits the data sent to each child
+     * @return the histograms for each child
+     */
+    NodeHistogram[] children(List<? extends DataSet<?>> splits) {
+        NodeHistogram[] children = new NodeHistogram[splits.size()];
+        int total = 0;
+        int largest = 0;
+        for (int i = 0; i < splits.size(); i++) {
+            total += splits.get(i).size();
+            if (splits.get(i).size() > splits.get(largest).size())
+                largest = i;
+        }
+        //missing values are sent down every path, so counts would not add up
+        boolean partition = total == data.size();
+
+        for (int i = 0; i < children.length; i++)
+            children[i] = new NodeHistogram(bins, splits.get(i), partition && i == largest ? this : null);
+        if (partition) {
+            NodeHistogram[] others = new NodeHistogram[children.length - 1];
+            for (int i = 0, pos = 0; i < children.length; i++)
+                if (i != largest)
+                    others[pos++] = children[i];
+            children[largest].siblings = others;
+        }
+        return children;
+    }
+
+    /**
+     * Returns the histogram of the given feature, building it if needed. The
+     * returned array must not be altered.
+     *
+     * @param feature the numeric feature index
+     * @return the histogram of the feature, with {@link #getStride() } values
+     * for each bin
+     */
+    double[] get(int feature) {
+        double[] hist = histograms.get(feature);
+        if (hist != null)
+            return hist;
+
+        double[] fromParent = parent == null ? null : parent.histograms.get(feature);
+        if (fromParent != null) {
+            hist = fromParent.clone();
+            for (NodeHistogram sibling : siblings) {
+                double[] other = sibling.get(feature);
+                for (int i = 0; i < hist.length; i++)
+                    hist[i] -= other[i];
+            }
+            //rounding can leave tiny negative weights behind. The sum of targets may really be negative
+            for (int i = 0; i < hist.length; i++)
+                if (hist[i] < 0 && (numClasses > 0 || i % stride != 2))
+                    hist[i] = 0;
+        } else
+            hist = build(feature);
+
+        //another thread may have done the same work, either result is fine
+        histograms.compareAndSet(feature, null, hist);
+        return histograms.get(feature);
+    }
+
+    private double[] build(int feature) {
+        double[] hist = new double[bins.getNumBins(feature) * stride];
+        if (numClasses > 0) {
+            ClassificationDataSet cData = (ClassificationDataSet) data;
+            for (int i = 0; i < cData.size(); i++) {
+                double v = cData.getDataPoint(i).getNumericalValues().get(feature);
+                if (Double.isNaN(v))
+                    continue;
+                int pos = bins.getBin(feature, v) * stride;
+                hist[pos + cData.getDataPointCategory(i)] += cData.getWeight(i);
+                hist[pos + numClasses]++;
+            }
+        } else {
+            RegressionDataSet rData = (RegressionDataSet) data;
+            for (int i = 0; i < rData.size(); i++) {
+                double v = rData.getDataPoint(i).getNumericalValues().get(feature);
+                if (Double.isNaN(v))
+                    continue;
+                int pos = bins.getBin(feature, v) * stride;
+                double w = rData.getWeight(i);
+                double y = rData.getTargetValue(i);
+                hist[pos]++;
+                hist[pos + 1] += w;
+                hist[pos + 2] += w * y;
+                hist[pos + 3] += w * y * y;
+            }
+        }
+        return hist;
+    }
+}
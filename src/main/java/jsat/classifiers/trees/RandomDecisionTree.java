@@ -80,25 +80,25 @@ public class RandomDecisionTree extends DecisionTree {
     }
 
     @Override
-    protected Node makeNodeC(ClassificationDataSet dataPoints, Set<Integer> options, int depth, boolean parallel, ModifiableCountDownLatch mcdl) {
+    protected Node makeNodeC(ClassificationDataSet dataPoints, Set<Integer> options, int depth, boolean parallel, ModifiableCountDownLatch mcdl, NodeHistogram hist) {
         if (dataPoints.isEmpty()) {
             mcdl.countDown();
             return null;
         }
         final int featureCount = dataPoints.getNumFeatures();
         fillWithRandomFeatures(options, featureCount);
-        return super.makeNodeC(dataPoints, options, depth, parallel, mcdl); //To change body of generated methods, choose Tools | Templates.
+        return super.makeNodeC(dataPoints, options, depth, parallel, mcdl, hist); //To change body of generated methods, choose Tools | Templates.
     }
 
     @Override
-    protected Node makeNodeR(RegressionDataSet dataPoints, Set<Integer> options, int depth, boolean parallel, ModifiableCountDownLatch mcdl) {
+    protected Node makeNodeR(RegressionDataSet dataPoints, Set<Integer> options, int depth, boolean parallel, ModifiableCountDownLatch mcdl, NodeHistogram hist) {
         if (dataPoints.isEmpty()) {
             mcdl.countDown();
             return null;
         }
         final int featureCount = dataPoints.getNumFeatures();
         fillWithRandomFeatures(options, featureCount);
-        return super.makeNodeR(dataPoints, options, depth, parallel, mcdl); //To change body of generated methods, choose Tools | Templates.
+        return super.makeNodeR(dataPoints, options, depth, parallel, mcdl, hist); //To change body of generated methods, choose Tools | Templates.
     }
 
     private void fillWithRandomFeatures(Set<Integer> options, final int featureCount) {
@@ -151,6 +151,29 @@ public class RandomForest implements Classifier, Regressor, Parameterized {
         return maxForestSize;
     }
 
+    /**
+     * Sets the number of bins that numeric features are quantized into when
+     * growing each tree. When positive, the bins are found once from the
+     * whole training set and shared by every tree in the forest, and splits
+     * are found from histograms over the bins instead of by sorting. The
+     * default of zero disables binning.
+     *
+     * @param numericBins the number of bins to use in [2, {@value FeatureBins#MAX_BINS}],
+     *                    or zero to find splits by sorting
+     * @see DecisionTree#setNumericBins(int)
+     */
+    public void setNumericBins(int numericBins) {
+        baseLearner.setNumericBins(numericBins);
+    }
+
+    /**
+     * @return the number of bins numeric features are quantized into, or zero
+     * if splits are found by sorting
+     */
+    public int getNumericBins() {
+        return baseLearner.getNumericBins();
+    }
+
     /**
      * Sets whether or not to compute the out of bag error during training
      *
@@ -287,6 +310,9 @@ public class RandomForest implements Classifier, Regressor, Parameterized {
             roundShare = roundsToDistribut;//All the rounds get shoved onto one thread
         ExecutorService threadPool = parallel ? ParallelUtils.CACHED_THREAD_POOL : new FakeExecutor();
 
+        //Bins are found once, bootstrap samples only re-weight the same points
+        FeatureBins bins = baseLearner.getNumericBins() > 0 ? FeatureBins.fit(dataSet, baseLearner.getNumericBins()) : null;
+
         //Random used for creating more random objects, faster to duplicate such a small recourse then share and lock
         Random rand = RandomUtil.getRandom();
         List<Future<LearningWorker>> futures = new ArrayList<>(SystemInfo.LogicalCores);
@@ -302,7 +328,7 @@ public class RandomForest implements Classifier, Regressor, Parameterized {
 
         while (roundsToDistribut > 0) {
             int extra = (extraRounds-- > 0) ? 1 : 0;
-            Future<LearningWorker> future = threadPool.submit(new LearningWorker(dataSet, roundShare + extra, new Random(rand.nextInt()), counts, pred));
+            Future<LearningWorker> future = threadPool.submit(new LearningWorker(dataSet, roundShare + extra, new Random(rand.nextInt()), counts, pred, bins));
             roundsToDistribut -= (roundShare + extra);
             futures.add(future);
         }
@@ -381,6 +407,7 @@ public class RandomForest implements Classifier, Regressor, Parameterized {
         List<DecisionTree> learned;
         DataSet dataSet;
         Random random;
+        FeatureBins bins;
         OnLineStatistics[] fi;
         /**
          * For regression: sum of predictions
@@ -389,10 +416,11 @@ public class RandomForest implements Classifier, Regressor, Parameterized {
 
         private int[][] counts;
 
-        public LearningWorker(DataSet dataSet, int toLearn, Random random, int[][] counts, AtomicDoubleArray pred) {
+        public LearningWorker(DataSet dataSet, int toLearn, Random random, int[][] counts, AtomicDoubleArray pred, FeatureBins bins) {
             this.dataSet = dataSet;
             this.toLearn = toLearn;
             this.random = random;
+            this.bins = bins;
             this.learned = new ArrayList<DecisionTree>(toLearn);
             if (useOutOfBagError) {
                 votes = pred;
@@ -418,6 +446,7 @@ public class RandomForest implements Classifier, Regressor, Parameterized {
                     features.add(random.nextInt(dataSet.getNumFeatures()));
 
                 RandomDecisionTree learner = baseLearner.clone();
+                learner.setFeatureBins(bins);
 
                 if (dataSet instanceof ClassificationDataSet)
                     learner.trainC(Bagging.getWeightSampledDataSet((ClassificationDataSet) dataSet, sampleCounts), features);
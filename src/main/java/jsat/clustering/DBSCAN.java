@@ -12,6 +12,8 @@ import jsat.linear.distancemetrics.TrainableDistanceMetric;
 import jsat.linear.vectorcollection.DefaultVectorCollection;
 import jsat.linear.vectorcollection.VectorCollection;
 import jsat.math.OnLineStatistics;
+import jsat.utils.DoubleList;
+import jsat.utils.IntList;
 import jsat.utils.concurrent.ParallelUtils;
 
 /**
@@ -93,17 +95,19 @@ public class DBSCAN extends ClustererBase {
 
     public int[] cluster(DataSet dataSet, int minPts, boolean parallel, int[] designations) {
         TrainableDistanceMetric.trainIfNeeded(dm, dataSet, parallel);
-        vc.build(parallel, getVecIndexPairs(dataSet), dm);
+        List<VecPaired<Vec, Integer>> vecs = getVecIndexPairs(dataSet);
+        vc.build(parallel, vecs, dm);
 
-        List<List<Integer>> neighbors = new ArrayList<>();
-        List<List<Double>> distances = new ArrayList<>();
-        vc.search(vc, minPts + 1, neighbors, distances, parallel);
+        int k = minPts + 1;
+        int[] neighbors = new int[vecs.size() * k];
+        double[] distances = new double[neighbors.length];
+        vc.search(vecs, k, neighbors, distances, parallel);
 
         OnLineStatistics stats = ParallelUtils.run(parallel, dataSet.size(), (start, end) ->
         {
             OnLineStatistics s = new OnLineStatistics();
             for (int i = start; i < end; i++)
-                s.add(distances.get(i).get(minPts));
+                s.add(distances[i * k + minPts]);
             return s;
         }, (t, u) -> t.apply(t, u));
 
@@ -142,16 +146,16 @@ public class DBSCAN extends ClustererBase {
             pointCats = new int[dataSet.size()];
         Arrays.fill(pointCats, UNCLASSIFIED);
 
-        vc.build(parallel, getVecIndexPairs(dataSet), dm);
-        List<List<Integer>> neighbors = new ArrayList<>();
-        List<List<Double>> distances = new ArrayList<>();
-        vc.search(vc, 0, eps, neighbors, distances, parallel);
+        List<VecPaired<Vec, Integer>> vecs = getVecIndexPairs(dataSet);
+        vc.build(parallel, vecs, dm);
+        IntList neighbors = new IntList();
+        int[] offsets = vc.search(vecs, eps, neighbors, new DoubleList(), parallel);
 
         int curClusterID = 0;
         for (int i = 0; i < pointCats.length; i++) {
             if (pointCats[i] == UNCLASSIFIED) {
                 //All assignments are done by expandCluster
-                if (expandCluster(pointCats, dataSet, i, curClusterID, eps, minPts, neighbors))
+                if (expandCluster(pointCats, dataSet, i, curClusterID, eps, minPts, neighbors, offsets))
                     curClusterID++;
             }
         }
@@ -166,29 +170,28 @@ public class DBSCAN extends ClustererBase {
      * @param clId      the current cluster we are working on
      * @param eps       the search radius
      * @param minPts    the minimum number of points to create a new cluster
-     * @param vc        the collection to use to search with
+     * @param neighbors the neighbors within eps of every point
+     * @param offsets   the start of each point's neighbors in {@code neighbors}
      * @return true if a cluster was expanded, false if the point was marked as noise
      */
-    private boolean expandCluster(int[] pointCats, DataSet dataSet, int point, int clId, double eps, int minPts, List<List<Integer>> neighbors) {
-        List<Integer> seeds = neighbors.get(point);
-
-        if (seeds.size() < minPts)// no core point
+    private boolean expandCluster(int[] pointCats, DataSet dataSet, int point, int clId, double eps, int minPts, IntList neighbors, int[] offsets) {
+        if (offsets[point + 1] - offsets[point] < minPts)// no core point
         {
             pointCats[point] = NOISE;
             return false;
         }
         //Else, all points in seeds are density-reachable from Point
 
-        List<Integer> results;
-
         pointCats[point] = clId;
-        Queue<Integer> workQue = new ArrayDeque<>(seeds);
-        while (!workQue.isEmpty()) {
-            int currentP = workQue.poll();
-            results = neighbors.get(currentP);
-
-            if (results.size() >= minPts)
-                for (int resultPIndx : results) {
+        IntList workQue = new IntList();
+        for (int j = offsets[point]; j < offsets[point + 1]; j++)
+            workQue.add(neighbors.getI(j));
+        for (int pos = 0; pos < workQue.size(); pos++) {
+            int currentP = workQue.getI(pos);
+
+            if (offsets[currentP + 1] - offsets[currentP] >= minPts)
+                for (int j = offsets[currentP]; j < offsets[currentP + 1]; j++) {
+                    int resultPIndx = neighbors.getI(j);
                     if (pointCats[resultPIndx] < 0)// is UNCLASSIFIED or NOISE
                     {
                         if (pointCats[resultPIndx] == UNCLASSIFIED)
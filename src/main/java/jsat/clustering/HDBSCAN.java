@@ -27,8 +27,10 @@ import jsat.utils.*;
  * exists. This implementation allows for setting both independtly, but the
  * single parameter constructors will use the same value for both parameters.
  * <br>
- * NOTE: The current implementation has O(N<sup>2</sup>) run time, though
- * this may be improved in the future with more advanced algorithms.<br>
+ * The Minimum Spanning Tree of the mutual reachability graph is computed with
+ * the dual-tree Bor&#367;vka algorithm when the distance is a valid metric,
+ * see {@link DualTree#minimumSpanningTree(double[], IntList, IntList, DoubleList, boolean) }.
+ * Otherwise Prim's algorithm is used, which takes O(N<sup>2</sup>) time.<br>
  * <br>
  * See: Campello, R. J. G. B., Moulavi, D., & Sander, J. (2013). Density-Based
  * Clustering Based on Hierarchical Density Estimates. In J. Pei, V. Tseng, L.
@@ -185,7 +187,6 @@ public class HDBSCAN implements Clusterer, Parameterized {
 
         @SuppressWarnings("unchecked") final List<Vec> X = dataSet.getDataVectors();
         final int N = X.size();
-        List<Double> cache = dm.getAccelerationCache(X, parallel);
         VectorCollection<Vec> X_vc = vc.clone();
         X_vc.build(parallel, X, dm);
         //1. Compute the core distance w.r.t. m_pts for all data objects in X.
@@ -193,64 +194,36 @@ public class HDBSCAN implements Clusterer, Parameterized {
          * (Core Distance): The core distance of an object x_p ∈ X w.r.t. m_pts,
          * d_core(x_p), is the distance from x_p to its m_pts-nearest neighbor (incl. x_p)
          */
-        List<List<? extends VecPaired<Vec, Double>>> allNearestNeighbors = VectorCollectionUtils.allNearestNeighbors(X_vc, X, m_pts, parallel);
+        int[] knn = new int[N * m_pts];
+        double[] knn_dists = new double[N * m_pts];
+        X_vc.search(X, m_pts, knn, knn_dists, parallel);
         double[] core = new double[N];
         for (int i = 0; i < N; i++)
-            core[i] = allNearestNeighbors.get(i).get(m_pts - 1).getPair();
+            core[i] = knn_dists[i * m_pts + m_pts - 1];
 
         //2. Compute an MST of G_{m_pts}, the Mutual Reachability Graph.
-
-        //prims algorithm from Wikipedia
-        double[] C = new double[N];
-        Arrays.fill(C, Double.MAX_VALUE);
-        int[] E = new int[N];
-        Arrays.fill(E, -1);//-1 "a special flag value indicating that there is no edge connecting v to earlier vertices"
-
-        FibHeap<Integer> Q = new FibHeap<>();
-        List<FibHeap.FibNode<Integer>> q_nodes = new ArrayList<>(N);
-        for (int i = 0; i < N; i++)
-            q_nodes.add(Q.insert(i, C[i]));
-        Set<Integer> F = new HashSet<>();
-
         /**
          * First 2 indicate the edges, 3d value is the weight
          */
         List<Tuple3<Integer, Integer, Double>> mst_edges = new ArrayList<>(N * 2);
 
-        while (Q.size() > 0) {
-            //a. Find and remove a vertex v from Q having the minimum possible value of C[v]
-            FibHeap.FibNode<Integer> node = Q.removeMin();
-            int v = node.getValue();
-            q_nodes.set(v, null);
-            //b. Add v to F and, if E[v] is not the special flag value, also add E[v] to F
-            F.add(v);
-
-            if (E[v] >= 0)
-                mst_edges.add(new Tuple3<>(v, E[v], C[v]));
-
-            /*
-             * c. Loop over the edges vw connecting v to other vertices w. For
-             * each such edge, if w still belongs to Q and vw has smaller weight
-             * than C[w]:
-             *    Set C[w] to the cost of edge vw
-             *    Set E[w] to point to edge vw.
-             */
-
-            for (int w = 0; w < N; w++) {
-                FibHeap.FibNode<Integer> w_node = q_nodes.get(w);
-                if (w_node == null)//this node is already in F
-                    continue;
-
-                double mutual_reach_dist_vw = max(core[v], max(core[w], dm.dist(v, w, X, cache)));
-                if (mutual_reach_dist_vw < C[w]) {
-                    Q.decreaseKey(w_node, mutual_reach_dist_vw);
-                    C[w] = mutual_reach_dist_vw;
-                    E[w] = v;
-                }
-
+        if (dm.isValidMetric()) {
+            //dual-tree Boruvka, which needs the triangle inequality to prune
+            DualTree<Vec> tree;
+            if (X_vc instanceof DualTree)
+                tree = (DualTree<Vec>) X_vc;
+            else {
+                tree = new BallTree<>();
+                tree.build(parallel, X, dm);
             }
-
-        }
+            IntList from = new IntList(N);
+            IntList to = new IntList(N);
+            DoubleList weights = new DoubleList(N);
+            tree.minimumSpanningTree(core, from, to, weights, parallel);
+            for (int i = 0; i < weights.size(); i++)
+                mst_edges.add(new Tuple3<>(from.getI(i), to.getI(i), weights.getD(i)));
+        } else
+            primMST(X, core, parallel, mst_edges);
 
         //prim is done, we have the MST!
 
@@ -463,4 +436,62 @@ public class HDBSCAN implements Clusterer, Parameterized {
 
         return designations;
     }
+
+    /**
+     * Computes the MST of the mutual reachability graph with Prim's algorithm,
+     * which considers all O(N<sup>2</sup>) edges. This is only used when the
+     * distance metric is not a true metric, as the dual-tree approach relies
+     * on the triangle inequality.
+     */
+    private void primMST(List<Vec> X, double[] core, boolean parallel, List<Tuple3<Integer, Integer, Double>> mst_edges) {
+        final int N = X.size();
+        List<Double> cache = dm.getAccelerationCache(X, parallel);
+
+        //prims algorithm from Wikipedia
+        double[] C = new double[N];
+        Arrays.fill(C, Double.MAX_VALUE);
+        int[] E = new int[N];
+        Arrays.fill(E, -1);//-1 "a special flag value indicating that there is no edge connecting v to earlier vertices"
+
+        FibHeap<Integer> Q = new FibHeap<>();
+        List<FibHeap.FibNode<Integer>> q_nodes = new ArrayList<>(N);
+        for (int i = 0; i < N; i++)
+            q_nodes.add(Q.insert(i, C[i]));
+        Set<Integer> F = new HashSet<>();
+
+        while (Q.size() > 0) {
+            //a. Find and remove a vertex v from Q having the minimum possible value of C[v]
+            FibHeap.FibNode<Integer> node = Q.removeMin();
+            int v = node.getValue();
+            q_nodes.set(v, null);
+            //b. Add v to F and, if E[v] is not the special flag value, also add E[v] to F
+            F.add(v);
+
+            if (E[v] >= 0)
+                mst_edges.add(new Tuple3<>(v, E[v], C[v]));
+
+            /*
+             * c. Loop over the edges vw connecting v to other vertices w. For
+             * each such edge, if w still belongs to Q and vw has smaller weight
+             * than C[w]:
+             *    Set C[w] to the cost of edge vw
+             *    Set E[w] to point to edge vw.
+             */
+
+            for (int w = 0; w < N; w++) {
+                FibHeap.FibNode<Integer> w_node = q_nodes.get(w);
+                if (w_node == null)//this node is already in F
+                    continue;
+
+                double mutual_reach_dist_vw = max(core[v], max(core[w], dm.dist(v, w, X, cache)));
+                if (mutual_reach_dist_vw < C[w]) {
+                    Q.decreaseKey(w_node, mutual_reach_dist_vw);
+                    C[w] = mutual_reach_dist_vw;
+                    E[w] = v;
+                }
+
+            }
+
+        }
+    }
 }
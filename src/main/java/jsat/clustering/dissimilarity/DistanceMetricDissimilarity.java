@@ -18,6 +18,13 @@ public abstract class DistanceMetricDissimilarity extends AbstractClusterDissimi
         this.dm = dm;
     }
 
+    /**
+     * @return the distance metric that backs this dissimilarity measure
+     */
+    public DistanceMetric getDistanceMetric() {
+        return dm;
+    }
+
     @Override
     public double distance(DataPoint a, DataPoint b) {
         return dm.dist(a.getNumericalValues(), b.getNumericalValues());
@@ -13,6 +13,7 @@ import static jsat.clustering.ClustererBase.createClusterListFromAssignmentArray
 
 import jsat.clustering.KClusterer;
 import jsat.clustering.dissimilarity.LanceWilliamsDissimilarity;
+import jsat.clustering.dissimilarity.SingleLinkDissimilarity;
 import jsat.clustering.dissimilarity.WardsDissimilarity;
 import jsat.linear.Vec;
 import jsat.linear.distancemetrics.DistanceMetric;
@@ -32,7 +33,10 @@ import jsat.utils.concurrent.ParallelUtils;
  * Neighbor Chain approach. This runs in O(n<sup>2</sup>) time for any
  * {@link LanceWilliamsDissimilarity Lance Williams} dissimilarity and uses O(n)
  * memory. <br>
- * This implementation also supports multi-threaded execution.
+ * This implementation also supports multi-threaded execution. For
+ * {@link SingleLinkDissimilarity single-link} clustering with a valid metric,
+ * the merges are instead taken from a dual-tree Minimum Spanning Tree, which
+ * avoids the quadratic cost.
  * <p>
  * see:
  * <ul>
@@ -176,6 +180,13 @@ public class NNChainHAC implements KClusterer {
          * point
          */
         IntList merge_kept = new IntList(N);
+
+        if (distMeasure instanceof SingleLinkDissimilarity && dm.isValidMetric()) {
+            //single-link merges follow the MST, no need for the O(n^2) chain
+            double[] mergedDistance = PriorityHAC.singleLinkMerges(dataSet.getDataVectors(), dm, parallel, merge_kept, merge_removed);
+            fixMergeOrderAndAssign(mergedDistance, merge_kept, merge_removed, lowK, N, highK, designations);
+            return designations;
+        }
         /**
          * The number of items in the cluster denoted at the given index
          */
@@ -5,11 +5,18 @@ import java.util.*;
 import jsat.DataSet;
 import jsat.classifiers.DataPoint;
 import jsat.clustering.KClustererBase;
+import jsat.clustering.dissimilarity.SingleLinkDissimilarity;
 import jsat.clustering.dissimilarity.UpdatableClusterDissimilarity;
+import jsat.linear.Vec;
+import jsat.linear.distancemetrics.DistanceMetric;
+import jsat.linear.vectorcollection.BallTree;
 import jsat.math.OnLineStatistics;
 
 import static jsat.clustering.dissimilarity.AbstractClusterDissimilarity.*;
 
+import jsat.utils.DoubleList;
+import jsat.utils.IndexTable;
+import jsat.utils.IntList;
 import jsat.utils.IntPriorityQueue;
 
 /**
@@ -70,7 +77,9 @@ public class PriorityHAC extends KClustererBase {
 
     @Override
     public int[] cluster(DataSet dataSet, int lowK, int highK, boolean parallel, int[] designations) {
-        return cluster(dataSet, lowK, highK, designations);
+        if (distMeasure instanceof SingleLinkDissimilarity && ((SingleLinkDissimilarity) distMeasure).getDistanceMetric().isValidMetric())
+            return clusterSingleLink(dataSet, lowK, highK, parallel, designations);
+        return clusterMatrix(dataSet, lowK, highK, designations);
     }
 
 
@@ -122,6 +131,94 @@ public class PriorityHAC extends KClustererBase {
 
     @Override
     public int[] cluster(DataSet dataSet, int lowK, int highK, int[] designations) {
+        return cluster(dataSet, lowK, highK, false, designations);
+    }
+
+    /**
+     * Single-link clustering is equivalent to merging along the edges of the
+     * Minimum Spanning Tree, from shortest to longest. This avoids the
+     * O(n<sup>2</sup>) distance matrix when the distance is a true metric.
+     */
+    private int[] clusterSingleLink(DataSet dataSet, int lowK, int highK, boolean parallel, int[] designations) {
+        this.curDataSet = dataSet;
+        final int N = dataSet.size();
+        merges = new int[N * 2 - 2];
+        IntList merge_kept = new IntList(N);
+        IntList merge_removed = new IntList(N);
+        double[] mergedDistance = singleLinkMerges(dataSet.getDataVectors(), ((SingleLinkDissimilarity) distMeasure).getDistanceMetric(), parallel, merge_kept, merge_removed);
+
+        OnLineStatistics distChange = new OnLineStatistics();
+        int clusterSize = lowK;
+        double maxStndDevs = Double.MIN_VALUE;
+        for (int k = 0; k < mergedDistance.length; k++) {
+            distChange.add(mergedDistance[k]);
+
+            if ((N - k) >= lowK && (N - k) <= highK)//IN the cluster window?
+            {
+                double stndDevs = (mergedDistance[k] - distChange.getMean()) / distChange.getStandardDeviation();
+                if (stndDevs > maxStndDevs) {
+                    maxStndDevs = stndDevs;
+                    clusterSize = N - k;
+                }
+            }
+
+            merges[k * 2] = merge_removed.getI(k);
+            merges[k * 2 + 1] = merge_kept.getI(k);
+        }
+        reverseMergeArray();
+        if (designations == null)
+            designations = new int[N];
+        return assignClusterDesignations(designations, clusterSize);
+    }
+
+    /**
+     * Computes the merges performed by single-link clustering, using the
+     * dual-tree Minimum Spanning Tree of the data. Each cluster is identified
+     * by the smallest index of the points in it.
+     *
+     * @param vecs          the data to cluster
+     * @param dm            the distance metric to use, which must be a valid
+     *                      metric
+     * @param parallel      {@code true} if the MST should be computed in
+     *                      parallel
+     * @param merge_kept    the list to store the cluster that was kept at each
+     *                      merge in
+     * @param merge_removed the list to store the cluster that was merged into
+     *                      the kept one at each merge in
+     * @return the distance of each merge, in increasing order
+     */
+    static double[] singleLinkMerges(List<Vec> vecs, DistanceMetric dm, boolean parallel, IntList merge_kept, IntList merge_removed) {
+        BallTree<Vec> tree = new BallTree<>();
+        tree.build(parallel, vecs, dm);
+        IntList from = new IntList(vecs.size());
+        IntList to = new IntList(vecs.size());
+        DoubleList weights = new DoubleList(vecs.size());
+        tree.minimumSpanningTree(null, from, to, weights, parallel);
+
+        IndexTable it = new IndexTable(weights);
+        //union-find where the root is always the smallest index in the set
+        int[] parent = new int[vecs.size()];
+        for (int i = 0; i < parent.length; i++)
+            parent[i] = i;
+        double[] mergedDistance = new double[weights.size()];
+        for (int i = 0; i < it.length(); i++) {
+            int e = it.index(i);
+            int a = from.getI(e), b = to.getI(e);
+            while (parent[a] != a)
+                a = parent[a] = parent[parent[a]];
+            while (parent[b] != b)
+                b = parent[b] = parent[parent[b]];
+            int kept = Math.min(a, b);
+            int removed = Math.max(a, b);
+            parent[removed] = kept;
+            merge_kept.add(kept);
+            merge_removed.add(removed);
+            mergedDistance[i] = weights.getD(e);
+        }
+        return mergedDistance;
+    }
+
+    private int[] clusterMatrix(DataSet dataSet, int lowK, int highK, int[] designations) {
         this.curDataSet = dataSet;
         merges = new int[dataSet.size() * 2 - 2];
         /**
@@ -101,7 +101,21 @@ public class DataTransformProcess implements DataTransform, Parameterized {
      * @param dataSet the data set to learn a series of transforms from
      */
     public void leanTransforms(DataSet dataSet) {
-        learnApplyTransforms(dataSet.shallowClone());
+        leanTransforms(dataSet, false);
+    }
+
+    /**
+     * Learns the transforms for the given data set. The data set will not be
+     * altered. Once finished, <tt>this</tt> DataTransformProcess can be applied
+     * to the dataSet to get the transformed data set.
+     *
+     * @param dataSet  the data set to learn a series of transforms from
+     * @param parallel {@code true} if the intermediate transforms should be
+     *                 applied to the data in parallel
+     */
+    public void leanTransforms(DataSet dataSet, boolean parallel) {
+        //the last transform does not need to be applied, nothing else will be learned from it
+        learnTransforms(dataSet.shallowClone(), false, parallel);
     }
 
     /**
@@ -116,6 +130,26 @@ public class DataTransformProcess implements DataTransform, Parameterized {
      *                alter into the final transformed form
      */
     public void learnApplyTransforms(DataSet dataSet) {
+        learnApplyTransforms(dataSet, false);
+    }
+
+    /**
+     * Learns the transforms for the given data set. The data set is then
+     * altered after each transform is learned so the next transform can be
+     * learned as well. Each transform must be learned in turn, but applying
+     * it to the data set can be done in parallel.
+     *
+     * @param dataSet  the data set to learn a series of transforms from and
+     *                 alter into the final transformed form
+     * @param parallel {@code true} if the transforms should be applied to the
+     *                 data in parallel
+     * @see #learnApplyTransforms(jsat.DataSet)
+     */
+    public void learnApplyTransforms(DataSet dataSet, boolean parallel) {
+        learnTransforms(dataSet, true, parallel);
+    }
+
+    private void learnTransforms(DataSet dataSet, boolean applyLast, boolean parallel) {
         learnedTransforms.clear();
         //used to keep track if we can start using in place transforms
         boolean vecSafe = false;
@@ -134,10 +168,14 @@ public class DataTransformProcess implements DataTransform, Parameterized {
         for (DataTransform dtf : transformSource) {
             DataTransform transform = dtf.clone();
             transform.fit(dataSet);
+            learnedTransforms.add(transform);
+            iter++;
+            if (!applyLast && iter == transformSource.size())
+                break;
             if (transform instanceof InPlaceTransform) {
                 InPlaceTransform ipt = (InPlaceTransform) transform;
                 //check if it is safe to apply mutations
-                if (iter > 0 && !vecSafe || (ipt.mutatesNominal() && !catSafe)) {
+                if (iter > 1 && !vecSafe || (ipt.mutatesNominal() && !catSafe)) {
                     boolean vecClear = true, catClear = true;
                     for (int i = 0; i < origVecs.length && (vecClear || catClear); i++) {
                         DataPoint dp = dataSet.getDataPoint(i);
@@ -151,22 +189,51 @@ public class DataTransformProcess implements DataTransform, Parameterized {
 
                 //Now we know if we can apply the mutations or not
                 if (vecSafe && (!ipt.mutatesNominal() || catSafe))
-                    dataSet.applyTransformMutate(ipt, true);
+                    dataSet.applyTransformMutate(ipt, true, parallel);
                 else//go back to normal
-                    dataSet.applyTransform(transform);
+                    dataSet.applyTransform(transform, parallel);
             } else
-                dataSet.applyTransform(transform);
-
-            learnedTransforms.add(transform);
-            iter++;
+                dataSet.applyTransform(transform, parallel);
         }
         consolidateTransforms();
     }
 
+    /**
+     * Applies all of the learned transforms to every point in the data set.
+     * Rather than making a pass over the whole data set for each transform,
+     * every transform is applied to one data point before moving on to the
+     * next, so only one new data point is created per row and in place
+     * transforms are used whenever they will not alter the original data. The
+     * rows are split into chunks that are transformed in parallel.
+     *
+     * @param dataSet  the data set to transform
+     * @param mutate   {@code true} to allow in place transforms to alter the
+     *                 original data points, {@code false} to leave them
+     *                 unaltered
+     * @param parallel {@code true} if the transforms should be applied in
+     *                 parallel
+     */
+    public void applyTo(DataSet dataSet, final boolean mutate, boolean parallel) {
+        dataSet.applyTransform((FixedDataTransform) dp -> transform(dp, mutate), parallel);
+    }
+
     @Override
     public DataPoint transform(DataPoint dp) {
-        final Vec origNum = dp.getNumericalValues();
-        final int[] origCat = dp.getCategoricalValues();
+        return transform(dp, false);
+    }
+
+    /**
+     * Applies all of the learned transforms to the given data point.
+     *
+     * @param dp     the data point to transform
+     * @param mutate {@code true} if the given data point may be altered by in
+     *               place transforms, {@code false} if it must be left as is
+     * @return the transformed data point, which may be the same object as
+     * {@code dp} if {@code mutate} is {@code true}
+     */
+    public DataPoint transform(DataPoint dp, boolean mutate) {
+        final Vec origNum = mutate ? null : dp.getNumericalValues();
+        final int[] origCat = mutate ? null : dp.getCategoricalValues();
         for (DataTransform dt : learnedTransforms) {
             if (dt instanceof InPlaceTransform) {
                 InPlaceTransform it = (InPlaceTransform) dt;
@@ -7,10 +7,13 @@ import java.util.List;
 import jsat.DataSet;
 import jsat.classifiers.CategoricalData;
 import jsat.classifiers.DataPoint;
+import jsat.linear.CompressedSparseMatrix;
 import jsat.linear.DenseMatrix;
 import jsat.linear.DenseVector;
 import jsat.linear.Matrix;
+import jsat.linear.TruncatedSVD;
 import jsat.linear.Vec;
+import jsat.utils.concurrent.ParallelUtils;
 
 /**
  * Principle Component Analysis is a method that attempts to create a basis of
@@ -28,6 +31,12 @@ import jsat.linear.Vec;
  * be applied to the data set first. If not done, the first
  * dimension of PCA may contain noise and become uninformative,
  * possibly throwing off the computation of the other PCs
+ * <br><br>
+ * By default the components are found one at a time with the NIPALS
+ * algorithm. If {@link #setRandomized(boolean) randomized} mode is enabled,
+ * all of the components are found at once with a randomized
+ * {@link TruncatedSVD}, which makes only a few parallel passes over the data
+ * and is much faster when the data set is large.
  *
  * @author Edward Raff
  * @see ZeroMeanTransform
@@ -41,6 +50,9 @@ public class PCA implements DataTransform {
     private Matrix P;
     private int maxPCs;
     private double threshold;
+    private boolean randomized = false;
+    private int oversampling = 10;
+    private int powerIterations = 2;
 
     /**
      * Creates a new object for performing PCA that stops at 50 principal components. This may not be optimal for any particular dataset
@@ -123,6 +135,10 @@ public class PCA implements DataTransform {
 
     @Override
     public void fit(DataSet dataSet) {
+        if (randomized) {
+            fitRandomized(dataSet);
+            return;
+        }
         //Edwad, don't forget. This is: Nonlinear Iterative PArtial Least Squares (NIPALS) algo
         List<Vec> scores = new ArrayList<Vec>();
         List<Vec> loadings = new ArrayList<Vec>();
@@ -178,6 +194,26 @@ public class PCA implements DataTransform {
         }
     }
 
+    /**
+     * Finds all of the principal components at once as the top right singular
+     * vectors of the data matrix
+     *
+     * @param dataSet the data set to learn from
+     */
+    private void fitRandomized(DataSet dataSet) {
+        int PCs = Math.min(dataSet.size(), dataSet.getNumNumericalVars());
+        PCs = Math.min(maxPCs, PCs);
+
+        Matrix X;
+        if (dataSet.size() > 0 && dataSet.getDataPoint(0).getNumericalValues().isSparse())
+            X = dataSet.getCompressedDataMatrix(CompressedSparseMatrix.Format.CSR, true);
+        else
+            X = dataSet.getDataMatrix();
+
+        TruncatedSVD svd = new TruncatedSVD(X, PCs, oversampling, powerIterations, ParallelUtils.CACHED_THREAD_POOL);
+        P = svd.getV();
+    }
+
     /**
      * Copy constructor
      *
@@ -188,6 +224,9 @@ public class PCA implements DataTransform {
             this.P = other.P.clone();
         this.maxPCs = other.maxPCs;
         this.threshold = other.threshold;
+        this.randomized = other.randomized;
+        this.oversampling = other.oversampling;
+        this.powerIterations = other.powerIterations;
     }
 
     /**
@@ -221,6 +260,64 @@ public class PCA implements DataTransform {
         return threshold;
     }
 
+    /**
+     * Sets whether the principal components should be found with a randomized
+     * {@link TruncatedSVD} instead of NIPALS. The randomized method finds all
+     * of the components at once in a few parallel passes over the data, and
+     * does not use the {@link #setThreshold(double) threshold}.
+     *
+     * @param randomized {@code true} to use the randomized SVD
+     */
+    public void setRandomized(boolean randomized) {
+        this.randomized = randomized;
+    }
+
+    /**
+     * @return {@code true} if the randomized SVD is used
+     */
+    public boolean isRandomized() {
+        return randomized;
+    }
+
+    /**
+     * Sets the number of extra random directions sampled by the randomized
+     * SVD, beyond the number of principal components.
+     *
+     * @param oversampling the number of extra directions to sample
+     */
+    public void setOversampling(int oversampling) {
+        if (oversampling < 0)
+            throw new IllegalArgumentException("oversampling must be non-negative, not " + oversampling);
+        this.oversampling = oversampling;
+    }
+
+    /**
+     * @return the number of extra directions sampled by the randomized SVD
+     */
+    public int getOversampling() {
+        return oversampling;
+    }
+
+    /**
+     * Sets the number of power iterations performed by the randomized SVD.
+     * More iterations give more accurate components when the variance decays
+     * slowly, at the cost of two more passes over the data each.
+     *
+     * @param powerIterations the number of power iterations
+     */
+    public void setPowerIterations(int powerIterations) {
+        if (powerIterations < 0)
+            throw new IllegalArgumentException("powerIterations must be non-negative, not " + powerIterations);
+        this.powerIterations = powerIterations;
+    }
+
+    /**
+     * @return the number of power iterations performed by the randomized SVD
+     */
+    public int getPowerIterations() {
+        return powerIterations;
+    }
+
     /**
      * Returns the first non zero column
      *
@@ -51,8 +51,10 @@ public class StandardizeTransform implements InPlaceTransform {
      * @param toCopy the object to copy
      */
     public StandardizeTransform(StandardizeTransform toCopy) {
-        this.means = toCopy.means.clone();
-        this.stdDevs = toCopy.stdDevs.clone();
+        if (toCopy.means != null)
+            this.means = toCopy.means.clone();
+        if (toCopy.stdDevs != null)
+            this.stdDevs = toCopy.stdDevs.clone();
     }
 
     @Override
@@ -43,9 +43,23 @@ public abstract class BaseL2Kernel implements KernelTrick {
      * @return the squared norm ||x<sub>i</sub>-x<sub>j</sub>||<sup>2</sup>
      */
     protected double getSqrdNorm(int i, int j, List<? extends Vec> vecs, List<Double> cache) {
+        return getSqrdNorm(i, j, vecs, DoubleList.asDoubleList(cache));
+    }
+
+    /**
+     * Returns the squared L<sup>2</sup> norm between two points from the cache
+     * values, without unboxing the cache values.
+     *
+     * @param i     the first index in the vector list
+     * @param j     the second index in the vector list
+     * @param vecs  the list of vectors that make the collection
+     * @param cache the cache of values for each vector in the collection
+     * @return the squared norm ||x<sub>i</sub>-x<sub>j</sub>||<sup>2</sup>
+     */
+    protected double getSqrdNorm(int i, int j, List<? extends Vec> vecs, DoubleList cache) {
         if (cache == null)
             return Math.pow(vecs.get(i).pNormDist(2.0, vecs.get(j)), 2);
-        return cache.get(i) + cache.get(j) - 2 * vecs.get(i).dot(vecs.get(j));
+        return cache.getD(i) + cache.getD(j) - 2 * vecs.get(i).dot(vecs.get(j));
     }
 
     /**
@@ -71,9 +85,24 @@ public abstract class BaseL2Kernel implements KernelTrick {
      * @return the squared norm ||x<sub>i</sub>-y||<sup>2</sup>
      */
     protected double getSqrdNorm(int i, Vec y, List<Double> qi, List<? extends Vec> vecs, List<Double> cache) {
+        return getSqrdNorm(i, y, DoubleList.asDoubleList(qi), vecs, DoubleList.asDoubleList(cache));
+    }
+
+    /**
+     * Returns the squared L<sup>2</sup> norm between a point in the cache and
+     * one with a provided qi value, without unboxing the cache values.
+     *
+     * @param i     the index in the vector list
+     * @param y     the other vector
+     * @param qi    the acceleration values for the other vector
+     * @param vecs  the list of vectors to make the collection
+     * @param cache the cache of values for each vector in the collection
+     * @return the squared norm ||x<sub>i</sub>-y||<sup>2</sup>
+     */
+    protected double getSqrdNorm(int i, Vec y, DoubleList qi, List<? extends Vec> vecs, DoubleList cache) {
         if (cache == null)
             return Math.pow(vecs.get(i).pNormDist(2.0, y), 2);
-        return cache.get(i) + qi.get(0) - 2 * vecs.get(i).dot(y);
+        return cache.getD(i) + qi.getD(0) - 2 * vecs.get(i).dot(y);
     }
 
     @Override
@@ -104,11 +133,21 @@ public abstract class BaseL2Kernel implements KernelTrick {
 
     @Override
     public double evalSum(List<? extends Vec> finalSet, List<Double> cache, double[] alpha, Vec y, int start, int end) {
-        return evalSum(finalSet, cache, alpha, y, getQueryInfo(y), start, end);
+        return evalSum(finalSet, DoubleList.asDoubleList(cache), alpha, y, start, end);
     }
 
     @Override
     public double evalSum(List<? extends Vec> finalSet, List<Double> cache, double[] alpha, Vec y, List<Double> qi, int start, int end) {
+        return evalSum(finalSet, DoubleList.asDoubleList(cache), alpha, y, DoubleList.asDoubleList(qi), start, end);
+    }
+
+    @Override
+    public double evalSum(List<? extends Vec> finalSet, DoubleList cache, double[] alpha, Vec y, int start, int end) {
+        return evalSum(finalSet, cache, alpha, y, getQueryInfo(y), start, end);
+    }
+
+    @Override
+    public double evalSum(List<? extends Vec> finalSet, DoubleList cache, double[] alpha, Vec y, DoubleList qi, int start, int end) {
         double sum = 0;
 
         for (int i = start; i < end; i++)
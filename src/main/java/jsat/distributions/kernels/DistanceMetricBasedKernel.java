@@ -5,6 +5,7 @@ import java.util.List;
 import jsat.linear.Vec;
 import jsat.linear.distancemetrics.DistanceMetric;
 import jsat.parameters.Parameter.ParameterHolder;
+import jsat.utils.DoubleList;
 
 /**
  * This abstract class provides the means of implementing a Kernel based off
@@ -42,12 +43,12 @@ public abstract class DistanceMetricBasedKernel implements KernelTrick {
 
     @Override
     public List<Double> getAccelerationCache(List<? extends Vec> trainingSet) {
-        return d.getAccelerationCache(trainingSet);
+        return d.getPrimitiveAccelerationCache(trainingSet);//so the List overloads never copy it
     }
 
     @Override
     public List<Double> getQueryInfo(Vec q) {
-        return d.getQueryInfo(q);
+        return d.getPrimitiveQueryInfo(q);
     }
 
     @Override
@@ -57,11 +58,21 @@ public abstract class DistanceMetricBasedKernel implements KernelTrick {
 
     @Override
     public double evalSum(List<? extends Vec> finalSet, List<Double> cache, double[] alpha, Vec y, int start, int end) {
-        return evalSum(finalSet, cache, alpha, y, d.getQueryInfo(y), start, end);
+        return evalSum(finalSet, DoubleList.asDoubleList(cache), alpha, y, start, end);
     }
 
     @Override
     public double evalSum(List<? extends Vec> finalSet, List<Double> cache, double[] alpha, Vec y, List<Double> qi, int start, int end) {
+        return evalSum(finalSet, DoubleList.asDoubleList(cache), alpha, y, DoubleList.asDoubleList(qi), start, end);
+    }
+
+    @Override
+    public double evalSum(List<? extends Vec> finalSet, DoubleList cache, double[] alpha, Vec y, int start, int end) {
+        return evalSum(finalSet, cache, alpha, y, d.getQueryInfo(y), start, end);
+    }
+
+    @Override
+    public double evalSum(List<? extends Vec> finalSet, DoubleList cache, double[] alpha, Vec y, DoubleList qi, int start, int end) {
         double sum = 0;
 
         for (int i = start; i < end; i++)
@@ -81,13 +81,22 @@ public class GeneralRBFKernel extends DistanceMetricBasedKernel {
 
     @Override
     public double eval(int a, Vec b, List<Double> qi, List<? extends Vec> vecs, List<Double> cache) {
+        return eval(a, b, DoubleList.asDoubleList(qi), vecs, DoubleList.asDoubleList(cache));
+    }
+
+    @Override
+    public double eval(int a, Vec b, DoubleList qi, List<? extends Vec> vecs, DoubleList cache) {
         double dist = d.dist(a, b, qi, vecs, cache);
         return Math.exp(-dist * dist * sigmaSqrd2Inv);
-
     }
 
     @Override
     public double eval(int a, int b, List<? extends Vec> vecs, List<Double> cache) {
+        return eval(a, b, vecs, DoubleList.asDoubleList(cache));
+    }
+
+    @Override
+    public double eval(int a, int b, List<? extends Vec> vecs, DoubleList cache) {
         double dist = d.dist(a, b, vecs, cache);
         return Math.exp(-dist * dist * sigmaSqrd2Inv);
     }
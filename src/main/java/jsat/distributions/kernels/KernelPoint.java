@@ -43,7 +43,7 @@ public class KernelPoint {
     private double errorTolerance;
 
     protected List<Vec> vecs;
-    protected List<Double> kernelAccel;
+    protected DoubleList kernelAccel;
     protected Matrix K;
     protected Matrix InvK;
     protected Matrix KExpanded;
@@ -287,6 +287,19 @@ public class KernelPoint {
      * @return the dot product in the kernel space between this point and {@code x}
      */
     public double dot(Vec x, List<Double> qi) {
+        return dot(x, DoubleList.asDoubleList(qi));
+    }
+
+    /**
+     * Computes the dot product between the kernel point this object represents
+     * and the given input vector in the kernel space
+     *
+     * @param x  the input vector to work with
+     * @param qi the query information for the vector, or {@code null} only if
+     *           the kernel in use does not support acceleration.
+     * @return the dot product in the kernel space between this point and {@code x}
+     */
+    public double dot(Vec x, DoubleList qi) {
         if (getBasisSize() == 0)
             return 0;
         return k.evalSum(vecs, kernelAccel, alpha.getBackingArray(), x, qi, 0, alpha.size());
@@ -304,11 +317,11 @@ public class KernelPoint {
             return 0;
         int shift = this.alpha.size();
         List<Vec> mergedVecs = ListUtils.mergedView(this.vecs, x.vecs);
-        List<Double> mergedCache;
+        DoubleList mergedCache;
         if (this.kernelAccel == null || x.kernelAccel == null)
             mergedCache = null;
-        else
-            mergedCache = ListUtils.mergedView(this.kernelAccel, x.kernelAccel);
+        else//copied once so the evaluations below read a primitive array
+            mergedCache = new DoubleList(ListUtils.mergedView(this.kernelAccel, x.kernelAccel));
 
         double dot = 0;
         for (int i = 0; i < this.alpha.size(); i++)
@@ -341,6 +354,20 @@ public class KernelPoint {
      * kernel space
      */
     public double dist(Vec x, List<Double> qi) {
+        return dist(x, DoubleList.asDoubleList(qi));
+    }
+
+    /**
+     * Computes the Euclidean distance between this kernel point and the given
+     * input in the kernel space
+     *
+     * @param x  the input vector to work with
+     * @param qi the query information for the vector, or {@code null} only if
+     *           the kernel in use does not support acceleration.
+     * @return the Euclidean distance between this point and {@code x} in the
+     * kernel space
+     */
+    public double dist(Vec x, DoubleList qi) {
         double k_xx = k.eval(0, 0, Arrays.asList(x), qi);
         return Math.sqrt(k_xx + getSqrdNorm() - 2 * dot(x, qi));
     }
@@ -402,6 +429,18 @@ public class KernelPoint {
      *            the kernel in use does not support acceleration.
      */
     public void mutableAdd(double c, Vec x_t, final List<Double> qi) {
+        mutableAdd(c, x_t, DoubleList.asDoubleList(qi));
+    }
+
+    /**
+     * Alters this point to contain the given input vector as well
+     *
+     * @param c   the multiplicative constant to apply with the vector
+     * @param x_t the vector to add
+     * @param qi  the query information for the vector, or {@code null} only if
+     *            the kernel in use does not support acceleration.
+     */
+    public void mutableAdd(double c, Vec x_t, final DoubleList qi) {
         if (c == 0)
             return;
         normGood = false;
@@ -543,7 +582,7 @@ public class KernelPoint {
 
                 Vec n_z = vecs.get(m).multiply(n_h);
                 n_z.mutableAdd(1 - n_h, vecs.get(n));
-                final List<Double> nz_qi = k.getQueryInfo(n_z);
+                final DoubleList nz_qi = k.getPrimitiveQueryInfo(n_z);
 
                 finalMergeStep(m, n, n_z, nz_qi, n_alpha_z, true);
             }
@@ -573,7 +612,7 @@ public class KernelPoint {
      * @param qi  the query information for the value
      * @param y_t the constant value to add
      */
-    private void addPoint(Vec x_t, final List<Double> qi, double y_t) {
+    private void addPoint(Vec x_t, final DoubleList qi, double y_t) {
         vecs.add(x_t);
         if (kernelAccel != null)
             kernelAccel.addAll(qi);
@@ -590,7 +629,7 @@ public class KernelPoint {
      * @param nz_qi     the query info for the new vec
      * @param n_alpha_z the alpha value for the new merged vec
      */
-    protected void finalMergeStep(int m, int n, Vec n_z, final List<Double> nz_qi, double n_alpha_z, boolean alterVecs) {
+    protected void finalMergeStep(int m, int n, Vec n_z, final DoubleList nz_qi, double n_alpha_z, boolean alterVecs) {
         int smallIndx = min(m, n);
         int largeIndx = max(m, n);
 
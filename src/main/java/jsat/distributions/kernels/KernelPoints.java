@@ -211,9 +211,10 @@ public class KernelPoints {
     public double[] dot(Vec x, List<Double> qi) {
         double[] dots = new double[points.size()];
         final List<Vec> vecs = points.get(0).vecs;
-        final List<Double> cache = points.get(0).kernelAccel;
+        final DoubleList cache = points.get(0).kernelAccel;
+        final DoubleList qi_d = DoubleList.asDoubleList(qi);
         for (int i = 0; i < vecs.size(); i++) {
-            double k_ix = k.eval(i, x, qi, vecs, cache);
+            double k_ix = k.eval(i, x, qi_d, vecs, cache);
             for (int j = 0; j < points.size(); j++) {
                 double alpha = points.get(j).alpha.getD(i);
                 if (alpha != 0)
@@ -347,6 +348,20 @@ public class KernelPoints {
      *            the kernel in use does not support acceleration.
      */
     public void mutableAdd(Vec x_t, Vec cs, final List<Double> qi) {
+        mutableAdd(x_t, cs, DoubleList.asDoubleList(qi));
+    }
+
+    /**
+     * Alters some of the KernelPoints by adding / subtracting a vector from it
+     *
+     * @param x_t the vector to add to the kernel point
+     * @param cs  the array with the constant multiplies. Each non zero in
+     *            {@code cs} is a constant to update one of the vectors by. The vector
+     *            updated is the one corresponding to the index of the non zero value
+     * @param qi  the query information for the vector, or {@code null} only if
+     *            the kernel in use does not support acceleration.
+     */
+    public void mutableAdd(Vec x_t, Vec cs, final DoubleList qi) {
         int origSize = getBasisSize();
         if (cs.nnz() == 0)
             return;
@@ -501,7 +516,7 @@ public class KernelPoints {
 
                 Vec n_z = kp_k.vecs.get(m).multiply(n_h);
                 n_z.mutableAdd(1 - n_h, kp_k.vecs.get(n));
-                final List<Double> nz_qi = this.k.getQueryInfo(n_z);
+                final DoubleList nz_qi = this.k.getPrimitiveQueryInfo(n_z);
                 for (int z = 0; z < points.size(); z++) {
                     KernelPoint kp = points.get(z);
                     double aml = kp.alpha.getD(m);
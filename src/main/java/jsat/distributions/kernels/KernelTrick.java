@@ -5,6 +5,7 @@ import java.util.List;
 
 import jsat.linear.Vec;
 import jsat.parameters.Parameterized;
+import jsat.utils.DoubleList;
 
 /**
  * The KernelTrick is a method can can be used to alter an algorithm to do its
@@ -18,6 +19,13 @@ import jsat.parameters.Parameterized;
  * parameters. To avoid conflicts in parameter names, the parameters of a
  * KernelTrick should be of the form:<br>
  * &lt; SimpleClassName &gt;_&lt; Variable Name &gt;
+ * <br><br>
+ * Each cache accelerated method has an overload that takes the cache and query
+ * information as {@link DoubleList DoubleLists}, which allows implementations
+ * to avoid unboxing the cached values. By default these call the
+ * {@code List<Double>} versions. The cache can be obtained in this form with
+ * {@link #getPrimitiveAccelerationCache(java.util.List) } and
+ * {@link #getPrimitiveQueryInfo(jsat.linear.Vec) }.
  *
  * @author Edward Raff
  */
@@ -66,6 +74,19 @@ public interface KernelTrick extends Parameterized, Cloneable, Serializable {
      */
     public List<Double> getAccelerationCache(List<? extends Vec> trainingSet);
 
+    /**
+     * Returns the same cache as {@link #getAccelerationCache(java.util.List) },
+     * as a {@link DoubleList} so that it can be used with the overloads that
+     * avoid unboxing the cache values.
+     *
+     * @param trainingSet the list of training set vectors
+     * @return a list of cache values that may be used by this kernel, or
+     * {@code null} if this kernel does not support acceleration
+     */
+    default public DoubleList getPrimitiveAccelerationCache(List<? extends Vec> trainingSet) {
+        return DoubleList.asDoubleList(getAccelerationCache(trainingSet));
+    }
+
     /**
      * Pre computes query information that would have be generated if the query
      * was a member of the original list of vectors when calling
@@ -81,6 +102,18 @@ public interface KernelTrick extends Parameterized, Cloneable, Serializable {
      */
     public List<Double> getQueryInfo(Vec q);
 
+    /**
+     * Returns the same query information as
+     * {@link #getQueryInfo(jsat.linear.Vec) }, as a {@link DoubleList} so that
+     * it can be used with the overloads that avoid unboxing the values.
+     *
+     * @param q the query point to generate cache information for
+     * @return the cache information for the query point
+     */
+    default public DoubleList getPrimitiveQueryInfo(Vec q) {
+        return DoubleList.asDoubleList(getQueryInfo(q));
+    }
+
     /**
      * Appends the new cache values for the given vector to the list of cache
      * values. This method is present for online style kernel learning
@@ -115,6 +148,24 @@ public interface KernelTrick extends Parameterized, Cloneable, Serializable {
      */
     public double eval(int a, Vec b, List<Double> qi, List<? extends Vec> vecs, List<Double> cache);
 
+    /**
+     * Computes the kernel product between one vector in the original list of
+     * vectors with that of another vector not from the original list. This
+     * behaves exactly as {@link #eval(int, jsat.linear.Vec, java.util.List,
+     * java.util.List, java.util.List) }, but allows implementations to read
+     * the cache without unboxing its values.
+     *
+     * @param a     the index of the vector in the cache
+     * @param b     the other vector
+     * @param qi    the query information about b
+     * @param vecs  the list of vectors used to build the cache
+     * @param cache the cache associated with the given list of vectors
+     * @return the kernel product of the two vectors
+     */
+    default public double eval(int a, Vec b, DoubleList qi, List<? extends Vec> vecs, DoubleList cache) {
+        return eval(a, b, (List<Double>) qi, vecs, (List<Double>) cache);
+    }
+
     /**
      * Produces the correct kernel evaluation given the training set and the
      * cache generated by {@link #getAccelerationCache(List)  }. The training
@@ -130,6 +181,24 @@ public interface KernelTrick extends Parameterized, Cloneable, Serializable {
      */
     public double eval(int a, int b, List<? extends Vec> trainingSet, List<Double> cache);
 
+    /**
+     * Produces the correct kernel evaluation given the training set and the
+     * cache generated by {@link #getAccelerationCache(List) }. This behaves
+     * exactly as {@link #eval(int, int, java.util.List, java.util.List) }, but
+     * allows implementations to read the cache without unboxing its values.
+     *
+     * @param a           the index of the first training vector
+     * @param b           the index of the second training vector
+     * @param trainingSet the list of training set vectors
+     * @param cache       the double list of cache values generated by this kernel
+     *                    for the given training set
+     * @return the same kernel evaluation result as
+     * {@link #eval(jsat.linear.Vec, jsat.linear.Vec) }
+     */
+    default public double eval(int a, int b, List<? extends Vec> trainingSet, DoubleList cache) {
+        return eval(a, b, trainingSet, (List<Double>) cache);
+    }
+
     /**
      * Performs an efficient summation of kernel products of the form <br>
      * <big>&#8721;</big> &alpha;<sub>i</sub> k(x<sub>i</sub>, y) <br>
@@ -146,6 +215,24 @@ public interface KernelTrick extends Parameterized, Cloneable, Serializable {
      */
     public double evalSum(List<? extends Vec> finalSet, List<Double> cache, double[] alpha, Vec y, int start, int end);
 
+    /**
+     * Performs an efficient summation of kernel products. This behaves exactly
+     * as {@link #evalSum(java.util.List, java.util.List, double[],
+     * jsat.linear.Vec, int, int) }, but allows implementations to read the
+     * cache without unboxing its values.
+     *
+     * @param finalSet the final set of vectors
+     * @param cache    the cache associated with the final set of vectors
+     * @param alpha    the coefficients associated with each vector
+     * @param y        the vector to perform the summed kernel products against
+     * @param start    the starting index (inclusive) to sum from
+     * @param end      the ending index (exclusive) to sum from
+     * @return the sum of the multiplied kernel products
+     */
+    default public double evalSum(List<? extends Vec> finalSet, DoubleList cache, double[] alpha, Vec y, int start, int end) {
+        return evalSum(finalSet, (List<Double>) cache, alpha, y, start, end);
+    }
+
     /**
      * Performs an efficient summation of kernel products of the form <br>
      * <big>&#8721;</big> &alpha;<sub>i</sub> k(x<sub>i</sub>, y) <br>
@@ -163,6 +250,25 @@ public interface KernelTrick extends Parameterized, Cloneable, Serializable {
      */
     public double evalSum(List<? extends Vec> finalSet, List<Double> cache, double[] alpha, Vec y, List<Double> qi, int start, int end);
 
+    /**
+     * Performs an efficient summation of kernel products. This behaves exactly
+     * as {@link #evalSum(java.util.List, java.util.List, double[],
+     * jsat.linear.Vec, java.util.List, int, int) }, but allows implementations
+     * to read the cache and query information without unboxing their values.
+     *
+     * @param finalSet the final set of vectors
+     * @param cache    the cache associated with the final set of vectors
+     * @param alpha    the coefficients associated with each vector
+     * @param y        the vector to perform the summed kernel products against
+     * @param qi       the query information about y
+     * @param start    the starting index (inclusive) to sum from
+     * @param end      the ending index (exclusive) to sum from
+     * @return the sum of the multiplied kernel products
+     */
+    default public double evalSum(List<? extends Vec> finalSet, DoubleList cache, double[] alpha, Vec y, DoubleList qi, int start, int end) {
+        return evalSum(finalSet, (List<Double>) cache, alpha, y, (List<Double>) qi, start, end);
+    }
+
     /**
      * This method indicates if a kernel is a normalized kernel or not. A
      * normalized kernel is one in which k(x,x) = 1 for the same object, and no
@@ -5,6 +5,7 @@ import java.util.List;
 
 import jsat.linear.Vec;
 import jsat.parameters.Parameter;
+import jsat.utils.DoubleList;
 
 /**
  * This provides a wrapper kernel that produces a normalized kernel trick from
@@ -52,12 +53,12 @@ public class NormalizedKernel implements KernelTrick {
 
     @Override
     public List<Double> getAccelerationCache(List<? extends Vec> trainingSet) {
-        return k.getAccelerationCache(trainingSet);
+        return k.getPrimitiveAccelerationCache(trainingSet);//so the List overloads never copy it
     }
 
     @Override
     public List<Double> getQueryInfo(Vec q) {
-        return k.getQueryInfo(q);
+        return k.getPrimitiveQueryInfo(q);
     }
 
     @Override
@@ -67,6 +68,11 @@ public class NormalizedKernel implements KernelTrick {
 
     @Override
     public double eval(int a, Vec b, List<Double> qi, List<? extends Vec> vecs, List<Double> cache) {
+        return eval(a, b, DoubleList.asDoubleList(qi), vecs, DoubleList.asDoubleList(cache));
+    }
+
+    @Override
+    public double eval(int a, Vec b, DoubleList qi, List<? extends Vec> vecs, DoubleList cache) {
         double aa = k.eval(a, a, vecs, cache);
         double bb = k.eval(0, 0, Arrays.asList(b), qi);
         if (aa == 0 || bb == 0)
@@ -77,6 +83,11 @@ public class NormalizedKernel implements KernelTrick {
 
     @Override
     public double eval(int a, int b, List<? extends Vec> trainingSet, List<Double> cache) {
+        return eval(a, b, trainingSet, DoubleList.asDoubleList(cache));
+    }
+
+    @Override
+    public double eval(int a, int b, List<? extends Vec> trainingSet, DoubleList cache) {
         double aa = k.eval(a, a, trainingSet, cache);
         double bb = k.eval(b, b, trainingSet, cache);
         if (aa == 0 || bb == 0)
@@ -87,11 +98,21 @@ public class NormalizedKernel implements KernelTrick {
 
     @Override
     public double evalSum(List<? extends Vec> finalSet, List<Double> cache, double[] alpha, Vec y, int start, int end) {
+        return evalSum(finalSet, DoubleList.asDoubleList(cache), alpha, y, start, end);
+    }
+
+    @Override
+    public double evalSum(List<? extends Vec> finalSet, DoubleList cache, double[] alpha, Vec y, int start, int end) {
         return evalSum(finalSet, cache, alpha, y, getQueryInfo(y), start, end);
     }
 
     @Override
     public double evalSum(List<? extends Vec> finalSet, List<Double> cache, double[] alpha, Vec y, List<Double> qi, int start, int end) {
+        return evalSum(finalSet, DoubleList.asDoubleList(cache), alpha, y, DoubleList.asDoubleList(qi), start, end);
+    }
+
+    @Override
+    public double evalSum(List<? extends Vec> finalSet, DoubleList cache, double[] alpha, Vec y, DoubleList qi, int start, int end) {
         double sum = 0;
 
         for (int i = start; i < end; i++)
@@ -7,6 +7,7 @@ import jsat.distributions.Distribution;
 import jsat.distributions.LogUniform;
 import jsat.linear.Vec;
 import jsat.parameters.Parameterized;
+import jsat.utils.DoubleList;
 
 /**
  * The PUK kernel is an alternative to the RBF Kernel. By altering the
@@ -82,12 +83,22 @@ public class PukKernel extends BaseL2Kernel implements Parameterized {
 
     @Override
     public double eval(int a, Vec b, List<Double> qi, List<? extends Vec> vecs, List<Double> cache) {
+        return eval(a, b, DoubleList.asDoubleList(qi), vecs, DoubleList.asDoubleList(cache));
+    }
+
+    @Override
+    public double eval(int a, Vec b, DoubleList qi, List<? extends Vec> vecs, DoubleList cache) {
         return getVal(Math.sqrt(getSqrdNorm(a, b, qi, vecs, cache)));
     }
 
     @Override
     public double eval(int a, int b, List<? extends Vec> trainingSet, List<Double> cache) {
-        return getVal(Math.sqrt(getSqrdNorm(b, b, trainingSet, cache)));
+        return eval(a, b, trainingSet, DoubleList.asDoubleList(cache));
+    }
+
+    @Override
+    public double eval(int a, int b, List<? extends Vec> trainingSet, DoubleList cache) {
+        return getVal(Math.sqrt(getSqrdNorm(a, b, trainingSet, cache)));
     }
 
     private double getVal(double pNormDist) {
@@ -7,6 +7,7 @@ import jsat.distributions.Distribution;
 import jsat.linear.Vec;
 import jsat.linear.distancemetrics.EuclideanDistance;
 import jsat.text.GreekLetters;
+import jsat.utils.DoubleList;
 
 /**
  * Provides a kernel for the Radial Basis Function, which is of the form
@@ -46,6 +47,11 @@ public class RBFKernel extends BaseL2Kernel {
 
     @Override
     public double eval(int a, int b, List<? extends Vec> trainingSet, List<Double> cache) {
+        return eval(a, b, trainingSet, DoubleList.asDoubleList(cache));
+    }
+
+    @Override
+    public double eval(int a, int b, List<? extends Vec> trainingSet, DoubleList cache) {
         if (a == b)
             return 1;
         return Math.exp(-getSqrdNorm(a, b, trainingSet, cache) * sigmaSqrd2Inv);
@@ -53,6 +59,11 @@ public class RBFKernel extends BaseL2Kernel {
 
     @Override
     public double eval(int a, Vec b, List<Double> qi, List<? extends Vec> vecs, List<Double> cache) {
+        return eval(a, b, DoubleList.asDoubleList(qi), vecs, DoubleList.asDoubleList(cache));
+    }
+
+    @Override
+    public double eval(int a, Vec b, DoubleList qi, List<? extends Vec> vecs, DoubleList cache) {
         return Math.exp(-getSqrdNorm(a, b, qi, vecs, cache) * sigmaSqrd2Inv);
     }
 
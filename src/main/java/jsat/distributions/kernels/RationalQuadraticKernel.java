@@ -5,6 +5,7 @@ import java.util.List;
 import jsat.DataSet;
 import jsat.distributions.Distribution;
 import jsat.linear.Vec;
+import jsat.utils.DoubleList;
 
 /**
  * Provides an implementation of the Rational Quadratic Kernel, which is of the
@@ -55,12 +56,22 @@ public class RationalQuadraticKernel extends BaseL2Kernel {
 
     @Override
     public double eval(int a, int b, List<? extends Vec> trainingSet, List<Double> cache) {
+        return eval(a, b, trainingSet, DoubleList.asDoubleList(cache));
+    }
+
+    @Override
+    public double eval(int a, int b, List<? extends Vec> trainingSet, DoubleList cache) {
         double dist = getSqrdNorm(a, b, trainingSet, cache);
         return 1 - dist / (dist + c);
     }
 
     @Override
     public double eval(int a, Vec b, List<Double> qi, List<? extends Vec> vecs, List<Double> cache) {
+        return eval(a, b, DoubleList.asDoubleList(qi), vecs, DoubleList.asDoubleList(cache));
+    }
+
+    @Override
+    public double eval(int a, Vec b, DoubleList qi, List<? extends Vec> vecs, DoubleList cache) {
         double dist = getSqrdNorm(a, b, qi, vecs, cache);
         return 1 - dist / (dist + c);
     }
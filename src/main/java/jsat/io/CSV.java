@@ -12,9 +12,14 @@ import jsat.utils.StringUtils;
 
 import static java.lang.Character.isWhitespace;
 
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import jsat.DataStore;
 import jsat.SimpleDataSet;
@@ -264,6 +269,190 @@ public class CSV {
         return (SimpleDataSet) readCSV(reader, lines_to_skip, delimiter, comment, cat_cols, -1, -1);
     }
 
+    /**
+     * Reads in the given CSV dataset as a simple CSV file. The file is split
+     * into chunks of whole lines which are parsed concurrently, giving the same
+     * result as the sequential readers. The file must use a single byte, ASCII
+     * compatible, encoding.
+     *
+     * @param path          the CSV file to read
+     * @param delimiter     the delimiter to separate columns, usually a comma
+     * @param lines_to_skip the number of lines to skip when reading in the CSV
+     *                      (used to skip header information)
+     * @param comment       the character used to indicate the start of a comment.
+     *                      Once this character is reached, anything at and after the character will
+     *                      be ignored.
+     * @param cat_cols      a set of the indices to treat as categorical features.
+     * @param parallel      {@code true} to parse the file using multiple threads
+     * @return a simple dataset of the given CSV file
+     * @throws IOException
+     */
+    public static SimpleDataSet read(Path path, char delimiter, int lines_to_skip, char comment, Set<Integer> cat_cols, boolean parallel) throws IOException {
+        return (SimpleDataSet) readCSVChunked(path, lines_to_skip, delimiter, comment, cat_cols, -1, -1, parallel, -1);
+    }
+
+    /**
+     * Reads in a CSV dataset as a regression dataset. The file is split into
+     * chunks of whole lines which are parsed concurrently, giving the same
+     * result as the sequential readers. The file must use a single byte, ASCII
+     * compatible, encoding.
+     *
+     * @param numeric_target_column the column index (starting from zero) of the
+     *                              feature that will be the target regression value
+     * @param path                  the CSV file to read
+     * @param delimiter             the delimiter to separate columns, usually a comma
+     * @param lines_to_skip         the number of lines to skip when reading in the CSV
+     *                              (used to skip header information)
+     * @param comment               the character used to indicate the start of a comment.
+     *                              Once this character is reached, anything at and after the character will
+     *                              be ignored.
+     * @param cat_cols              a set of the indices to treat as categorical features.
+     * @param parallel              {@code true} to parse the file using multiple threads
+     * @return the regression dataset from the given CSV file
+     * @throws IOException
+     */
+    public static RegressionDataSet readR(int numeric_target_column, Path path, char delimiter, int lines_to_skip, char comment, Set<Integer> cat_cols, boolean parallel) throws IOException {
+        return (RegressionDataSet) readCSVChunked(path, lines_to_skip, delimiter, comment, cat_cols, numeric_target_column, -1, parallel, -1);
+    }
+
+    /**
+     * Reads in a CSV dataset as a classification dataset. The file is split
+     * into chunks of whole lines which are parsed concurrently, giving the same
+     * result as the sequential readers. The file must use a single byte, ASCII
+     * compatible, encoding.
+     *
+     * @param classification_target the column index (starting from zero) of the
+     *                              feature that will be the categorical target value
+     * @param path                  the CSV file to read
+     * @param delimiter             the delimiter to separate columns, usually a comma
+     * @param lines_to_skip         the number of lines to skip when reading in the CSV
+     *                              (used to skip header information)
+     * @param comment               the character used to indicate the start of a comment.
+     *                              Once this character is reached, anything at and after the character will
+     *                              be ignored.
+     * @param cat_cols              a set of the indices to treat as categorical features.
+     * @param parallel              {@code true} to parse the file using multiple threads
+     * @return the classification dataset from the given CSV file
+     * @throws IOException
+     */
+    public static ClassificationDataSet readC(int classification_target, Path path, char delimiter, int lines_to_skip, char comment, Set<Integer> cat_cols, boolean parallel) throws IOException {
+        return (ClassificationDataSet) readCSVChunked(path, lines_to_skip, delimiter, comment, cat_cols, -1, classification_target, parallel, -1);
+    }
+
+    /**
+     * Creates a source that streams a CSV file as a regression problem, for
+     * training an {@link jsat.regression.UpdateableRegressor} without loading
+     * the file into memory. As the values of categorical features can not be
+     * known without reading the whole file, every column other than the
+     * target must be numeric. The file must use a single byte, ASCII
+     * compatible, encoding.
+     *
+     * @param numeric_target_column the column index (starting from zero) of the
+     *                              feature that will be the target regression value
+     * @param path                  the CSV file to read
+     * @param delimiter             the delimiter to separate columns, usually a comma
+     * @param lines_to_skip         the number of lines to skip when reading in the CSV
+     *                              (used to skip header information)
+     * @param comment               the character used to indicate the start of a comment.
+     *                              Once this character is reached, anything at and after the character will
+     *                              be ignored.
+     * @return a source over the rows of the file
+     * @throws IOException if an error occurred reading the first row of the file
+     */
+    public static StreamingDataSource<Double> streamR(int numeric_target_column, Path path, char delimiter, int lines_to_skip, char comment) throws IOException {
+        boolean[] isCat = new boolean[0];
+        StreamingDataSource.Opener<Double> opener = () -> streamCSV(path, lines_to_skip, delimiter, comment, isCat, numeric_target_column, -1, chunk ->
+                new StreamingDataSource.Row<>(new DataPoint(chunk.vecs.get(0)), 1.0, chunk.regressionTargets.getD(0)));
+        return new StreamingDataSource<>(opener, countNumeric(opener), new CategoricalData[0], null);
+    }
+
+    /**
+     * Creates a source that streams a CSV file as a classification problem,
+     * for training an {@link jsat.classifiers.UpdateableClassifier} without
+     * loading the file into memory. As the values of categorical features can
+     * not be known without reading the whole file, every column other than the
+     * target must be numeric, and the class names must be given. The file must
+     * use a single byte, ASCII compatible, encoding.
+     *
+     * @param classification_target the column index (starting from zero) of the
+     *                              feature that will be the categorical target value
+     * @param path                  the CSV file to read
+     * @param delimiter             the delimiter to separate columns, usually a comma
+     * @param lines_to_skip         the number of lines to skip when reading in the CSV
+     *                              (used to skip header information)
+     * @param comment               the character used to indicate the start of a comment.
+     *                              Once this character is reached, anything at and after the character will
+     *                              be ignored.
+     * @param classNames            the name of every class, in the order of
+     *                              their class index
+     * @return a source over the rows of the file
+     * @throws IOException if an error occurred reading the first row of the file
+     */
+    public static StreamingDataSource<Integer> streamC(int classification_target, Path path, char delimiter, int lines_to_skip, char comment, String... classNames) throws IOException {
+        boolean[] isCat = new boolean[classification_target + 1];
+        isCat[classification_target] = true;
+        CategoricalData predicting = new CategoricalData(classNames.length);
+        Map<String, Integer> classIndex = new HashMap<>();
+        for (int i = 0; i < classNames.length; i++) {
+            predicting.setOptionName(classNames[i], i);
+            classIndex.put(classNames[i], i);
+        }
+
+        StreamingDataSource.Opener<Integer> opener = () -> streamCSV(path, lines_to_skip, delimiter, comment, isCat, -1, classification_target, chunk ->
+        {
+            //the chunk numbers the classes in the order seen, map that to the given order
+            String name = chunk.catNames.get(classification_target).get(chunk.catTargets.getI(0));
+            Integer c = classIndex.get(name);
+            if (c == null)
+                throw new RuntimeException("Class " + name + " was not one of the given class names");
+            return new StreamingDataSource.Row<>(new DataPoint(chunk.vecs.get(0)), 1.0, c);
+        });
+        return new StreamingDataSource<>(opener, countNumeric(opener), new CategoricalData[0], predicting);
+    }
+
+    /**
+     * @return the number of numeric features in the first row of a source
+     */
+    private static int countNumeric(StreamingDataSource.Opener<?> opener) throws IOException {
+        try (Stream<? extends StreamingDataSource.Row<?>> rows = opener.open()) {
+            return rows.findFirst().map(row -> row.getDataPoint().numNumericalValues()).orElse(0);
+        }
+    }
+
+    /**
+     * Streams the rows of a CSV file, parsing one line at a time
+     *
+     * @param toRow converts a chunk holding the one row just parsed to a row
+     *              of the stream
+     */
+    private static <T> Stream<StreamingDataSource.Row<T>> streamCSV(Path path, int lines_to_skip, char delimiter, char comment, boolean[] isCat, int numeric_target, int cat_target, Function<ParsedChunk, StreamingDataSource.Row<T>> toRow) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long start = LineChunks.skipLines(channel, lines_to_skip);
+            ParsedChunk chunk = new ParsedChunk();
+            LineChunks.LineSpliterator<StreamingDataSource.Row<T>> rows = new LineChunks.LineSpliterator<>(channel, start, channel.size(), line ->
+            {
+                chunk.parseLine(line, delimiter, comment, isCat, numeric_target, cat_target);
+                if (chunk.vecs.isEmpty())//blank or comment line
+                    return null;
+                StreamingDataSource.Row<T> row = toRow.apply(chunk);
+                chunk.clearRows();
+                return row;
+            });
+            return StreamSupport.stream(rows, false).onClose(() ->
+            {
+                try {
+                    channel.close();
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
     private static DataSet<?> readCSV(Reader reader, int lines_to_skip, char delimiter, char comment, Set<Integer> cat_col, int numeric_target, int cat_target) throws IOException {
         StringBuilder processBuffer = new StringBuilder(20);
         StringBuilder charBuffer = new StringBuilder(1024);
@@ -528,6 +717,14 @@ public class CSV {
         for (int i = 0; i < cat_array.length; i++)
             cat_array[i] = catDataMap.get(cat_indx_to_csv_column.get(i));
 
+        return toDataSet(totalCols, cat_array, target_data, all_vecs, all_cats, regressionTargets, catTargets, numeric_target, cat_target);
+    }
+
+    /**
+     * Creates the dataset once all of the rows have been read and the
+     * categorical values given their final indices.
+     */
+    private static DataSet<?> toDataSet(int totalCols, CategoricalData[] cat_array, CategoricalData target_data, List<Vec> all_vecs, List<int[]> all_cats, DoubleList regressionTargets, IntList catTargets, int numeric_target, int cat_target) {
         if (cat_target >= 0) {
             ClassificationDataSet d = new ClassificationDataSet(totalCols - cat_array.length - 1, cat_array, target_data);
             d.setDataStore(DataStore.DEFAULT_STORE.emptyClone());
@@ -550,7 +747,209 @@ public class CSV {
 
             return d;
         }
+    }
+
+    /**
+     * Reader that splits the file into chunks of lines after the skipped
+     * header, parsing each chunk separately. Categorical values are collected
+     * per chunk as strings, and given their sorted indices once all chunks are
+     * done, so the result matches {@link #readCSV(java.io.Reader, int, char, char, java.util.Set, int, int)
+     * }.
+     *
+     * @param chunks the number of chunks to split the file into, or a non
+     *               positive value to pick based on the file size
+     */
+    static DataSet<?> readCSVChunked(Path path, int lines_to_skip, char delimiter, char comment, Set<Integer> cat_col, int numeric_target, int cat_target, boolean parallel, int chunks) throws IOException {
+        int maxCatCol = Math.max(cat_target, 0);
+        for (int col : cat_col)
+            maxCatCol = Math.max(maxCatCol, col);
+        boolean[] isCat = new boolean[maxCatCol + 1];
+        for (int col : cat_col)
+            isCat[col] = true;
+        if (cat_target >= 0)
+            isCat[cat_target] = true;
+
+        List<ParsedChunk> parsed;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long start = LineChunks.skipLines(channel, lines_to_skip);
+            if (chunks <= 0)
+                chunks = LineChunks.defaultChunks(channel.size() - start, parallel);
+
+            parsed = LineChunks.parseChunks(channel, start, chunks, parallel, lines ->
+            {
+                ParsedChunk chunk = new ParsedChunk();
+                CharSequence line;
+                while ((line = lines.next()) != null)
+                    chunk.parseLine(line, delimiter, comment, isCat, numeric_target, cat_target);
+                return chunk;
+            });
+        }
+
+        int totalCols = -1;
+        for (ParsedChunk chunk : parsed)
+            if (chunk.totalCols >= 0)
+                if (totalCols < 0)
+                    totalCols = chunk.totalCols;
+                else if (totalCols != chunk.totalCols)
+                    throw new RuntimeException("Inconsistent number of columns in CSV");
+
+        //give the categorical values of each column the same sorted order as the sequential reader
+        List<CategoricalData> cat_list = new ArrayList<>();
+        CategoricalData target_data = null;
+        int catFeature = 0;
+        for (int col = 0; col < Math.min(isCat.length, totalCols); col++) {
+            if (!isCat[col])
+                continue;
+            TreeSet<String> sortedOrder = new TreeSet<>();
+            for (ParsedChunk chunk : parsed)
+                sortedOrder.addAll(chunk.catNames.getOrDefault(col, Collections.emptyList()));
+            CategoricalData cd = new CategoricalData(sortedOrder.size());
+            Map<String, Integer> trueIndex = new HashMap<>();
+            for (String name : sortedOrder) {
+                cd.setOptionName(name, trueIndex.size());
+                trueIndex.put(name, trueIndex.size());
+            }
+
+            for (ParsedChunk chunk : parsed) {
+                List<String> names = chunk.catNames.getOrDefault(col, Collections.emptyList());
+                int[] translator = new int[names.size()];
+                for (int i = 0; i < translator.length; i++)
+                    translator[i] = trueIndex.get(names.get(i));
+                if (col == cat_target)
+                    for (int i = 0; i < chunk.catTargets.size(); i++)
+                        chunk.catTargets.set(i, translator[chunk.catTargets.getI(i)]);
+                else
+                    for (int[] cat_vals : chunk.cats)
+                        if (cat_vals[catFeature] >= 0)//if -1 its a missing value
+                            cat_vals[catFeature] = translator[cat_vals[catFeature]];
+            }
+
+            if (col == cat_target)
+                target_data = cd;
+            else {
+                cat_list.add(cd);
+                catFeature++;
+            }
+        }
+        CategoricalData[] cat_array = cat_list.toArray(new CategoricalData[0]);
+
+        List<Vec> all_vecs = new ArrayList<>();
+        List<int[]> all_cats = new ArrayList<>();
+        DoubleList regressionTargets = new DoubleList();
+        IntList catTargets = new IntList();
+        for (ParsedChunk chunk : parsed) {
+            all_vecs.addAll(chunk.vecs);
+            all_cats.addAll(chunk.cats);
+            regressionTargets.addAll(chunk.regressionTargets);
+            catTargets.addAll(chunk.catTargets);
+        }
+
+        return toDataSet(totalCols, cat_array, target_data, all_vecs, all_cats, regressionTargets, catTargets, numeric_target, cat_target);
+    }
+
+    /**
+     * The rows parsed out of one chunk of a CSV file. Categorical values are
+     * numbered in the order they are seen within the chunk.
+     */
+    private static class ParsedChunk {
+        final List<Vec> vecs = new ArrayList<>();
+        final List<int[]> cats = new ArrayList<>();
+        final DoubleList regressionTargets = new DoubleList();
+        final IntList catTargets = new IntList();
+        /**
+         * For each categorical column, the name of each value by its index
+         * within the chunk
+         */
+        final Map<Integer, List<String>> catNames = new HashMap<>();
+        final Map<Integer, Map<String, Integer>> catIndex = new HashMap<>();
+        int totalCols = -1;
+        private double[] numericFeats = new double[16];
+        private final IntList catFeats = new IntList();
+
+        /**
+         * Removes the rows parsed so far, keeping the names of the categorical
+         * values seen.
+         */
+        void clearRows() {
+            vecs.clear();
+            cats.clear();
+            regressionTargets.clear();
+            catTargets.clear();
+        }
+
+        void parseLine(CharSequence line, char delimiter, char comment, boolean[] isCat, int numeric_target, int cat_target) {
+            int end = 0;
+            boolean blank = true;
+            while (end < line.length() && line.charAt(end) != comment) {
+                blank &= isWhitespace(line.charAt(end));
+                end++;
+            }
+            if (blank)
+                return;
+
+            int numeric = 0;
+            catFeats.clear();
+            int cur_column = 0;
+            int fieldStart = 0;
+            for (int i = 0; i <= end; i++) {
+                if (i < end && line.charAt(i) != delimiter)
+                    continue;
+                int s = fieldStart, e = i;
+                while (s < e && isWhitespace(line.charAt(s)))
+                    s++;
+                while (e > s && isWhitespace(line.charAt(e - 1)))
+                    e--;
+
+                if (cur_column < isCat.length && isCat[cur_column]) {
+                    int val;
+                    if (s == e)
+                        val = -1;
+                    else {
+                        String cat_op = line.subSequence(s, e).toString();
+                        Map<String, Integer> map = catIndex.computeIfAbsent(cur_column, k -> new HashMap<>());
+                        Integer index = map.get(cat_op);
+                        if (index == null) {
+                            index = map.size();
+                            map.put(cat_op, index);
+                            catNames.computeIfAbsent(cur_column, k -> new ArrayList<>()).add(cat_op);
+                        }
+                        val = index;
+                    }
 
+                    if (cur_column == cat_target)
+                        if (val == -1)
+                            throw new RuntimeException("Categorical column can't have missing values!");
+                        else
+                            catTargets.add(val);
+                    else
+                        catFeats.add(val);
+                } else//numeric feature
+                {
+                    double val = s == e ? Double.NaN : StringUtils.parseDouble(line, s, e);
+                    if (cur_column == numeric_target)
+                        regressionTargets.add(val);
+                    else {
+                        if (numeric == numericFeats.length)
+                            numericFeats = Arrays.copyOf(numericFeats, numeric * 2);
+                        numericFeats[numeric++] = val;
+                    }
+                }
+
+                cur_column++;
+                fieldStart = i + 1;
+            }
+
+            if (totalCols < 0)
+                totalCols = cur_column;
+            else if (totalCols != cur_column)
+                throw new RuntimeException("Inconsistent number of columns in CSV");
+
+            vecs.add(new DenseVector(Arrays.copyOf(numericFeats, numeric)));
+            int[] cat_vals = new int[catFeats.size()];
+            for (int i = 0; i < cat_vals.length; i++)
+                cat_vals[i] = catFeats.getI(i);
+            cats.add(cat_vals);
+        }
     }
 
     /**
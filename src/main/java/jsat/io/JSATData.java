@@ -1,9 +1,19 @@
 package jsat.io;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 
@@ -13,6 +23,7 @@ import jsat.linear.*;
 import jsat.regression.RegressionDataSet;
 import jsat.utils.DoubleList;
 import jsat.utils.IntList;
+import jsat.utils.LongList;
 
 /**
  * JSAT Data Loader provides a simple binary file format for storing and reading
@@ -76,6 +87,16 @@ public class JSATData {
                 return true;
             }
 
+            @Override
+            protected double readFP(ByteBuffer buf, int pos) {
+                throw new UnsupportedOperationException("Not supported .");
+            }
+
+            @Override
+            protected int bytes() {
+                throw new UnsupportedOperationException("Not supported .");
+            }
+
         },
         FP64 {
             @Override
@@ -92,6 +113,16 @@ public class JSATData {
             protected boolean noLoss(double orig) {
                 return true;
             }
+
+            @Override
+            protected double readFP(ByteBuffer buf, int pos) {
+                return buf.getDouble(pos);
+            }
+
+            @Override
+            protected int bytes() {
+                return 8;
+            }
         },
         FP32 {
             @Override
@@ -110,6 +141,16 @@ public class JSATData {
                 float f_o = (float) orig;
                 return Double.valueOf(f_o) - orig == 0.0;
             }
+
+            @Override
+            protected double readFP(ByteBuffer buf, int pos) {
+                return buf.getFloat(pos);
+            }
+
+            @Override
+            protected int bytes() {
+                return 4;
+            }
         },
         SHORT {
             @Override
@@ -126,6 +167,16 @@ public class JSATData {
             protected boolean noLoss(double orig) {
                 return Short.MIN_VALUE <= orig && orig <= Short.MAX_VALUE && orig == Math.rint(orig);
             }
+
+            @Override
+            protected double readFP(ByteBuffer buf, int pos) {
+                return buf.getShort(pos);
+            }
+
+            @Override
+            protected int bytes() {
+                return 2;
+            }
         },
         BYTE {
             @Override
@@ -142,6 +193,16 @@ public class JSATData {
             protected boolean noLoss(double orig) {
                 return Byte.MIN_VALUE <= orig && orig <= Byte.MAX_VALUE && orig == Math.rint(orig);
             }
+
+            @Override
+            protected double readFP(ByteBuffer buf, int pos) {
+                return buf.get(pos);
+            }
+
+            @Override
+            protected int bytes() {
+                return 1;
+            }
         },
         U_BYTE {
             @Override
@@ -158,6 +219,16 @@ public class JSATData {
             protected boolean noLoss(double orig) {
                 return 0 <= orig && orig <= 255 && orig == Math.rint(orig);
             }
+
+            @Override
+            protected double readFP(ByteBuffer buf, int pos) {
+                return buf.get(pos) & 0xff;
+            }
+
+            @Override
+            protected int bytes() {
+                return 1;
+            }
         };
 
         abstract protected void writeFP(double value, DataOutputStream out) throws IOException;
@@ -166,6 +237,21 @@ public class JSATData {
 
         abstract protected boolean noLoss(double orig);
 
+        /**
+         * Reads a value from an absolute position in a buffer holding data
+         * written by {@link #writeFP(double, java.io.DataOutputStream) }
+         *
+         * @param buf the buffer to read from
+         * @param pos the position of the value in the buffer
+         * @return the value
+         */
+        abstract protected double readFP(ByteBuffer buf, int pos);
+
+        /**
+         * @return the number of bytes used to store each value
+         */
+        abstract protected int bytes();
+
         static public <Type extends DataSet<Type>> FloatStorageMethod getMethod(DataSet<Type> data, FloatStorageMethod method) {
             if (method == FloatStorageMethod.AUTO)//figure out what storage method to use! 
             {
@@ -560,55 +646,12 @@ public class JSATData {
     @SuppressWarnings("unchecked")
     protected static DataSet<?> load(InputStream inRaw, boolean forceAsStandard, DataStore store) throws IOException {
         DataInputStream in = new DataInputStream(inRaw);
-
-        byte[] magic_number = new byte[MAGIC_NUMBER.length];
-        in.readFully(magic_number);
-        String magic = new String(magic_number, "US-ASCII");
-
-        if (!magic.startsWith("JSAT_"))
-            throw new RuntimeException("data does not contain magic number");
-
-        DatasetTypeMarker marker = DatasetTypeMarker.values()[in.readByte()];
-        FloatStorageMethod fpStore = FloatStorageMethod.values()[in.readByte()];
-
-        int numNumeric = in.readInt();
-        int numCat = in.readInt();
-        int N = in.readInt();
-
-        if (forceAsStandard)
-            marker = DatasetTypeMarker.STANDARD;
-
-        if (marker == DatasetTypeMarker.CLASSIFICATION)
-            numCat--;
-        else if (marker == DatasetTypeMarker.REGRESSION)
-            numNumeric--;
-
-        CategoricalData[] categories = new CategoricalData[numCat];
-        CategoricalData predicting = null;//may not be used
-
-        for (int i = 0; i < categories.length; i++) {
-            //first, whats the name of the i'th category
-            String name = readString(in);
-            int k = in.readInt();//output the number of categories 
-
-            categories[i] = new CategoricalData(k);
-            categories[i].setCategoryName(name);
-
-            for (int j = 0; j < k; j++)//the option names
-                categories[i].setOptionName(readString(in), j);
-        }
-
-        if (marker == DatasetTypeMarker.CLASSIFICATION) {
-            //first, whats the name of the i'th category
-            String name = readString(in);
-            int k = in.readInt();//output the number of categories 
-
-            predicting = new CategoricalData(k);
-            predicting.setCategoryName(name);
-
-            for (int j = 0; j < k; j++)//the option names
-                predicting.setOptionName(readString(in), j);
-        }
+        Header header = readHeader(in, forceAsStandard);
+        DatasetTypeMarker marker = header.marker;
+        int numNumeric = header.numNumeric;
+        int N = header.N;
+        CategoricalData[] categories = header.categories;
+        CategoricalData predicting = header.predicting;
 
         //used for both numeric and categorical target storage
         DoubleList targets = new DoubleList();
@@ -620,61 +663,16 @@ public class JSATData {
         if (N < 0)
             N = Integer.MAX_VALUE;
         try {
+            double[] weightTarget = new double[2];
             for (int i = 0; i < N; i++) {
-
-                double weight = fpStore.readFP(in);//in.readDouble();
-                int[] catVals = new int[numCat];
-                double target = 0;
-
-                for (int j = 0; j < catVals.length; j++)
-                    catVals[j] = in.readInt();
-
-                if (marker == DatasetTypeMarker.CLASSIFICATION) {
-                    //int can be stored losselessly in a double, so this is safe
-                    target = in.readInt();
-                }
-
-                boolean sparse = in.readBoolean();
-                Vec numericVals;
-
-
-                if (sparse) {
-                    int nnz = in.readInt();
-                    if (marker == DatasetTypeMarker.REGRESSION)
-                        nnz--;//don't count the target value
-                    int[] indicies = new int[nnz];
-                    double[] values = new double[nnz];
-                    for (int j = 0; j < nnz; j++) {
-                        indicies[j] = in.readInt();
-                        values[j] = fpStore.readFP(in);
-                    }
-                    numericVals = new SparseVector(indicies, values, numNumeric, nnz);
-                } else {
-                    numericVals = new DenseVector(numNumeric);
-                    for (int j = 0; j < numNumeric; j++)
-                        numericVals.set(j, fpStore.readFP(in));
-                }
-
-                //get the target value 
-                if (marker == DatasetTypeMarker.REGRESSION) {
-                    /*
-                     * if dense, we only need to just add the extra double. If
-                     * sparse, we do the index and then the double.
-                     */
-                    if (numericVals.isSparse())
-                        in.readInt();//don't care, its the last index value - so its the target
-
-                    target = fpStore.readFP(in);
-                }
-
-                DataPoint dp = new DataPoint(numericVals, catVals, categories);
-                weights.add(weight);
+                DataPoint dp = readDataPoint(in, header, weightTarget);
+                weights.add(weightTarget[0]);
                 store.addDataPoint(dp);
 
                 switch (marker) {
                     case CLASSIFICATION:
                     case REGRESSION:
-                        targets.add(target);
+                        targets.add(weightTarget[1]);
                     default:
                         break;
                 }
@@ -704,6 +702,393 @@ public class JSATData {
         return toRet;
     }
 
+    /**
+     * Memory maps a JSAT dataset file instead of reading it into memory. The
+     * DataSet will be returned as either a {@link SimpleDataSet},
+     * {@link ClassificationDataSet}, or {@link RegressionDataSet} depending on
+     * what type of dataset was originally written out, backed by a
+     * {@link MappedDataStore}.<br>
+     * <br>
+     * Opening the file only needs to go over the header of each data point to
+     * find where it starts, so large files open far faster than they could be
+     * read, and only the weights, targets, and offsets of the data points are
+     * kept on the heap. The file must not be compressed, and must not be
+     * altered while the returned data set is in use.
+     *
+     * @param file the uncompressed JSAT data file
+     * @return a dataset backed by the mapped file
+     * @throws IOException
+     */
+    public static DataSet<?> loadMapped(File file) throws IOException {
+        return loadMapped(file, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Memory maps a JSAT dataset file as a {@link ClassificationDataSet}.
+     *
+     * @param file the uncompressed JSAT data file
+     * @return a ClassificationDataSet backed by the mapped file
+     * @throws IOException
+     * @throws ClassCastException if the original dataset was a not a ClassificationDataSet
+     * @see #loadMapped(java.io.File)
+     */
+    public static ClassificationDataSet loadMappedClassification(File file) throws IOException {
+        return (ClassificationDataSet) loadMapped(file);
+    }
+
+    /**
+     * Memory maps a JSAT dataset file as a {@link RegressionDataSet}.
+     *
+     * @param file the uncompressed JSAT data file
+     * @return a RegressionDataSet backed by the mapped file
+     * @throws IOException
+     * @throws ClassCastException if the original dataset was a not a RegressionDataSet
+     * @see #loadMapped(java.io.File)
+     */
+    public static RegressionDataSet loadMappedRegression(File file) throws IOException {
+        return (RegressionDataSet) loadMapped(file);
+    }
+
+    /**
+     * Creates a source that streams a JSAT dataset file that was written from
+     * a {@link ClassificationDataSet}, for training an
+     * {@link jsat.classifiers.UpdateableClassifier} without loading the file
+     * into memory.
+     *
+     * @param path the uncompressed JSAT data file
+     * @return a source over the data points of the file
+     * @throws IOException if the header of the file could not be read
+     * @throws ClassCastException if the original dataset was a not a ClassificationDataSet
+     */
+    public static StreamingDataSource<Integer> streamClassification(Path path) throws IOException {
+        Header header = readHeader(path, DatasetTypeMarker.CLASSIFICATION);
+        return new StreamingDataSource<>(() -> stream(path, (dp, weight, target) -> new StreamingDataSource.Row<>(dp, weight, (int) target)),
+                header.numNumeric, header.categories, header.predicting);
+    }
+
+    /**
+     * Creates a source that streams a JSAT dataset file that was written from
+     * a {@link RegressionDataSet}, for training an
+     * {@link jsat.regression.UpdateableRegressor} without loading the file
+     * into memory.
+     *
+     * @param path the uncompressed JSAT data file
+     * @return a source over the data points of the file
+     * @throws IOException if the header of the file could not be read
+     * @throws ClassCastException if the original dataset was a not a RegressionDataSet
+     */
+    public static StreamingDataSource<Double> streamRegression(Path path) throws IOException {
+        Header header = readHeader(path, DatasetTypeMarker.REGRESSION);
+        return new StreamingDataSource<>(() -> stream(path, (dp, weight, target) -> new StreamingDataSource.Row<>(dp, weight, target)),
+                header.numNumeric, header.categories, null);
+    }
+
+    private static Header readHeader(Path path, DatasetTypeMarker expected) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            Header header = readHeader(in, false);
+            if (header.marker != expected)
+                throw new ClassCastException("File contains a " + header.marker + " dataset, not " + expected);
+            return header;
+        }
+    }
+
+    private interface RowMaker<T> {
+        StreamingDataSource.Row<T> make(DataPoint dp, double weight, double target);
+    }
+
+    /**
+     * Opens a stream over the data points of a file, which must be closed
+     */
+    private static <T> Stream<StreamingDataSource.Row<T>> stream(Path path, RowMaker<T> rowMaker) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16));
+        Header header;
+        try {
+            header = readHeader(in, false);
+        } catch (IOException | RuntimeException ex) {
+            in.close();
+            throw ex;
+        }
+        double[] weightTarget = new double[2];
+        Spliterator<StreamingDataSource.Row<T>> rows = new Spliterators.AbstractSpliterator<StreamingDataSource.Row<T>>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            int read = 0;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super StreamingDataSource.Row<T>> action) {
+                if (header.N >= 0 && read >= header.N)
+                    return false;
+                DataPoint dp;
+                try {
+                    dp = readDataPoint(in, header, weightTarget);
+                } catch (EOFException ex) {
+                    return false;
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+                read++;
+                action.accept(rowMaker.make(dp, weightTarget[0], weightTarget[1]));
+                return true;
+            }
+        };
+        return StreamSupport.stream(rows, false).onClose(() ->
+        {
+            try {
+                in.close();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+    }
+
+    /**
+     * Memory maps a JSAT dataset file, mapping it in regions of at most the
+     * given size. A single mapping can not be larger than 2 GB, so larger files
+     * are always split up.
+     *
+     * @param file           the uncompressed JSAT data file
+     * @param maxSegmentSize the largest number of bytes to map at once
+     * @return a dataset backed by the mapped file
+     * @throws IOException
+     */
+    static DataSet<?> loadMapped(File file, int maxSegmentSize) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            //not buffered, so the channel is left at the end of the header
+            Header header = readHeader(new DataInputStream(Channels.newInputStream(channel)), false);
+            final long fileSize = channel.size();
+            final FloatStorageMethod fpStore = header.fpStore;
+            final boolean hasLabel = header.marker == DatasetTypeMarker.CLASSIFICATION;
+            final boolean hasTarget = header.marker == DatasetTypeMarker.REGRESSION;
+            final int fpBytes = fpStore.bytes();
+            final int numCatStored = header.numCat + (hasLabel ? 1 : 0);
+            final int numNumericStored = header.numNumeric + (hasTarget ? 1 : 0);
+
+            List<ByteBuffer> segments = new ArrayList<>();
+            LongList segmentStarts = new LongList();
+            LongList rowOffsets = new LongList();
+            DoubleList weights = new DoubleList();
+            DoubleList targets = new DoubleList();
+            boolean allUnitWeight = true;
+
+            long pos = channel.position();
+            long segmentStart = pos;
+            MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, pos, Math.min(fileSize - pos, maxSegmentSize));
+            segments.add(buf);
+            segmentStarts.add(segmentStart);
+            int N = header.N < 0 ? Integer.MAX_VALUE : header.N;
+            while (pos < fileSize && rowOffsets.size() < N) {
+                int start = (int) (pos - segmentStart);
+                int r = start + fpBytes + 4 * numCatStored;
+                //find the end of the point, if it is in this segment
+                long end = r + 1;
+                int nnz = 0;
+                boolean sparse = false;
+                if (end <= buf.limit()) {
+                    sparse = buf.get(r++) != 0;
+                    if (sparse) {
+                        end = r + 4L;
+                        if (end <= buf.limit()) {
+                            nnz = buf.getInt(r);
+                            r += 4;
+                            end = r + (long) nnz * (4 + fpBytes);
+                        }
+                    } else
+                        end = r + (long) numNumericStored * fpBytes;
+                }
+
+                if (end > buf.limit()) {
+                    if (segmentStart + buf.limit() >= fileSize)
+                        break;//partial point at the end of the file, same as an EOF when streaming
+                    if (start == 0)
+                        throw new IOException("Data point at offset " + pos + " is larger than the mapping size of " + maxSegmentSize);
+                    //start a new segment at this point
+                    segmentStart = pos;
+                    buf = channel.map(FileChannel.MapMode.READ_ONLY, pos, Math.min(fileSize - pos, maxSegmentSize));
+                    segments.add(buf);
+                    segmentStarts.add(segmentStart);
+                    continue;
+                }
+
+                double weight = fpStore.readFP(buf, start);
+                allUnitWeight &= weight == 1;
+                weights.add(weight);
+                if (hasLabel)
+                    targets.add(buf.getInt(start + fpBytes + 4 * header.numCat));
+                else if (hasTarget)//the target is the last value written
+                    targets.add(fpStore.readFP(buf, (int) end - fpBytes));
+                rowOffsets.add(pos);
+                pos = segmentStart + end;
+            }
+
+            long[] offsets = new long[rowOffsets.size()];
+            for (int i = 0; i < offsets.length; i++)
+                offsets[i] = rowOffsets.getL(i);
+            long[] starts = new long[segmentStarts.size()];
+            for (int i = 0; i < starts.length; i++)
+                starts[i] = segmentStarts.getL(i);
+            MappedDataStore store = new MappedDataStore(segments.toArray(new ByteBuffer[segments.size()]), starts, offsets,
+                    fpStore, header.numNumeric, header.categories, hasLabel, hasTarget);
+
+            DataSet toRet;
+            switch (header.marker) {
+                case CLASSIFICATION:
+                    IntList targets_i = IntList.view(targets.stream().mapToInt(Double::intValue).toArray());
+                    toRet = new ClassificationDataSet(store, targets_i, header.predicting);
+                    break;
+                case REGRESSION:
+                    toRet = new RegressionDataSet(store, targets);
+                    break;
+                default:
+                    toRet = new SimpleDataSet(store);
+            }
+            if (!allUnitWeight)
+                for (int i = 0; i < weights.size(); i++)
+                    toRet.setWeight(i, weights.getD(i));
+            return toRet;
+        }
+    }
+
+    /**
+     * Reads the next data point from the stream.
+     *
+     * @param in           the stream, positioned at the start of a data point
+     * @param header       the header of the file
+     * @param weightTarget an array of length 2 to store the weight of the data
+     *                     point and its target value in
+     * @return the data point read
+     * @throws IOException
+     */
+    private static DataPoint readDataPoint(DataInputStream in, Header header, double[] weightTarget) throws IOException {
+        DatasetTypeMarker marker = header.marker;
+        FloatStorageMethod fpStore = header.fpStore;
+        int numNumeric = header.numNumeric;
+
+        double weight = fpStore.readFP(in);//in.readDouble();
+        int[] catVals = new int[header.numCat];
+        double target = 0;
+
+        for (int j = 0; j < catVals.length; j++)
+            catVals[j] = in.readInt();
+
+        if (marker == DatasetTypeMarker.CLASSIFICATION) {
+            //int can be stored losselessly in a double, so this is safe
+            target = in.readInt();
+        }
+
+        boolean sparse = in.readBoolean();
+        Vec numericVals;
+
+
+        if (sparse) {
+            int nnz = in.readInt();
+            if (marker == DatasetTypeMarker.REGRESSION)
+                nnz--;//don't count the target value
+            int[] indicies = new int[nnz];
+            double[] values = new double[nnz];
+            for (int j = 0; j < nnz; j++) {
+                indicies[j] = in.readInt();
+                values[j] = fpStore.readFP(in);
+            }
+            numericVals = new SparseVector(indicies, values, numNumeric, nnz);
+        } else {
+            numericVals = new DenseVector(numNumeric);
+            for (int j = 0; j < numNumeric; j++)
+                numericVals.set(j, fpStore.readFP(in));
+        }
+
+        //get the target value 
+        if (marker == DatasetTypeMarker.REGRESSION) {
+            /*
+             * if dense, we only need to just add the extra double. If
+             * sparse, we do the index and then the double.
+             */
+            if (numericVals.isSparse())
+                in.readInt();//don't care, its the last index value - so its the target
+
+            target = fpStore.readFP(in);
+        }
+
+        weightTarget[0] = weight;
+        weightTarget[1] = target;
+        return new DataPoint(numericVals, catVals, header.categories);
+    }
+
+    /**
+     * The information stored at the start of a JSAT data file
+     */
+    private static class Header {
+        DatasetTypeMarker marker;
+        FloatStorageMethod fpStore;
+        /**
+         * The number of numeric features, not counting a regression target
+         */
+        int numNumeric;
+        /**
+         * The number of categorical features, not counting a class label
+         */
+        int numCat;
+        /**
+         * The number of data points, or a negative value if not known
+         */
+        int N;
+        CategoricalData[] categories;
+        CategoricalData predicting;
+    }
+
+    private static Header readHeader(DataInputStream in, boolean forceAsStandard) throws IOException {
+        Header header = new Header();
+        byte[] magic_number = new byte[MAGIC_NUMBER.length];
+        in.readFully(magic_number);
+        String magic = new String(magic_number, "US-ASCII");
+
+        if (!magic.startsWith("JSAT_"))
+            throw new RuntimeException("data does not contain magic number");
+
+        DatasetTypeMarker marker = DatasetTypeMarker.values()[in.readByte()];
+        header.fpStore = FloatStorageMethod.values()[in.readByte()];
+
+        int numNumeric = in.readInt();
+        int numCat = in.readInt();
+        header.N = in.readInt();
+
+        if (forceAsStandard)
+            marker = DatasetTypeMarker.STANDARD;
+
+        if (marker == DatasetTypeMarker.CLASSIFICATION)
+            numCat--;
+        else if (marker == DatasetTypeMarker.REGRESSION)
+            numNumeric--;
+
+        CategoricalData[] categories = new CategoricalData[numCat];
+
+        for (int i = 0; i < categories.length; i++) {
+            //first, whats the name of the i'th category
+            String name = readString(in);
+            int k = in.readInt();//output the number of categories 
+
+            categories[i] = new CategoricalData(k);
+            categories[i].setCategoryName(name);
+
+            for (int j = 0; j < k; j++)//the option names
+                categories[i].setOptionName(readString(in), j);
+        }
+
+        if (marker == DatasetTypeMarker.CLASSIFICATION) {
+            //first, whats the name of the i'th category
+            String name = readString(in);
+            int k = in.readInt();//output the number of categories 
+
+            header.predicting = new CategoricalData(k);
+            header.predicting.setCategoryName(name);
+
+            for (int j = 0; j < k; j++)//the option names
+                header.predicting.setOptionName(readString(in), j);
+        }
+        header.marker = marker;
+        header.numNumeric = numNumeric;
+        header.numCat = numCat;
+        header.categories = categories;
+        return header;
+    }
+
     private static void writeString(String s, DataOutputStream out) throws IOException {
         boolean isAscii = true;
         for (int i = 0; i < s.length() && isAscii; i++)
@@ -1,7 +1,12 @@
 package jsat.io;
 
 import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import jsat.DataSet;
 import jsat.DataStore;
@@ -9,6 +14,7 @@ import jsat.RowMajorStore;
 import jsat.classifiers.CategoricalData;
 import jsat.classifiers.ClassificationDataSet;
 import jsat.classifiers.DataPoint;
+import jsat.classifiers.DataPointPair;
 import jsat.datatransform.DenseSparceTransform;
 import jsat.linear.*;
 import jsat.regression.RegressionDataSet;
@@ -241,6 +247,270 @@ public class LIBSVMLoader {
         return (ClassificationDataSet) loadG(reader, sparseRatio, vectorLength, true, store);
     }
 
+    /**
+     * Loads a new regression data set from a LIBSVM file, assuming the label is
+     * a numeric target value to predict. The file is split into chunks of
+     * whole lines which are parsed concurrently, and then merged in order, so
+     * the result is the same as the sequential loaders.
+     *
+     * @param file         the file to load
+     * @param sparseRatio  the fraction of non zero values to qualify a data
+     *                     point as sparse
+     * @param vectorLength the pre-determined length of each vector. If given a
+     *                     negative value, the largest non-zero index observed in the data will be
+     *                     used as the length.
+     * @param store        the type of store to use for data
+     * @param parallel     {@code true} to parse the file using multiple threads
+     * @return a regression data set
+     * @throws IOException if an error occurred reading the file
+     */
+    public static RegressionDataSet loadR(File file, double sparseRatio, int vectorLength, DataStore store, boolean parallel) throws IOException {
+        return (RegressionDataSet) loadChunked(file.toPath(), sparseRatio, vectorLength, false, store, parallel, -1);
+    }
+
+    /**
+     * Loads a new classification data set from a LIBSVM file, assuming the
+     * label is a nominal target value. The file is split into chunks of whole
+     * lines which are parsed concurrently, and then merged in order, so the
+     * result is the same as the sequential loaders.
+     *
+     * @param file         the file to load
+     * @param sparseRatio  the fraction of non zero values to qualify a data
+     *                     point as sparse
+     * @param vectorLength the pre-determined length of each vector. If given a
+     *                     negative value, the largest non-zero index observed in the data will be
+     *                     used as the length.
+     * @param store        the type of store to use for the data
+     * @param parallel     {@code true} to parse the file using multiple threads
+     * @return a classification data set
+     * @throws IOException if an error occurred reading the file
+     */
+    public static ClassificationDataSet loadC(File file, double sparseRatio, int vectorLength, DataStore store, boolean parallel) throws IOException {
+        return (ClassificationDataSet) loadChunked(file.toPath(), sparseRatio, vectorLength, true, store, parallel, -1);
+    }
+
+    /**
+     * Returns a stream over the rows of a LIBSVM file, which reads the file
+     * lazily so that files larger than memory can be processed, such as by an
+     * online learner. Each row is given as a data point paired with its label,
+     * with the label left as the numeric value in the file. <br>
+     * The file is held open until the stream is closed, so it should be used
+     * in a try-with-resources block. A parallel stream will have each thread
+     * reading its own region of the file.
+     *
+     * @param path         the file to read
+     * @param vectorLength the length of each vector. Must be positive, as the
+     *                     length can not be inferred without reading the whole file
+     * @param parallel     {@code true} for a parallel stream
+     * @return a stream over the rows of the file, in order
+     * @throws IOException if an error occurred opening the file
+     */
+    public static Stream<DataPointPair<Double>> stream(Path path, int vectorLength, boolean parallel) throws IOException {
+        if (vectorLength <= 0)
+            throw new IllegalArgumentException("vectorLength must be positive, not " + vectorLength);
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        ThreadLocal<LineParser> parsers = ThreadLocal.withInitial(LineParser::new);
+        LineChunks.LineSpliterator<DataPointPair<Double>> rows = new LineChunks.LineSpliterator<>(channel, 0, channel.size(), line ->
+        {
+            LineParser parser = parsers.get();
+            if (!parser.parse(line))
+                return null;
+            if (parser.maxIndex >= vectorLength)
+                throw new RuntimeException("Length given was " + vectorLength + ", but observed length was " + (parser.maxIndex + 1));
+            return new DataPointPair<>(new DataPoint(parser.toVector(vectorLength)), parser.label);
+        });
+        return StreamSupport.stream(rows, parallel).onClose(() ->
+        {
+            try {
+                channel.close();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+    }
+
+    /**
+     * Creates a source that streams a LIBSVM file as a regression problem,
+     * for training an {@link jsat.regression.UpdateableRegressor} without
+     * loading the file into memory.
+     *
+     * @param path         the file to read
+     * @param vectorLength the length of each vector. Must be positive, as the
+     *                     length can not be inferred without reading the whole file
+     * @return a source over the rows of the file
+     */
+    public static StreamingDataSource<Double> streamR(Path path, int vectorLength) {
+        if (vectorLength <= 0)
+            throw new IllegalArgumentException("vectorLength must be positive, not " + vectorLength);
+        return new StreamingDataSource<>(() -> stream(path, vectorLength, false)
+                .map(pair -> new StreamingDataSource.Row<>(pair.getDataPoint(), 1.0, pair.getPair())),
+                vectorLength, new CategoricalData[0], null);
+    }
+
+    /**
+     * Creates a source that streams a LIBSVM file as a classification
+     * problem, for training an {@link jsat.classifiers.UpdateableClassifier}
+     * without loading the file into memory. As the labels can not be known
+     * without reading the whole file, they must be given. The labels are
+     * sorted so that the class indices are the same as those given by
+     * {@link #loadC(java.io.File) }.
+     *
+     * @param path         the file to read
+     * @param vectorLength the length of each vector. Must be positive, as the
+     *                     length can not be inferred without reading the whole file
+     * @param classLabels  every label value that occurs in the file
+     * @return a source over the rows of the file
+     */
+    public static StreamingDataSource<Integer> streamC(Path path, int vectorLength, double... classLabels) {
+        if (vectorLength <= 0)
+            throw new IllegalArgumentException("vectorLength must be positive, not " + vectorLength);
+        Map<Double, Integer> classIndex = new HashMap<>();
+        double[] sorted = classLabels.clone();
+        Arrays.sort(sorted);
+        for (double label : sorted)
+            classIndex.putIfAbsent(label, classIndex.size());
+        return new StreamingDataSource<>(() -> stream(path, vectorLength, false).map(pair ->
+        {
+            Integer c = classIndex.get(pair.getPair());
+            if (c == null)
+                throw new RuntimeException("Label " + pair.getPair() + " was not one of the given class labels");
+            return new StreamingDataSource.Row<>(pair.getDataPoint(), 1.0, c);
+        }), vectorLength, new CategoricalData[0], new CategoricalData(classIndex.size()));
+    }
+
+    /**
+     * Loader that splits the file into chunks of lines, parsing each chunk
+     * separately and then combining them into one store in file order.
+     *
+     * @param chunks the number of chunks to split the file into, or a non
+     *               positive value to pick based on the file size
+     */
+    static DataSet loadChunked(Path path, double sparseRatio, int vectorLength, boolean classification, DataStore store, boolean parallel, int chunks) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (chunks <= 0)
+                chunks = LineChunks.defaultChunks(channel.size(), parallel);
+
+            List<ParsedChunk> parsed = LineChunks.parseChunks(channel, 0, chunks, parallel, lines ->
+            {
+                ParsedChunk chunk = new ParsedChunk();
+                LineParser parser = new LineParser();
+                CharSequence line;
+                while ((line = lines.next()) != null)
+                    if (parser.parse(line)) {
+                        chunk.labels.add(parser.label);
+                        chunk.maxLen = Math.max(chunk.maxLen, parser.maxIndex + 1);
+                        chunk.vecs.add(parser.toVector(Math.max(parser.maxIndex + 1, 1)));
+                    }
+                return chunk;
+            });
+
+            DataStore sparceVecs = store.emptyClone();
+            sparceVecs.setCategoricalDataInfo(new CategoricalData[0]);
+            DoubleList labelVals = new DoubleList();
+            int maxLen = 1;
+            for (ParsedChunk chunk : parsed) {
+                for (SparseVector v : chunk.vecs)
+                    sparceVecs.addDataPoint(new DataPoint(v));
+                labelVals.addAll(chunk.labels);
+                maxLen = Math.max(maxLen, chunk.maxLen);
+                chunk.vecs.clear();
+            }
+
+            return finishLoad(sparceVecs, labelVals, maxLen, vectorLength, classification, sparseRatio, store);
+        }
+    }
+
+    /**
+     * The rows parsed out of one chunk of a file
+     */
+    private static class ParsedChunk {
+        final DoubleList labels = new DoubleList();
+        final List<SparseVector> vecs = new ArrayList<>();
+        int maxLen = 1;
+    }
+
+    /**
+     * Parses a single line of a LIBSVM file into reusable buffers, so that only
+     * the final vector is allocated for each line.
+     */
+    private static class LineParser {
+        double label;
+        int maxIndex;
+        int nnz;
+        boolean sorted;
+        int[] indexes = new int[16];
+        double[] values = new double[16];
+
+        /**
+         * @param line the line to parse
+         * @return {@code false} if the line was blank and should be skipped
+         */
+        boolean parse(CharSequence line) {
+            int len = line.length();
+            int pos = 0;
+            while (pos < len && Character.isWhitespace(line.charAt(pos)))
+                pos++;
+            if (pos == len)
+                return false;
+
+            int labelEnd = pos;
+            while (labelEnd < len && !Character.isWhitespace(line.charAt(labelEnd)))
+                labelEnd++;
+            label = StringUtils.parseDouble(line, pos, labelEnd);
+            pos = labelEnd;
+
+            maxIndex = -1;
+            nnz = 0;
+            sorted = true;
+            while (true) {
+                while (pos < len && Character.isWhitespace(line.charAt(pos)))
+                    pos++;
+                if (pos == len)
+                    break;
+                int colon = pos;
+                while (colon < len && line.charAt(colon) != ':')
+                    colon++;
+                if (colon == len)
+                    throw new RuntimeException("Invalid LIBSVM file, expected an index:value pair");
+                int valueEnd = colon + 1;
+                while (valueEnd < len && !Character.isWhitespace(line.charAt(valueEnd)))
+                    valueEnd++;
+
+                int index = StringUtils.parseInt(line, pos, colon) - 1;
+                double value = StringUtils.parseDouble(line, colon + 1, valueEnd);
+                pos = valueEnd;
+                if (index < 0)
+                    throw new RuntimeException("Invalid LIBSVM file, indices start from 1");
+
+                maxIndex = Math.max(maxIndex, index);
+                if (value == 0)
+                    continue;
+                if (nnz == indexes.length) {
+                    indexes = Arrays.copyOf(indexes, nnz * 2);
+                    values = Arrays.copyOf(values, nnz * 2);
+                }
+                if (nnz > 0 && indexes[nnz - 1] >= index)
+                    sorted = false;
+                indexes[nnz] = index;
+                values[nnz++] = value;
+            }
+            return true;
+        }
+
+        /**
+         * @param length the length of the vector to create
+         * @return a vector with the values of the last line parsed
+         */
+        SparseVector toVector(int length) {
+            if (sorted)
+                return new SparseVector(Arrays.copyOf(indexes, nnz), Arrays.copyOf(values, nnz), length, nnz);
+            SparseVector vec = new SparseVector(length, nnz);
+            for (int i = 0; i < nnz; i++)
+                vec.set(indexes[i], values[i]);
+            return vec;
+        }
+    }
+
     /**
      * Generic loader for both Classification and Regression interpretations.
      *
@@ -262,7 +532,6 @@ public class LIBSVMLoader {
          * The category "label" for each value loaded in
          */
         List<Double> labelVals = new DoubleList();
-        Map<Double, Integer> possibleCats = new HashMap<>();
         int maxLen = 1;
 
         STATE state = STATE.INITIAL;
@@ -292,8 +561,6 @@ public class LIBSVMLoader {
                 {
                     double label = Double.parseDouble(processBuffer.toString());
 
-                    if (!possibleCats.containsKey(label) && classification)
-                        possibleCats.put(label, possibleCats.size());
                     labelVals.add(label);
 
                     sparceVecs.addDataPoint(new DataPoint(new SparseVector(maxLen, 0)));
@@ -333,8 +600,6 @@ public class LIBSVMLoader {
                     {
                         double label = Double.parseDouble(processBuffer.toString());
 
-                        if (!possibleCats.containsKey(label) && classification)
-                            possibleCats.put(label, possibleCats.size());
                         labelVals.add(label);
 
                         //clean up and move to new state
@@ -424,6 +689,27 @@ public class LIBSVMLoader {
             }
         }
 
+        return finishLoad(sparceVecs, labelVals, maxLen, vectorLength, classification, sparseRatio, store);
+    }
+
+    /**
+     * Builds the data set once all of the rows have been read in, mapping the
+     * labels to classes if needed and picking the sparse or dense
+     * representation for each row.
+     *
+     * @param sparceVecs     the rows read in
+     * @param labelVals      the label of each row
+     * @param maxLen         the length implied by the largest index observed
+     * @param vectorLength   the length requested, or a non positive value to
+     *                       use {@code maxLen}
+     * @param classification {@code true} to treat as classification,
+     *                       {@code false} to treat as regression
+     * @param sparseRatio    the fraction of non zero values to qualify a data
+     *                       point as sparse
+     * @param store          the type of store requested
+     * @return the loaded data set
+     */
+    private static DataSet finishLoad(DataStore sparceVecs, List<Double> labelVals, int maxLen, int vectorLength, boolean classification, double sparseRatio, DataStore store) {
         if (vectorLength > 0)
             if (maxLen > vectorLength)
                 throw new RuntimeException("Length given was " + vectorLength + ", but observed length was " + maxLen);
@@ -431,9 +717,10 @@ public class LIBSVMLoader {
                 maxLen = vectorLength;
 
         if (classification) {
-            CategoricalData predicting = new CategoricalData(possibleCats.size());
-
             //Give categories a unique ordering to avoid loading issues based on the order categories are presented
+            Map<Double, Integer> possibleCats = new HashMap<>();
+            for (double label : labelVals)
+                possibleCats.putIfAbsent(label, possibleCats.size());
             List<Double> allCatKeys = new DoubleList(possibleCats.keySet());
             Collections.sort(allCatKeys);
             for (int i = 0; i < allCatKeys.size(); i++)
@@ -0,0 +1,375 @@
+package jsat.io;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import jsat.utils.SystemInfo;
+import jsat.utils.concurrent.ParallelUtils;
+
+/**
+ * Utilities for reading a text file as byte ranges that each hold a whole
+ * number of lines, so that the ranges can be parsed independently by different
+ * threads. Lines are read with positional reads on a shared
+ * {@link FileChannel}, which is safe for concurrent use, and handed to the
+ * parser as a reused {@link CharSequence} over the raw bytes. This lets values
+ * be parsed with {@link jsat.utils.StringUtils#parseDouble(java.lang.CharSequence, int, int)
+ * } without creating a String for every value. <br>
+ * Only single byte, ASCII compatible, encodings are supported.
+ */
+final class LineChunks {
+    /**
+     * The smallest number of bytes that is worth giving its own chunk
+     */
+    static final int MIN_CHUNK_BYTES = 1 << 16;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private LineChunks() {
+    }
+
+    /**
+     * Parses one chunk of lines, returning the partial result for that chunk
+     *
+     * @param <R> the type of the partial result
+     */
+    interface ChunkParser<R> {
+        R parse(LineCursor lines) throws IOException;
+    }
+
+    /**
+     * Picks the number of chunks to split a file into
+     *
+     * @param bytes    the number of bytes to be read
+     * @param parallel {@code true} if the chunks will be parsed in parallel
+     * @return the number of chunks to use
+     */
+    static int defaultChunks(long bytes, boolean parallel) {
+        if (!parallel)
+            return 1;
+        long chunks = Math.min(SystemInfo.LogicalCores * 4L, bytes / MIN_CHUNK_BYTES);
+        return (int) Math.max(1, chunks);
+    }
+
+    /**
+     * Splits the range of {@code [start, end)} bytes of the file into at most
+     * {@code chunks} ranges, where every range but the last ends just after a
+     * new line.
+     *
+     * @param channel the file to split
+     * @param start   the first byte to include
+     * @param end     the end of the range, exclusive
+     * @param chunks  the desired number of chunks
+     * @return the boundaries of each chunk, where chunk <i>i</i> covers
+     * {@code [b[i], b[i+1])}
+     * @throws IOException if an error occurred reading the file
+     */
+    static long[] split(FileChannel channel, long start, long end, int chunks) throws IOException {
+        long[] bounds = new long[chunks + 1];
+        bounds[0] = start;
+        int count = 1;
+        ByteBuffer buf = ByteBuffer.allocate(4096);
+        for (int k = 1; k < chunks; k++) {
+            long target = Math.max(start + (end - start) * k / chunks, bounds[count - 1]);
+            long b = nextLineStart(channel, target, end, buf);
+            if (b > bounds[count - 1] && b < end)
+                bounds[count++] = b;
+        }
+        bounds[count++] = end;
+        return Arrays.copyOf(bounds, count);
+    }
+
+    /**
+     * Finds the start of the first line that begins after the given position
+     *
+     * @return the position just after the first new line at or after
+     * {@code pos}, or {@code end} if there is none
+     */
+    private static long nextLineStart(FileChannel channel, long pos, long end, ByteBuffer buf) throws IOException {
+        while (pos < end) {
+            buf.clear();
+            int read = channel.read(buf, pos);
+            if (read <= 0)
+                return end;
+            for (int i = 0; i < read; i++)
+                if (buf.get(i) == '\n')
+                    return Math.min(pos + i + 1, end);
+            pos += read;
+        }
+        return end;
+    }
+
+    /**
+     * Finds the position just after the given number of non-empty lines, which
+     * is used to skip header lines before splitting a file.
+     *
+     * @param channel the file to read
+     * @param lines   the number of lines to skip
+     * @return the position in the file of the first line not skipped
+     * @throws IOException if an error occurred reading the file
+     */
+    static long skipLines(FileChannel channel, int lines) throws IOException {
+        LineCursor cursor = new LineCursor(channel, 0, channel.size());
+        for (int i = 0; i < lines && cursor.next() != null; i++)
+            ;
+        return cursor.position();
+    }
+
+    /**
+     * Splits the file from {@code start} to its end into chunks, and parses
+     * each chunk, possibly in parallel.
+     *
+     * @param <R>      the type of the partial result for each chunk
+     * @param channel  the file to read
+     * @param start    the position in the file to start reading from
+     * @param chunks   the desired number of chunks
+     * @param parallel {@code true} to parse the chunks in parallel
+     * @param parser   the parser to apply to each chunk
+     * @return the result of each chunk, in the order they occur in the file
+     * @throws IOException if an error occurred reading the file
+     */
+    @SuppressWarnings("unchecked")
+    static <R> List<R> parseChunks(FileChannel channel, long start, int chunks, boolean parallel, ChunkParser<R> parser) throws IOException {
+        long[] bounds = split(channel, start, channel.size(), chunks);
+        int n = bounds.length - 1;
+        Object[] results = new Object[n];
+        Exception[] errors = new Exception[n];
+
+        ParallelUtils.run(parallel && n > 1, n, id ->
+        {
+            try {
+                results[id] = parser.parse(new LineCursor(channel, bounds[id], bounds[id + 1]));
+            } catch (IOException | RuntimeException ex) {
+                //must not escape, or the other chunks will never be waited on
+                errors[id] = ex;
+            }
+        });
+
+        for (Exception ex : errors)
+            if (ex instanceof IOException)
+                throw (IOException) ex;
+            else if (ex != null)
+                throw (RuntimeException) ex;
+
+        List<R> list = new ArrayList<>(n);
+        for (Object r : results)
+            list.add((R) r);
+        return list;
+    }
+
+    /**
+     * Reads the non-empty lines in a range of a file in order. The sequence
+     * returned for each line is reused, and is only valid until the next call
+     * to {@link #next() }.
+     */
+    static final class LineCursor {
+        private final FileChannel channel;
+        private final long end;
+        /**
+         * The position in the file of {@code buffer[0]}
+         */
+        private long bufferOffset;
+        private byte[] buffer = new byte[BUFFER_SIZE];
+        /**
+         * The number of valid bytes in the buffer
+         */
+        private int filled = 0;
+        /**
+         * The index in the buffer of the next unread byte
+         */
+        private int pos = 0;
+        private final AsciiSequence line = new AsciiSequence();
+
+        LineCursor(FileChannel channel, long start, long end) {
+            this.channel = channel;
+            this.bufferOffset = start;
+            this.end = end;
+        }
+
+        /**
+         * @return the position in the file of the first byte not yet returned
+         * as part of a line
+         */
+        long position() {
+            return bufferOffset + pos;
+        }
+
+        /**
+         * @return the next non-empty line, without its line terminator, or
+         * {@code null} if there are no more lines in the range
+         * @throws IOException if an error occurred reading the file
+         */
+        CharSequence next() throws IOException {
+            int scan = pos;
+            while (true) {
+                if (scan == filled) {
+                    int partial = scan - pos;
+                    if (!fill()) {
+                        if (filled > pos)//last line had no new line
+                        {
+                            line.set(buffer, pos, filled);
+                            pos = filled;
+                            return line;
+                        }
+                        return null;
+                    }
+                    scan = pos + partial;
+                    continue;
+                }
+                byte b = buffer[scan];
+                if (b == '\n' || b == '\r') {
+                    if (scan == pos)//empty line, or the second half of "\r\n"
+                    {
+                        pos++;
+                        scan++;
+                        continue;
+                    }
+                    line.set(buffer, pos, scan);
+                    pos = scan + 1;
+                    return line;
+                }
+                scan++;
+            }
+        }
+
+        /**
+         * Moves the unread bytes to the front of the buffer and reads more
+         *
+         * @return {@code false} if there was nothing left to read
+         */
+        private boolean fill() throws IOException {
+            long remaining = end - (bufferOffset + filled);
+            if (remaining <= 0)
+                return false;
+            if (pos > 0) {
+                System.arraycopy(buffer, pos, buffer, 0, filled - pos);
+                bufferOffset += pos;
+                filled -= pos;
+                pos = 0;
+            }
+            if (filled == buffer.length)//a line longer than the buffer
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            ByteBuffer bb = ByteBuffer.wrap(buffer, filled, (int) Math.min(buffer.length - filled, remaining));
+            int read = channel.read(bb, bufferOffset + filled);
+            if (read <= 0)
+                return false;
+            filled += read;
+            return true;
+        }
+    }
+
+    /**
+     * A view of a range of bytes as characters, one character per byte
+     */
+    static final class AsciiSequence implements CharSequence {
+        private byte[] bytes;
+        private int start;
+        private int end;
+
+        void set(byte[] bytes, int start, int end) {
+            this.bytes = bytes;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public int length() {
+            return end - start;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (bytes[start + index] & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int from, int to) {
+            return new String(bytes, start + from, to - from, StandardCharsets.ISO_8859_1);
+        }
+
+        @Override
+        public String toString() {
+            return new String(bytes, start, end - start, StandardCharsets.ISO_8859_1);
+        }
+    }
+
+    /**
+     * A spliterator over the lines of a range of a file, converting each line
+     * to an object. Splitting is done on line boundaries near the middle of the
+     * range, and only before any lines have been read, so a parallel stream
+     * will have each thread reading its own region of the file.
+     *
+     * @param <T> the type of object each line is parsed to
+     */
+    static final class LineSpliterator<T> implements Spliterator<T> {
+        private final FileChannel channel;
+        private long start;
+        private final long end;
+        /**
+         * Converts a line to an object, or returns {@code null} if the line
+         * should be skipped
+         */
+        private final Function<CharSequence, T> parser;
+        private LineCursor cursor;
+
+        LineSpliterator(FileChannel channel, long start, long end, Function<CharSequence, T> parser) {
+            this.channel = channel;
+            this.start = start;
+            this.end = end;
+            this.parser = parser;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            try {
+                if (cursor == null)
+                    cursor = new LineCursor(channel, start, end);
+                CharSequence line;
+                while ((line = cursor.next()) != null) {
+                    T t = parser.apply(line);
+                    if (t != null) {
+                        action.accept(t);
+                        return true;
+                    }
+                }
+                return false;
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            if (cursor != null || end - start < 2 * MIN_CHUNK_BYTES)
+                return null;
+            try {
+                long mid = nextLineStart(channel, start + (end - start) / 2, end, ByteBuffer.allocate(4096));
+                if (mid >= end)
+                    return null;
+                LineSpliterator<T> prefix = new LineSpliterator<>(channel, start, mid, parser);
+                start = mid;
+                return prefix;
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            //we don't know the number of lines, but the bytes are a good relative measure
+            return end - start;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL;
+        }
+    }
+}
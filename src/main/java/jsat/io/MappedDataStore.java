@@ -0,0 +1,454 @@
+package jsat.io;
+
+import java.io.ObjectStreamException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import jsat.DataStore;
+import jsat.RowMajorStore;
+import jsat.classifiers.CategoricalData;
+import jsat.classifiers.DataPoint;
+import jsat.io.JSATData.FloatStorageMethod;
+import jsat.linear.DenseVector;
+import jsat.linear.IndexValue;
+import jsat.linear.SparseVector;
+import jsat.linear.Vec;
+import jsat.math.OnLineStatistics;
+
+/**
+ * A {@link DataStore} that reads its data points directly out of a memory
+ * mapped {@link JSATData} file, created by
+ * {@link JSATData#loadMapped(java.io.File) }. Only the file offset of each data
+ * point is kept on the heap. Each call to {@link #getDataPoint(int) } returns a
+ * new {@link DataPoint} whose numeric values are a read-only view of the
+ * mapped file, decoding values in whatever {@link FloatStorageMethod} the file
+ * was written with as they are accessed. <br>
+ * <br>
+ * The operating system's page cache holds the file, so data sets larger than
+ * the heap can be used, and a file opened by several JVMs is only held in
+ * memory once. <br>
+ * <br>
+ * The numeric vectors of points read from the file can not be altered. Data
+ * points may still be replaced with {@link #setDataPoint(int, jsat.classifiers.DataPoint) }
+ * or added with {@link #addDataPoint(jsat.classifiers.DataPoint) }, in which
+ * case those points are held on the heap.
+ */
+public class MappedDataStore implements DataStore {
+
+    /**
+     * The mapped regions of the file. Every data point is stored entirely
+     * within the region it starts in.
+     */
+    private final ByteBuffer[] segments;
+    /**
+     * The file offset of the start of each segment
+     */
+    private final long[] segmentStarts;
+    /**
+     * The file offset of each data point
+     */
+    private final long[] rowOffsets;
+    private final FloatStorageMethod fpStore;
+    private final int numNumeric;
+    /**
+     * {@code true} if each point is followed by a class label in the file
+     */
+    private final boolean hasLabel;
+    /**
+     * {@code true} if each point has a regression target as its last numeric
+     * value in the file
+     */
+    private final boolean hasTarget;
+    private CategoricalData[] cat_info;
+    /**
+     * Data points that have replaced ones from the file, only created once a
+     * point is replaced
+     */
+    private DataPoint[] replaced;
+    /**
+     * Data points added after the file was mapped
+     */
+    private List<DataPoint> added;
+
+    MappedDataStore(ByteBuffer[] segments, long[] segmentStarts, long[] rowOffsets, FloatStorageMethod fpStore,
+                    int numNumeric, CategoricalData[] cat_info, boolean hasLabel, boolean hasTarget) {
+        this.segments = segments;
+        this.segmentStarts = segmentStarts;
+        this.rowOffsets = rowOffsets;
+        this.fpStore = fpStore;
+        this.numNumeric = numNumeric;
+        this.cat_info = cat_info;
+        this.hasLabel = hasLabel;
+        this.hasTarget = hasTarget;
+        this.added = new ArrayList<>();
+    }
+
+    /**
+     * Copy constructor. The mapped file is shared by both stores.
+     *
+     * @param toCopy the object to copy
+     */
+    public MappedDataStore(MappedDataStore toCopy) {
+        this.segments = toCopy.segments;
+        this.segmentStarts = toCopy.segmentStarts;
+        this.rowOffsets = toCopy.rowOffsets;
+        this.fpStore = toCopy.fpStore;
+        this.numNumeric = toCopy.numNumeric;
+        this.hasLabel = toCopy.hasLabel;
+        this.hasTarget = toCopy.hasTarget;
+        if (toCopy.cat_info != null)
+            this.cat_info = CategoricalData.copyOf(toCopy.cat_info);
+        if (toCopy.replaced != null)
+            this.replaced = Arrays.copyOf(toCopy.replaced, toCopy.replaced.length);
+        this.added = new ArrayList<>(toCopy.added);
+    }
+
+    /**
+     * @return the number of data points that are read from the mapped file
+     */
+    public int mappedSize() {
+        return rowOffsets.length;
+    }
+
+    @Override
+    public void setCategoricalDataInfo(CategoricalData[] cat_info) {
+        if (cat_info.length != numCategorical())
+            throw new IllegalArgumentException("Mapped data has " + numCategorical() + " categorical features, not " + cat_info.length);
+        this.cat_info = cat_info;
+    }
+
+    @Override
+    public CategoricalData[] getCategoricalDataInfo() {
+        return cat_info;
+    }
+
+    @Override
+    public void addDataPoint(DataPoint dp) {
+        added.add(dp);
+    }
+
+    @Override
+    public DataPoint getDataPoint(int i) {
+        if (i >= rowOffsets.length)
+            return added.get(i - rowOffsets.length);
+        if (replaced != null && replaced[i] != null)
+            return replaced[i];
+
+        int segment = segmentOf(rowOffsets[i]);
+        ByteBuffer buf = segments[segment];
+        int pos = (int) (rowOffsets[i] - segmentStarts[segment]) + fpStore.bytes();//skip the weight
+
+        int[] catVals = new int[cat_info.length];
+        for (int j = 0; j < catVals.length; j++, pos += 4)
+            catVals[j] = buf.getInt(pos);
+        if (hasLabel)
+            pos += 4;
+
+        boolean sparse = buf.get(pos++) != 0;
+        Vec numericVals;
+        if (sparse) {
+            int nnz = buf.getInt(pos);
+            if (hasTarget)
+                nnz--;//the target is stored as the last non-zero
+            numericVals = new MappedSparseVector(buf, pos + 4, nnz, numNumeric, fpStore);
+        } else
+            numericVals = new MappedDenseVector(buf, pos, numNumeric, fpStore);
+
+        return new DataPoint(numericVals, catVals, cat_info);
+    }
+
+    private int segmentOf(long offset) {
+        int pos = Arrays.binarySearch(segmentStarts, offset);
+        return pos >= 0 ? pos : -pos - 2;
+    }
+
+    @Override
+    public void finishAdding() {
+    }
+
+    @Override
+    public int numNumeric() {
+        return numNumeric;
+    }
+
+    @Override
+    public void setNumNumeric(int d) {
+        if (d != numNumeric)
+            throw new UnsupportedOperationException("Mapped data has " + numNumeric + " numeric features, it can not be changed to " + d);
+    }
+
+    @Override
+    public int numCategorical() {
+        return cat_info == null ? 0 : cat_info.length;
+    }
+
+    @Override
+    public void setDataPoint(int i, DataPoint dp) {
+        if (i >= rowOffsets.length) {
+            added.set(i - rowOffsets.length, dp);
+            return;
+        }
+        if (replaced == null)
+            replaced = new DataPoint[rowOffsets.length];
+        replaced[i] = dp;
+    }
+
+    @Override
+    public int[] getCatColumn(int i) {
+        if (i < 0 || i >= numCategorical())
+            throw new IndexOutOfBoundsException("There is no index for column " + i);
+        int[] toRet = new int[size()];
+        for (int z = 0; z < size(); z++)
+            toRet[z] = getDataPoint(z).getCategoricalValue(i);
+        return toRet;
+    }
+
+    @Override
+    public Vec[] getNumericColumns(Set<Integer> skipColumns) {
+        boolean sparse = getSparsityStats().getMean() < 0.6;
+        Vec[] cols = new Vec[numNumeric()];
+
+        for (int i = 0; i < cols.length; i++)
+            if (!skipColumns.contains(i))
+                cols[i] = sparse ? new SparseVector(size()) : new DenseVector(size());
+
+        for (int i = 0; i < size(); i++)
+            for (IndexValue iv : getDataPoint(i).getNumericalValues()) {
+                int col = iv.getIndex();
+                if (cols[col] != null)
+                    cols[col].set(i, iv.getValue());
+            }
+
+        return cols;
+    }
+
+    @Override
+    public int size() {
+        return rowOffsets.length + added.size();
+    }
+
+    @Override
+    public OnLineStatistics getSparsityStats() {
+        OnLineStatistics stats = new OnLineStatistics();
+        for (int i = 0; i < size(); i++) {
+            Vec v = getDataPoint(i).getNumericalValues();
+            if (v.isSparse())
+                stats.add(v.nnz() / (double) v.length());
+            else
+                stats.add(1.0);
+        }
+
+        return stats;
+    }
+
+    @Override
+    public MappedDataStore clone() {
+        return new MappedDataStore(this);
+    }
+
+    /**
+     * Returns a new, empty, {@link RowMajorStore} with the same features as
+     * this store, since new points can not be written to the mapped file.
+     *
+     * @return an empty store for the same kind of data
+     */
+    @Override
+    public DataStore emptyClone() {
+        return new RowMajorStore(numNumeric, cat_info);
+    }
+
+    /**
+     * A read-only view of a dense vector stored in the mapped file
+     */
+    private static class MappedDenseVector extends Vec {
+
+        private static final long serialVersionUID = 2236483911823453478L;
+        private final ByteBuffer buf;
+        private final int start;
+        private final int length;
+        private final FloatStorageMethod fpStore;
+
+        MappedDenseVector(ByteBuffer buf, int start, int length, FloatStorageMethod fpStore) {
+            this.buf = buf;
+            this.start = start;
+            this.length = length;
+            this.fpStore = fpStore;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public double get(int index) {
+            if (index < 0 || index >= length)
+                throw new IndexOutOfBoundsException("Index " + index + " is out of bounds for length " + length);
+            return fpStore.readFP(buf, start + index * fpStore.bytes());
+        }
+
+        @Override
+        public void set(int index, double val) {
+            throw new UnsupportedOperationException("Vectors of a mapped file are read only");
+        }
+
+        @Override
+        public void setLength(int length) {
+            if (length != this.length)
+                throw new UnsupportedOperationException("Vectors of a mapped file are read only");
+        }
+
+        @Override
+        public boolean isSparse() {
+            return false;
+        }
+
+        @Override
+        public Vec clone() {
+            DenseVector copy = new DenseVector(length);
+            for (int i = 0; i < length; i++)
+                copy.set(i, get(i));
+            return copy;
+        }
+
+        /**
+         * The mapped buffer can not be serialized, so a copy is written
+         * instead
+         */
+        private Object writeReplace() throws ObjectStreamException {
+            return clone();
+        }
+    }
+
+    /**
+     * A read-only view of a sparse vector stored in the mapped file, as pairs
+     * of an int index and a value in increasing order of index
+     */
+    private static class MappedSparseVector extends Vec {
+
+        private static final long serialVersionUID = -7420127883614735541L;
+        private final ByteBuffer buf;
+        private final int start;
+        private final int nnz;
+        private final int length;
+        private final FloatStorageMethod fpStore;
+        /**
+         * The number of bytes used for each index value pair
+         */
+        private final int pairBytes;
+
+        MappedSparseVector(ByteBuffer buf, int start, int nnz, int length, FloatStorageMethod fpStore) {
+            this.buf = buf;
+            this.start = start;
+            this.nnz = nnz;
+            this.length = length;
+            this.fpStore = fpStore;
+            this.pairBytes = 4 + fpStore.bytes();
+        }
+
+        private int indexAt(int k) {
+            return buf.getInt(start + k * pairBytes);
+        }
+
+        private double valueAt(int k) {
+            return fpStore.readFP(buf, start + k * pairBytes + 4);
+        }
+
+        /**
+         * @return the position of the first stored index &ge; the given one
+         */
+        private int search(int index) {
+            int low = 0, high = nnz;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (indexAt(mid) < index)
+                    low = mid + 1;
+                else
+                    high = mid;
+            }
+            return low;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public int nnz() {
+            return nnz;
+        }
+
+        @Override
+        public double get(int index) {
+            if (index < 0 || index >= length)
+                throw new IndexOutOfBoundsException("Index " + index + " is out of bounds for length " + length);
+            int k = search(index);
+            return k < nnz && indexAt(k) == index ? valueAt(k) : 0.0;
+        }
+
+        @Override
+        public void set(int index, double val) {
+            throw new UnsupportedOperationException("Vectors of a mapped file are read only");
+        }
+
+        @Override
+        public void setLength(int length) {
+            if (length != this.length)
+                throw new UnsupportedOperationException("Vectors of a mapped file are read only");
+        }
+
+        @Override
+        public boolean isSparse() {
+            return true;
+        }
+
+        @Override
+        public Iterator<IndexValue> getNonZeroIterator(int start) {
+            final int first = search(start);
+            return new Iterator<IndexValue>() {
+                int k = first;
+                final IndexValue indexValue = new IndexValue(-1, Double.NaN);
+
+                @Override
+                public boolean hasNext() {
+                    return k < nnz;
+                }
+
+                @Override
+                public IndexValue next() {
+                    if (!hasNext())
+                        throw new NoSuchElementException();
+                    indexValue.setIndex(indexAt(k));
+                    indexValue.setValue(valueAt(k));
+                    k++;
+                    return indexValue;
+                }
+            };
+        }
+
+        @Override
+        public Vec clone() {
+            int[] indices = new int[nnz];
+            double[] values = new double[nnz];
+            for (int k = 0; k < nnz; k++) {
+                indices[k] = indexAt(k);
+                values[k] = valueAt(k);
+            }
+            return new SparseVector(indices, values, length, nnz);
+        }
+
+        /**
+         * The mapped buffer can not be serialized, so a copy is written
+         * instead
+         */
+        private Object writeReplace() throws ObjectStreamException {
+            return clone();
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package jsat.io;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import jsat.classifiers.CategoricalData;
+import jsat.classifiers.DataPoint;
+import jsat.utils.concurrent.ParallelUtils;
+import jsat.utils.random.RandomUtil;
+
+/**
+ * A source of data points that is read from disk one row at a time each time
+ * it is used, rather than being loaded into a {@link jsat.DataSet}. This
+ * allows {@link jsat.classifiers.UpdateableClassifier updateable} models to be
+ * trained on data sets that are larger than memory, using only a constant
+ * amount of memory. <br>
+ * Rows are read by a background thread into a bounded buffer while the
+ * consumer processes earlier rows, so reading and parsing the file overlaps
+ * with training. The rows can be passed over multiple times, and can be
+ * shuffled with a bounded shuffle buffer: once the buffer is full, each row
+ * read replaces a randomly chosen row in the buffer, which is passed on. A
+ * larger buffer gives an order closer to a true random permutation. <br>
+ * Instances are created by the {@code stream} methods of the loaders, such as
+ * {@link LIBSVMLoader#streamC(java.nio.file.Path, int, double...) },
+ * {@link CSV#streamR(int, java.nio.file.Path, char, int, char) } and
+ * {@link JSATData#streamRegression(java.nio.file.Path) }.
+ *
+ * @param <T> the type of the target value of each row, {@link Integer} for
+ *            classification and {@link Double} for regression
+ */
+public class StreamingDataSource<T> {
+    /**
+     * The number of rows handed from the reading thread to the consumer at a
+     * time
+     */
+    private static final int BATCH_SIZE = 256;
+
+    /**
+     * A single row read from the source
+     *
+     * @param <T> the type of the target value
+     */
+    public static final class Row<T> {
+        private final DataPoint dataPoint;
+        private final double weight;
+        private final T target;
+
+        public Row(DataPoint dataPoint, double weight, T target) {
+            this.dataPoint = dataPoint;
+            this.weight = weight;
+            this.target = target;
+        }
+
+        public DataPoint getDataPoint() {
+            return dataPoint;
+        }
+
+        public double getWeight() {
+            return weight;
+        }
+
+        public T getTarget() {
+            return target;
+        }
+    }
+
+    /**
+     * Opens a new pass over the rows of the source, in the order they are
+     * stored.
+     *
+     * @param <T> the type of the target value
+     */
+    public interface Opener<T> {
+        /**
+         * @return a stream over every row, which will be closed once the pass
+         * is over
+         * @throws IOException if the source could not be opened
+         */
+        public Stream<Row<T>> open() throws IOException;
+    }
+
+    private final Opener<T> opener;
+    private final int numNumerical;
+    private final CategoricalData[] categories;
+    private final CategoricalData predicting;
+    private int epochs = 1;
+    private int shuffleBufferSize = 0;
+    private int prefetchSize = 16 * BATCH_SIZE;
+
+    /**
+     * Creates a new streaming source
+     *
+     * @param opener       opens a new pass over the data
+     * @param numNumerical the number of numeric features of each row
+     * @param categories   the categorical features of each row
+     * @param predicting   the target class of each row for classification
+     *                     problems, or {@code null} for regression.
+     */
+    public StreamingDataSource(Opener<T> opener, int numNumerical, CategoricalData[] categories, CategoricalData predicting) {
+        this.opener = opener;
+        this.numNumerical = numNumerical;
+        this.categories = categories;
+        this.predicting = predicting;
+    }
+
+    /**
+     * @return the number of numeric features of each row
+     */
+    public int getNumNumericalVars() {
+        return numNumerical;
+    }
+
+    /**
+     * @return the categorical features of each row
+     */
+    public CategoricalData[] getCategories() {
+        return categories;
+    }
+
+    /**
+     * @return the target class of each row, or {@code null} if this is not a
+     * classification problem
+     */
+    public CategoricalData getPredicting() {
+        return predicting;
+    }
+
+    /**
+     * Sets the number of passes that will be made over the data by
+     * {@link #forEach(java.util.function.Consumer) }
+     *
+     * @param epochs the number of passes over the data
+     */
+    public void setEpochs(int epochs) {
+        if (epochs < 1)
+            throw new IllegalArgumentException("epochs must be positive, not " + epochs);
+        this.epochs = epochs;
+    }
+
+    /**
+     * @return the number of passes that will be made over the data
+     */
+    public int getEpochs() {
+        return epochs;
+    }
+
+    /**
+     * Sets the number of rows held in the shuffle buffer. A value of zero (the
+     * default) will pass the rows on in the order they are stored.
+     *
+     * @param shuffleBufferSize the number of rows to hold for shuffling
+     */
+    public void setShuffleBufferSize(int shuffleBufferSize) {
+        if (shuffleBufferSize < 0)
+            throw new IllegalArgumentException("shuffleBufferSize must be non-negative, not " + shuffleBufferSize);
+        this.shuffleBufferSize = shuffleBufferSize;
+    }
+
+    /**
+     * @return the number of rows held for shuffling
+     */
+    public int getShuffleBufferSize() {
+        return shuffleBufferSize;
+    }
+
+    /**
+     * Sets the maximum number of rows that may be read ahead of the rows
+     * being consumed.
+     *
+     * @param prefetchSize the number of rows to read ahead
+     */
+    public void setPrefetchSize(int prefetchSize) {
+        if (prefetchSize < 1)
+            throw new IllegalArgumentException("prefetchSize must be positive, not " + prefetchSize);
+        this.prefetchSize = prefetchSize;
+    }
+
+    /**
+     * @return the maximum number of rows that may be read ahead
+     */
+    public int getPrefetchSize() {
+        return prefetchSize;
+    }
+
+    /**
+     * Passes every row to the given action, for as many {@link #setEpochs(int)
+     * epochs} as have been set. The action is always called from the calling
+     * thread, while the rows are read on another.
+     *
+     * @param action the action to perform on each row
+     * @throws IOException if an error occurred reading the data
+     */
+    public void forEach(Consumer<Row<T>> action) throws IOException {
+        final int batchSize = Math.min(BATCH_SIZE, prefetchSize);
+        final BlockingQueue<List<Row<T>>> queue = new ArrayBlockingQueue<>(Math.max(1, prefetchSize / batchSize));
+        //marks the end of an epoch, and then of the last epoch
+        final List<Row<T>> endEpoch = new ArrayList<>(0);
+        final List<Row<T>> endAll = new ArrayList<>(0);
+        final AtomicReference<Throwable> readError = new AtomicReference<>();
+        final AtomicBoolean stop = new AtomicBoolean(false);
+
+        ParallelUtils.CACHED_THREAD_POOL.submit(() ->
+        {
+            try {
+                for (int epoch = 0; epoch < epochs; epoch++) {
+                    try (Stream<Row<T>> rows = opener.open()) {
+                        List<Row<T>> batch = new ArrayList<>(batchSize);
+                        Iterator<Row<T>> iter = rows.iterator();
+                        while (iter.hasNext()) {
+                            batch.add(iter.next());
+                            if (batch.size() == batchSize) {
+                                if (!put(queue, batch, stop))
+                                    return;
+                                batch = new ArrayList<>(batchSize);
+                            }
+                        }
+                        if (!batch.isEmpty() && !put(queue, batch, stop))
+                            return;
+                    }
+                    if (!put(queue, endEpoch, stop))
+                        return;
+                }
+            } catch (Throwable ex) {
+                readError.set(ex);
+            }
+            put(queue, endAll, stop);
+        });
+
+        try {
+            Random rand = RandomUtil.getRandom();
+            List<Row<T>> shuffleBuffer = new ArrayList<>(Math.min(shuffleBufferSize, 1 << 16));
+            while (true) {
+                List<Row<T>> batch = queue.take();
+                if (batch == endAll)
+                    break;
+                else if (batch == endEpoch) {
+                    //flush whatever is left so that every epoch is one pass
+                    Collections.shuffle(shuffleBuffer, rand);
+                    shuffleBuffer.forEach(action);
+                    shuffleBuffer.clear();
+                    continue;
+                }
+
+                for (Row<T> row : batch)
+                    if (shuffleBufferSize == 0)
+                        action.accept(row);
+                    else if (shuffleBuffer.size() < shuffleBufferSize)
+                        shuffleBuffer.add(row);
+                    else {
+                        int pos = rand.nextInt(shuffleBufferSize);
+                        action.accept(shuffleBuffer.get(pos));
+                        shuffleBuffer.set(pos, row);
+                    }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for data", ex);
+        } finally {
+            stop.set(true);
+        }
+
+        Throwable error = readError.get();
+        if (error instanceof IOException)
+            throw (IOException) error;
+        else if (error instanceof UncheckedIOException)
+            throw ((UncheckedIOException) error).getCause();
+        else if (error instanceof RuntimeException)
+            throw (RuntimeException) error;
+        else if (error instanceof Error)
+            throw (Error) error;
+        else if (error != null)
+            throw new IOException(error);
+    }
+
+    /**
+     * Adds a batch to the queue, giving up if the consumer has stopped
+     *
+     * @return {@code false} if the consumer has stopped
+     */
+    private static <T> boolean put(BlockingQueue<List<Row<T>>> queue, List<Row<T>> batch, AtomicBoolean stop) {
+        try {
+            while (!queue.offer(batch, 100, TimeUnit.MILLISECONDS))
+                if (stop.get())
+                    return false;
+            return true;
+        } catch (InterruptedException ex) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,1048 @@
+package jsat.linear;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+
+import jsat.utils.concurrent.ParallelUtils;
+
+/**
+ * A sparse matrix stored in the Compressed Sparse Row (CSR) or Compressed
+ * Sparse Column (CSC) format. All of the non zero values are kept in one
+ * {@code double[]}, with their column (CSR) or row (CSC) in a matching
+ * {@code int[]}, and a pointer array giving where each row (CSR) or column
+ * (CSC) starts. Unlike {@link SparseMatrix}, which keeps a separate
+ * {@link SparseVector} for every row, the whole matrix is three blocks of
+ * memory. The arrays can also be given directly, so a matrix in either format
+ * can be wrapped without copying it. <br>
+ * <br>
+ * Products with vectors and matrices stream through the arrays in order. Work
+ * is split over threads by the rows of the result, so no two threads ever
+ * write to the same value: when the result rows match the compressed
+ * dimension the threads take ranges of it, and otherwise each thread takes a
+ * range of indices and skips to them in each compressed row or column with a
+ * binary search. This makes the transposed products just as fast as the
+ * normal ones, and lets the {@link #multiply(jsat.linear.Vec, double, jsat.linear.Vec, java.util.concurrent.ExecutorService) SpMV},
+ * {@link #transposeMultiply(double, jsat.linear.Vec, jsat.linear.Vec, java.util.concurrent.ExecutorService) transposed SpMV}
+ * and all of the matrix products use multiple threads. <br>
+ * <br>
+ * The format is meant for matrices whose non zero structure is known when
+ * they are created. Changing a zero value to a non zero one, or the reverse,
+ * needs the later values to be shifted and takes O(nnz) time.
+ * {@link #mutableTranspose() } is O(1), as it only switches the format.
+ * <br>
+ * This implementation does not support the {@link #qr() QR} or {@link #lup() }
+ * decompositions.
+ */
+public class CompressedSparseMatrix extends Matrix {
+
+    private static final long serialVersionUID = -1318524880620357017L;
+
+    /**
+     * The way the values of a {@link CompressedSparseMatrix} are compressed
+     */
+    public enum Format {
+        /**
+         * Compressed Sparse Row, the values of each row are stored together,
+         * in order of their column
+         */
+        CSR,
+        /**
+         * Compressed Sparse Column, the values of each column are stored
+         * together, in order of their row
+         */
+        CSC
+    }
+
+    private int rows;
+    private int cols;
+    private Format format;
+    /**
+     * The values of compressed row (or column) {@code m} are at the indices
+     * [ptr[m], ptr[m+1]) of {@link #idx} and {@link #values}
+     */
+    private int[] ptr;
+    /**
+     * The column (CSR) or row (CSC) of each value
+     */
+    private int[] idx;
+    private double[] values;
+
+    /**
+     * Creates a new matrix of all zeros
+     *
+     * @param rows   the number of rows
+     * @param cols   the number of columns
+     * @param format the format to store the values in
+     */
+    public CompressedSparseMatrix(int rows, int cols, Format format) {
+        if (rows <= 0)
+            throw new ArithmeticException("Matrix must have a positive number of rows");
+        if (cols <= 0)
+            throw new ArithmeticException("Matrix must have a positive number of columns");
+        this.rows = rows;
+        this.cols = cols;
+        this.format = format;
+        this.ptr = new int[(format == Format.CSR ? rows : cols) + 1];
+        this.idx = new int[16];
+        this.values = new double[16];
+    }
+
+    /**
+     * Creates a new matrix that uses the given arrays as its storage. The
+     * values are not copied, so changes to the matrix are visible in the
+     * arrays, and vice versa, until a change to the non zero structure
+     * requires new arrays. The indices of each compressed row (or column) must
+     * be in increasing order with no repeats, which is not checked.
+     *
+     * @param rows    the number of rows
+     * @param cols    the number of columns
+     * @param ptr     the pointers to where each compressed row (CSR) or column
+     *                (CSC) starts, with one more entry at the end giving the
+     *                total number of values
+     * @param idx     the column (CSR) or row (CSC) of each value
+     * @param values  the non zero values
+     * @param format  the format the arrays are in
+     */
+    public CompressedSparseMatrix(int rows, int cols, int[] ptr, int[] idx, double[] values, Format format) {
+        if (rows <= 0)
+            throw new ArithmeticException("Matrix must have a positive number of rows");
+        if (cols <= 0)
+            throw new ArithmeticException("Matrix must have a positive number of columns");
+        int major = format == Format.CSR ? rows : cols;
+        if (ptr.length != major + 1)
+            throw new IllegalArgumentException("Pointer array must have " + (major + 1) + " entries, not " + ptr.length);
+        if (ptr[0] != 0)
+            throw new IllegalArgumentException("First pointer must be zero, not " + ptr[0]);
+        if (idx.length < ptr[major] || values.length < ptr[major])
+            throw new IllegalArgumentException("Index and value arrays must hold " + ptr[major] + " entries, but have " + idx.length + " and " + values.length);
+        this.rows = rows;
+        this.cols = cols;
+        this.ptr = ptr;
+        this.idx = idx;
+        this.values = values;
+        this.format = format;
+    }
+
+    /**
+     * Creates a new matrix that has a copy of all the non zero values in the
+     * given one
+     *
+     * @param toCopy the matrix to copy
+     * @param format the format to store the values in
+     */
+    public CompressedSparseMatrix(Matrix toCopy, Format format) {
+        CompressedSparseMatrix source;
+        if (toCopy instanceof CompressedSparseMatrix)
+            source = ((CompressedSparseMatrix) toCopy).toFormat(format);
+        else {
+            Vec[] rowViews = new Vec[toCopy.rows()];
+            for (int i = 0; i < rowViews.length; i++)
+                rowViews[i] = toCopy.getRowView(i);
+            source = fromRows(Arrays.asList(rowViews), toCopy.cols(), format, false);
+        }
+        this.rows = source.rows;
+        this.cols = source.cols;
+        this.format = source.format;
+        this.ptr = source.ptr;
+        this.idx = source.idx;
+        this.values = source.values;
+    }
+
+    /**
+     * Copy constructor
+     *
+     * @param toCopy the object to copy
+     */
+    public CompressedSparseMatrix(CompressedSparseMatrix toCopy) {
+        this.rows = toCopy.rows;
+        this.cols = toCopy.cols;
+        this.format = toCopy.format;
+        this.ptr = Arrays.copyOf(toCopy.ptr, toCopy.ptr.length);
+        int nnz = toCopy.ptr[toCopy.major()];
+        this.idx = Arrays.copyOf(toCopy.idx, nnz);
+        this.values = Arrays.copyOf(toCopy.values, nnz);
+    }
+
+    /**
+     * Creates a new matrix where each row is a copy of the non zero values of
+     * one of the given vectors. The values are copied directly into the
+     * compressed arrays, without creating any intermediate vectors.
+     *
+     * @param rowVecs  the rows of the matrix
+     * @param cols     the number of columns, which every row must have
+     * @param format   the format to store the values in
+     * @param parallel {@code true} to copy the rows using multiple threads
+     * @return a new compressed matrix with the same values as the given rows
+     */
+    public static CompressedSparseMatrix fromRows(final List<? extends Vec> rowVecs, final int cols, Format format, boolean parallel) {
+        final int N = rowVecs.size();
+        final int[] ptr = new int[N + 1];
+        ParallelUtils.run(parallel, N, (start, end) ->
+        {
+            for (int i = start; i < end; i++) {
+                Vec row = rowVecs.get(i);
+                if (row.length() != cols)
+                    throw new IllegalArgumentException("Row " + i + " has " + row.length() + " columns instead of " + cols);
+                if (row instanceof SparseVector)
+                    ptr[i + 1] = ((SparseVector) row).used;
+                else {
+                    int count = 0;
+                    Iterator<IndexValue> iter = row.getNonZeroIterator();
+                    while (iter.hasNext()) {
+                        iter.next();
+                        count++;
+                    }
+                    ptr[i + 1] = count;
+                }
+            }
+        });
+        for (int i = 0; i < N; i++)
+            ptr[i + 1] = Math.addExact(ptr[i + 1], ptr[i]);
+
+        final int[] idx = new int[ptr[N]];
+        final double[] values = new double[ptr[N]];
+        ParallelUtils.run(parallel, N, (start, end) ->
+        {
+            for (int i = start; i < end; i++) {
+                Vec row = rowVecs.get(i);
+                int pos = ptr[i];
+                if (row instanceof SparseVector) {
+                    SparseVector sv = (SparseVector) row;
+                    System.arraycopy(sv.indexes, 0, idx, pos, sv.used);
+                    System.arraycopy(sv.values, 0, values, pos, sv.used);
+                } else {
+                    Iterator<IndexValue> iter = row.getNonZeroIterator();
+                    while (iter.hasNext()) {
+                        IndexValue iv = iter.next();
+                        idx[pos] = iv.getIndex();
+                        values[pos++] = iv.getValue();
+                    }
+                }
+            }
+        });
+
+        CompressedSparseMatrix csr = new CompressedSparseMatrix(N, cols, ptr, idx, values, Format.CSR);
+        if (format == Format.CSR)
+            return csr;
+        return csr.toFormat(format);
+    }
+
+    /**
+     * Returns the format the values of this matrix are stored in
+     *
+     * @return the format of this matrix
+     */
+    public Format getFormat() {
+        return format;
+    }
+
+    /**
+     * Returns the array of pointers to where each compressed row (CSR) or
+     * column (CSC) starts. This is the backing array, not a copy.
+     *
+     * @return the pointer array of this matrix
+     */
+    public int[] getPointers() {
+        return ptr;
+    }
+
+    /**
+     * Returns the array with the column (CSR) or row (CSC) of each value. This
+     * is the backing array, not a copy, and may be longer than {@link #nnz() }.
+     *
+     * @return the index array of this matrix
+     */
+    public int[] getIndices() {
+        return idx;
+    }
+
+    /**
+     * Returns the array of non zero values. This is the backing array, not a
+     * copy, and may be longer than {@link #nnz() }.
+     *
+     * @return the value array of this matrix
+     */
+    public double[] getValues() {
+        return values;
+    }
+
+    /**
+     * Creates a copy of this matrix stored in the given format. Converting
+     * between formats takes O(nnz) time.
+     *
+     * @param format the format for the new matrix
+     * @return a new matrix with the same values, in the given format
+     */
+    public CompressedSparseMatrix toFormat(Format format) {
+        if (format == this.format)
+            return clone();
+        //the CSR of a matrix is the CSC of its transpose, so transpose the storage
+        final int major = major(), minor = minor();
+        final int nnz = ptr[major];
+        int[] tPtr = new int[minor + 1];
+        for (int k = 0; k < nnz; k++)
+            tPtr[idx[k] + 1]++;
+        for (int n = 0; n < minor; n++)
+            tPtr[n + 1] += tPtr[n];
+        int[] next = Arrays.copyOf(tPtr, minor);
+        int[] tIdx = new int[nnz];
+        double[] tValues = new double[nnz];
+        for (int m = 0; m < major; m++)
+            for (int k = ptr[m]; k < ptr[m + 1]; k++) {
+                int pos = next[idx[k]]++;
+                tIdx[pos] = m;
+                tValues[pos] = values[k];
+            }
+        return new CompressedSparseMatrix(rows, cols, tPtr, tIdx, tValues, format);
+    }
+
+    /**
+     * @return the number of compressed rows (CSR) or columns (CSC)
+     */
+    private int major() {
+        return format == Format.CSR ? rows : cols;
+    }
+
+    /**
+     * @return the length of each compressed row (CSR) or column (CSC)
+     */
+    private int minor() {
+        return format == Format.CSR ? cols : rows;
+    }
+
+    /**
+     * @return the position of the first value of compressed row (or column)
+     * {@code m} with an index of at least {@code n}
+     */
+    private int lowerBound(int m, int n) {
+        if (n <= 0)
+            return ptr[m];
+        int pos = Arrays.binarySearch(idx, ptr[m], ptr[m + 1], n);
+        return pos >= 0 ? pos : -pos - 1;
+    }
+
+    /**
+     * @return the position of the given value, or {@code -(insertion point) - 1}
+     * if it is zero
+     */
+    private int find(int i, int j) {
+        if (i < 0 || i >= rows || j < 0 || j >= cols)
+            throw new IndexOutOfBoundsException("Index (" + i + ", " + j + ") is not in a [" + rows + ", " + cols + "] matrix");
+        if (format == Format.CSR)
+            return Arrays.binarySearch(idx, ptr[i], ptr[i + 1], j);
+        else
+            return Arrays.binarySearch(idx, ptr[j], ptr[j + 1], i);
+    }
+
+    /**
+     * Inserts a new value at the given position of compressed row (or column)
+     * {@code m}, shifting all the later values
+     */
+    private void insert(int m, int pos, int n, double value) {
+        final int nnz = ptr[major()];
+        if (nnz == idx.length) {
+            int newSize = Math.max(16, idx.length + idx.length / 2);
+            idx = Arrays.copyOf(idx, newSize);
+            values = Arrays.copyOf(values, newSize);
+        }
+        System.arraycopy(idx, pos, idx, pos + 1, nnz - pos);
+        System.arraycopy(values, pos, values, pos + 1, nnz - pos);
+        idx[pos] = n;
+        values[pos] = value;
+        for (int mm = m + 1; mm < ptr.length; mm++)
+            ptr[mm]++;
+    }
+
+    /**
+     * Removes the value at the given position of compressed row (or column)
+     * {@code m}, shifting all the later values
+     */
+    private void remove(int m, int pos) {
+        final int nnz = ptr[major()];
+        System.arraycopy(idx, pos + 1, idx, pos, nnz - pos - 1);
+        System.arraycopy(values, pos + 1, values, pos, nnz - pos - 1);
+        for (int mm = m + 1; mm < ptr.length; mm++)
+            ptr[mm]--;
+    }
+
+    /**
+     * Returns the values of the vector as an array, without copying them if
+     * possible
+     */
+    private static double[] asArray(Vec v) {
+        if (v instanceof DenseVector && ((DenseVector) v).startIndex == 0)
+            return ((DenseVector) v).array;
+        return v.arrayCopy();
+    }
+
+    @Override
+    public void multiply(Vec b, double z, Vec c) {
+        multiply(b, z, c, false, null);
+    }
+
+    @Override
+    public void multiply(Vec b, double z, Vec c, ExecutorService threadPool) {
+        multiply(b, z, c, true, threadPool);
+    }
+
+    private void multiply(Vec b, double z, Vec c, boolean parallel, ExecutorService threadPool) {
+        if (this.cols() != b.length())
+            throw new ArithmeticException("Matrix dimensions do not agree, [" + rows() + "," + cols() + "] x [" + b.length() + ",1]");
+        if (this.rows() != c.length())
+            throw new ArithmeticException("Target vector dimension does not agree with matrix dimensions. Matrix has " + rows() + " rows but tagert has " + c.length());
+        if (format == Format.CSR)
+            gather(b, z, c, parallel, threadPool);
+        else
+            scatter(b, z, c, parallel, threadPool);
+    }
+
+    @Override
+    public void transposeMultiply(double c, Vec b, Vec x) {
+        transposeMultiply(c, b, x, false, null);
+    }
+
+    @Override
+    public void transposeMultiply(double c, Vec b, Vec x, ExecutorService threadPool) {
+        transposeMultiply(c, b, x, true, threadPool);
+    }
+
+    private void transposeMultiply(double c, Vec b, Vec x, boolean parallel, ExecutorService threadPool) {
+        if (this.rows() != b.length())
+            throw new ArithmeticException("Matrix dimensions do not agree, [" + cols() + "," + rows() + "] x [" + b.length() + ",1]");
+        else if (this.cols() != x.length())
+            throw new ArithmeticException("Matrix dimensions do not agree with target vector");
+        if (format == Format.CSR)
+            scatter(b, c, x, parallel, threadPool);
+        else
+            gather(b, c, x, parallel, threadPool);
+    }
+
+    /**
+     * Adds {@code z} times the dot product of each compressed row (or column)
+     * with {@code b} to the matching value of {@code out}
+     */
+    private void gather(Vec b, final double z, Vec out, boolean parallel, ExecutorService threadPool) {
+        final double[] b_a = asArray(b);
+        final boolean direct = out instanceof DenseVector;
+        final double[] out_a = direct ? ((DenseVector) out).array : new double[major()];
+        final int offset = direct ? ((DenseVector) out).startIndex : 0;
+
+        ParallelUtils.run(parallel, major(), (start, end) ->
+        {
+            for (int m = start; m < end; m++) {
+                double dot = 0;
+                for (int k = ptr[m]; k < ptr[m + 1]; k++)
+                    dot += values[k] * b_a[idx[k]];
+                out_a[offset + m] += z * dot;
+            }
+        }, threadPool);
+
+        if (!direct)
+            for (int m = 0; m < out_a.length; m++)
+                if (out_a[m] != 0)
+                    out.increment(m, out_a[m]);
+    }
+
+    /**
+     * Adds {@code z} times each compressed row (or column) scaled by the
+     * matching value of {@code b} to {@code out}. Each thread owns a range of
+     * {@code out}, so no locking is needed.
+     */
+    private void scatter(Vec b, final double z, Vec out, boolean parallel, ExecutorService threadPool) {
+        final double[] b_a = asArray(b);
+        final boolean direct = out instanceof DenseVector;
+        final double[] out_a = direct ? ((DenseVector) out).array : new double[minor()];
+        final int offset = direct ? ((DenseVector) out).startIndex : 0;
+        final int major = major();
+
+        ParallelUtils.run(parallel, minor(), (start, end) ->
+        {
+            for (int m = 0; m < major; m++) {
+                final double b_m = b_a[m];
+                if (b_m == 0)
+                    continue;
+                final double scale = z * b_m;
+                for (int k = lowerBound(m, start); k < ptr[m + 1] && idx[k] < end; k++)
+                    out_a[offset + idx[k]] += scale * values[k];
+            }
+        }, threadPool);
+
+        if (!direct)
+            for (int n = 0; n < out_a.length; n++)
+                if (out_a[n] != 0)
+                    out.increment(n, out_a[n]);
+    }
+
+    /**
+     * Performs C = C + A<sup>(T)</sup> B, where each value <i>a</i> of this
+     * matrix adds <i>a</i> times one row of B to one row of C. If
+     * {@code rowToRow} is {@code true}, value (i, j) adds row j of B to row i
+     * of C, which is A B. Otherwise it adds row i of B to row j of C, which is
+     * A<sup>T</sup> B.
+     */
+    private void accumulateRows(final Matrix B, final Matrix C, boolean rowToRow, boolean parallel, ExecutorService threadPool) {
+        //does the row of C match the compressed dimension?
+        if (rowToRow == (format == Format.CSR))
+            ParallelUtils.run(parallel, major(), (start, end) ->
+            {
+                for (int m = start; m < end; m++) {
+                    if (ptr[m] == ptr[m + 1])
+                        continue;
+                    Vec C_m = C.getRowView(m);
+                    for (int k = ptr[m]; k < ptr[m + 1]; k++)
+                        C_m.mutableAdd(values[k], B.getRowView(idx[k]));
+                }
+            }, threadPool);
+        else {
+            final int major = major();
+            ParallelUtils.run(parallel, minor(), (start, end) ->
+            {
+                for (int m = 0; m < major; m++) {
+                    Vec B_m = null;
+                    for (int k = lowerBound(m, start); k < ptr[m + 1] && idx[k] < end; k++) {
+                        if (B_m == null)
+                            B_m = B.getRowView(m);
+                        C.getRowView(idx[k]).mutableAdd(values[k], B_m);
+                    }
+                }
+            }, threadPool);
+        }
+    }
+
+    @Override
+    public void multiply(Matrix B, Matrix C) {
+        multiply(B, C, false, null);
+    }
+
+    @Override
+    public void multiply(Matrix B, Matrix C, ExecutorService threadPool) {
+        multiply(B, C, true, threadPool);
+    }
+
+    private void multiply(Matrix B, Matrix C, boolean parallel, ExecutorService threadPool) {
+        if (!canMultiply(this, B))
+            throw new ArithmeticException("Matrix dimensions do not agree");
+        else if (this.rows() != C.rows() || B.cols() != C.cols())
+            throw new ArithmeticException("Target Matrix is no the correct size");
+        accumulateRows(B, C, true, parallel, threadPool);
+    }
+
+    @Override
+    public void transposeMultiply(Matrix B, Matrix C) {
+        transposeMultiply(B, C, false, null);
+    }
+
+    @Override
+    public void transposeMultiply(Matrix B, Matrix C, ExecutorService threadPool) {
+        transposeMultiply(B, C, true, threadPool);
+    }
+
+    private void transposeMultiply(Matrix B, Matrix C, boolean parallel, ExecutorService threadPool) {
+        if (this.rows() != B.rows())//Normaly it is A_cols == B_rows, but we are doint A'*B, not A*B
+            throw new ArithmeticException("Matrix dimensions do not agree");
+        else if (this.cols() != C.rows() || B.cols() != C.cols())
+            throw new ArithmeticException("Destination matrix does not have matching dimensions");
+        accumulateRows(B, C, false, parallel, threadPool);
+    }
+
+    @Override
+    public void multiplyTranspose(Matrix B, Matrix C) {
+        multiplyTranspose(B, C, false, null);
+    }
+
+    @Override
+    public void multiplyTranspose(Matrix B, Matrix C, ExecutorService threadPool) {
+        multiplyTranspose(B, C, true, threadPool);
+    }
+
+    private void multiplyTranspose(final Matrix B, final Matrix C, boolean parallel, ExecutorService threadPool) {
+        if (this.cols() != B.cols())
+            throw new ArithmeticException("Matrix dimensions do not agree");
+        else if (this.rows() != C.rows() || B.rows() != C.cols())
+            throw new ArithmeticException("Target Matrix is no the correct size");
+
+        if (format == Format.CSR) {
+            //C_ij is the dot product of row i of A with row j of B
+            final Vec[] B_rows = new Vec[B.rows()];
+            for (int j = 0; j < B_rows.length; j++)
+                B_rows[j] = B.getRowView(j);
+            ParallelUtils.run(parallel, rows, (start, end) ->
+            {
+                for (int i = start; i < end; i++) {
+                    if (ptr[i] == ptr[i + 1])
+                        continue;
+                    Vec C_i = C.getRowView(i);
+                    for (int j = 0; j < B_rows.length; j++) {
+                        Vec B_j = B_rows[j];
+                        double dot = 0;
+                        for (int k = ptr[i]; k < ptr[i + 1]; k++)
+                            dot += values[k] * B_j.get(idx[k]);
+                        if (dot != 0)
+                            C_i.increment(j, dot);
+                    }
+                }
+            }, threadPool);
+        } else//A B' = A (B')'', so work with the rows of B'
+            accumulateRows(B.transpose(), C, true, parallel, threadPool);
+    }
+
+    /**
+     * Performs A = A + c B by merging the non zero values of each compressed
+     * row (or column)
+     */
+    private void mutableAdd(final double c, Matrix B, boolean parallel, ExecutorService threadPool) {
+        if (!Matrix.sameDimensions(this, B))
+            throw new ArithmeticException("Matrices must be the same dimension to be added");
+        if (B instanceof CompressedSparseMatrix && ((CompressedSparseMatrix) B).format != format)
+            B = ((CompressedSparseMatrix) B).toFormat(format);
+        final int major = major();
+        final Vec[] B_m = new Vec[major];
+        for (int m = 0; m < major; m++)
+            B_m[m] = format == Format.CSR ? B.getRowView(m) : B.getColumnView(m);
+
+        final int[] newPtr = new int[major + 1];
+        ParallelUtils.run(parallel, major, (start, end) ->
+        {
+            for (int m = start; m < end; m++)
+                newPtr[m + 1] = merge(m, c, B_m[m], null, null, 0);
+        }, threadPool);
+        for (int m = 0; m < major; m++)
+            newPtr[m + 1] = Math.addExact(newPtr[m + 1], newPtr[m]);
+
+        final int[] newIdx = new int[newPtr[major]];
+        final double[] newValues = new double[newPtr[major]];
+        ParallelUtils.run(parallel, major, (start, end) ->
+        {
+            for (int m = start; m < end; m++)
+                merge(m, c, B_m[m], newIdx, newValues, newPtr[m]);
+        }, threadPool);
+
+        ptr = newPtr;
+        idx = newIdx;
+        values = newValues;
+    }
+
+    /**
+     * Merges compressed row (or column) {@code m} with {@code c b}, storing
+     * the result starting at {@code pos} if {@code outIdx} is not
+     * {@code null}.
+     *
+     * @return the number of values in the merged result
+     */
+    private int merge(int m, double c, Vec b, int[] outIdx, double[] outValues, int pos) {
+        int count = 0;
+        int k = ptr[m];
+        final int end = ptr[m + 1];
+        Iterator<IndexValue> iter = b.getNonZeroIterator();
+        IndexValue b_iv = iter.hasNext() ? iter.next() : null;
+        while (k < end || b_iv != null) {
+            int n;
+            double val;
+            if (b_iv == null || (k < end && idx[k] < b_iv.getIndex())) {
+                n = idx[k];
+                val = values[k++];
+            } else if (k >= end || b_iv.getIndex() < idx[k]) {
+                n = b_iv.getIndex();
+                val = c * b_iv.getValue();
+                b_iv = iter.hasNext() ? iter.next() : null;
+            } else {
+                n = idx[k];
+                val = values[k++] + c * b_iv.getValue();
+                b_iv = iter.hasNext() ? iter.next() : null;
+            }
+            if (outIdx != null) {
+                outIdx[pos + count] = n;
+                outValues[pos + count] = val;
+            }
+            count++;
+        }
+        return count;
+    }
+
+    @Override
+    public void mutableAdd(double c, Matrix B) {
+        mutableAdd(c, B, false, null);
+    }
+
+    @Override
+    public void mutableAdd(double c, Matrix B, ExecutorService threadPool) {
+        mutableAdd(c, B, true, threadPool);
+    }
+
+    @Override
+    public void mutableAdd(double c) {
+        if (c == 0)
+            return;
+        //every value becomes non zero
+        final int major = major(), minor = minor();
+        int[] newPtr = new int[major + 1];
+        int[] newIdx = new int[Math.multiplyExact(major, minor)];
+        double[] newValues = new double[newIdx.length];
+        Arrays.fill(newValues, c);
+        for (int m = 0; m < major; m++) {
+            newPtr[m + 1] = newPtr[m] + minor;
+            for (int n = 0; n < minor; n++)
+                newIdx[newPtr[m] + n] = n;
+            for (int k = ptr[m]; k < ptr[m + 1]; k++)
+                newValues[newPtr[m] + idx[k]] += values[k];
+        }
+        ptr = newPtr;
+        idx = newIdx;
+        values = newValues;
+    }
+
+    @Override
+    public void mutableAdd(double c, ExecutorService threadPool) {
+        mutableAdd(c);
+    }
+
+    @Override
+    public void mutableMultiply(double c) {
+        mutableMultiply(c, false, null);
+    }
+
+    @Override
+    public void mutableMultiply(double c, ExecutorService threadPool) {
+        mutableMultiply(c, true, threadPool);
+    }
+
+    private void mutableMultiply(final double c, boolean parallel, ExecutorService threadPool) {
+        ParallelUtils.run(parallel, ptr[major()], (start, end) ->
+        {
+            for (int k = start; k < end; k++)
+                values[k] *= c;
+        }, threadPool);
+    }
+
+    @Override
+    public Matrix[] lup() {
+        throw new UnsupportedOperationException("LUP decomposition is not supported by " + getClass().getSimpleName());
+    }
+
+    @Override
+    public Matrix[] lup(ExecutorService threadPool) {
+        return lup();
+    }
+
+    @Override
+    public Matrix[] qr() {
+        throw new UnsupportedOperationException("QR decomposition is not supported by " + getClass().getSimpleName());
+    }
+
+    @Override
+    public Matrix[] qr(ExecutorService threadPool) {
+        return qr();
+    }
+
+    @Override
+    public void changeSize(int newRows, int newCols) {
+        if (newRows <= 0)
+            throw new ArithmeticException("Matrix must have a positive number of rows");
+        if (newCols <= 0)
+            throw new ArithmeticException("Matrix must have a positive number of columns");
+        final int oldMajor = major();
+        final int newMajor = format == Format.CSR ? newRows : newCols;
+        final int newMinor = format == Format.CSR ? newCols : newRows;
+        int[] newPtr = new int[newMajor + 1];
+        int pos = 0;
+        for (int m = 0; m < newMajor; m++) {
+            if (m < oldMajor) {
+                //values past the new length are dropped
+                int end = lowerBound(m, newMinor);
+                for (int k = ptr[m]; k < end; k++) {
+                    idx[pos] = idx[k];
+                    values[pos++] = values[k];
+                }
+            }
+            newPtr[m + 1] = pos;
+        }
+        ptr = newPtr;
+        rows = newRows;
+        cols = newCols;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <br>
+     * This is done in O(1) time by switching between the CSR and CSC formats.
+     */
+    @Override
+    public void mutableTranspose() {
+        int tmp = rows;
+        rows = cols;
+        cols = tmp;
+        format = format == Format.CSR ? Format.CSC : Format.CSR;
+    }
+
+    @Override
+    public CompressedSparseMatrix transpose() {
+        CompressedSparseMatrix toReturn = clone();
+        toReturn.mutableTranspose();
+        return toReturn;
+    }
+
+    @Override
+    public void transpose(Matrix C) {
+        if (this.rows() != C.cols() || this.cols() != C.rows())
+            throw new ArithmeticException("Target matrix does not have the correct dimensions");
+
+        if (C instanceof CompressedSparseMatrix) {
+            CompressedSparseMatrix C_c = (CompressedSparseMatrix) C;
+            CompressedSparseMatrix t = transpose().toFormat(C_c.format);
+            C_c.ptr = t.ptr;
+            C_c.idx = t.idx;
+            C_c.values = t.values;
+            return;
+        }
+
+        C.zeroOut();
+        for (int m = 0; m < major(); m++)
+            for (int k = ptr[m]; k < ptr[m + 1]; k++)
+                if (format == Format.CSR)
+                    C.set(idx[k], m, values[k]);
+                else
+                    C.set(m, idx[k], values[k]);
+    }
+
+    @Override
+    public double get(int i, int j) {
+        int pos = find(i, j);
+        return pos >= 0 ? values[pos] : 0.0;
+    }
+
+    @Override
+    public void set(int i, int j, double value) {
+        int pos = find(i, j);
+        int m = format == Format.CSR ? i : j;
+        if (pos >= 0) {
+            if (value == 0)
+                remove(m, pos);
+            else
+                values[pos] = value;
+        } else if (value != 0)
+            insert(m, -pos - 1, format == Format.CSR ? j : i, value);
+    }
+
+    @Override
+    public void increment(int i, int j, double value) {
+        if (value == 0)
+            return;
+        int pos = find(i, j);
+        if (pos >= 0)
+            values[pos] += value;
+        else
+            insert(format == Format.CSR ? i : j, -pos - 1, format == Format.CSR ? j : i, value);
+    }
+
+    @Override
+    public int rows() {
+        return rows;
+    }
+
+    @Override
+    public int cols() {
+        return cols;
+    }
+
+    @Override
+    public boolean isSparce() {
+        return true;
+    }
+
+    @Override
+    public long nnz() {
+        return ptr[major()];
+    }
+
+    @Override
+    public void swapRows(int r1, int r2) {
+        if (r1 < 0 || r1 >= rows || r2 < 0 || r2 >= rows)
+            throw new IndexOutOfBoundsException("Can not swap rows " + r1 + " and " + r2 + " of a matrix with " + rows + " rows");
+        if (r1 == r2)
+            return;
+        if (r1 > r2) {
+            int tmp = r1;
+            r1 = r2;
+            r2 = tmp;
+        }
+
+        if (format == Format.CSR) {
+            //rebuild the values from r1 to r2 with the two rows swapped
+            final int len1 = ptr[r1 + 1] - ptr[r1], len2 = ptr[r2 + 1] - ptr[r2];
+            final int start = ptr[r1], end = ptr[r2 + 1];
+            int[] newIdx = new int[end - start];
+            double[] newValues = new double[end - start];
+            int pos = 0;
+            System.arraycopy(idx, ptr[r2], newIdx, pos, len2);
+            System.arraycopy(values, ptr[r2], newValues, pos, len2);
+            pos += len2;
+            System.arraycopy(idx, ptr[r1 + 1], newIdx, pos, ptr[r2] - ptr[r1 + 1]);
+            System.arraycopy(values, ptr[r1 + 1], newValues, pos, ptr[r2] - ptr[r1 + 1]);
+            pos += ptr[r2] - ptr[r1 + 1];
+            System.arraycopy(idx, ptr[r1], newIdx, pos, len1);
+            System.arraycopy(values, ptr[r1], newValues, pos, len1);
+            System.arraycopy(newIdx, 0, idx, start, newIdx.length);
+            System.arraycopy(newValues, 0, values, start, newValues.length);
+            for (int r = r1 + 1; r <= r2; r++)
+                ptr[r] += len2 - len1;
+        } else
+            for (int c = 0; c < cols; c++) {
+                int p1 = Arrays.binarySearch(idx, ptr[c], ptr[c + 1], r1);
+                int p2 = Arrays.binarySearch(idx, ptr[c], ptr[c + 1], r2);
+                if (p1 >= 0 && p2 >= 0) {
+                    double tmp = values[p1];
+                    values[p1] = values[p2];
+                    values[p2] = tmp;
+                } else if (p1 >= 0)//move the value from r1 up to r2
+                {
+                    double val = values[p1];
+                    int dest = -p2 - 2;
+                    System.arraycopy(values, p1 + 1, values, p1, dest - p1);
+                    System.arraycopy(idx, p1 + 1, idx, p1, dest - p1);
+                    values[dest] = val;
+                    idx[dest] = r2;
+                } else if (p2 >= 0)//move the value from r2 down to r1
+                {
+                    double val = values[p2];
+                    int dest = -p1 - 1;
+                    System.arraycopy(values, dest, values, dest + 1, p2 - dest);
+                    System.arraycopy(idx, dest, idx, dest + 1, p2 - dest);
+                    values[dest] = val;
+                    idx[dest] = r1;
+                }
+            }
+    }
+
+    @Override
+    public Vec getRowView(int r) {
+        if (format == Format.CSR) {
+            if (r < 0 || r >= rows)
+                throw new IndexOutOfBoundsException("Row " + r + " is not in a matrix with " + rows + " rows");
+            return new CompressedView(r);
+        }
+        return super.getRowView(r);
+    }
+
+    @Override
+    public Vec getColumnView(int j) {
+        if (format == Format.CSC) {
+            if (j < 0 || j >= cols)
+                throw new IndexOutOfBoundsException("Column " + j + " is not in a matrix with " + cols + " columns");
+            return new CompressedView(j);
+        }
+        return super.getColumnView(j);
+    }
+
+    @Override
+    public void zeroOut() {
+        Arrays.fill(ptr, 0);
+    }
+
+    @Override
+    public CompressedSparseMatrix clone() {
+        return new CompressedSparseMatrix(this);
+    }
+
+    /**
+     * A view of one compressed row (CSR) or column (CSC) of the matrix, which
+     * reads its non zero values directly from the backing arrays
+     */
+    private class CompressedView extends Vec {
+        private static final long serialVersionUID = 4484390467236806271L;
+        private final int m;
+
+        public CompressedView(int m) {
+            this.m = m;
+        }
+
+        @Override
+        public int length() {
+            return minor();
+        }
+
+        private int matrixRow(int index) {
+            return format == Format.CSR ? m : index;
+        }
+
+        private int matrixCol(int index) {
+            return format == Format.CSR ? index : m;
+        }
+
+        @Override
+        public double get(int index) {
+            return CompressedSparseMatrix.this.get(matrixRow(index), matrixCol(index));
+        }
+
+        @Override
+        public void set(int index, double val) {
+            CompressedSparseMatrix.this.set(matrixRow(index), matrixCol(index), val);
+        }
+
+        @Override
+        public void increment(int index, double val) {
+            CompressedSparseMatrix.this.increment(matrixRow(index), matrixCol(index), val);
+        }
+
+        @Override
+        public int nnz() {
+            return ptr[m + 1] - ptr[m];
+        }
+
+        @Override
+        public double dot(Vec v) {
+            if (v.isSparse())
+                return super.dot(v);
+            double dot = 0;
+            for (int k = ptr[m]; k < ptr[m + 1]; k++)
+                dot += values[k] * v.get(idx[k]);
+            return dot;
+        }
+
+        @Override
+        public Iterator<IndexValue> getNonZeroIterator(int start) {
+            final int end = ptr[m + 1];
+            final int first = lowerBound(m, start);
+            return new Iterator<IndexValue>() {
+                int k = first;
+                final IndexValue indexValue = new IndexValue(-1, Double.NaN);
+
+                @Override
+                public boolean hasNext() {
+                    return k < end;
+                }
+
+                @Override
+                public IndexValue next() {
+                    if (k >= end)
+                        throw new NoSuchElementException();
+                    indexValue.setIndex(idx[k]);
+                    indexValue.setValue(values[k++]);
+                    return indexValue;
+                }
+            };
+        }
+
+        @Override
+        public boolean isSparse() {
+            return true;
+        }
+
+        @Override
+        public SparseVector clone() {
+            int count = nnz();
+            SparseVector copy = new SparseVector(length(), Math.max(count, 10));
+            System.arraycopy(idx, ptr[m], copy.indexes, 0, count);
+            System.arraycopy(values, ptr[m], copy.values, 0, count);
+            copy.used = count;
+            return copy;
+        }
+
+        @Override
+        public void setLength(int length) {
+            throw new UnsupportedOperationException("A view of a matrix can not change its length");
+        }
+    }
+}
@@ -0,0 +1,599 @@
+package jsat.linear;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+
+import jsat.utils.concurrent.ParallelUtils;
+
+import static java.lang.Math.min;
+
+/**
+ * A dense matrix that stores all of its values in a single contiguous
+ * {@code double[]}, in either row-major or column-major order. Unlike
+ * {@link DenseMatrix}, which keeps one array per row, the whole matrix is one
+ * block of memory. This gives better locality and lets the matrix wrap an
+ * existing array without copying it, as would be done when reading a matrix
+ * that was serialized or memory mapped as one block.<br>
+ * <br>
+ * When both operands and the target are {@code ContiguousDenseMatrix} objects,
+ * the multiplication methods use a cache blocked GEMM. Blocks of the inputs
+ * are packed into buffers that fit in cache, and a tile of the result is
+ * accumulated from four rows of B at a time in a loop the JIT can vectorize. The parallel versions split the result into independent
+ * tiles that are computed as separate jobs. Because the layout is handled by strides, the transposed
+ * products and mixed layouts use the same kernel without any copies.
+ * Otherwise, the generic implementations are used.<br>
+ * <br>
+ * Because only the strides change, {@link #mutableTranspose() } is O(1) for
+ * any shape of matrix: it switches the layout of the matrix instead of moving
+ * its values.
+ */
+public class ContiguousDenseMatrix extends GenericMatrix {
+
+    private static final long serialVersionUID = 2813357620154738226L;
+
+    /**
+     * The order in which the values of a {@link ContiguousDenseMatrix} are
+     * stored in its backing array
+     */
+    public enum Layout {
+        /**
+         * Each row is stored contiguously, so value <i>(i, j)</i> is at index
+         * <i>i * cols + j</i>
+         */
+        ROW_MAJOR,
+        /**
+         * Each column is stored contiguously, so value <i>(i, j)</i> is at
+         * index <i>j * rows + i</i>
+         */
+        COLUMN_MAJOR
+    }
+
+    /**
+     * Rows of the result in one parallel tile, and rows of A packed at once
+     */
+    private static final int MC = 64;
+    /**
+     * Columns of the result in one parallel tile, and columns of B packed at
+     * once
+     */
+    private static final int NC = 256;
+    /**
+     * Length of the inner dimension packed at once, so that the packed blocks
+     * of A and B stay in cache while a tile is computed
+     */
+    private static final int KC = 256;
+
+    private double[] data;
+    private int rows;
+    private int cols;
+    private Layout layout;
+
+    /**
+     * Creates a new row-major matrix of zeros
+     *
+     * @param rows the number of rows
+     * @param cols the number of columns
+     */
+    public ContiguousDenseMatrix(int rows, int cols) {
+        this(rows, cols, Layout.ROW_MAJOR);
+    }
+
+    /**
+     * Creates a new matrix of zeros
+     *
+     * @param rows   the number of rows
+     * @param cols   the number of columns
+     * @param layout the order to store the values in
+     */
+    public ContiguousDenseMatrix(int rows, int cols, Layout layout) {
+        if (rows <= 0)
+            throw new ArithmeticException("Matrix must have a positive number of rows");
+        if (cols <= 0)
+            throw new ArithmeticException("Matrix must have a positive number of columns");
+        this.rows = rows;
+        this.cols = cols;
+        this.layout = layout;
+        this.data = new double[Math.multiplyExact(rows, cols)];
+    }
+
+    /**
+     * Creates a new matrix that uses the given array as its storage. The
+     * values are not copied, so changes to the matrix are visible in the
+     * array, and vice versa.
+     *
+     * @param data   the array holding the values of the matrix
+     * @param rows   the number of rows
+     * @param cols   the number of columns
+     * @param layout the order the values are stored in
+     */
+    public ContiguousDenseMatrix(double[] data, int rows, int cols, Layout layout) {
+        if (rows <= 0)
+            throw new ArithmeticException("Matrix must have a positive number of rows");
+        if (cols <= 0)
+            throw new ArithmeticException("Matrix must have a positive number of columns");
+        if (data.length != (long) rows * cols)
+            throw new IllegalArgumentException("Array of length " + data.length + " can not back a [" + rows + ", " + cols + "] matrix");
+        this.data = data;
+        this.rows = rows;
+        this.cols = cols;
+        this.layout = layout;
+    }
+
+    /**
+     * Creates a new row-major matrix that has a copy of all the same values as
+     * the given one
+     *
+     * @param toCopy the matrix to copy
+     */
+    public ContiguousDenseMatrix(Matrix toCopy) {
+        this(toCopy, Layout.ROW_MAJOR);
+    }
+
+    /**
+     * Creates a new matrix that has a copy of all the same values as the given
+     * one
+     *
+     * @param toCopy the matrix to copy
+     * @param layout the order to store the values in
+     */
+    public ContiguousDenseMatrix(Matrix toCopy, Layout layout) {
+        this(toCopy.rows(), toCopy.cols(), layout);
+        toCopy.copyTo(this);
+    }
+
+    /**
+     * @return the order the values of this matrix are stored in
+     */
+    public Layout getLayout() {
+        return layout;
+    }
+
+    /**
+     * Returns the array that holds the values of this matrix, in the order
+     * given by {@link #getLayout() }. This is not a copy, and changes to it
+     * alter the matrix. Methods that change the size of the matrix may replace
+     * the array.
+     *
+     * @return the backing array of this matrix
+     */
+    public double[] getBackingArray() {
+        return data;
+    }
+
+    /**
+     * @return the distance in the backing array between one row and the next
+     */
+    private int rowStride() {
+        return layout == Layout.ROW_MAJOR ? cols : 1;
+    }
+
+    /**
+     * @return the distance in the backing array between one column and the
+     * next
+     */
+    private int colStride() {
+        return layout == Layout.ROW_MAJOR ? 1 : rows;
+    }
+
+    private int index(int i, int j) {
+        if (i < 0 || i >= rows || j < 0 || j >= cols)
+            throw new IndexOutOfBoundsException("Index (" + i + ", " + j + ") is outside of a [" + rows + ", " + cols + "] matrix");
+        return layout == Layout.ROW_MAJOR ? i * cols + j : j * rows + i;
+    }
+
+    @Override
+    protected Matrix getMatrixOfSameType(int rows, int cols) {
+        return new ContiguousDenseMatrix(rows, cols, layout);
+    }
+
+    @Override
+    public double get(int i, int j) {
+        return data[index(i, j)];
+    }
+
+    @Override
+    public void set(int i, int j, double value) {
+        data[index(i, j)] = value;
+    }
+
+    @Override
+    public void increment(int i, int j, double value) {
+        data[index(i, j)] += value;
+    }
+
+    @Override
+    public int rows() {
+        return rows;
+    }
+
+    @Override
+    public int cols() {
+        return cols;
+    }
+
+    @Override
+    public boolean isSparce() {
+        return false;
+    }
+
+    @Override
+    public void mutableAdd(double c, Matrix b) {
+        if (!sameDimensions(this, b))
+            throw new ArithmeticException("Matrix dimensions do not agree");
+        if (b instanceof ContiguousDenseMatrix && ((ContiguousDenseMatrix) b).layout == layout) {
+            double[] bData = ((ContiguousDenseMatrix) b).data;
+            for (int i = 0; i < data.length; i++)
+                data[i] += c * bData[i];
+        } else
+            super.mutableAdd(c, b);
+    }
+
+    @Override
+    public void mutableAdd(double c) {
+        for (int i = 0; i < data.length; i++)
+            data[i] += c;
+    }
+
+    @Override
+    public void mutableMultiply(double c) {
+        for (int i = 0; i < data.length; i++)
+            data[i] *= c;
+    }
+
+    @Override
+    public void zeroOut() {
+        Arrays.fill(data, 0.0);
+    }
+
+    @Override
+    public void multiply(Vec b, double z, Vec c) {
+        if (this.cols() != b.length())
+            throw new ArithmeticException("Matrix dimensions do not agree, [" + rows() + "," + cols() + "] x [" + b.length() + ",1]");
+        if (this.rows() != c.length())
+            throw new ArithmeticException("Target vector dimension does not agree with matrix dimensions. Matrix has " + rows() + " rows but tagert has " + c.length());
+        gemv(z, rows, cols, rowStride(), colStride(), b, c);
+    }
+
+    @Override
+    public void transposeMultiply(double c, Vec b, Vec x) {
+        if (this.rows() != b.length())
+            throw new ArithmeticException("Matrix dimensions do not agree, [" + cols() + "," + rows() + "] x [" + b.length() + ",1]");
+        else if (this.cols() != x.length())
+            throw new ArithmeticException("Matrix dimensions do not agree with target vector");
+        gemv(c, cols, rows, colStride(), rowStride(), b, x);
+    }
+
+    /**
+     * Computes y = y + z A x, where A is this matrix viewed with the given
+     * shape and strides.
+     */
+    private void gemv(double z, int M, int N, int rs, int cs, Vec x, Vec y) {
+        //gather the non zeros of x once, so sparse inputs are only iterated once
+        int nnz;
+        int[] xIdx;
+        double[] xVal;
+        if (x.isSparse()) {
+            nnz = x.nnz();
+            xIdx = new int[nnz];
+            xVal = new double[nnz];
+            int pos = 0;
+            for (IndexValue iv : x) {
+                xIdx[pos] = iv.getIndex();
+                xVal[pos++] = iv.getValue();
+            }
+            nnz = pos;
+        } else {
+            nnz = N;
+            xIdx = new int[N];
+            for (int j = 0; j < N; j++)
+                xIdx[j] = j;
+            xVal = x.arrayCopy();
+        }
+
+        double[] acc = new double[M];
+        if (cs == 1)//each row of the view is contiguous, so take dot products
+            for (int i = 0; i < M; i++) {
+                int rowStart = i * rs;
+                double dot = 0;
+                for (int k = 0; k < nnz; k++)
+                    dot += data[rowStart + xIdx[k]] * xVal[k];
+                acc[i] = dot;
+            }
+        else//each column of the view is contiguous, so add scaled columns
+            for (int k = 0; k < nnz; k++) {
+                int colStart = xIdx[k] * cs;
+                double x_j = xVal[k];
+                for (int i = 0; i < M; i++)
+                    acc[i] += data[colStart + i] * x_j;
+            }
+
+        for (int i = 0; i < M; i++)
+            if (acc[i] != 0)
+                y.increment(i, z * acc[i]);
+    }
+
+    @Override
+    public void multiply(Matrix b, Matrix C) {
+        multiply(b, C, null);
+    }
+
+    @Override
+    public void multiply(Matrix b, Matrix C, ExecutorService threadPool) {
+        if (!canMultiply(this, b))
+            throw new ArithmeticException("Matrix dimensions do not agree: [" + this.rows() + ", " + this.cols() + "] * [" + b.rows() + ", " + b.cols() + "]");
+        else if (this.rows() != C.rows() || b.cols() != C.cols())
+            throw new ArithmeticException("Target Matrix is no the correct size");
+        if (!(b instanceof ContiguousDenseMatrix && C instanceof ContiguousDenseMatrix)) {
+            if (threadPool == null)
+                super.multiply(b, C);
+            else
+                super.multiply(b, C, threadPool);
+            return;
+        }
+        ContiguousDenseMatrix B = (ContiguousDenseMatrix) b;
+        gemm(this.data, this.rowStride(), this.colStride(), B.data, B.rowStride(), B.colStride(),
+                (ContiguousDenseMatrix) C, this.rows, b.cols(), this.cols, threadPool);
+    }
+
+    @Override
+    public void multiplyTranspose(Matrix b, Matrix C) {
+        multiplyTranspose(b, C, null);
+    }
+
+    @Override
+    public void multiplyTranspose(Matrix b, Matrix C, ExecutorService threadPool) {
+        if (this.cols() != b.cols())
+            throw new ArithmeticException("Matrix dimensions do not agree");
+        else if (this.rows() != C.rows() || b.rows() != C.cols())
+            throw new ArithmeticException("Destination matrix does not have matching dimensions");
+        if (!(b instanceof ContiguousDenseMatrix && C instanceof ContiguousDenseMatrix)) {
+            if (threadPool == null)
+                super.multiplyTranspose(b, C);
+            else
+                super.multiplyTranspose(b, C, threadPool);
+            return;
+        }
+        //B' is B with its strides swapped
+        ContiguousDenseMatrix B = (ContiguousDenseMatrix) b;
+        gemm(this.data, this.rowStride(), this.colStride(), B.data, B.colStride(), B.rowStride(),
+                (ContiguousDenseMatrix) C, this.rows, b.rows(), this.cols, threadPool);
+    }
+
+    @Override
+    public void transposeMultiply(Matrix b, Matrix C) {
+        transposeMultiply(b, C, null);
+    }
+
+    @Override
+    public void transposeMultiply(Matrix b, Matrix C, ExecutorService threadPool) {
+        if (this.rows() != b.rows())//Normaly it is A_cols == B_rows, but we are doint A'*B, not A*B
+            throw new ArithmeticException("Matrix dimensions do not agree [" + this.cols() + ", " + this.rows() + "] * [" + b.rows() + ", " + b.cols() + "]");
+        else if (this.cols() != C.rows() || b.cols() != C.cols())
+            throw new ArithmeticException("Destination matrix does not have matching dimensions");
+        if (!(b instanceof ContiguousDenseMatrix && C instanceof ContiguousDenseMatrix)) {
+            if (threadPool == null)
+                super.transposeMultiply(b, C);
+            else
+                super.transposeMultiply(b, C, threadPool);
+            return;
+        }
+        //A' is A with its strides swapped
+        ContiguousDenseMatrix B = (ContiguousDenseMatrix) b;
+        gemm(this.data, this.colStride(), this.rowStride(), B.data, B.rowStride(), B.colStride(),
+                (ContiguousDenseMatrix) C, this.cols, b.cols(), this.rows, threadPool);
+    }
+
+    /**
+     * Computes C = C + A B, where A is M x K and B is K x N, and each is
+     * given by its backing array and strides.
+     *
+     * @param threadPool the source of threads, or {@code null} to run in the
+     *                   calling thread
+     */
+    private static void gemm(final double[] a, final int aRs, final int aCs,
+                             final double[] b, final int bRs, final int bCs,
+                             final ContiguousDenseMatrix C, final int M, final int N, final int K,
+                             ExecutorService threadPool) {
+        final double[] c = C.data;
+        final int cRs = C.rowStride();
+        final int cCs = C.colStride();
+        final int mTiles = (M + MC - 1) / MC;
+        final int nTiles = (N + NC - 1) / NC;
+
+        if (threadPool == null || mTiles * nTiles == 1) {
+            double[][] packA = new double[MC][KC];
+            double[][] packB = new double[KC][NC];
+            double[][] cTile = new double[MC][NC];
+            for (int jt = 0; jt < nTiles; jt++)
+                for (int it = 0; it < mTiles; it++)
+                    gemmTile(a, aRs, aCs, b, bRs, bCs, c, cRs, cCs,
+                            it * MC, min(M, (it + 1) * MC), jt * NC, min(N, (jt + 1) * NC), K, packA, packB, cTile);
+            return;
+        }
+
+        //every tile of C is written by only one job, so no synchronization is needed
+        ParallelUtils.run(true, mTiles * nTiles, (int tile) ->
+        {
+            int it = tile % mTiles;
+            int jt = tile / mTiles;
+            gemmTile(a, aRs, aCs, b, bRs, bCs, c, cRs, cCs,
+                    it * MC, min(M, (it + 1) * MC), jt * NC, min(N, (jt + 1) * NC), K,
+                    new double[MC][KC], new double[KC][NC], new double[MC][NC]);
+        }, threadPool);
+    }
+
+    /**
+     * Computes rows [i0, i1) and columns [j0, j1) of C = C + A B
+     */
+    private static void gemmTile(double[] a, int aRs, int aCs, double[] b, int bRs, int bCs,
+                                 double[] c, int cRs, int cCs,
+                                 int i0, int i1, int j0, int j1, int K,
+                                 double[][] packA, double[][] packB, double[][] cTile) {
+        final int mc = i1 - i0;
+        final int nc = j1 - j0;
+        for (int i = 0; i < mc; i++)
+            Arrays.fill(cTile[i], 0, nc, 0.0);
+        for (int p0 = 0; p0 < K; p0 += KC) {
+            int kc = min(KC, K - p0);
+            pack(a, aRs, aCs, i0, mc, p0, kc, packA);
+            pack(b, bRs, bCs, p0, kc, j0, nc, packB);
+            kernel(mc, nc, kc, packA, packB, cTile);
+        }
+
+        for (int i = 0; i < mc; i++) {
+            final double[] tile_i = cTile[i];
+            int pos = (i0 + i) * cRs + j0 * cCs;
+            for (int j = 0; j < nc; j++, pos += cCs)
+                c[pos] += tile_i[j];
+        }
+    }
+
+    /**
+     * Copies a block of a matrix into the rows of a buffer, so the kernel
+     * reads it sequentially no matter the layout of the source.
+     *
+     * @param x    the array to pack from
+     * @param rs   the row stride of the source
+     * @param cs   the column stride of the source
+     * @param r0   the first row to copy
+     * @param m    the number of rows to copy
+     * @param c0   the first column to copy
+     * @param n    the number of columns to copy
+     * @param pack the buffer to pack into
+     */
+    private static void pack(double[] x, int rs, int cs, int r0, int m, int c0, int n, double[][] pack) {
+        if (cs == 1)
+            for (int i = 0; i < m; i++)
+                System.arraycopy(x, (r0 + i) * rs + c0, pack[i], 0, n);
+        else//walk down each column, which is the contiguous direction of the source
+            for (int j = 0; j < n; j++) {
+                int pos = r0 * rs + (c0 + j) * cs;
+                for (int i = 0; i < m; i++, pos += rs)
+                    pack[i][j] = x[pos];
+            }
+    }
+
+    /**
+     * Adds the product of the packed mc x kc block of A and kc x nc block of
+     * B to the mc x nc tile. Each row of the tile is updated from four rows of
+     * B at a time, so the tile is loaded and stored a quarter as often. The
+     * buffers are kept as separate row arrays because the JIT only vectorizes
+     * the inner loop when it indexes each array from zero.
+     */
+    private static void kernel(int mc, int nc, int kc, double[][] packA, double[][] packB, double[][] cTile) {
+        for (int i = 0; i < mc; i++) {
+            final double[] A_i = packA[i];
+            final double[] C_i = cTile[i];
+            int p = 0;
+            for (; p + 4 <= kc; p += 4) {
+                final double a0 = A_i[p];
+                final double a1 = A_i[p + 1];
+                final double a2 = A_i[p + 2];
+                final double a3 = A_i[p + 3];
+                final double[] B_0 = packB[p];
+                final double[] B_1 = packB[p + 1];
+                final double[] B_2 = packB[p + 2];
+                final double[] B_3 = packB[p + 3];
+                for (int j = 0; j < nc; j++)
+                    C_i[j] += a0 * B_0[j] + a1 * B_1[j] + a2 * B_2[j] + a3 * B_3[j];
+            }
+            for (; p < kc; p++) {
+                final double a0 = A_i[p];
+                final double[] B_p = packB[p];
+                for (int j = 0; j < nc; j++)
+                    C_i[j] += a0 * B_p[j];
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}<br>
+     * This takes constant time for any shape of matrix, as only the layout
+     * of the matrix is changed: a row-major matrix becomes column-major, and
+     * vice versa. The backing array is unchanged.
+     */
+    @Override
+    public void mutableTranspose() {
+        int tmp = rows;
+        rows = cols;
+        cols = tmp;
+        layout = layout == Layout.ROW_MAJOR ? Layout.COLUMN_MAJOR : Layout.ROW_MAJOR;
+    }
+
+    @Override
+    public ContiguousDenseMatrix transpose() {
+        ContiguousDenseMatrix toReturn = new ContiguousDenseMatrix(cols, rows, layout);
+        this.transpose(toReturn);
+        return toReturn;
+    }
+
+    @Override
+    public void transpose(Matrix C) {
+        if (this.rows() != C.cols() || this.cols() != C.rows())
+            throw new ArithmeticException("Target matrix does not have the correct dimensions");
+        //the transpose in the other layout has the same memory order, so just copy it
+        if (C instanceof ContiguousDenseMatrix && ((ContiguousDenseMatrix) C).layout != layout)
+            System.arraycopy(data, 0, ((ContiguousDenseMatrix) C).data, 0, data.length);
+        else
+            super.transpose(C);
+    }
+
+    @Override
+    public void changeSize(int newRows, int newCols) {
+        if (newRows <= 0)
+            throw new ArithmeticException("Matrix must have a positive number of rows");
+        if (newCols <= 0)
+            throw new ArithmeticException("Matrix must have a positive number of columns");
+        ContiguousDenseMatrix resized = new ContiguousDenseMatrix(newRows, newCols, layout);
+        int lines = layout == Layout.ROW_MAJOR ? min(rows, newRows) : min(cols, newCols);
+        int oldLen = layout == Layout.ROW_MAJOR ? cols : rows;
+        int newLen = layout == Layout.ROW_MAJOR ? newCols : newRows;
+        for (int l = 0; l < lines; l++)
+            System.arraycopy(data, l * oldLen, resized.data, l * newLen, min(oldLen, newLen));
+        this.data = resized.data;
+        this.rows = newRows;
+        this.cols = newCols;
+    }
+
+    @Override
+    public void swapRows(int r1, int r2) {
+        if (r1 >= rows() || r2 >= rows())
+            throw new ArithmeticException("Can not swap row, matrix is smaller then requested");
+        else if (r1 < 0 || r2 < 0)
+            throw new ArithmeticException("Can not swap row, there are no negative row indices");
+        int rs = rowStride();
+        int cs = colStride();
+        for (int j = 0; j < cols; j++) {
+            int pos1 = r1 * rs + j * cs;
+            int pos2 = r2 * rs + j * cs;
+            double tmp = data[pos1];
+            data[pos1] = data[pos2];
+            data[pos2] = tmp;
+        }
+    }
+
+    @Override
+    public Vec getRowView(int r) {
+        if (layout == Layout.ROW_MAJOR) {
+            if (r < 0 || r >= rows)
+                throw new IndexOutOfBoundsException("Row " + r + " is not in [0, " + rows + ")");
+            return new DenseVector(data, r * cols, (r + 1) * cols);
+        }
+        return super.getRowView(r);
+    }
+
+    @Override
+    public Vec getColumnView(int j) {
+        if (layout == Layout.COLUMN_MAJOR) {
+            if (j < 0 || j >= cols)
+                throw new IndexOutOfBoundsException("Column " + j + " is not in [0, " + cols + ")");
+            return new DenseVector(data, j * rows, (j + 1) * rows);
+        }
+        return super.getColumnView(j);
+    }
+
+    @Override
+    public ContiguousDenseMatrix clone() {
+        return new ContiguousDenseMatrix(Arrays.copyOf(data, data.length), rows, cols, layout);
+    }
+}
@@ -0,0 +1,143 @@
+package jsat.linear;
+
+/**
+ * The inner loops used by {@link DenseVector} and the distance metrics over
+ * dense arrays. A portable scalar version is always available. When running on
+ * Java 17 or newer with the {@code jdk.incubator.vector} module enabled
+ * (<code>--add-modules jdk.incubator.vector</code>), a version using the Vector
+ * API is loaded from the multi-release jar instead, which uses the widest SIMD
+ * instructions the CPU supports. The Vector API version can be disabled by
+ * setting the system property {@code jsat.vectorapi} to {@code false}.
+ * <br>
+ * All methods operate on {@code length} values, starting at the given offset
+ * into each array.
+ */
+public final class DenseKernels {
+    /**
+     * The operations that need to be provided by an implementation
+     */
+    interface Impl {
+        double dot(double[] a, int aOff, double[] b, int bOff, int length);
+
+        double sqrdDist(double[] a, int aOff, double[] b, int bOff, int length);
+
+        double l1Dist(double[] a, int aOff, double[] b, int bOff, int length);
+
+        double sumOfSquares(double[] a, int aOff, int length);
+
+        void axpy(double c, double[] x, int xOff, double[] y, int yOff, int length);
+    }
+
+    private static final Impl IMPL = load();
+
+    private DenseKernels() {
+    }
+
+    private static Impl load() {
+        if (!Boolean.parseBoolean(System.getProperty("jsat.vectorapi", "true")))
+            return new Scalar();
+        try {
+            //only exists in the Java 17+ part of the jar, and needs the incubator module
+            Class<?> clazz = Class.forName("jsat.linear.VectorApiKernels");
+            Impl impl = (Impl) clazz.getDeclaredConstructor().newInstance();
+            if (impl.dot(new double[]{1, 2}, 0, new double[]{3, 4}, 0, 2) == 11)
+                return impl;
+        } catch (Exception | LinkageError ex) {
+            //not available, use the scalar version
+        }
+        return new Scalar();
+    }
+
+    /**
+     * @return {@code true} if the Vector API implementation is being used,
+     * {@code false} if the scalar one is
+     */
+    public static boolean isVectorized() {
+        return !(IMPL instanceof Scalar);
+    }
+
+    /**
+     * @return the dot product of the two arrays
+     */
+    public static double dot(double[] a, int aOff, double[] b, int bOff, int length) {
+        return IMPL.dot(a, aOff, b, bOff, length);
+    }
+
+    /**
+     * @return the squared Euclidean distance between the two arrays
+     */
+    public static double sqrdDist(double[] a, int aOff, double[] b, int bOff, int length) {
+        return IMPL.sqrdDist(a, aOff, b, bOff, length);
+    }
+
+    /**
+     * @return the squared Euclidean distance between the two vectors, which
+     * must be of the same length
+     */
+    public static double sqrdDist(DenseVector a, DenseVector b) {
+        return IMPL.sqrdDist(a.array, a.startIndex, b.array, b.startIndex, a.length());
+    }
+
+    /**
+     * @return the Manhattan (L<sub>1</sub>) distance between the two arrays
+     */
+    public static double l1Dist(double[] a, int aOff, double[] b, int bOff, int length) {
+        return IMPL.l1Dist(a, aOff, b, bOff, length);
+    }
+
+    /**
+     * @return the sum of the squared values in the array
+     */
+    public static double sumOfSquares(double[] a, int aOff, int length) {
+        return IMPL.sumOfSquares(a, aOff, length);
+    }
+
+    /**
+     * Computes y = y + c x
+     */
+    public static void axpy(double c, double[] x, int xOff, double[] y, int yOff, int length) {
+        IMPL.axpy(c, x, xOff, y, yOff, length);
+    }
+
+    static final class Scalar implements Impl {
+        @Override
+        public double dot(double[] a, int aOff, double[] b, int bOff, int length) {
+            double dot = 0;
+            for (int i = 0; i < length; i++)
+                dot += a[aOff + i] * b[bOff + i];
+            return dot;
+        }
+
+        @Override
+        public double sqrdDist(double[] a, int aOff, double[] b, int bOff, int length) {
+            double d = 0;
+            for (int i = 0; i < length; i++) {
+                double tmp = a[aOff + i] - b[bOff + i];
+                d += tmp * tmp;
+            }
+            return d;
+        }
+
+        @Override
+        public double l1Dist(double[] a, int aOff, double[] b, int bOff, int length) {
+            double d = 0;
+            for (int i = 0; i < length; i++)
+                d += Math.abs(a[aOff + i] - b[bOff + i]);
+            return d;
+        }
+
+        @Override
+        public double sumOfSquares(double[] a, int aOff, int length) {
+            double d = 0;
+            for (int i = 0; i < length; i++)
+                d += a[aOff + i] * a[aOff + i];
+            return d;
+        }
+
+        @Override
+        public void axpy(double c, double[] x, int xOff, double[] y, int yOff, int length) {
+            for (int i = 0; i < length; i++)
+                y[yOff + i] += c * x[xOff + i];
+        }
+    }
+}
@@ -3,15 +3,13 @@ package jsat.linear;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.concurrent.Callable;
 import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Future;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import jsat.utils.FakeExecutor;
+import jsat.utils.concurrent.ParallelUtils;
 
 import static java.lang.Math.*;
 import static jsat.utils.SystemInfo.*;
@@ -22,7 +20,12 @@ import static jsat.utils.SystemInfo.*;
 public class DenseMatrix extends GenericMatrix {
 
     private static final long serialVersionUID = -3112110093920307822L;
-    private double[][] matrix;
+    /**
+     * The minimum number of values a step of a decomposition must update
+     * before it is split over threads
+     */
+    private static final int PARALLEL_WORK = 64 * 64;
+    double[][] matrix;
 
     /**
      * Creates a new matrix based off the given vectors.
@@ -153,74 +156,6 @@ public class DenseMatrix extends GenericMatrix {
         return result;
     }
 
-    /**
-     * Copies the values from A_k to vk
-     *
-     * @param k      the k+1 index copying will start at
-     * @param M      how far to copy values
-     * @param vk     the array to copy into
-     * @param A_k    the source row of the matrix
-     * @param vkNorm the initial value for vkNorm
-     * @return vkNorm plus the summation of the squared values for all values copied into vk
-     */
-    private double initalVKNormCompute(int k, int M, double[] vk, double[] A_k) {
-        double vkNorm = 0.0;
-        for (int i = k + 1; i < M; i++) {
-            vk[i] = A_k[i];
-            vkNorm += vk[i] * vk[i];
-        }
-        return vkNorm;
-    }
-
-    private void qrUpdateQ(DenseMatrix Q, int k, double[] vk, double TwoOverBeta) {
-        //Computing Q
-
-        //We are computing Q' in what we are treating as the column major order, which represents Q in row major order, which is what we want!
-        for (int j = 0; j < Q.cols(); j++) {
-            double[] Q_j = Q.matrix[j];
-            double y = 0;//y = vk dot A_j
-            for (int i = k; i < Q.cols(); i++)
-                y += vk[i] * Q_j[i];
-
-            y *= TwoOverBeta;
-            for (int i = k; i < Q.rows(); i++) {
-                Q_j[i] -= y * vk[i];
-            }
-        }
-
-    }
-
-    private void qrUpdateR(int k, int N, DenseMatrix A, double[] vk, double TwoOverBeta, int M) {
-        //First run of loop removed, as it will be setting zeros. More accurate to just set them ourselves
-        if (k < N) {
-            qrUpdateRFirstIteration(A, k, vk, TwoOverBeta, M);
-        }
-        //The rest of the normal look
-        for (int j = k + 1; j < N; j++) {
-            double[] A_j = A.matrix[j];
-            double y = 0;//y = vk dot A_j
-            for (int i = k; i < A.cols(); i++)
-                y += vk[i] * A_j[i];
-
-            y *= TwoOverBeta;
-            for (int i = k; i < M; i++)
-                A_j[i] -= y * vk[i];
-        }
-    }
-
-    private void qrUpdateRFirstIteration(DenseMatrix A, int k, double[] vk, double TwoOverBeta, int M) {
-        double[] A_j = A.matrix[k];
-        double y = 0;//y = vk dot A_j
-        for (int i = k; i < A.cols(); i++)
-            y += vk[i] * A_j[i];
-
-        y *= TwoOverBeta;
-        A_j[k] -= y * vk[k];
-
-        for (int i = k + 1; i < M; i++)
-            A_j[i] = 0.0;
-    }
-
     @Override
     public void changeSize(int newRows, int newCols) {
         if (newRows <= 0)
@@ -560,345 +495,286 @@ public class DenseMatrix extends GenericMatrix {
 
     @Override
     public Matrix[] lup() {
-        Matrix[] lup = new Matrix[3];
-
-        Matrix P = eye(rows());
-        DenseMatrix L;
-        DenseMatrix U = this;
-
-        //Initalization is a little wierd b/c we want to handle rectangular cases as well!
-        if (rows() > cols())//In this case, we will be changing U before returning it (have to make it smaller, but we can still avoid allocating extra space
-            L = new DenseMatrix(rows(), cols());
-        else
-            L = new DenseMatrix(rows(), rows());
-
-        for (int i = 0; i < U.rows(); i++) {
-            //If rectangular, we still need to loop through to update ther est of L - even though we wont make many other changes
-            if (i < U.cols()) {
-                //Partial pivoting, find the largest value in this colum and move it to the top! 
-                //Find the largest magintude value in the colum k, row j
-                int largestRow = i;
-                double largestVal = Math.abs(U.matrix[i][i]);
-                for (int j = i + 1; j < U.rows(); j++) {
-                    double rowJLeadVal = Math.abs(U.matrix[j][i]);
-                    if (rowJLeadVal > largestVal) {
-                        largestRow = j;
-                        largestVal = rowJLeadVal;
-                    }
-                }
-
-                //SWAP!
-                U.swapRows(largestRow, i);
-                P.swapRows(largestRow, i);
-                L.swapRows(largestRow, i);
-
-                L.matrix[i][i] = 1;
-            }
-
-            //Seting up L 
-            for (int k = 0; k < Math.min(i, U.cols()); k++) {
-                double tmp = U.matrix[i][k] / U.matrix[k][k];
-                L.matrix[i][k] = Double.isNaN(tmp) ? 0.0 : tmp;
-                U.matrix[i][k] = 0;
-
-                for (int j = k + 1; j < U.cols(); j++) {
-                    U.matrix[i][j] -= L.matrix[i][k] * U.matrix[k][j];
-                }
-            }
-        }
-
-
-        if (rows() > cols())//Clean up!
-        {
-            //We need to change U to a square nxn matrix in this case, we can safely drop the last 2 rows!
-            double[][] newU = new double[cols()][];
-            System.arraycopy(U.matrix, 0, newU, 0, newU.length);
-            U = new DenseMatrix(newU);//We have made U point at a new object, but the array is still pointing at the same rows! 
-        }
-
-        lup[0] = L;
-        lup[1] = U;
-        lup[2] = P;
-
-        return lup;
-    }
-
-    private class LUProwRun implements Callable<Integer> {
-        final DenseMatrix L;
-        final DenseMatrix U;
-        final int k, threadNumber;
-        double largestSeen = Double.MIN_VALUE;
-        int largestIndex;
-
-        public LUProwRun(DenseMatrix L, DenseMatrix U, int k, int threadNumber) {
-            this.L = L;
-            this.U = U;
-            this.k = k;
-            largestIndex = k + 1;
-            this.threadNumber = threadNumber;
-        }
-
-        /**
-         * Returns the index of the row with the largest absolute value we ever saw in column k+1
-         */
-        public Integer call() throws Exception {
-            for (int i = k + 1 + threadNumber; i < U.rows(); i += LogicalCores) {
-                double tmp = U.matrix[i][k] / U.matrix[k][k];
-                L.matrix[i][k] = Double.isNaN(tmp) ? 0.0 : tmp;
-
-                //We perform the first iteration of the loop outside, as we want to cache its value for searching later
-                U.matrix[i][k + 1] -= L.matrix[i][k] * U.matrix[k][k + 1];
-                if (Math.abs(U.matrix[i][k + 1]) > largestSeen) {
-                    largestSeen = Math.abs(U.matrix[i][k + 1]);
-                    largestIndex = i;
-                }
-                for (int j = k + 2; j < U.cols(); j++) {
-                    U.matrix[i][j] -= L.matrix[i][k] * U.matrix[k][j];
-                }
-            }
-
-            return largestIndex;
-        }
-
+        return blockedLUP(false, null);
     }
 
     @Override
     public Matrix[] lup(ExecutorService threadPool) {
-        Matrix[] lup = new Matrix[3];
+        return blockedLUP(true, threadPool);
+    }
 
-        Matrix P = eye(rows());
-        DenseMatrix L;
-        DenseMatrix U = this;
+    /**
+     * Computes the LUP decomposition in place with a blocked right-looking
+     * algorithm. Each block of {@link #NB2} columns is factored with partial
+     * pivoting, and then the rest of the matrix is updated with a single
+     * matrix product, which is where almost all of the work is done and can be
+     * split over threads by rows.
+     */
+    private Matrix[] blockedLUP(boolean parallel, ExecutorService threadPool) {
+        final int M = rows(), N = cols();
+        final int R = min(M, N);
+        final double[][] a = matrix;
+        int[] perm = new int[M];
+        for (int i = 0; i < M; i++)
+            perm[i] = i;
+
+        for (int k0 = 0; k0 < R; k0 += NB2) {
+            final int k1 = min(k0 + NB2, R);
+            //Factor the panel of columns [k0, k1)
+            for (int j = k0; j < k1; j++) {
+                //Partial pivoting, find the largest value in this colum and move it to the top!
+                int largestRow = j;
+                double largestVal = abs(a[j][j]);
+                for (int i = j + 1; i < M; i++)
+                    if (abs(a[i][j]) > largestVal) {
+                        largestRow = i;
+                        largestVal = abs(a[i][j]);
+                    }
+                //swapping the whole row also swaps the part of L already computed
+                double[] tmp = a[largestRow];
+                a[largestRow] = a[j];
+                a[j] = tmp;
+                int tmpIndx = perm[largestRow];
+                perm[largestRow] = perm[j];
+                perm[j] = tmpIndx;
+
+                final int J = j;
+                final double[] a_j = a[j];
+                final double pivot = a_j[j];
+                ParallelUtils.run(parallel && (long) (M - j) * (k1 - j) >= PARALLEL_WORK, M - j - 1, (start, end) ->
+                {
+                    for (int i = J + 1 + start; i < J + 1 + end; i++) {
+                        final double[] a_i = a[i];
+                        //the pivot is only zero if the whole column is, in which case L is zero
+                        final double l = pivot == 0 ? 0.0 : a_i[J] / pivot;
+                        a_i[J] = l;
+                        if (l != 0)
+                            for (int c = J + 1; c < k1; c++)
+                                a_i[c] -= l * a_j[c];
+                    }
+                }, threadPool);
+            }
 
-        //Initalization is a little wierd b/c we want to handle rectangular cases as well!
-        if (rows() > cols())//In this case, we will be changing U before returning it (have to make it smaller, but we can still avoid allocating extra space
-            L = new DenseMatrix(rows(), cols());
-        else
-            L = new DenseMatrix(rows(), rows());
-
-        List<Future<Integer>> bigIndecies = new ArrayList<Future<Integer>>(LogicalCores);
-        for (int k = 0; k < Math.min(rows(), cols()); k++) {
-            //Partial pivoting, find the largest value in this colum and move it to the top! 
-            //Find the largest magintude value in the colum k, row j
-            int largestRow = k;
-            double largestVal = Math.abs(U.matrix[k][k]);
-            if (bigIndecies.isEmpty())
-                for (int j = k + 1; j < U.rows(); j++) {
-                    double rowJLeadVal = Math.abs(U.matrix[j][k]);
-                    if (rowJLeadVal > largestVal) {
-                        largestRow = j;
-                        largestVal = rowJLeadVal;
+            if (k1 >= N)
+                continue;
+            final int K0 = k0;
+            final boolean parallelUpdate = parallel && (long) (M - k0) * (N - k1) >= PARALLEL_WORK;
+            //U_12 = L_11^-1 A_12, split by columns
+            ParallelUtils.run(parallelUpdate, N - k1, (start, end) ->
+            {
+                for (int j = K0 + 1; j < k1; j++) {
+                    final double[] a_j = a[j];
+                    for (int p = K0; p < j; p++) {
+                        final double l = a_j[p];
+                        if (l == 0)
+                            continue;
+                        final double[] a_p = a[p];
+                        for (int c = k1 + start; c < k1 + end; c++)
+                            a_j[c] -= l * a_p[c];
                     }
                 }
-            else {
-                for (Future<Integer> fut : bigIndecies) {
-                    try {
-                        int j = fut.get();
-                        double rowJLeadVal = Math.abs(U.matrix[j][k]);
-                        if (rowJLeadVal > largestVal) {
-                            largestRow = j;
-                            largestVal = rowJLeadVal;
-                        }
-                    } catch (InterruptedException ex) {
-                        Logger.getLogger(DenseMatrix.class.getName()).log(Level.SEVERE, null, ex);
-                    } catch (ExecutionException ex) {
-                        Logger.getLogger(DenseMatrix.class.getName()).log(Level.SEVERE, null, ex);
+            }, threadPool);
+            //A_22 = A_22 - L_21 U_12, split by rows
+            ParallelUtils.run(parallelUpdate, M - k1, (start, end) ->
+            {
+                for (int i = k1 + start; i < k1 + end; i++) {
+                    final double[] a_i = a[i];
+                    for (int p = K0; p < k1; p++) {
+                        final double l = a_i[p];
+                        if (l == 0)
+                            continue;
+                        final double[] a_p = a[p];
+                        for (int c = k1; c < N; c++)
+                            a_i[c] -= l * a_p[c];
                     }
-
                 }
-
-                bigIndecies.clear();
-            }
-
-            //SWAP!
-            U.swapRows(largestRow, k);
-            P.swapRows(largestRow, k);
-            L.swapRows(largestRow, k);
-
-            L.matrix[k][k] = 1;
-            //Seting up L 
-            for (int threadNumber = 0; threadNumber < LogicalCores; threadNumber++)
-                bigIndecies.add(threadPool.submit(new LUProwRun(L, U, k, threadNumber)));
+            }, threadPool);
         }
 
+        DenseMatrix P = new DenseMatrix(M, M);
+        for (int i = 0; i < M; i++)
+            P.matrix[i][perm[i]] = 1;
 
-        //Zero out the bottom rows
-        for (int k = 0; k < Math.min(rows(), cols()); k++)
-            for (int j = 0; j < k; j++)
-                U.matrix[k][j] = 0;
-
-
-        if (rows() > cols())//Clean up!
-        {
-            //We need to change U to a square nxn matrix in this case, we can safely drop the last 2 columns!
-            double[][] newU = new double[cols()][];
-            System.arraycopy(U.matrix, 0, newU, 0, newU.length);
-            U = new DenseMatrix(newU);//We have made U point at a new object, but the array is still pointing at the same rows! 
+        //Rectangular cases have a smaller L (rows > cols) or U (rows < cols)
+        DenseMatrix L = new DenseMatrix(M, M > N ? N : M);
+        for (int i = 0; i < M; i++) {
+            final int lim = min(i, R);
+            System.arraycopy(a[i], 0, L.matrix[i], 0, lim);
+            if (i < L.cols())
+                L.matrix[i][i] = 1;
+            Arrays.fill(a[i], 0, lim, 0.0);
         }
+        DenseMatrix U = this;
+        if (M > N)//We have made U point at a new object, but the array is still pointing at the same rows!
+            U = new DenseMatrix(Arrays.copyOf(a, N));
 
-        lup[0] = L;
-        lup[1] = U;
-        lup[2] = P;
-
-        return lup;
+        return new Matrix[]{L, U, P};
     }
 
     @Override
     public Matrix[] qr() {
-        int N = cols(), M = rows();
-        Matrix[] qr = new Matrix[2];
-
-        DenseMatrix Q = Matrix.eye(M);
-        DenseMatrix A;
-        if (isSquare()) {
-            mutableTranspose();
-            A = this;
-        } else
-            A = (DenseMatrix) this.transpose();
-        int to = cols() > rows() ? M : N;
-        double[] vk = new double[M];
-        for (int k = 0; k < to; k++) {
-            double[] A_k = A.matrix[k];
-
-            double vkNorm = initalVKNormCompute(k, M, vk, A_k);
-            double beta = vkNorm;
-
-            double vk_k = vk[k] = A_k[k];//force into register, help the JIT!
-            vkNorm += vk_k * vk_k;
-            vkNorm = sqrt(vkNorm);
-
-
-            double alpha = -signum(vk_k) * vkNorm;
-            vk_k -= alpha;
-            vk[k] = vk_k;
-            beta += vk_k * vk_k;
-
+        return blockedQR(false, null);
+    }
 
-            if (beta == 0)
-                continue;
-            double TwoOverBeta = 2.0 / beta;
-            qrUpdateQ(Q, k, vk, TwoOverBeta);
-            qrUpdateR(k, N, A, vk, TwoOverBeta, M);
-        }
-        qr[0] = Q;
-        if (isSquare()) {
-            A.mutableTranspose();
-            qr[1] = A;
-        } else
-            qr[1] = A.transpose();
-        return qr;
-    }
-
-    private class QRRun implements Runnable {
-        DenseMatrix A, Q;
-        double[] vk;
-        double TwoOverBeta;
-        int k, threadID, N, M;
-        CountDownLatch latch;
-
-        public QRRun(DenseMatrix A, DenseMatrix Q, double[] vk, double TwoOverBeta, int k, int threadID, CountDownLatch latch) {
-            this.A = A;
-            this.Q = Q;
-            this.vk = vk;
-            this.TwoOverBeta = TwoOverBeta;
-            this.k = k;
-            this.threadID = threadID;
-            this.latch = latch;
-            this.N = A.rows();
-            this.M = A.cols();
-        }
+    @Override
+    public Matrix[] qr(ExecutorService threadPool) {
+        return blockedQR(true, threadPool);
+    }
 
-        public void run() {
-            //Computing Q
-            {
-                //We are computing Q' in what we are treating as the column major order, which represents Q in row major order, which is what we want!
-                for (int j = 0 + threadID; j < Q.cols(); j += LogicalCores) {
-                    double[] Q_j = Q.matrix[j];
-                    double y = 0;//y = vk dot A_j
-                    for (int i = k; i < Q.cols(); i++)
-                        y += vk[i] * Q_j[i];
-
-                    y *= TwoOverBeta;
-                    for (int i = k; i < Q.rows(); i++) {
-                        Q_j[i] -= y * vk[i];
+    /**
+     * Computes the QR decomposition in place with blocked Householder
+     * reflections. The reflections for each block of {@link #NB2} columns are
+     * combined into the compact WY form I - Y T Y<sup>T</sup>, so that they
+     * can be applied to the rest of the matrix, and later to Q, with matrix
+     * products that are split over threads.
+     */
+    private Matrix[] blockedQR(boolean parallel, ExecutorService threadPool) {
+        final int M = rows(), N = cols();
+        final int R = min(M, N);
+        final double[][] a = matrix;
+        List<double[][]> Ys = new ArrayList<>();
+        List<double[][]> Ts = new ArrayList<>();
+
+        for (int k0 = 0; k0 < R; k0 += NB2) {
+            final int k1 = min(k0 + NB2, R);
+            final int bw = k1 - k0;
+            //Y[i-k0][p] is the i'th value of the p'th reflection vector
+            final double[][] Y = new double[M - k0][bw];
+            final double[] tau = new double[bw];
+            for (int j = k0; j < k1; j++) {
+                final int p = j - k0;
+                double norm = 0;
+                for (int i = j; i < M; i++)
+                    norm += a[i][j] * a[i][j];
+                norm = sqrt(norm);
+                if (norm == 0)
+                    continue;
+                final double alpha = a[j][j] > 0 ? -norm : norm;
+                double vTv = 0;
+                for (int i = j; i < M; i++) {
+                    final double v = i == j ? a[j][j] - alpha : a[i][j];
+                    Y[i - k0][p] = v;
+                    vTv += v * v;
+                }
+                tau[p] = 2 / vTv;
+                a[j][j] = alpha;
+                for (int i = j + 1; i < M; i++)
+                    a[i][j] = 0.0;
+
+                //apply to the rest of the panel
+                if (j + 1 < k1) {
+                    double[] y = new double[k1 - j - 1];
+                    for (int i = j; i < M; i++) {
+                        final double v = Y[i - k0][p];
+                        for (int c = j + 1; c < k1; c++)
+                            y[c - j - 1] += v * a[i][c];
+                    }
+                    for (int i = j; i < M; i++) {
+                        final double v = Y[i - k0][p] * tau[p];
+                        if (v == 0)
+                            continue;
+                        for (int c = j + 1; c < k1; c++)
+                            a[i][c] -= v * y[c - j - 1];
                     }
                 }
             }
 
-            //First run of loop removed, as it will be setting zeros. More accurate to just set them ourselves
-            if (k < N && threadID == 0) {
-                qrUpdateRFirstIteration(A, k, vk, TwoOverBeta, M);
-            }
-            //The rest of the normal look
-            for (int j = k + 1 + threadID; j < N; j += LogicalCores) {
-                double[] A_j = A.matrix[j];
-                double y = 0;//y = vk dot A_j
-                for (int i = k; i < A.cols(); i++)
-                    y += vk[i] * A_j[i];
-
-                y *= TwoOverBeta;
-                for (int i = k; i < M; i++)
-                    A_j[i] -= y * vk[i];
+            //T is upper triangular, with T[0:p, p] = -tau_p T[0:p, 0:p] Y[:, 0:p]' v_p
+            final double[][] T = new double[bw][bw];
+            final double[][] G = new double[bw][bw];
+            for (double[] Y_i : Y)
+                for (int q = 0; q < bw; q++) {
+                    final double y_q = Y_i[q];
+                    if (y_q != 0)
+                        for (int p = q + 1; p < bw; p++)
+                            G[q][p] += y_q * Y_i[p];
+                }
+            for (int p = 0; p < bw; p++) {
+                T[p][p] = tau[p];
+                for (int q = 0; q < p; q++) {
+                    double sum = 0;
+                    for (int r = q; r < p; r++)
+                        sum += T[q][r] * G[r][p];
+                    T[q][p] = -tau[p] * sum;
+                }
             }
-            latch.countDown();
-        }
 
-    }
-
-    @Override
-    public Matrix[] qr(ExecutorService threadPool) {
-        int N = cols(), M = rows();
-        Matrix[] qr = new Matrix[2];
+            //A_2 = Q_block' A_2 = A_2 - Y T' (Y' A_2)
+            if (k1 < N)
+                applyBlockReflector(a, k0, k1, N, Y, T, true, parallel, threadPool);
+            Ys.add(Y);
+            Ts.add(T);
+        }
 
+        //Q = Q_1 Q_2 ... Q_b, accumulated backwards so each block only touches its trailing part
         DenseMatrix Q = Matrix.eye(M);
-        DenseMatrix A;
-        if (isSquare()) {
-            mutableTranspose();
-            A = this;
-        } else
-            A = (DenseMatrix) this.transpose();
-
-        double[] vk = new double[M];
-
-        int to = cols() > rows() ? M : N;
-        for (int k = 0; k < to; k++) {
-            double[] A_k = A.matrix[k];
-
-            double vkNorm = initalVKNormCompute(k, M, vk, A_k);
-            double beta = vkNorm;
-
-            double vk_k = vk[k] = A_k[k];
-            vkNorm += vk_k * vk_k;
-            vkNorm = sqrt(vkNorm);
-
-
-            double alpha = -signum(vk_k) * vkNorm;
-            vk_k -= alpha;
-            beta += vk_k * vk_k;
-            vk[k] = vk_k;
-
-
-            if (beta == 0)
-                continue;
+        for (int b = Ys.size() - 1; b >= 0; b--) {
+            final int k0 = b * NB2;
+            applyBlockReflector(Q.matrix, k0, k0, M, Ys.get(b), Ts.get(b), false, parallel, threadPool);
+        }
 
-            double TwoOverBeta = 2.0 / beta;
+        return new Matrix[]{Q, this};
+    }
 
-            CountDownLatch latch = new CountDownLatch(LogicalCores);
-            for (int threadID = 0; threadID < LogicalCores; threadID++)
-                threadPool.submit(new QRRun(A, Q, vk, TwoOverBeta, k, threadID, latch));
-            try {
-                latch.await();
-            } catch (InterruptedException ex) {
-                Logger.getLogger(DenseMatrix.class.getName()).log(Level.SEVERE, null, ex);
+    /**
+     * Computes X = (I - Y T Y<sup>T</sup>) X, or with T transposed, for the
+     * rows of X from {@code rowStart} and the columns [colStart, colEnd). The
+     * work is split over threads by columns.
+     */
+    private static void applyBlockReflector(final double[][] X, final int rowStart, final int colStart, final int colEnd, final double[][] Y, final double[][] T, final boolean transposeT, boolean parallel, ExecutorService threadPool) {
+        final int bw = T.length;
+        ParallelUtils.run(parallel && (long) Y.length * (colEnd - colStart) >= PARALLEL_WORK, colEnd - colStart, (start, end) ->
+        {
+            final int c0 = colStart + start, c1 = colStart + end;
+            //W = Y' X
+            double[][] W = new double[bw][c1 - c0];
+            for (int i = 0; i < Y.length; i++) {
+                final double[] X_i = X[rowStart + i];
+                final double[] Y_i = Y[i];
+                for (int p = 0; p < bw; p++) {
+                    final double y = Y_i[p];
+                    if (y == 0)
+                        continue;
+                    final double[] W_p = W[p];
+                    for (int c = c0; c < c1; c++)
+                        W_p[c - c0] += y * X_i[c];
+                }
             }
-        }
-        qr[0] = Q;
-        if (isSquare()) {
-            A.mutableTranspose();
-            qr[1] = A;
-        } else
-            qr[1] = A.transpose();
-        return qr;
+            //W = T W or T' W, in place as T is triangular
+            if (transposeT)
+                for (int p = bw - 1; p >= 0; p--) {
+                    final double[] W_p = W[p];
+                    for (int c = 0; c < W_p.length; c++) {
+                        double sum = 0;
+                        for (int q = 0; q <= p; q++)
+                            sum += T[q][p] * W[q][c];
+                        W_p[c] = sum;
+                    }
+                }
+            else
+                for (int p = 0; p < bw; p++) {
+                    final double[] W_p = W[p];
+                    for (int c = 0; c < W_p.length; c++) {
+                        double sum = 0;
+                        for (int q = p; q < bw; q++)
+                            sum += T[p][q] * W[q][c];
+                        W_p[c] = sum;
+                    }
+                }
+            //X = X - Y W
+            for (int i = 0; i < Y.length; i++) {
+                final double[] X_i = X[rowStart + i];
+                final double[] Y_i = Y[i];
+                for (int p = 0; p < bw; p++) {
+                    final double y = Y_i[p];
+                    if (y == 0)
+                        continue;
+                    final double[] W_p = W[p];
+                    for (int c = c0; c < c1; c++)
+                        X_i[c] -= y * W_p[c - c0];
+                }
+            }
+        }, threadPool);
     }
 
     @Override
@@ -19,7 +19,7 @@ public class DenseVector extends Vec {
 
     private static final long serialVersionUID = -889493251793828933L;
     protected double[] array;
-    private int startIndex;
+    int startIndex;
     private int endIndex;
 
     /**
@@ -217,6 +217,10 @@ public class DenseVector extends Vec {
 
         if (v.isSparse())
             return v.dot(this);
+        if (v instanceof DenseVector) {
+            DenseVector dv = (DenseVector) v;
+            return DenseKernels.dot(array, startIndex, dv.array, dv.startIndex, length());
+        }
 
         double dot = 0;
         for (int i = startIndex; i < endIndex; i++)
@@ -257,7 +261,10 @@ public class DenseVector extends Vec {
         if (b.isSparse())
             for (IndexValue iv : b)
                 array[iv.getIndex()] += c * iv.getValue();
-        else
+        else if (b instanceof DenseVector) {
+            DenseVector db = (DenseVector) b;
+            DenseKernels.axpy(c, db.array, db.startIndex, array, startIndex, length());
+        } else
             for (int i = startIndex; i < endIndex; i++)
                 array[i] += c * b.get(i);
     }
@@ -285,6 +292,13 @@ public class DenseVector extends Vec {
         if (this.length() != y.length())
             throw new ArithmeticException("Vectors must be of the same length");
 
+        if (y instanceof DenseVector && (p == 1 || p == 2)) {
+            DenseVector dy = (DenseVector) y;
+            if (p == 1)
+                return DenseKernels.l1Dist(array, startIndex, dy.array, dy.startIndex, length());
+            return Math.sqrt(DenseKernels.sqrdDist(array, startIndex, dy.array, dy.startIndex, length()));
+        }
+
         double norm = 0;
         if (y.isSparse()) {
             int lastIndx = -1;
@@ -315,9 +329,7 @@ public class DenseVector extends Vec {
             for (int i = startIndex; i < endIndex; i++)
                 result += abs(array[i]);
         } else if (p == 2) {
-            for (int i = startIndex; i < endIndex; i++)
-                result += array[i] * array[i];
-            result = Math.sqrt(result);
+            result = Math.sqrt(DenseKernels.sumOfSquares(array, startIndex, length()));
         } else if (Double.isInfinite(p)) {
             for (int i = startIndex; i < endIndex; i++)
                 result = Math.max(result, abs(array[i]));
@@ -0,0 +1,317 @@
+package jsat.linear;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+
+import static java.lang.Math.*;
+
+/**
+ * A dense vector that stores its values in single precision, using half the
+ * memory of a {@link DenseVector}. Values are rounded to the nearest
+ * {@code float} when set, but all arithmetic is accumulated in double
+ * precision. <br>
+ * This is useful for large data sets where the extra precision of a double is
+ * not needed, such as embeddings, where the time spent on {@link #dot(jsat.linear.Vec)
+ * } and {@link #pNormDist(double, jsat.linear.Vec) } is bound by memory
+ * bandwidth.
+ */
+public class FloatDenseVector extends Vec {
+
+    private static final long serialVersionUID = -3925146316233346531L;
+    private float[] array;
+    private int startIndex;
+    private int endIndex;
+
+    /**
+     * Creates a new vector of zeros
+     *
+     * @param length the length of the vector
+     */
+    public FloatDenseVector(int length) {
+        if (length < 0)
+            throw new ArithmeticException("You can not have a negative dimension vector");
+        array = new float[length];
+        startIndex = 0;
+        endIndex = length;
+    }
+
+    /**
+     * Creates a new vector that uses the given array as its values. Its values
+     * will not be copied, and raw access and mutations to the given array may
+     * occur.
+     *
+     * @param array the backing array to use for a new vector of the same length
+     */
+    public FloatDenseVector(float[] array) {
+        this(array, 0, array.length);
+    }
+
+    /**
+     * Creates a new vector that uses the given array as its values. Its values
+     * will not be copied, and raw access and mutations to the given array may
+     * occur.
+     *
+     * @param array the backing array to use for a new vector
+     * @param start the first index in the array, inclusive, to mark the start
+     *              of the vector.
+     * @param end   the last index in the array, exclusive, to mark the end of the
+     *              vector.
+     */
+    public FloatDenseVector(float[] array, int start, int end) {
+        this.array = array;
+        this.startIndex = start;
+        this.endIndex = end;
+    }
+
+    /**
+     * Creates a new vector that contains a copy of the values in the given
+     * vector, rounded to single precision
+     *
+     * @param toCopy the vector to copy
+     */
+    public FloatDenseVector(Vec toCopy) {
+        this(toCopy.length());
+        for (IndexValue iv : toCopy)
+            array[iv.getIndex()] = (float) iv.getValue();
+    }
+
+    @Override
+    public int length() {
+        return endIndex - startIndex;
+    }
+
+    @Override
+    public double get(int index) {
+        return array[index + startIndex];
+    }
+
+    @Override
+    public void set(int index, double val) {
+        array[index + startIndex] = (float) val;
+    }
+
+    @Override
+    public void increment(int index, double val) {
+        array[index + startIndex] += val;
+    }
+
+    @Override
+    public double min() {
+        float result = array[startIndex];
+        for (int i = startIndex + 1; i < endIndex; i++)
+            result = Math.min(result, array[i]);
+        return result;
+    }
+
+    @Override
+    public double max() {
+        float result = array[startIndex];
+        for (int i = startIndex + 1; i < endIndex; i++)
+            result = Math.max(result, array[i]);
+        return result;
+    }
+
+    @Override
+    public double sum() {
+        //the values only have float precision, so a double accumulator is enough without Kahan summation
+        double sum = 0;
+        for (int i = startIndex; i < endIndex; i++)
+            sum += array[i];
+        return sum;
+    }
+
+    @Override
+    public double dot(Vec v) {
+        if (this.length() != v.length())
+            throw new ArithmeticException("Vectors must have the same length");
+
+        if (v.isSparse())
+            return v.dot(this);
+
+        double dot = 0;
+        if (v instanceof FloatDenseVector) {
+            FloatDenseVector b = (FloatDenseVector) v;
+            float[] b_array = b.array;
+            int offset = b.startIndex - startIndex;
+            for (int i = startIndex; i < endIndex; i++)
+                dot += array[i] * (double) b_array[i + offset];
+        } else
+            for (int i = startIndex; i < endIndex; i++)
+                dot += array[i] * v.get(i - startIndex);
+
+        return dot;
+    }
+
+    @Override
+    public void mutableAdd(double c) {
+        for (int i = startIndex; i < endIndex; i++)
+            array[i] += c;
+    }
+
+    @Override
+    public void mutableAdd(double c, Vec b) {
+        if (this.length() != b.length())
+            throw new ArithmeticException("Can not add vectors of unequal length");
+
+        if (b instanceof FloatSparseVector) {
+            FloatSparseVector sb = (FloatSparseVector) b;
+            for (int z = 0; z < sb.used; z++)
+                array[startIndex + sb.indexes[z]] += c * sb.values[z];
+        } else if (b.isSparse())
+            for (IndexValue iv : b)
+                array[startIndex + iv.getIndex()] += c * iv.getValue();
+        else if (b instanceof FloatDenseVector) {
+            FloatDenseVector fb = (FloatDenseVector) b;
+            int offset = fb.startIndex - startIndex;
+            for (int i = startIndex; i < endIndex; i++)
+                array[i] += c * fb.array[i + offset];
+        } else
+            for (int i = startIndex; i < endIndex; i++)
+                array[i] += c * b.get(i - startIndex);
+    }
+
+    @Override
+    public void mutableMultiply(double c) {
+        for (int i = startIndex; i < endIndex; i++)
+            array[i] *= c;
+    }
+
+    @Override
+    public void mutableDivide(double c) {
+        for (int i = startIndex; i < endIndex; i++)
+            array[i] /= c;
+    }
+
+    @Override
+    public void mutablePairwiseMultiply(Vec b) {
+        if (this.length() != b.length())
+            throw new ArithmeticException("Vectors must have the same length");
+        for (int i = startIndex; i < endIndex; i++)
+            array[i] *= b.get(i - startIndex);
+    }
+
+    @Override
+    public void mutablePairwiseDivide(Vec b) {
+        if (this.length() != b.length())
+            throw new ArithmeticException("Vectors must have the same length");
+        for (int i = startIndex; i < endIndex; i++)
+            array[i] /= b.get(i - startIndex);
+    }
+
+    @Override
+    public double pNormDist(double p, Vec y) {
+        if (this.length() != y.length())
+            throw new ArithmeticException("Vectors must be of the same length");
+
+        if (y.isSparse())
+            return super.pNormDist(p, y);
+
+        double norm = 0;
+        if (y instanceof FloatDenseVector && p == 2) {
+            FloatDenseVector b = (FloatDenseVector) y;
+            float[] b_array = b.array;
+            int offset = b.startIndex - startIndex;
+            for (int i = startIndex; i < endIndex; i++) {
+                double diff = array[i] - (double) b_array[i + offset];
+                norm += diff * diff;
+            }
+            return Math.sqrt(norm);
+        } else if (p == 2) {
+            for (int i = startIndex; i < endIndex; i++) {
+                double diff = array[i] - y.get(i - startIndex);
+                norm += diff * diff;
+            }
+            return Math.sqrt(norm);
+        }
+
+        for (int i = startIndex; i < endIndex; i++)
+            norm += pow(abs(array[i] - y.get(i - startIndex)), p);
+        return pow(norm, 1.0 / p);
+    }
+
+    @Override
+    public double pNorm(double p) {
+        if (p <= 0)
+            throw new IllegalArgumentException("norm must be a positive value, not " + p);
+        double result = 0;
+        if (p == 1) {
+            for (int i = startIndex; i < endIndex; i++)
+                result += abs(array[i]);
+        } else if (p == 2) {
+            for (int i = startIndex; i < endIndex; i++)
+                result += array[i] * (double) array[i];
+            result = Math.sqrt(result);
+        } else if (Double.isInfinite(p)) {
+            for (int i = startIndex; i < endIndex; i++)
+                result = Math.max(result, abs(array[i]));
+        } else {
+            for (int i = startIndex; i < endIndex; i++)
+                result += pow(abs(array[i]), p);
+            result = pow(result, 1 / p);
+        }
+        return result;
+    }
+
+    @Override
+    public void normalize() {
+        mutableDivide(Math.max(pNorm(2), 1e-10));
+    }
+
+    @Override
+    public void zeroOut() {
+        Arrays.fill(array, startIndex, endIndex, 0f);
+    }
+
+    @Override
+    public FloatDenseVector clone() {
+        return new FloatDenseVector(Arrays.copyOfRange(array, startIndex, endIndex));
+    }
+
+    @Override
+    public double[] arrayCopy() {
+        double[] copy = new double[length()];
+        for (int i = 0; i < copy.length; i++)
+            copy[i] = array[startIndex + i];
+        return copy;
+    }
+
+    @Override
+    public boolean isSparse() {
+        return false;
+    }
+
+    @Override
+    public void setLength(int newLength) {
+        if (newLength < 0)
+            throw new ArithmeticException("Can not create an array of negative length");
+        if (newLength > length()) {
+            array = Arrays.copyOf(array, startIndex + newLength);
+            endIndex = startIndex + newLength;
+        }
+        if (newLength < length())//make sure we aren't destroying anything
+        {
+            for (int i = newLength; i < length(); i++)
+                if (get(i) != 0)
+                    throw new RuntimeException("Can't decrease the length of this vector from " + length() + " to " + newLength + " due to non-zero value");
+            array = Arrays.copyOfRange(array, startIndex, startIndex + newLength);
+            startIndex = 0;
+            endIndex = newLength;
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws ClassNotFoundException, IOException {
+        this.array = new float[in.readInt()];
+        this.startIndex = 0;
+        this.endIndex = this.array.length;
+        for (int i = 0; i < this.length(); i++)
+            this.array[i] = in.readFloat();
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.writeInt(this.length());
+        for (int i = startIndex; i < endIndex; i++)
+            out.writeFloat(this.array[i]);
+    }
+}
@@ -0,0 +1,485 @@
+package jsat.linear;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+
+import static java.lang.Math.*;
+
+/**
+ * A sparse vector that stores its non zero values in single precision, using
+ * less memory than a {@link SparseVector}. Values are rounded to the nearest
+ * {@code float} when set, but all arithmetic is accumulated in double
+ * precision. <br>
+ * This is useful for large sparse data sets such as TF-IDF features, where
+ * the extra precision of a double is not needed.
+ */
+public class FloatSparseVector extends Vec {
+
+    private static final long serialVersionUID = 3287465121694283461L;
+    /**
+     * Length of the vector
+     */
+    private int length;
+    /**
+     * number of indices used in this vector
+     */
+    protected int used;
+    /**
+     * The mapping to true index values
+     */
+    protected int[] indexes;
+    /**
+     * The Corresponding values for each index
+     */
+    protected float[] values;
+
+    /**
+     * Creates a new sparse vector of the given length that is all zero values.
+     *
+     * @param length the length of the sparse vector
+     */
+    public FloatSparseVector(int length) {
+        this(length, 10);
+    }
+
+    /**
+     * Creates a new sparse vector of the specified length, and pre-allocates
+     * enough internal state to hold {@code capacity} non zero values.
+     *
+     * @param length   the length of the sparse vector
+     * @param capacity the number of non zero values to allocate space for
+     */
+    public FloatSparseVector(int length, int capacity) {
+        this(new int[capacity], new float[capacity], length, 0);
+    }
+
+    /**
+     * Creates a new sparse vector backed by the given arrays. Modifying the
+     * arrays will modify the vector, and no validation beyond the lengths will
+     * be done. The first {@code used} values of {@code indexes} must be
+     * increasing, and the matching values must be non zero.
+     *
+     * @param indexes the array to store the index locations in
+     * @param values  the array to store the index values in
+     * @param length  the length of the sparse vector
+     * @param used    the number of non zero values in the vector taken from the
+     *                given input arrays.
+     */
+    public FloatSparseVector(int[] indexes, float[] values, int length, int used) {
+        if (values.length != indexes.length)
+            throw new IllegalArgumentException("Index and Value arrays must have the same length, instead index was " + indexes.length + " and values was " + values.length);
+        if (used < 0 || used > length || used > values.length)
+            throw new IllegalArgumentException("Bad used value. Used must be in the range of 0 and min of values length (" + values.length + ") and array length (" + length + "), instead was given " + used);
+        if (length <= 0)
+            throw new IllegalArgumentException("Length of sparse vector must be positive, not " + length);
+        this.used = used;
+        this.length = length;
+        this.indexes = indexes;
+        this.values = values;
+    }
+
+    /**
+     * Creates a new sparse vector by copying the values from another, rounded
+     * to single precision
+     *
+     * @param toCopy the vector to copy the values of
+     */
+    public FloatSparseVector(Vec toCopy) {
+        this(toCopy.length(), toCopy.nnz());
+        for (IndexValue iv : toCopy) {
+            float v = (float) iv.getValue();
+            if (v == 0)//underflow
+                continue;
+            indexes[used] = iv.getIndex();
+            values[used++] = v;
+        }
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public void setLength(int length) {
+        if (used > 0 && length < indexes[used - 1])
+            throw new RuntimeException("Can not set the length to a value less then an index already in use");
+        this.length = length;
+    }
+
+    @Override
+    public int nnz() {
+        return used;
+    }
+
+    private void removeNonZero(int nzIndex) {
+        System.arraycopy(indexes, nzIndex + 1, indexes, nzIndex, used - nzIndex - 1);
+        System.arraycopy(values, nzIndex + 1, values, nzIndex, used - nzIndex - 1);
+        used--;
+    }
+
+    @Override
+    public void increment(int index, double val) {
+        if (index > length - 1 || index < 0)
+            throw new IndexOutOfBoundsException("Can not access an index larger then the vector or a negative index");
+        if (val == 0)
+            return;
+        int location = Arrays.binarySearch(indexes, 0, used, index);
+        if (location < 0)
+            insertValue(location, index, (float) val);
+        else {
+            values[location] += val;
+            if (values[location] == 0)
+                removeNonZero(location);
+        }
+    }
+
+    @Override
+    public double get(int index) {
+        if (index > length - 1 || index < 0)
+            throw new ArithmeticException("Can not access an index larger then the vector or a negative index");
+
+        int location = Arrays.binarySearch(indexes, 0, used, index);
+        if (location < 0)
+            return 0.0;
+        else
+            return values[location];
+    }
+
+    @Override
+    public void set(int index, double val) {
+        if (index > length - 1 || index < 0)
+            throw new IndexOutOfBoundsException(index + " does not fit in [0," + length + ")");
+        float fval = (float) val;
+
+        if (used == 0 || index > indexes[used - 1])//fast path, just stick it on the end
+        {
+            if (fval != 0)
+                insertValue(-used - 1, index, fval);
+            return;
+        }
+
+        int location = Arrays.binarySearch(indexes, 0, used, index);
+        if (location >= 0) {
+            if (fval != 0)
+                values[location] = fval;
+            else
+                removeNonZero(location);
+        } else if (fval != 0)
+            insertValue(location, index, fval);
+    }
+
+    /**
+     * Adds a new non zero value
+     *
+     * @param insertLocation the negative insertion point returned by {@link Arrays#binarySearch(int[], int, int, int) }
+     * @param index          the index that is being added
+     * @param val            the value that is being added for the given index
+     */
+    private void insertValue(int insertLocation, int index, float val) {
+        insertLocation = -(insertLocation + 1);
+        if (used == indexes.length)//Full, expand
+        {
+            int newSize = Math.max(indexes.length * 2, 8);
+            indexes = Arrays.copyOf(indexes, newSize);
+            values = Arrays.copyOf(values, newSize);
+        }
+
+        if (insertLocation < used) {
+            System.arraycopy(indexes, insertLocation, indexes, insertLocation + 1, used - insertLocation);
+            System.arraycopy(values, insertLocation, values, insertLocation + 1, used - insertLocation);
+        }
+
+        indexes[insertLocation] = index;
+        values[insertLocation] = val;
+        used++;
+    }
+
+    @Override
+    public double min() {
+        float result = used < length ? 0 : Float.POSITIVE_INFINITY;
+        for (int i = 0; i < used; i++)
+            result = Math.min(result, values[i]);
+        return result;
+    }
+
+    @Override
+    public double max() {
+        float result = used < length ? 0 : Float.NEGATIVE_INFINITY;
+        for (int i = 0; i < used; i++)
+            result = Math.max(result, values[i]);
+        return result;
+    }
+
+    @Override
+    public double sum() {
+        double sum = 0;
+        for (int i = 0; i < used; i++)
+            sum += values[i];
+        return sum;
+    }
+
+    @Override
+    public double dot(Vec v) {
+        double dot = 0;
+
+        if (v instanceof FloatSparseVector) {
+            FloatSparseVector b = (FloatSparseVector) v;
+            int p1 = 0, p2 = 0;
+            while (p1 < used && p2 < b.used) {
+                int a1 = indexes[p1], a2 = b.indexes[p2];
+                if (a1 == a2)
+                    dot += values[p1++] * (double) b.values[p2++];
+                else if (a1 > a2)
+                    p2++;
+                else
+                    p1++;
+            }
+        } else if (v instanceof SparseVector) {
+            SparseVector b = (SparseVector) v;
+            int p1 = 0, p2 = 0;
+            while (p1 < used && p2 < b.used) {
+                int a1 = indexes[p1], a2 = b.indexes[p2];
+                if (a1 == a2)
+                    dot += values[p1++] * b.values[p2++];
+                else if (a1 > a2)
+                    p2++;
+                else
+                    p1++;
+            }
+        } else if (v.isSparse())
+            return super.dot(v);
+        else if (v instanceof FloatDenseVector) {
+            FloatDenseVector b = (FloatDenseVector) v;
+            for (int i = 0; i < used; i++)
+                dot += values[i] * b.get(indexes[i]);
+        } else// it is dense
+            for (int i = 0; i < used; i++)
+                dot += values[i] * v.get(indexes[i]);
+
+        return dot;
+    }
+
+    @Override
+    public void mutableAdd(double c) {
+        if (c == 0.0)
+            return;
+        //adding a constant to every value defeats the purpose of a sparse vector
+        for (int i = 0; i < length(); i++)
+            this.set(i, get(i) + c);
+    }
+
+    @Override
+    public void mutableAdd(double c, Vec v) {
+        if (length() != v.length())
+            throw new ArithmeticException("Vectors must have the same length, not " + length() + " and " + v.length());
+        if (c == 0.0)
+            return;
+        if (!v.isSparse()) {
+            for (int i = 0; i < length(); i++)
+                this.set(i, this.get(i) + c * v.get(i));
+            return;
+        }
+
+        //merge the two sets of non zeros into new arrays
+        int[] newIndexes = new int[used + v.nnz()];
+        float[] newValues = new float[newIndexes.length];
+        int pos = 0;
+        int p1 = 0;
+        for (IndexValue iv : v) {
+            int a2 = iv.getIndex();
+            while (p1 < used && indexes[p1] < a2) {
+                newIndexes[pos] = indexes[p1];
+                newValues[pos++] = values[p1++];
+            }
+            float val = (float) (c * iv.getValue());
+            if (p1 < used && indexes[p1] == a2)
+                val = (float) (values[p1++] + c * iv.getValue());
+            if (val != 0) {
+                newIndexes[pos] = a2;
+                newValues[pos++] = val;
+            }
+        }
+        while (p1 < used) {
+            newIndexes[pos] = indexes[p1];
+            newValues[pos++] = values[p1++];
+        }
+
+        indexes = newIndexes;
+        values = newValues;
+        used = pos;
+    }
+
+    @Override
+    public void mutableMultiply(double c) {
+        if (c == 0.0) {
+            zeroOut();
+            return;
+        }
+        for (int i = 0; i < used; i++)
+            values[i] *= c;
+    }
+
+    @Override
+    public void mutableDivide(double c) {
+        if (c == 0 && used != length)
+            throw new ArithmeticException("Division by zero would occur");
+        for (int i = 0; i < used; i++)
+            values[i] /= c;
+    }
+
+    @Override
+    public void mutablePairwiseMultiply(Vec b) {
+        if (this.length() != b.length())
+            throw new ArithmeticException("Vectors must have the same length");
+        for (int i = 0; i < used; i++)
+            values[i] *= b.get(indexes[i]);//zeros stay zero
+    }
+
+    @Override
+    public void mutablePairwiseDivide(Vec b) {
+        if (this.length() != b.length())
+            throw new ArithmeticException("Vectors must have the same length");
+        for (int i = 0; i < used; i++)
+            values[i] /= b.get(indexes[i]);//zeros stay zero
+    }
+
+    @Override
+    public double pNormDist(double p, Vec y) {
+        if (this.length() != y.length())
+            throw new ArithmeticException("Vectors must be of the same length");
+
+        if (y instanceof FloatSparseVector) {
+            FloatSparseVector b = (FloatSparseVector) y;
+            double norm = 0;
+            int p1 = 0, p2 = 0;
+            while (p1 < this.used && p2 < b.used) {
+                int a1 = indexes[p1], a2 = b.indexes[p2];
+                if (a1 == a2)
+                    norm += pow(abs(this.values[p1++] - (double) b.values[p2++]), p);
+                else if (a1 > a2)
+                    norm += pow(abs(b.values[p2++]), p);
+                else
+                    norm += pow(abs(this.values[p1++]), p);
+            }
+            while (p1 < this.used)
+                norm += pow(abs(this.values[p1++]), p);
+            while (p2 < b.used)
+                norm += pow(abs(b.values[p2++]), p);
+            return pow(norm, 1.0 / p);
+        } else if (!y.isSparse()) {
+            double norm = 0;
+            int z = 0;
+            for (int i = 0; i < length; i++)
+                if (z < used && indexes[z] == i)
+                    norm += pow(abs(values[z++] - y.get(i)), p);
+                else
+                    norm += pow(abs(y.get(i)), p);
+            return pow(norm, 1.0 / p);
+        }
+        return super.pNormDist(p, y);
+    }
+
+    @Override
+    public double pNorm(double p) {
+        if (p <= 0)
+            throw new IllegalArgumentException("norm must be a positive value, not " + p);
+        double result = 0;
+        if (p == 1) {
+            for (int i = 0; i < used; i++)
+                result += abs(values[i]);
+        } else if (p == 2) {
+            for (int i = 0; i < used; i++)
+                result += values[i] * (double) values[i];
+            result = Math.sqrt(result);
+        } else if (Double.isInfinite(p)) {
+            for (int i = 0; i < used; i++)
+                result = Math.max(result, abs(values[i]));
+        } else {
+            for (int i = 0; i < used; i++)
+                result += pow(abs(values[i]), p);
+            result = pow(result, 1 / p);
+        }
+        return result;
+    }
+
+    @Override
+    public void normalize() {
+        mutableDivide(Math.max(pNorm(2), 1e-10));
+    }
+
+    @Override
+    public FloatSparseVector clone() {
+        FloatSparseVector copy = new FloatSparseVector(length, Math.max(used, 10));
+        System.arraycopy(this.values, 0, copy.values, 0, this.used);
+        System.arraycopy(this.indexes, 0, copy.indexes, 0, this.used);
+        copy.used = this.used;
+        return copy;
+    }
+
+    @Override
+    public double[] arrayCopy() {
+        double[] array = new double[length()];
+        for (int i = 0; i < used; i++)
+            array[indexes[i]] = values[i];
+        return array;
+    }
+
+    @Override
+    public void zeroOut() {
+        this.used = 0;
+    }
+
+    @Override
+    public Iterator<IndexValue> getNonZeroIterator(final int start) {
+        if (used <= 0)
+            return Collections.emptyIterator();
+        int tmpIndx = Arrays.binarySearch(indexes, 0, used, start);
+        final int startPos = tmpIndx >= 0 ? tmpIndx : -(tmpIndx) - 1;
+        return new Iterator<IndexValue>() {
+            int curUsedPos = startPos;
+            IndexValue indexValue = new IndexValue(-1, Double.NaN);
+
+            @Override
+            public boolean hasNext() {
+                return curUsedPos < used;
+            }
+
+            @Override
+            public IndexValue next() {
+                indexValue.setIndex(indexes[curUsedPos]);
+                indexValue.setValue(values[curUsedPos++]);
+                return indexValue;
+            }
+        };
+    }
+
+    @Override
+    public boolean isSparse() {
+        return true;
+    }
+
+    private void readObject(ObjectInputStream in) throws ClassNotFoundException, IOException {
+        this.length = in.readInt();
+        this.used = in.readInt();
+        this.indexes = new int[this.used];
+        this.values = new float[this.used];
+        for (int i = 0; i < this.used; i++) {
+            indexes[i] = in.readInt();
+            values[i] = in.readFloat();
+        }
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.writeInt(length);
+        out.writeInt(used);
+        for (int i = 0; i < used; i++) {
+            out.writeInt(indexes[i]);
+            out.writeFloat(values[i]);
+        }
+    }
+}
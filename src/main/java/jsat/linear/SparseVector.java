@@ -446,7 +446,9 @@ public class SparseVector extends Vec {
                 else
                     p1++;
             }
-        } else if (v.isSparse())
+        } else if (v instanceof FloatSparseVector)
+            return v.dot(this);
+        else if (v.isSparse())
             return super.dot(v);
         else// it is dense
             for (int i = 0; i < used; i++)
@@ -5,6 +5,10 @@ import static java.lang.Math.min;
 import static java.lang.Math.nextUp;
 
 import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+
+import jsat.utils.random.RandomUtil;
 
 /**
  * Computes the Truncated version of the Singular Value Decomposition (SVD).
@@ -15,7 +19,18 @@ import java.util.Arrays;
  * SVD using {@link SingularValueDecomposition}, as only the top-<i>k</i>
  * singular values and associated data will be computed. This implementation
  * also
- * supports sparse inputs.
+ * supports sparse inputs. <br>
+ * <br>
+ * The {@link #TruncatedSVD(jsat.linear.Matrix, int, int, int, java.util.concurrent.ExecutorService) randomized}
+ * constructor uses the randomized range finder of Halko, Martinsson &amp;
+ * Tropp instead of {@link Lanczos}. It touches the data only
+ * 2 + 2 &times; <i>powerIterations</i> times, and each of those passes is a
+ * single matrix product with a thin matrix, which is done in parallel. This
+ * makes it much faster for large matrices, where the Lanczos method would need
+ * many sequential matrix-vector products. See:<br>
+ * Halko, N., Martinsson, P. G., &amp; Tropp, J. A. (2011). <i>Finding
+ * Structure with Randomness: Probabilistic Algorithms for Constructing
+ * Approximate Matrix Decompositions</i>. SIAM Review, 53(2), 217–288.
  *
  * @author Edward Raff
  */
@@ -72,6 +87,146 @@ public class TruncatedSVD {
 
     }
 
+    /**
+     * Creates a new randomized SVD of the matrix {@code A} such that A &asymp;
+     * U &Sigma; V<sup>T</sup>. The matrix {@code A} will not be modified.
+     *
+     * @param A               the matrix to create the SVD of
+     * @param k               the number of singular values to compute
+     * @param oversampling    the number of extra random directions to sample
+     *                        beyond <i>k</i>, which improves the accuracy. 10
+     *                        is a good default.
+     * @param powerIterations the number of power iterations to perform. Each
+     *                        one makes two more passes over {@code A}, but
+     *                        improves the accuracy when the singular values
+     *                        decay slowly. 2 is a good default.
+     * @param threadPool      the source of threads for the matrix products
+     */
+    public TruncatedSVD(Matrix A, int k, int oversampling, int powerIterations, ExecutorService threadPool) {
+        this(A, k, oversampling, powerIterations, RandomUtil.getRandom(), threadPool);
+    }
+
+    /**
+     * Creates a new randomized SVD of the matrix {@code A} such that A &asymp;
+     * U &Sigma; V<sup>T</sup>. The matrix {@code A} will not be modified.
+     *
+     * @param A               the matrix to create the SVD of
+     * @param k               the number of singular values to compute
+     * @param oversampling    the number of extra random directions to sample
+     *                        beyond <i>k</i>, which improves the accuracy. 10
+     *                        is a good default.
+     * @param powerIterations the number of power iterations to perform. Each
+     *                        one makes two more passes over {@code A}, but
+     *                        improves the accuracy when the singular values
+     *                        decay slowly. 2 is a good default.
+     * @param rand            the source of randomness for the random
+     *                        projection
+     * @param threadPool      the source of threads for the matrix products
+     */
+    public TruncatedSVD(Matrix A, int k, int oversampling, int powerIterations, Random rand, ExecutorService threadPool) {
+        final int m = A.rows(), n = A.cols();
+        if (k <= 0 || k > min(m, n))
+            throw new IllegalArgumentException("k must be in the range [1, " + min(m, n) + "], not " + k);
+        if (oversampling < 0)
+            throw new IllegalArgumentException("oversampling must be non-negative, not " + oversampling);
+        if (powerIterations < 0)
+            throw new IllegalArgumentException("powerIterations must be non-negative, not " + powerIterations);
+        final int l = min(k + oversampling, min(m, n));
+
+        //Y = A Omega samples the range of A
+        Matrix Omega = new DenseMatrix(n, l);
+        for (int i = 0; i < n; i++)
+            for (int j = 0; j < l; j++)
+                Omega.set(i, j, rand.nextGaussian());
+        Matrix Y = new DenseMatrix(m, l);
+        A.multiply(Omega, Y, threadPool);
+        Matrix Q = orthonormalize(Y, threadPool);
+
+        for (int iter = 0; iter < powerIterations; iter++) {
+            Matrix Z = new DenseMatrix(n, Q.cols());
+            A.transposeMultiply(Q, Z, threadPool);
+            Z = orthonormalize(Z, threadPool);
+            Y = new DenseMatrix(m, Z.cols());
+            A.multiply(Z, Y, threadPool);
+            Q = orthonormalize(Y, threadPool);
+        }
+
+        /*
+         * A ~= Q Q^T A = Q B. We have the small SVD B^T = A^T Q = W S Z^T, so
+         * A ~= (Q Z) S W^T
+         */
+        Matrix Bt = new DenseMatrix(n, Q.cols());
+        A.transposeMultiply(Q, Bt, threadPool);
+        SingularValueDecomposition smallSVD = new SingularValueDecomposition(Bt);
+        Matrix W = smallSVD.getU();
+        Matrix Z = smallSVD.getV();
+        double[] smallS = smallSVD.getSingularValues();
+        //if A has a rank less than k, the extra singular values are zero
+        final int r = min(k, min(smallS.length, Q.cols()));
+
+        s = new double[k];
+        System.arraycopy(smallS, 0, s, 0, r);
+        Matrix Zk = new DenseMatrix(Q.cols(), k);
+        V = new DenseMatrix(k, n);
+        for (int j = 0; j < r; j++) {
+            for (int i = 0; i < Zk.rows(); i++)
+                Zk.set(i, j, Z.get(i, j));
+            for (int i = 0; i < n; i++)
+                V.set(j, i, W.get(i, j));
+        }
+        U = new DenseMatrix(m, k);
+        Q.multiply(Zk, U, threadPool);
+    }
+
+    /**
+     * Returns a matrix with orthonormal columns that span the same space as
+     * the columns of {@code Y}. This uses the eigendecomposition of the small
+     * Gram matrix Y<sup>T</sup>Y, so that the only work done on the tall matrix
+     * is two parallel matrix products. It is done twice, as the second pass
+     * corrects the loss of orthogonality from squaring the condition number in
+     * the first.
+     *
+     * @param Y          the tall matrix to orthonormalize
+     * @param threadPool the source of threads
+     * @return a matrix with orthonormal columns, which may have fewer columns
+     * than {@code Y} if it was rank deficient
+     */
+    private static Matrix orthonormalize(Matrix Y, ExecutorService threadPool) {
+        for (int pass = 0; pass < 2; pass++) {
+            final int l = Y.cols();
+            Matrix G = new DenseMatrix(l, l);
+            Y.transposeMultiply(Y, G, threadPool);
+            //force exact symmetry so the symmetric eigen solver is used
+            for (int i = 0; i < l; i++)
+                for (int j = 0; j < i; j++) {
+                    double avg = (G.get(i, j) + G.get(j, i)) / 2;
+                    G.set(i, j, avg);
+                    G.set(j, i, avg);
+                }
+            EigenValueDecomposition evd = new EigenValueDecomposition(G);
+            evd.sortByEigenValue((a, b) -> Double.compare(b, a));
+            double[] d = evd.getRealEigenvalues();
+            Matrix E = evd.getVRaw();
+
+            //directions with (relatively) no energy are dropped
+            int rank = 0;
+            while (rank < l && d[rank] > max(d[0], 0.0) * 1e-13)
+                rank++;
+            rank = max(rank, 1);
+
+            Matrix scaledE = new DenseMatrix(l, rank);
+            for (int j = 0; j < rank; j++) {
+                double scale = d[j] > 0 ? 1 / Math.sqrt(d[j]) : 0.0;
+                for (int i = 0; i < l; i++)
+                    scaledE.set(i, j, E.get(i, j) * scale);
+            }
+            Matrix Q = new DenseMatrix(Y.rows(), rank);
+            Y.multiply(scaledE, Q, threadPool);
+            Y = Q;
+        }
+        return Y;
+    }
+
     private int sLength() {
         return min(U.rows(), V.rows());
     }
@@ -87,10 +87,15 @@ public class CosineDistance implements DistanceMetric {
 
     @Override
     public double dist(int a, int b, List<? extends Vec> vecs, List<Double> cache) {
+        return dist(a, b, vecs, DoubleList.asDoubleList(cache));
+    }
+
+    @Override
+    public double dist(int a, int b, List<? extends Vec> vecs, DoubleList cache) {
         if (cache == null)
             return dist(vecs.get(a), vecs.get(b));
 
-        double denom = cache.get(a) * cache.get(b);
+        double denom = cache.getD(a) * cache.getD(b);
         if (denom == 0)
             return cosineToDistance(-1);
         return cosineToDistance(Math.min(vecs.get(a).dot(vecs.get(b)) / denom, 1));
@@ -98,10 +103,15 @@ public class CosineDistance implements DistanceMetric {
 
     @Override
     public double dist(int a, Vec b, List<? extends Vec> vecs, List<Double> cache) {
+        return dist(a, b, vecs, DoubleList.asDoubleList(cache));
+    }
+
+    @Override
+    public double dist(int a, Vec b, List<? extends Vec> vecs, DoubleList cache) {
         if (cache == null)
             return dist(vecs.get(a), b);
 
-        double denom = cache.get(a) * b.pNorm(2);
+        double denom = cache.getD(a) * b.pNorm(2);
         if (denom == 0)
             return cosineToDistance(-1);
         return cosineToDistance(Math.min(vecs.get(a).dot(b) / denom, 1));
@@ -116,10 +126,15 @@ public class CosineDistance implements DistanceMetric {
 
     @Override
     public double dist(int a, Vec b, List<Double> qi, List<? extends Vec> vecs, List<Double> cache) {
+        return dist(a, b, DoubleList.asDoubleList(qi), vecs, DoubleList.asDoubleList(cache));
+    }
+
+    @Override
+    public double dist(int a, Vec b, DoubleList qi, List<? extends Vec> vecs, DoubleList cache) {
         if (cache == null)
             return dist(vecs.get(a), b);
 
-        double denom = cache.get(a) * qi.get(0);
+        double denom = cache.getD(a) * qi.getD(0);
         if (denom == 0)
             return cosineToDistance(-1);
         return cosineToDistance(Math.min(vecs.get(a).dot(b) / denom, 1));
@@ -4,6 +4,7 @@ import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
 
 import jsat.linear.Vec;
+import jsat.utils.DoubleList;
 
 /**
  * This class exists primarily as a sanity/benchmarking utility. It takes a
@@ -95,12 +96,24 @@ public class DistanceCounter implements DistanceMetric {
         return base.dist(a, b, vecs, cache);
     }
 
+    @Override
+    public double dist(int a, int b, List<? extends Vec> vecs, DoubleList cache) {
+        counter.incrementAndGet();
+        return base.dist(a, b, vecs, cache);
+    }
+
     @Override
     public double dist(int a, Vec b, List<? extends Vec> vecs, List<Double> cache) {
         counter.incrementAndGet();
         return base.dist(a, b, vecs, cache);
     }
 
+    @Override
+    public double dist(int a, Vec b, List<? extends Vec> vecs, DoubleList cache) {
+        counter.incrementAndGet();
+        return base.dist(a, b, vecs, cache);
+    }
+
     @Override
     public List<Double> getQueryInfo(Vec q) {
         return base.getQueryInfo(q);
@@ -112,6 +125,12 @@ public class DistanceCounter implements DistanceMetric {
         return base.dist(a, b, qi, vecs, cache);
     }
 
+    @Override
+    public double dist(int a, Vec b, DoubleList qi, List<? extends Vec> vecs, DoubleList cache) {
+        counter.incrementAndGet();
+        return base.dist(a, b, qi, vecs, cache);
+    }
+
     @Override
     public DistanceCounter clone() {
         return new DistanceCounter(this);
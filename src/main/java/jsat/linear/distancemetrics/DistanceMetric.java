@@ -4,6 +4,7 @@ import java.io.Serializable;
 import java.util.List;
 
 import jsat.linear.Vec;
+import jsat.utils.DoubleList;
 
 /**
  * A distance metric defines the distance between two points in a metric space.
@@ -31,6 +32,15 @@ import jsat.linear.Vec;
  * {@link #getQueryInfo(jsat.linear.Vec) }<br>
  * Using this set up, no branching or special case code is necessary to
  * automatically use the acceleration capabilities of supported distance metrics.
+ * <br><br>
+ * Each of the cache accelerated methods also has an overload that takes the
+ * cache as a {@link DoubleList}, which stores the values in a primitive array
+ * so that the built in metrics can read them without unboxing. The cache can
+ * be obtained in this form with
+ * {@link #getPrimitiveAccelerationCache(java.util.List) } and
+ * {@link #getPrimitiveQueryInfo(jsat.linear.Vec) }. The built in metrics
+ * implement the {@code List<Double>} versions by calling the {@link DoubleList}
+ * ones, so a cache that is some other kind of list will be copied on each call.
  *
  * @author Edward Raff
  */
@@ -138,6 +148,35 @@ public interface DistanceMetric extends Cloneable, Serializable {
         return null;
     }
 
+    /**
+     * Returns the same cache as {@link #getAccelerationCache(java.util.List) },
+     * as a {@link DoubleList} so that it can be used with the overloads that
+     * avoid unboxing the cache values.
+     *
+     * @param vecs the list of vectors to build an acceleration cache for
+     * @return the list of double for the cache, or {@code null} if this metric
+     * does not support acceleration
+     */
+    default public DoubleList getPrimitiveAccelerationCache(List<? extends Vec> vecs) {
+        return DoubleList.asDoubleList(getAccelerationCache(vecs));
+    }
+
+    /**
+     * Returns the same cache as
+     * {@link #getAccelerationCache(java.util.List, boolean) }, as a
+     * {@link DoubleList} so that it can be used with the overloads that avoid
+     * unboxing the cache values.
+     *
+     * @param vecs     the list of vectors to build an acceleration cache for
+     * @param parallel {@code true} if multiple threads should be used to
+     *                 build the cache
+     * @return the list of double for the cache, or {@code null} if this metric
+     * does not support acceleration
+     */
+    default public DoubleList getPrimitiveAccelerationCache(List<? extends Vec> vecs, boolean parallel) {
+        return DoubleList.asDoubleList(getAccelerationCache(vecs, parallel));
+    }
+
     /**
      * Computes the distance between 2 vectors in the original list of vectors.
      * <br> If the cache input is {@code null}, then
@@ -153,6 +192,23 @@ public interface DistanceMetric extends Cloneable, Serializable {
         return dist(vecs.get(a), vecs.get(b));
     }
 
+    /**
+     * Computes the distance between 2 vectors in the original list of vectors.
+     * This behaves exactly as {@link #dist(int, int, java.util.List,
+     * java.util.List) }, but allows implementations to read the cache without
+     * unboxing its values. By default the {@code List<Double>} version is
+     * called.
+     *
+     * @param a     the index of the first vector
+     * @param b     the index of the second vector
+     * @param vecs  the list of vectors used to build the cache
+     * @param cache the cache associated with the given list of vectors
+     * @return the distance between the two vectors
+     */
+    default public double dist(int a, int b, List<? extends Vec> vecs, DoubleList cache) {
+        return dist(a, b, vecs, (List<Double>) cache);
+    }
+
     /**
      * Computes the distance between 2 vectors from two different lists of
      * vectors.<br> If the cache input is {@code null}, then
@@ -192,6 +248,24 @@ public interface DistanceMetric extends Cloneable, Serializable {
         return dist(a, b, getQueryInfo(b), vecs, cache);
     }
 
+    /**
+     * Computes the distance between one vector in the original list of vectors
+     * with that of another vector not from the original list. This behaves
+     * exactly as {@link #dist(int, jsat.linear.Vec, java.util.List,
+     * java.util.List) }, but allows implementations to read the cache without
+     * unboxing its values. By default the {@code List<Double>} version is
+     * called.
+     *
+     * @param a     the index of the vector in the cache
+     * @param b     the other vector
+     * @param vecs  the list of vectors used to build the cache
+     * @param cache the cache associated with the given list of vectors
+     * @return the distance between the two vectors
+     */
+    default public double dist(int a, Vec b, List<? extends Vec> vecs, DoubleList cache) {
+        return dist(a, b, vecs, (List<Double>) cache);
+    }
+
     /**
      * Pre computes query information that would have be generated if the query
      * was a member of the original list of vectors when calling
@@ -209,6 +283,18 @@ public interface DistanceMetric extends Cloneable, Serializable {
         return null;
     }
 
+    /**
+     * Returns the same query information as
+     * {@link #getQueryInfo(jsat.linear.Vec) }, as a {@link DoubleList} so that
+     * it can be used with the overloads that avoid unboxing the values.
+     *
+     * @param q the query point to generate cache information for
+     * @return the cache information for the query point
+     */
+    default public DoubleList getPrimitiveQueryInfo(Vec q) {
+        return DoubleList.asDoubleList(getQueryInfo(q));
+    }
+
     /**
      * Computes the distance between one vector in the original list of vectors
      * with that of another vector not from the original list, but had
@@ -227,6 +313,26 @@ public interface DistanceMetric extends Cloneable, Serializable {
         return dist(vecs.get(a), b);
     }
 
+    /**
+     * Computes the distance between one vector in the original list of vectors
+     * with that of another vector not from the original list, but had
+     * information generated by {@link #getQueryInfo(jsat.linear.Vec) }. This
+     * behaves exactly as {@link #dist(int, jsat.linear.Vec, java.util.List,
+     * java.util.List, java.util.List) }, but allows implementations to read
+     * the cache and query information without unboxing their values. By
+     * default the {@code List<Double>} version is called.
+     *
+     * @param a     the index of the vector in the cache
+     * @param b     the other vector
+     * @param qi    the query information about b
+     * @param vecs  the list of vectors used to build the cache
+     * @param cache the cache associated with the given list of vectors
+     * @return the distance between the two vectors
+     */
+    default public double dist(int a, Vec b, DoubleList qi, List<? extends Vec> vecs, DoubleList cache) {
+        return dist(a, b, (List<Double>) qi, vecs, (List<Double>) cache);
+    }
+
     /**
      * Returns a descriptive name of the Distance Metric in use
      *
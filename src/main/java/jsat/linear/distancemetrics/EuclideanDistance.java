@@ -99,18 +99,28 @@ public class EuclideanDistance implements DenseSparseMetric {
 
     @Override
     public double dist(int a, int b, List<? extends Vec> vecs, List<Double> cache) {
+        return dist(a, b, vecs, DoubleList.asDoubleList(cache));
+    }
+
+    @Override
+    public double dist(int a, int b, List<? extends Vec> vecs, DoubleList cache) {
         if (cache == null)
             return dist(vecs.get(a), vecs.get(b));
 
-        return Math.sqrt(Math.max(cache.get(a) + cache.get(b) - 2 * vecs.get(a).dot(vecs.get(b)), 0));//Max incase of numerical issues
+        return Math.sqrt(Math.max(cache.getD(a) + cache.getD(b) - 2 * vecs.get(a).dot(vecs.get(b)), 0));//Max incase of numerical issues
     }
 
     @Override
     public double dist(int a, Vec b, List<? extends Vec> vecs, List<Double> cache) {
+        return dist(a, b, vecs, DoubleList.asDoubleList(cache));
+    }
+
+    @Override
+    public double dist(int a, Vec b, List<? extends Vec> vecs, DoubleList cache) {
         if (cache == null)
             return dist(vecs.get(a), b);
 
-        return Math.sqrt(Math.max(cache.get(a) + b.dot(b) - 2 * vecs.get(a).dot(b), 0));//Max incase of numerical issues
+        return Math.sqrt(Math.max(cache.getD(a) + b.dot(b) - 2 * vecs.get(a).dot(b), 0));//Max incase of numerical issues
     }
 
     @Override
@@ -122,10 +132,15 @@ public class EuclideanDistance implements DenseSparseMetric {
 
     @Override
     public double dist(int a, Vec b, List<Double> qi, List<? extends Vec> vecs, List<Double> cache) {
+        return dist(a, b, DoubleList.asDoubleList(qi), vecs, DoubleList.asDoubleList(cache));
+    }
+
+    @Override
+    public double dist(int a, Vec b, DoubleList qi, List<? extends Vec> vecs, DoubleList cache) {
         if (cache == null)
             return dist(vecs.get(a), b);
 
-        return Math.sqrt(Math.max(cache.get(a) + qi.get(0) - 2 * vecs.get(a).dot(b), 0));//Max incase of numerical issues
+        return Math.sqrt(Math.max(cache.getD(a) + qi.getD(0) - 2 * vecs.get(a).dot(b), 0));//Max incase of numerical issues
     }
 
 }
@@ -5,6 +5,7 @@ import java.util.List;
 import jsat.distributions.kernels.KernelTrick;
 import jsat.linear.IndexValue;
 import jsat.linear.Vec;
+import jsat.utils.DoubleList;
 import static java.lang.Math.*;
 
 /**
@@ -75,6 +76,11 @@ public class JaccardDistance implements DistanceMetric, KernelTrick {
         return null;
     }
 
+    @Override
+    public DoubleList getPrimitiveQueryInfo(Vec q) {
+        return null;
+    }
+
     @Override
     public double eval(Vec a, Vec b) {
 
@@ -177,4 +183,9 @@ public class JaccardDistance implements DistanceMetric, KernelTrick {
     public List<Double> getAccelerationCache(List<? extends Vec> trainingSet) {
         return null;
     }
+
+    @Override
+    public DoubleList getPrimitiveAccelerationCache(List<? extends Vec> trainingSet) {
+        return null;
+    }
 }
@@ -2,6 +2,8 @@ package jsat.linear.distancemetrics;
 
 import java.util.List;
 
+import jsat.linear.DenseKernels;
+import jsat.linear.DenseVector;
 import jsat.linear.SparseVector;
 import jsat.linear.Vec;
 import jsat.utils.DoubleList;
@@ -26,6 +28,8 @@ public class SquaredEuclideanDistance implements DistanceMetric {
         if (a instanceof SparseVector && b instanceof SparseVector) {
             //Just square the pNorm for now... not easy code to write, and the sparceness is more important
             return Math.pow(a.pNormDist(2, b), 2);
+        } else if (a instanceof DenseVector && b instanceof DenseVector) {
+            return DenseKernels.sqrdDist((DenseVector) a, (DenseVector) b);
         } else {
             double tmp;
             for (int i = 0; i < a.length(); i++) {
@@ -88,18 +92,28 @@ public class SquaredEuclideanDistance implements DistanceMetric {
 
     @Override
     public double dist(int a, int b, List<? extends Vec> vecs, List<Double> cache) {
+        return dist(a, b, vecs, DoubleList.asDoubleList(cache));
+    }
+
+    @Override
+    public double dist(int a, int b, List<? extends Vec> vecs, DoubleList cache) {
         if (cache == null)
             return dist(vecs.get(a), vecs.get(b));
 
-        return (cache.get(a) + cache.get(b) - 2 * vecs.get(a).dot(vecs.get(b)));
+        return (cache.getD(a) + cache.getD(b) - 2 * vecs.get(a).dot(vecs.get(b)));
     }
 
     @Override
     public double dist(int a, Vec b, List<? extends Vec> vecs, List<Double> cache) {
+        return dist(a, b, vecs, DoubleList.asDoubleList(cache));
+    }
+
+    @Override
+    public double dist(int a, Vec b, List<? extends Vec> vecs, DoubleList cache) {
         if (cache == null)
             return dist(vecs.get(a), b);
 
-        return (cache.get(a) + b.dot(b) - 2 * vecs.get(a).dot(b));
+        return (cache.getD(a) + b.dot(b) - 2 * vecs.get(a).dot(b));
     }
 
     @Override
@@ -111,9 +125,14 @@ public class SquaredEuclideanDistance implements DistanceMetric {
 
     @Override
     public double dist(int a, Vec b, List<Double> qi, List<? extends Vec> vecs, List<Double> cache) {
+        return dist(a, b, DoubleList.asDoubleList(qi), vecs, DoubleList.asDoubleList(cache));
+    }
+
+    @Override
+    public double dist(int a, Vec b, DoubleList qi, List<? extends Vec> vecs, DoubleList cache) {
         if (cache == null)
             return dist(vecs.get(a), b);
 
-        return (cache.get(a) + qi.get(0) - 2 * vecs.get(a).dot(b));
+        return (cache.getD(a) + qi.getD(0) - 2 * vecs.get(a).dot(b));
     }
 }
@@ -112,16 +112,26 @@ public class WeightedEuclideanDistance implements DistanceMetric {
 
     @Override
     public double dist(int a, int b, List<? extends Vec> vecs, List<Double> cache) {
+        return dist(a, b, vecs, DoubleList.asDoubleList(cache));
+    }
+
+    @Override
+    public double dist(int a, int b, List<? extends Vec> vecs, DoubleList cache) {
         if (cache == null) return dist(vecs.get(a), vecs.get(b));
 
-        return Math.sqrt(cache.get(a) + cache.get(b) - 2 * VecOps.weightedDot(w, vecs.get(a), vecs.get(b)));
+        return Math.sqrt(cache.getD(a) + cache.getD(b) - 2 * VecOps.weightedDot(w, vecs.get(a), vecs.get(b)));
     }
 
     @Override
     public double dist(int a, Vec b, List<? extends Vec> vecs, List<Double> cache) {
+        return dist(a, b, vecs, DoubleList.asDoubleList(cache));
+    }
+
+    @Override
+    public double dist(int a, Vec b, List<? extends Vec> vecs, DoubleList cache) {
         if (cache == null) return dist(vecs.get(a), b);
 
-        return Math.sqrt(cache.get(a) + VecOps.weightedDot(w, b, b) - 2 * VecOps.weightedDot(w, vecs.get(a), b));
+        return Math.sqrt(cache.getD(a) + VecOps.weightedDot(w, b, b) - 2 * VecOps.weightedDot(w, vecs.get(a), b));
     }
 
     @Override
@@ -133,9 +143,14 @@ public class WeightedEuclideanDistance implements DistanceMetric {
 
     @Override
     public double dist(int a, Vec b, List<Double> qi, List<? extends Vec> vecs, List<Double> cache) {
+        return dist(a, b, DoubleList.asDoubleList(qi), vecs, DoubleList.asDoubleList(cache));
+    }
+
+    @Override
+    public double dist(int a, Vec b, DoubleList qi, List<? extends Vec> vecs, DoubleList cache) {
         if (cache == null) return dist(vecs.get(a), b);
 
-        return Math.sqrt(cache.get(a) + qi.get(0) - 2 * VecOps.weightedDot(w, vecs.get(a), b));
+        return Math.sqrt(cache.getD(a) + qi.getD(0) - 2 * VecOps.weightedDot(w, vecs.get(a), b));
     }
 
 }
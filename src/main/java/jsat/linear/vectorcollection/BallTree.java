@@ -22,7 +22,6 @@ import jsat.linear.IndexValue;
 import jsat.linear.Vec;
 import jsat.linear.distancemetrics.DistanceMetric;
 import jsat.linear.distancemetrics.EuclideanDistance;
-import jsat.utils.BoundedSortedList;
 import jsat.utils.DoubleList;
 import jsat.utils.IndexTable;
 import jsat.utils.IntList;
@@ -65,7 +64,7 @@ public class BallTree<V extends Vec> implements IncrementalCollection<V>, DualTr
     private int leaf_size = DEFAULT_LEAF_SIZE;
     private DistanceMetric dm;
     private List<V> allVecs;
-    private List<Double> cache;
+    private DoubleList cache;
     private ConstructionMethod construction_method;
     private PivotSelection pivot_method;
     private Node root;
@@ -533,7 +532,7 @@ public class BallTree<V extends Vec> implements IncrementalCollection<V>, DualTr
                 } else//we need to compute the pivot
                     pivot_candidate = pivot_method.getPivot(parallel, owned_nkz, allVecs, dm, cache);
 
-                List<Double> pivor_candidate_qi = dm.getQueryInfo(pivot_candidate);
+                DoubleList pivor_candidate_qi = dm.getPrimitiveQueryInfo(pivot_candidate);
                 //what would the radius be?
                 double radius_kz = 0;
                 for (int i : owned_nkz)
@@ -563,7 +562,7 @@ public class BallTree<V extends Vec> implements IncrementalCollection<V>, DualTr
             }
             Branch merged = toReturn = new Branch();
             merged.pivot = pivotCache.get(toMerge);
-            merged.pivot_qi = dm.getQueryInfo(merged.pivot);
+            merged.pivot_qi = dm.getPrimitiveQueryInfo(merged.pivot);
             merged.radius = mergeCost.get(toMerge);
             merged.left_child = anchor_nodes.get(winningQ);
             merged.right_child = anchor_nodes.get(other);
@@ -612,7 +611,7 @@ public class BallTree<V extends Vec> implements IncrementalCollection<V>, DualTr
                 } else//we need to compute the pivot
                     pivot_candidate = pivot_method.getPivot(parallel, owned_nkz, allVecs, dm, cache);
 
-                List<Double> pivor_candidate_qi = dm.getQueryInfo(pivot_candidate);
+                DoubleList pivor_candidate_qi = dm.getPrimitiveQueryInfo(pivot_candidate);
                 //what would the radius be?
                 double radius_kz = 0;
                 for (int i : owned_nkz)
@@ -662,7 +661,7 @@ public class BallTree<V extends Vec> implements IncrementalCollection<V>, DualTr
     public void build(boolean parallel, List<V> collection, DistanceMetric dm) {
         this.allVecs = new ArrayList<>(collection);
         setDistanceMetric(dm);
-        this.cache = dm.getAccelerationCache(allVecs, parallel);
+        this.cache = dm.getPrimitiveAccelerationCache(allVecs, parallel);
         this.root = build(IntList.range(collection.size()), parallel);
     }
 
@@ -672,11 +671,11 @@ public class BallTree<V extends Vec> implements IncrementalCollection<V>, DualTr
         if (root == null) {
             allVecs = new ArrayList<>();
             allVecs.add(x);
-            cache = dm.getAccelerationCache(allVecs);
+            cache = dm.getPrimitiveAccelerationCache(allVecs);
 
             root = new Leaf(IntList.range(1));
             root.pivot = x.clone();
-            root.pivot_qi = dm.getQueryInfo(x);
+            root.pivot_qi = dm.getPrimitiveQueryInfo(x);
             root.radius = 0;
 
             return;
@@ -737,7 +736,7 @@ public class BallTree<V extends Vec> implements IncrementalCollection<V>, DualTr
     public void search(Vec query, double range, List<Integer> neighbors, List<Double> distances) {
         neighbors.clear();
         distances.clear();
-        root.search(query, dm.getQueryInfo(query), range, neighbors, distances);
+        root.search(query, dm.getPrimitiveQueryInfo(query), range, neighbors, distances);
 
         IndexTable it = new IndexTable(distances);
         it.apply(distances);
@@ -746,15 +745,15 @@ public class BallTree<V extends Vec> implements IncrementalCollection<V>, DualTr
 
     @Override
     public void search(Vec query, int numNeighbors, List<Integer> neighbors, List<Double> distances) {
-        neighbors.clear();
-        distances.clear();
+        BoundedIndexDistList knn = new BoundedIndexDistList(numNeighbors);
+        search(query, numNeighbors, knn);
+        knn.copyTo(neighbors, distances);
+    }
 
-        BoundedSortedList<IndexDistPair> knn = new BoundedSortedList<>(numNeighbors);
-        root.search(query, dm.getQueryInfo(query), numNeighbors, knn, Double.POSITIVE_INFINITY);
-        for (IndexDistPair p : knn) {
-            neighbors.add(p.indx);
-            distances.add(p.dist);
-        }
+    @Override
+    public void search(Vec query, int numNeighbors, BoundedIndexDistList knn) {
+        knn.reset(numNeighbors);
+        root.search(query, dm.getPrimitiveQueryInfo(query), numNeighbors, knn, Double.POSITIVE_INFINITY);
     }
 
     @Override
@@ -769,7 +768,7 @@ public class BallTree<V extends Vec> implements IncrementalCollection<V>, DualTr
 
     private abstract class Node implements Cloneable, Serializable, Iterable<Integer>, IndexNode<Node> {
         Vec pivot;
-        List<Double> pivot_qi;
+        DoubleList pivot_qi;
         double radius;
         Node parent;
         double parrent_dist = Double.POSITIVE_INFINITY;
@@ -790,7 +789,7 @@ public class BallTree<V extends Vec> implements IncrementalCollection<V>, DualTr
                 pivot = get(points.get(0)).clone();
             else
                 pivot = pivot_method.getPivot(false, points, allVecs, dm, cache);
-            pivot_qi = dm.getQueryInfo(pivot);
+            pivot_qi = dm.getPrimitiveQueryInfo(pivot);
         }
 
         public void setRadius(List<Integer> points) {
@@ -801,9 +800,9 @@ public class BallTree<V extends Vec> implements IncrementalCollection<V>, DualTr
 
         abstract public int findMaxDepth(int curDepth);
 
-        abstract public void search(Vec query, List<Double> qi, double range, List<Integer> neighbors, List<Double> distances);
+        abstract public void search(Vec query, DoubleList qi, double range, List<Integer> neighbors, List<Double> distances);
 
-        abstract public void search(Vec query, List<Double> qi, int numNeighbors, BoundedSortedList<IndexDistPair> knn, double pivot_to_query);
+        abstract public void search(Vec query, DoubleList qi, int numNeighbors, BoundedIndexDistList knn, double pivot_to_query);
 
         @Override
         public double minNodeDistance(int other) {
@@ -872,7 +871,7 @@ public class BallTree<V extends Vec> implements IncrementalCollection<V>, DualTr
         }
 
         @Override
-        public void search(Vec query, List<Double> qi, double range, List<Integer> neighbors, List<Double> distances) {
+        public void search(Vec query, DoubleList qi, double range, List<Integer> neighbors, List<Double> distances) {
             for (int indx : children) {
                 double dist = dm.dist(indx, query, qi, allVecs, cache);
                 if (dist <= range) {
@@ -883,9 +882,11 @@ public class BallTree<V extends Vec> implements IncrementalCollection<V>, DualTr
         }
 
         @Override
-        public void search(Vec query, List<Double> qi, int numNeighbors, BoundedSortedList<IndexDistPair> knn, double pivot_to_query) {
-            for (int indx : children)
-                knn.add(new IndexDistPair(indx, dm.dist(indx, query, qi, allVecs, cache)));
+        public void search(Vec query, DoubleList qi, int numNeighbors, BoundedIndexDistList knn, double pivot_to_query) {
+            for (int i = 0; i < children.size(); i++) {
+                int indx = children.getI(i);
+                knn.add(indx, dm.dist(indx, query, qi, allVecs, cache));
+            }
         }
 
         @Override
@@ -938,7 +939,7 @@ public class BallTree<V extends Vec> implements IncrementalCollection<V>, DualTr
         }
 
         @Override
-        public void search(Vec query, List<Double> qi, double range, List<Integer> neighbors, List<Double> distances) {
+        public void search(Vec query, DoubleList qi, double range, List<Integer> neighbors, List<Double> distances) {
             if (dm.dist(query, pivot) - radius >= range)
                 return;//We can prune this branch!
             left_child.search(query, qi, range, neighbors, distances);
@@ -946,10 +947,10 @@ public class BallTree<V extends Vec> implements IncrementalCollection<V>, DualTr
         }
 
         @Override
-        public void search(Vec query, List<Double> qi, int numNeighbors, BoundedSortedList<IndexDistPair> knn, double pivot_to_query) {
+        public void search(Vec query, DoubleList qi, int numNeighbors, BoundedIndexDistList knn, double pivot_to_query) {
             if (Double.isInfinite(pivot_to_query))//can happen for first call
                 pivot_to_query = dm.dist(query, pivot);
-            if (knn.size() >= numNeighbors && pivot_to_query - radius >= knn.last().dist)
+            if (knn.size() >= numNeighbors && pivot_to_query - radius >= knn.lastDist())
                 return;//We can prune this branch!
             double dist_left = dm.dist(query, left_child.pivot);
             double dist_right = dm.dist(query, right_child.pivot);
@@ -0,0 +1,156 @@
+package jsat.linear.vectorcollection;
+
+import java.util.Arrays;
+import java.util.List;
+
+import jsat.utils.DoubleList;
+import jsat.utils.IntList;
+
+/**
+ * A bounded list of index and distance pairs, kept sorted by distance, that
+ * stores its values in primitive arrays. It serves the same purpose as a
+ * {@link jsat.utils.BoundedSortedList} of {@link IndexDistPair}s when
+ * collecting the <i>k</i> nearest neighbors of a query, but does not create an
+ * object for every candidate, and can be {@link #reset(int) reset} and reused
+ * for many queries.
+ */
+public class BoundedIndexDistList {
+    private int maxSize;
+    private int size;
+    private int[] indices;
+    private double[] dists;
+
+    /**
+     * Creates a new empty list
+     *
+     * @param maxSize the maximum number of pairs to keep
+     */
+    public BoundedIndexDistList(int maxSize) {
+        indices = new int[Math.max(maxSize, 1)];
+        dists = new double[indices.length];
+        reset(maxSize);
+    }
+
+    /**
+     * Removes all pairs from the list, and sets the maximum number of pairs to
+     * keep. The storage will be reused if it is large enough.
+     *
+     * @param maxSize the maximum number of pairs to keep
+     */
+    public void reset(int maxSize) {
+        if (maxSize < 0)
+            throw new IllegalArgumentException("maxSize must be non-negative, not " + maxSize);
+        this.maxSize = maxSize;
+        this.size = 0;
+        if (indices.length < maxSize) {
+            indices = new int[maxSize];
+            dists = new double[maxSize];
+        }
+    }
+
+    /**
+     * Adds a pair to the list, if the list is not full or the distance is less
+     * than the largest distance in the list. Pairs with the same distance are
+     * kept in the order they were added.
+     *
+     * @param index the index of the point
+     * @param dist  the distance of the point to the query
+     * @return {@code true} if the pair was added
+     */
+    public boolean add(int index, double dist) {
+        if (size == maxSize && (size == 0 || dist >= dists[size - 1]))
+            return false;
+        int pos = size == maxSize ? size - 1 : size;
+        while (pos > 0 && dists[pos - 1] > dist) {
+            dists[pos] = dists[pos - 1];
+            indices[pos] = indices[pos - 1];
+            pos--;
+        }
+        dists[pos] = dist;
+        indices[pos] = index;
+        if (size < maxSize)
+            size++;
+        return true;
+    }
+
+    /**
+     * @return the number of pairs in the list
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return the maximum number of pairs the list will keep
+     */
+    public int maxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @param i the position in the list
+     * @return the index of the point at the given position
+     */
+    public int getIndex(int i) {
+        return indices[i];
+    }
+
+    /**
+     * @param i the position in the list
+     * @return the distance of the point at the given position
+     */
+    public double getDist(int i) {
+        return dists[i];
+    }
+
+    /**
+     * @return the largest distance in the list. The list must not be empty.
+     */
+    public double lastDist() {
+        return dists[size - 1];
+    }
+
+    /**
+     * Copies the contents of this list into the given lists, replacing their
+     * contents.
+     *
+     * @param neighbors the list to store the indices in
+     * @param distances the list to store the distances in
+     */
+    public void copyTo(List<Integer> neighbors, List<Double> distances) {
+        neighbors.clear();
+        distances.clear();
+        if (neighbors instanceof IntList && distances instanceof DoubleList) {
+            IntList n = (IntList) neighbors;
+            DoubleList d = (DoubleList) distances;
+            for (int i = 0; i < size; i++) {
+                n.add(indices[i]);
+                d.add(dists[i]);
+            }
+        } else
+            for (int i = 0; i < size; i++) {
+                neighbors.add(indices[i]);
+                distances.add(dists[i]);
+            }
+    }
+
+    /**
+     * Copies the contents of this list into the given arrays. If the list has
+     * fewer than {@link #maxSize() } pairs, the remaining slots are filled with
+     * an index of -1 and a distance of {@link Double#POSITIVE_INFINITY}.
+     *
+     * @param neighbors the array to store the indices in
+     * @param distances the array to store the distances in
+     * @param offset    the position in the arrays to start writing at
+     */
+    public void copyTo(int[] neighbors, double[] distances, int offset) {
+        System.arraycopy(indices, 0, neighbors, offset, size);
+        System.arraycopy(dists, 0, distances, offset, size);
+        Arrays.fill(neighbors, offset + size, offset + maxSize, -1);
+        Arrays.fill(distances, offset + size, offset + maxSize, Double.POSITIVE_INFINITY);
+    }
+}
@@ -12,7 +12,6 @@ import java.util.concurrent.ConcurrentHashMap;
 import jsat.linear.Vec;
 import jsat.linear.distancemetrics.DistanceMetric;
 import jsat.math.FastMath;
-import jsat.utils.BoundedSortedList;
 import jsat.utils.DoubleList;
 import jsat.utils.IndexTable;
 import jsat.utils.IntList;
@@ -44,7 +43,7 @@ import jsat.utils.random.XORWOW;
 public final class CoverTree<V extends Vec> implements IncrementalCollection<V> {
     private DistanceMetric dm;
     private List<V> vecs;
-    private List<Double> accell_cache = null;
+    private DoubleList accell_cache = null;
     private TreeNode root = null;
     private boolean maxDistDirty = false;
     //    private boolean nearest_ancestor = false;
@@ -105,7 +104,7 @@ public final class CoverTree<V extends Vec> implements IncrementalCollection<V>
         this.dm = dm;
         setLooseBounds(looseBounds);
         this.vecs = new ArrayList<>(collection);
-        this.accell_cache = dm.getAccelerationCache(vecs, parallel);
+        this.accell_cache = dm.getPrimitiveAccelerationCache(vecs, parallel);
         //Cover Tree is sensative to insertion order, so lets make sure its random
         IntList order = new IntList(this.vecs.size());
         ListUtils.addRange(order, 0, this.vecs.size(), 1);
@@ -264,7 +263,7 @@ public final class CoverTree<V extends Vec> implements IncrementalCollection<V>
         neighbors.clear();
         distances.clear();
 
-        this.root.findNN(range, query, dm.getQueryInfo(query), neighbors, distances, -1.0);
+        this.root.findNN(range, query, dm.getPrimitiveQueryInfo(query), neighbors, distances, -1.0);
 
         IndexTable it = new IndexTable(distances);
         it.apply(distances);
@@ -278,14 +277,15 @@ public final class CoverTree<V extends Vec> implements IncrementalCollection<V>
 //            this.root.invalidateMaxDist();
 //            maxDistDirty = false;
 //        }
-        BoundedSortedList<IndexDistPair> bsl = new BoundedSortedList<>(numNeighbors);
-        this.root.findNN(numNeighbors, query, dm.getQueryInfo(query), bsl);
-        neighbors.clear();
-        distances.clear();
-        for (IndexDistPair a : bsl) {
-            neighbors.add(a.getIndex());
-            distances.add(a.getDist());
-        }
+        BoundedIndexDistList knn = new BoundedIndexDistList(numNeighbors);
+        search(query, numNeighbors, knn);
+        knn.copyTo(neighbors, distances);
+    }
+
+    @Override
+    public void search(Vec query, int numNeighbors, BoundedIndexDistList knn) {
+        knn.reset(numNeighbors);
+        this.root.findNN(numNeighbors, query, dm.getPrimitiveQueryInfo(query), knn);
     }
 
     @Override
@@ -479,7 +479,7 @@ public final class CoverTree<V extends Vec> implements IncrementalCollection<V>
                 this.parent.invalParentMaxdist();
         }
 
-        public void findNN(int k, Vec query, List<Double> x_qi, BoundedSortedList<IndexDistPair> knn) {
+        public void findNN(int k, Vec query, DoubleList x_qi, BoundedIndexDistList knn) {
             Stack<TreeNode> toEval_stack = new Stack<>();
             DoubleList dist_to_q_stack = new DoubleList();
             {//Quick, add root info to stack for search & prime search Q
@@ -492,7 +492,7 @@ public final class CoverTree<V extends Vec> implements IncrementalCollection<V>
             while (!toEval_stack.isEmpty()) {
                 TreeNode p = toEval_stack.pop();
                 double p_to_q_dist = dist_to_q_stack.pop();
-                knn.add(new IndexDistPair(p.vec_indx, p_to_q_dist));
+                knn.add(p.vec_indx, p_to_q_dist);
 
                 double[] child_query_dist = new double[p.numChildren()];
                 for (int child_indx = 0; child_indx < p.numChildren(); child_indx++)//compute dists and add to knn while we are at it
@@ -509,7 +509,7 @@ public final class CoverTree<V extends Vec> implements IncrementalCollection<V>
                     TreeNode q = p.getChild(i);
 
                     //4:  if d(y,x)>d(y,q)−maxdist(q) then
-                    if (knn.size() < k || knn.last().getDist() > child_query_dist[i] - q.maxdist()) {//Add to the search Q
+                    if (knn.size() < k || knn.lastDist() > child_query_dist[i] - q.maxdist()) {//Add to the search Q
                         toEval_stack.push(q);
                         dist_to_q_stack.push(child_query_dist[i]);
                     }
@@ -518,7 +518,7 @@ public final class CoverTree<V extends Vec> implements IncrementalCollection<V>
         }
 
         //This is the old search code, new code (above) avoids recursion and makes explicit stack
-        private void findNN_recurse(int k, Vec x, List<Double> x_qi, BoundedSortedList<IndexDistPair> knn, double my_dist_to_x) {
+        private void findNN_recurse(int k, Vec x, DoubleList x_qi, BoundedIndexDistList knn, double my_dist_to_x) {
             TreeNode p = this;
 
             double p_x_dist;
@@ -527,7 +527,7 @@ public final class CoverTree<V extends Vec> implements IncrementalCollection<V>
 
             } else
                 p_x_dist = my_dist_to_x;
-            knn.add(new IndexDistPair(p.vec_indx, p_x_dist));
+            knn.add(p.vec_indx, p_x_dist);
             //1: if d(p,x)<d(y,x) then, handled implicitly by knn object
 //            if(knn.size() < k || p_x_dist < knn.last().getDist())
 //            knn.add(new ProbailityMatch<V>(p_x_dist, vecs.get(p.vec_indx)));//2: y <= p
@@ -551,7 +551,7 @@ public final class CoverTree<V extends Vec> implements IncrementalCollection<V>
 //                knn.add(new ProbailityMatch<V>(q_x_dist[i], vecs.get(q.vec_indx)));
                 //4:  if d(y,x)>d(y,q)−maxdist(q) then
 //                if(knn.size() < k || knn.last().getDist() > q.dist(y_vec, dm.getQueryInfo(y_vec)) - q.maxdist())
-                if (knn.size() < k || knn.last().getDist() > q_x_dist[i] - q.maxdist())
+                if (knn.size() < k || knn.lastDist() > q_x_dist[i] - q.maxdist())
                     q.findNN_recurse(k, x, x_qi, knn, q_x_dist[i]);//Line 5:
 //                else if(q.isLeaf())
 //                {
@@ -560,7 +560,7 @@ public final class CoverTree<V extends Vec> implements IncrementalCollection<V>
             }
         }
 
-        public void findNN(double radius, Vec x, List<Double> x_qi, List<Integer> neighbors, List<Double> distances, double my_dist_to_x) {
+        public void findNN(double radius, Vec x, DoubleList x_qi, List<Integer> neighbors, List<Double> distances, double my_dist_to_x) {
             TreeNode p = this;
 
             double p_x_dist;
@@ -685,7 +685,7 @@ public final class CoverTree<V extends Vec> implements IncrementalCollection<V>
             return dm.dist(this.vec_indx, x_indx, vecs, accell_cache);
         }
 
-        public double dist(Vec x, List<Double> qi) {
+        public double dist(Vec x, DoubleList qi) {
             return dm.dist(this.vec_indx, x, qi, vecs, accell_cache);
         }
 
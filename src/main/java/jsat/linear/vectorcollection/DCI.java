@@ -75,7 +75,7 @@ public class DCI<V extends Vec> implements VectorCollection<V> {
     private NearestIterator[][] T;
 
     private List<V> vecs;
-    private List<Double> cache;
+    private DoubleList cache;
 
     private void readObject(ObjectInputStream in) throws ClassNotFoundException, IOException {
         m = in.readInt();
@@ -202,7 +202,7 @@ public class DCI<V extends Vec> implements VectorCollection<V> {
         setDistanceMetric(dm);
 
         this.vecs = new ArrayList<>(collection);
-        this.cache = euclid.getAccelerationCache(vecs, parallel);
+        this.cache = euclid.getPrimitiveAccelerationCache(vecs, parallel);
 
         int d = collection.get(0).length();
         int n = collection.size();
@@ -314,7 +314,7 @@ public class DCI<V extends Vec> implements VectorCollection<V> {
             if (entry.getValue() == S.size())//you occured in every group? You are a candidate!
                 candidates.add(entry.getKey());
 
-        List<Double> qi = euclid.getQueryInfo(query);
+        DoubleList qi = euclid.getPrimitiveQueryInfo(query);
         for (int i : candidates) {
             neighbors.add(i);
             distances.add(euclid.dist(i, query, qi, vecs, cache));
@@ -405,7 +405,7 @@ public class DCI<V extends Vec> implements VectorCollection<V> {
         for (Set<Integer> S_l : S)
             candidates.addAll(S_l);
 
-        List<Double> qi = euclid.getQueryInfo(query);
+        DoubleList qi = euclid.getPrimitiveQueryInfo(query);
         for (int i : candidates) {
             neighbors.add(i);
             distances.add(euclid.dist(i, query, qi, vecs, cache));
@@ -18,6 +18,7 @@ import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.RecursiveAction;
 
 import jsat.utils.ListUtils;
+import jsat.utils.concurrent.AtomicDoubleArray;
 
 /**
  * @param <V>
@@ -61,7 +62,7 @@ public interface DualTree<V extends Vec> extends VectorCollection<V> {
         final List<Double> other_cache = Q.getAccelerationCache();
 
         final int N_r = this.size();
-        final List<Double> wholeCache = this_cache == null ? null : new DoubleList(ListUtils.mergedView(this_cache, other_cache));
+        final DoubleList wholeCache = this_cache == null ? null : new DoubleList(ListUtils.mergedView(this_cache, other_cache));
         final List<Vec> allVecs = new ArrayList<>(N_r + Q.size());
         for (int i = 0; i < N_r; i++)
             allVecs.add(this.get(i));
@@ -203,7 +204,7 @@ public interface DualTree<V extends Vec> extends VectorCollection<V> {
         final List<Double> other_cache = Q.getAccelerationCache();
 
         final int N_r = this.size();
-        final List<Double> wholeCache = this_cache == null ? null : ListUtils.mergedView(this_cache, other_cache);
+        final DoubleList wholeCache = this_cache == null ? null : new DoubleList(ListUtils.mergedView(this_cache, other_cache));
         final List<Vec> allVecs = new ArrayList<>(N_r + Q.size());
         for (int i = 0; i < N_r; i++)
             allVecs.add(this.get(i));
@@ -267,6 +268,174 @@ public interface DualTree<V extends Vec> extends VectorCollection<V> {
         }
     }
 
+    /**
+     * Computes the Minimum Spanning Tree (MST) of the points in this
+     * collection, using the dual-tree Bor&#367;vka algorithm. Each round finds
+     * the shortest edge leaving every connected component with a single dual
+     * tree traversal of this collection against itself, and merges the
+     * components along those edges. Node pairs whose points all belong to the
+     * same component, or that can not improve on the best edge found so far,
+     * are pruned. This requires O(log n) rounds, and is much faster than
+     * considering all O(n<sup>2</sup>) edges when the pruning is effective.
+     * <br>
+     * If core distances are given, the MST is computed over the mutual
+     * reachability distance max(core[a], core[b], d(a, b)) used by
+     * {@link jsat.clustering.HDBSCAN HDBSCAN}.
+     * <br>
+     * The distance metric must be a {@link DistanceMetric#isValidMetric() valid
+     * metric} for the results to be exact.
+     *
+     * @param core     the core distance of each point, or {@code null} to use
+     *                 the distance metric directly
+     * @param from     the list to store the first point of each edge in. Its
+     *                 contents will be replaced.
+     * @param to       the list to store the second point of each edge in. Its
+     *                 contents will be replaced.
+     * @param weights  the list to store the weight of each edge in. Its
+     *                 contents will be replaced.
+     * @param parallel {@code true} if each round should be done in parallel
+     */
+    default public void minimumSpanningTree(double[] core, IntList from, IntList to, DoubleList weights, boolean parallel) {
+        from.clear();
+        to.clear();
+        weights.clear();
+        final int N = this.size();
+        if (N <= 1)
+            return;
+
+        final List<Vec> allVecs = new ArrayList<>(N);
+        for (int i = 0; i < N; i++)
+            allVecs.add(this.get(i));
+        final List<Double> cache = this.getAccelerationCache();
+        final DistanceMetric dm = getDistanceMetric();
+
+        //union-find over the points, where the root is the component ID
+        final int[] parent = new int[N];
+        for (int i = 0; i < N; i++)
+            parent[i] = i;
+        final int[] component = new int[N];
+
+        //best edge leaving each component, indexed by the component ID
+        final AtomicDoubleArray bestDist = new AtomicDoubleArray(N);
+        final int[] bestFrom = new int[N];
+        final int[] bestTo = new int[N];
+        final Object[] locks = new Object[parallel ? 1024 : 1];
+        for (int i = 0; i < locks.length; i++)
+            locks[i] = new Object();
+
+        int components = N;
+        while (components > 1) {
+            for (int i = 0; i < N; i++) {
+                int root = i;
+                while (parent[root] != root)
+                    root = parent[root];
+                parent[i] = root;
+                component[i] = root;
+                bestDist.set(i, Double.POSITIVE_INFINITY);
+                bestFrom[i] = -1;
+            }
+
+            //-1 for nodes that contain more than one component
+            Map<IndexNode, Integer> node_component = parallel ? new ConcurrentHashMap<>() : new HashMap<>();
+            Map<IndexNode, Double> query_B_cache = parallel ? new ConcurrentHashMap<>() : new HashMap<>();
+
+            BaseCaseDT base = (int r_indx, int q_indx) ->
+            {
+                int c = component[q_indx];
+                if (c == component[r_indx])
+                    return 0;
+                double d = core == null ? 0 : max(core[r_indx], core[q_indx]);
+                if (d >= bestDist.get(c))//can't improve, even if the points were on top of each other
+                    return d;
+                d = max(d, dm.dist(r_indx, q_indx, allVecs, cache));
+                if (d < bestDist.get(c))
+                    synchronized (locks[c % locks.length]) {
+                        if (d < bestDist.get(c)) {
+                            bestDist.set(c, d);
+                            bestFrom[c] = q_indx;
+                            bestTo[c] = r_indx;
+                        }
+                    }
+                return d;
+            };
+
+            ScoreDTLazy score = (IndexNode ref, IndexNode query, double origScore) ->
+            {
+                int ref_c = nodeComponent(ref, component, node_component);
+                if (ref_c >= 0 && ref_c == nodeComponent(query, component, node_component))
+                    return Double.NaN;//all the edges are inside one component
+                double d_min = origScore < 0 ? ref.minNodeDistance(query) : origScore;
+                if (d_min > computeBoruvkaBound(query, component, bestDist, query_B_cache))
+                    return Double.NaN;
+                return d_min;
+            };
+
+            traverse(this, base, score, true, parallel);
+
+            int merged = 0;
+            for (int c = 0; c < N; c++) {
+                if (component[c] != c || bestFrom[c] < 0)
+                    continue;
+                int a = bestFrom[c], b = bestTo[c];
+                while (parent[a] != a)
+                    a = parent[a];
+                while (parent[b] != b)
+                    b = parent[b];
+                if (a == b)//the other component already picked this edge
+                    continue;
+                parent[max(a, b)] = min(a, b);
+                from.add(bestFrom[c]);
+                to.add(bestTo[c]);
+                weights.add(bestDist.get(c));
+                merged++;
+            }
+            if (merged == 0)//only possible with NaN distances
+                break;
+            components -= merged;
+        }
+    }
+
+    /**
+     * Determines if all of the points that descend from a node belong to the
+     * same component, for the dual-tree Bor&#367;vka algorithm.
+     *
+     * @return the component all descendants belong to, or -1 if there is more
+     * than one
+     */
+    static int nodeComponent(IndexNode node, int[] component, Map<IndexNode, Integer> node_component) {
+        Integer cached = node_component.get(node);
+        if (cached != null)
+            return cached;
+        int c = -2;//-2 marks that no point has been seen yet
+        for (int p = 0; p < node.numPoints() && c != -1; p++) {
+            int c_p = component[node.getPoint(p)];
+            c = c == -2 || c == c_p ? c_p : -1;
+        }
+        for (int i = 0; i < node.numChildren() && c != -1; i++) {
+            int c_i = nodeComponent(node.getChild(i), component, node_component);
+            c = c == -2 || c == c_i ? c_i : -1;
+        }
+        node_component.put(node, c);
+        return c;
+    }
+
+    /**
+     * Computes an upper bound on the distance of the best edge leaving the
+     * component of any point that descends from the given query node. Any
+     * reference node further away than this bound can not improve any of
+     * those edges, and may be pruned. Bounds from a child node remain valid
+     * as the best edges only get shorter, so they are cached and reused.
+     */
+    static double computeBoruvkaBound(IndexNode query, int[] component, AtomicDoubleArray bestDist, Map<IndexNode, Double> query_B_cache) {
+        double bound = Double.NEGATIVE_INFINITY;
+        for (int p = 0; p < query.numPoints() && bound < Double.POSITIVE_INFINITY; p++)
+            bound = max(bound, bestDist.get(component[query.getPoint(p)]));
+        for (int c = 0; c < query.numChildren() && bound < Double.POSITIVE_INFINITY; c++)
+            bound = max(bound, query_B_cache.getOrDefault(query.getChild(c), Double.POSITIVE_INFINITY));
+        query_B_cache.put(query, bound);
+        return bound;
+    }
+
     default void traverse(DualTree<V> Q, BaseCaseDT base, ScoreDT score, boolean improvedTraverse, boolean parallel) {
         IndexNode R_root = this.getRoot(), Q_root = Q.getRoot();
 
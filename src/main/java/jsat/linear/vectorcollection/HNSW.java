@@ -0,0 +1,546 @@
+package jsat.linear.vectorcollection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.function.IntToDoubleFunction;
+import java.util.stream.IntStream;
+
+import jsat.linear.Vec;
+import jsat.linear.distancemetrics.DistanceMetric;
+import jsat.linear.distancemetrics.EuclideanDistance;
+import jsat.utils.DoubleList;
+import jsat.utils.IntList;
+import jsat.utils.concurrent.ParallelUtils;
+import jsat.utils.random.RandomUtil;
+
+/**
+ * This class implements the Hierarchical Navigable Small World (HNSW) graph
+ * for approximate nearest neighbor search. Every point is a node in a
+ * proximity graph, and a random subset of points are also placed in a
+ * hierarchy of sparser graphs above it. A query greedily descends the
+ * hierarchy to find a good entry point, and then does a best first search of
+ * the bottom graph. HNSW works with any {@link DistanceMetric}, and gives
+ * results that are usually close to exact while scaling well with the
+ * dimension of the data, where tree based structures degrade to brute force.
+ * <br>
+ * The quality of the graph is controlled by the number of neighbors
+ * <i>M</i> kept per node and the size of the search beam
+ * <i>efConstruction</i> used when inserting points. The quality of queries is
+ * controlled by the beam size {@link #setEfSearch(int) efSearch}, which can be
+ * changed at any time to trade recall for speed. Range searches are
+ * approximate as well, and are answered by repeated k-NN searches with an
+ * increasing <i>k</i>.
+ * <br><br>
+ * See: Malkov, Y. A., & Yashunin, D. A. (2018). <i>Efficient and robust
+ * approximate nearest neighbor search using Hierarchical Navigable Small World
+ * graphs</i>. IEEE Transactions on Pattern Analysis and Machine Intelligence.
+ *
+ * @param <V> The type of vectors stored in this collection
+ */
+public class HNSW<V extends Vec> implements IncrementalCollection<V> {
+
+    private static final long serialVersionUID = -1749528391032915411L;
+
+    private DistanceMetric dm;
+    /**
+     * The maximum number of neighbors for a node on the upper layers. The
+     * bottom layer allows twice as many.
+     */
+    private int M;
+    private int efConstruction;
+    private int efSearch;
+    /**
+     * Normalization for the level generation
+     */
+    private double mL;
+
+    private List<V> vecs;
+    private DoubleList cache;
+    /**
+     * The top layer each node is present in
+     */
+    private IntList levels;
+    /**
+     * For each node, and each layer it is present in, the neighbors of that
+     * node. The first value of each array is the number of neighbors stored,
+     * followed by their indices. The per node arrays are also used as the lock
+     * for that node's neighbors.
+     */
+    private List<int[][]> links;
+    private volatile int entryPoint = -1;
+    private volatile int maxLevel = -1;
+    private Random rand;
+
+    private transient ThreadLocal<VisitedList> visitedLists;
+
+    /**
+     * Creates a new HNSW index using the Euclidean distance, with <i>M</i> =
+     * 16, <i>efConstruction</i> = 200, and <i>efSearch</i> = 50.
+     */
+    public HNSW() {
+        this(new EuclideanDistance());
+    }
+
+    /**
+     * Creates a new HNSW index with <i>M</i> = 16, <i>efConstruction</i> =
+     * 200, and <i>efSearch</i> = 50.
+     *
+     * @param dm the distance metric to use
+     */
+    public HNSW(DistanceMetric dm) {
+        this(16, 200, 50, dm);
+    }
+
+    /**
+     * Creates a new HNSW index
+     *
+     * @param M              the number of neighbors to keep for each node. 12-48
+     *                       is a reasonable range, with larger values for data of
+     *                       higher intrinsic dimension.
+     * @param efConstruction the size of the search beam used to find the
+     *                       neighbors of each inserted point. Larger values
+     *                       build a better graph, but take longer.
+     * @param efSearch       the size of the search beam used for queries
+     * @param dm             the distance metric to use
+     */
+    public HNSW(int M, int efConstruction, int efSearch, DistanceMetric dm) {
+        if (M < 2)
+            throw new IllegalArgumentException("M must be at least 2, not " + M);
+        if (efConstruction < 1)
+            throw new IllegalArgumentException("efConstruction must be positive, not " + efConstruction);
+        this.M = M;
+        this.efConstruction = efConstruction;
+        this.mL = 1 / Math.log(M);
+        setEfSearch(efSearch);
+        setDistanceMetric(dm);
+        this.rand = RandomUtil.getRandom();
+        this.vecs = new ArrayList<>();
+        this.levels = new IntList();
+        this.links = new ArrayList<>();
+        if (dm.supportsAcceleration())
+            this.cache = new DoubleList();
+    }
+
+    /**
+     * Copy constructor
+     *
+     * @param toCopy the object to copy
+     */
+    public HNSW(HNSW<V> toCopy) {
+        this.dm = toCopy.dm.clone();
+        this.M = toCopy.M;
+        this.efConstruction = toCopy.efConstruction;
+        this.efSearch = toCopy.efSearch;
+        this.mL = toCopy.mL;
+        this.vecs = new ArrayList<>(toCopy.vecs);
+        if (toCopy.cache != null)
+            this.cache = new DoubleList(toCopy.cache);
+        this.levels = new IntList(toCopy.levels);
+        this.links = new ArrayList<>(toCopy.links.size());
+        for (int[][] node : toCopy.links) {
+            int[][] copy = new int[node.length][];
+            for (int l = 0; l < node.length; l++)
+                copy[l] = Arrays.copyOf(node[l], node[l].length);
+            this.links.add(copy);
+        }
+        this.entryPoint = toCopy.entryPoint;
+        this.maxLevel = toCopy.maxLevel;
+        this.rand = RandomUtil.getRandom();
+    }
+
+    /**
+     * @return the maximum number of neighbors kept for each node
+     */
+    public int getM() {
+        return M;
+    }
+
+    /**
+     * @return the size of the search beam used when inserting points
+     */
+    public int getEfConstruction() {
+        return efConstruction;
+    }
+
+    /**
+     * Sets the size of the search beam used for queries. Larger values give
+     * better recall at the cost of slower queries. A k-NN search will always
+     * use a beam of at least <i>k</i>.
+     *
+     * @param efSearch the size of the search beam
+     */
+    public void setEfSearch(int efSearch) {
+        if (efSearch < 1)
+            throw new IllegalArgumentException("efSearch must be positive, not " + efSearch);
+        this.efSearch = efSearch;
+    }
+
+    /**
+     * @return the size of the search beam used for queries
+     */
+    public int getEfSearch() {
+        return efSearch;
+    }
+
+    @Override
+    public void build(boolean parallel, List<V> collection, DistanceMetric dm) {
+        setDistanceMetric(dm);
+        int n = collection.size();
+        this.vecs = new ArrayList<>(collection);
+        this.cache = dm.getPrimitiveAccelerationCache(vecs, parallel);
+        this.levels = new IntList(n);
+        this.links = new ArrayList<>(n);
+        this.entryPoint = -1;
+        this.maxLevel = -1;
+        //levels are drawn up front so the insertion threads do not share the Random
+        for (int i = 0; i < n; i++)
+            addNode(randomLevel());
+        if (n == 0)
+            return;
+
+        VisitedList visited = new VisitedList();
+        insertNode(0, visited);
+        ParallelUtils.streamP(IntStream.range(1, n), parallel).forEach(i -> insertNode(i, getVisitedList()));
+    }
+
+    @Override
+    public synchronized void insert(V x) {
+        int id = vecs.size();
+        vecs.add(x);
+        if (cache != null)
+            cache.addAll(dm.getQueryInfo(x));
+        addNode(randomLevel());
+        insertNode(id, getVisitedList());
+    }
+
+    private int randomLevel() {
+        return (int) (-Math.log(1 - rand.nextDouble()) * mL);
+    }
+
+    /**
+     * Allocates the neighbor lists of a new node
+     *
+     * @param level the top level the node will be present in
+     */
+    private void addNode(int level) {
+        levels.add(level);
+        int[][] node = new int[level + 1][];
+        for (int l = 0; l <= level; l++)
+            node[l] = new int[maxLinks(l) + 1];
+        links.add(node);
+    }
+
+    private int maxLinks(int level) {
+        return level == 0 ? 2 * M : M;
+    }
+
+    private VisitedList getVisitedList() {
+        if (visitedLists == null)
+            synchronized (this) {
+                if (visitedLists == null)
+                    visitedLists = ThreadLocal.withInitial(VisitedList::new);
+            }
+        return visitedLists.get();
+    }
+
+    /**
+     * Connects an already allocated node into the graph
+     *
+     * @param id      the index of the node to insert
+     * @param visited the visited list for the calling thread
+     */
+    private void insertNode(int id, VisitedList visited) {
+        int level = levels.getI(id);
+        if (entryPoint < 0 && updateEntry(id, level))
+            return;
+        int topLevel = maxLevel;//read before the entry point, see updateEntry
+        int ep = entryPoint;
+
+        IntToDoubleFunction distTo = j -> dm.dist(id, j, vecs, cache);
+        int cur = ep;
+        double curDist = distTo.applyAsDouble(cur);
+        int[] buffer = new int[2 * M];
+        for (int l = topLevel; l > level; l--) {
+            cur = greedyClosest(distTo, cur, curDist, l, buffer);
+            curDist = distTo.applyAsDouble(cur);
+        }
+
+        for (int l = Math.min(level, topLevel); l >= 0; l--) {
+            List<IndexDistPair> candidates = sortedAscending(searchLayer(distTo, cur, curDist, efConstruction, l, visited, buffer));
+            IntList selected = selectNeighbors(candidates, M);
+
+            int[] own = links.get(id)[l];
+            synchronized (links.get(id)) {
+                own[0] = selected.size();
+                for (int i = 0; i < selected.size(); i++)
+                    own[i + 1] = selected.getI(i);
+            }
+            for (IndexDistPair neighbor : candidates)
+                if (selected.contains(neighbor.getIndex()))
+                    addLink(neighbor.getIndex(), id, neighbor.getDist(), l);
+
+            cur = candidates.get(0).getIndex();
+            curDist = candidates.get(0).getDist();
+        }
+
+        if (level > topLevel)
+            updateEntry(id, level);
+    }
+
+    /**
+     * Makes the given node the entry point if it has a higher level than the
+     * current one.
+     *
+     * @return {@code true} if the graph was empty, so the node is the only one
+     */
+    private synchronized boolean updateEntry(int id, int level) {
+        boolean first = entryPoint < 0;
+        if (first || level > maxLevel) {
+            //readers read maxLevel first, so the entry point must be set first
+            entryPoint = id;
+            maxLevel = level;
+        }
+        return first;
+    }
+
+    /**
+     * Adds a directed edge from one node to another, pruning the neighbors of
+     * the source node if it has too many.
+     *
+     * @param from  the node to add a neighbor to
+     * @param to    the new neighbor
+     * @param dist  the distance between the two nodes
+     * @param level the layer of the graph
+     */
+    private void addLink(int from, int to, double dist, int level) {
+        int[][] node = links.get(from);
+        synchronized (node) {
+            int[] arr = node[level];
+            int count = arr[0];
+            if (count < arr.length - 1) {
+                arr[count + 1] = to;
+                arr[0] = count + 1;
+                return;
+            }
+
+            List<IndexDistPair> candidates = new ArrayList<>(count + 1);
+            candidates.add(new IndexDistPair(to, dist));
+            for (int i = 1; i <= count; i++)
+                candidates.add(new IndexDistPair(arr[i], dm.dist(from, arr[i], vecs, cache)));
+            Collections.sort(candidates);
+            IntList selected = selectNeighbors(candidates, arr.length - 1);
+            arr[0] = selected.size();
+            for (int i = 0; i < selected.size(); i++)
+                arr[i + 1] = selected.getI(i);
+        }
+    }
+
+    /**
+     * Selects neighbors with the heuristic of Malkov & Yashunin: a candidate is
+     * kept only if it is closer to the base node than to any neighbor already
+     * kept, which keeps edges pointing in diverse directions.
+     *
+     * @param candidates the candidates, sorted by their distance to the base
+     *                   node
+     * @param m          the maximum number of neighbors to select
+     * @return the selected neighbors
+     */
+    private IntList selectNeighbors(List<IndexDistPair> candidates, int m) {
+        IntList selected = new IntList(m);
+        for (IndexDistPair c : candidates) {
+            if (selected.size() >= m)
+                break;
+            boolean keep = true;
+            for (int i = 0; i < selected.size() && keep; i++)
+                keep = dm.dist(c.getIndex(), selected.getI(i), vecs, cache) >= c.getDist();
+            if (keep)
+                selected.add(c.getIndex());
+        }
+        return selected;
+    }
+
+    /**
+     * Copies the neighbors of a node at a given layer
+     *
+     * @return the number of neighbors copied into the buffer
+     */
+    private int neighbors(int node, int level, int[] buffer) {
+        int[][] nodeLinks = links.get(node);
+        synchronized (nodeLinks) {
+            int[] arr = nodeLinks[level];
+            System.arraycopy(arr, 1, buffer, 0, arr[0]);
+            return arr[0];
+        }
+    }
+
+    /**
+     * Greedily moves to the closest neighbor until no neighbor is closer
+     *
+     * @return the closest node found
+     */
+    private int greedyClosest(IntToDoubleFunction distTo, int cur, double curDist, int level, int[] buffer) {
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            int count = neighbors(cur, level, buffer);
+            for (int i = 0; i < count; i++) {
+                double d = distTo.applyAsDouble(buffer[i]);
+                if (d < curDist) {
+                    curDist = d;
+                    cur = buffer[i];
+                    changed = true;
+                }
+            }
+        }
+        return cur;
+    }
+
+    /**
+     * Best first search of a single layer of the graph
+     *
+     * @param distTo the distance from the query to a node
+     * @param ep     the node to start from
+     * @param epDist the distance of the starting node to the query
+     * @param ef     the number of nearest nodes to keep
+     * @param level  the layer to search
+     * @return a max heap of the (up to) ef nearest nodes found
+     */
+    private PriorityQueue<IndexDistPair> searchLayer(IntToDoubleFunction distTo, int ep, double epDist, int ef, int level, VisitedList visited, int[] buffer) {
+        visited.reset(links.size());
+        visited.visit(ep);
+        PriorityQueue<IndexDistPair> candidates = new PriorityQueue<>();
+        PriorityQueue<IndexDistPair> results = new PriorityQueue<>(Collections.reverseOrder());
+        candidates.add(new IndexDistPair(ep, epDist));
+        results.add(new IndexDistPair(ep, epDist));
+
+        while (!candidates.isEmpty()) {
+            IndexDistPair c = candidates.poll();
+            if (c.getDist() > results.peek().getDist())
+                break;//everything left is farther than our worst result
+            int count = neighbors(c.getIndex(), level, buffer);
+            for (int i = 0; i < count; i++) {
+                int e = buffer[i];
+                if (!visited.visit(e))
+                    continue;
+                double d = distTo.applyAsDouble(e);
+                if (results.size() < ef || d < results.peek().getDist()) {
+                    candidates.add(new IndexDistPair(e, d));
+                    results.add(new IndexDistPair(e, d));
+                    if (results.size() > ef)
+                        results.poll();
+                }
+            }
+        }
+        return results;
+    }
+
+    private static List<IndexDistPair> sortedAscending(PriorityQueue<IndexDistPair> maxHeap) {
+        List<IndexDistPair> sorted = new ArrayList<>(maxHeap);
+        Collections.sort(sorted);
+        return sorted;
+    }
+
+    @Override
+    public void setDistanceMetric(DistanceMetric dm) {
+        this.dm = dm;
+    }
+
+    @Override
+    public DistanceMetric getDistanceMetric() {
+        return dm;
+    }
+
+    @Override
+    public void search(Vec query, double range, List<Integer> neighbors, List<Double> distances) {
+        int k = Math.min(size(), Math.max(efSearch, 16));
+        while (true) {
+            search(query, k, neighbors, distances);
+            if (k >= size() || distances.isEmpty() || distances.get(distances.size() - 1) > range)
+                break;
+            k = Math.min(size(), k * 2);
+        }
+
+        int maxIndx = 0;
+        while (maxIndx < distances.size() && distances.get(maxIndx) <= range)
+            maxIndx++;
+        neighbors.subList(maxIndx, neighbors.size()).clear();
+        distances.subList(maxIndx, distances.size()).clear();
+    }
+
+    @Override
+    public void search(Vec query, int numNeighbors, List<Integer> neighbors, List<Double> distances) {
+        neighbors.clear();
+        distances.clear();
+        int topLevel = maxLevel;//read before the entry point, see updateEntry
+        int ep = entryPoint;
+        if (ep < 0)
+            return;
+
+        DoubleList qi = dm.getPrimitiveQueryInfo(query);
+        IntToDoubleFunction distTo = j -> dm.dist(j, query, qi, vecs, cache);
+        int[] buffer = new int[2 * M];
+        int cur = ep;
+        for (int l = topLevel; l > 0; l--)
+            cur = greedyClosest(distTo, cur, distTo.applyAsDouble(cur), l, buffer);
+
+        List<IndexDistPair> found = sortedAscending(searchLayer(distTo, cur, distTo.applyAsDouble(cur), Math.max(efSearch, numNeighbors), 0, getVisitedList(), buffer));
+        for (int i = 0; i < Math.min(numNeighbors, found.size()); i++) {
+            neighbors.add(found.get(i).getIndex());
+            distances.add(found.get(i).getDist());
+        }
+    }
+
+    @Override
+    public V get(int indx) {
+        return vecs.get(indx);
+    }
+
+    @Override
+    public List<Double> getAccelerationCache() {
+        return cache;
+    }
+
+    @Override
+    public int size() {
+        return vecs.size();
+    }
+
+    @Override
+    public HNSW<V> clone() {
+        return new HNSW<>(this);
+    }
+
+    /**
+     * Marks the nodes visited by a search. Nodes are marked with the id of the
+     * search, so the marks do not need to be cleared between searches.
+     */
+    private static class VisitedList {
+        private int[] marks = new int[0];
+        private int epoch = 0;
+
+        void reset(int n) {
+            if (marks.length < n)
+                marks = new int[Math.max(n, marks.length * 2)];
+            epoch++;
+            if (epoch == 0)//wrapped around, so old marks could collide
+            {
+                Arrays.fill(marks, 0);
+                epoch = 1;
+            }
+        }
+
+        /**
+         * @return {@code true} if the node had not been visited yet
+         */
+        boolean visit(int i) {
+            if (marks[i] == epoch)
+                return false;
+            marks[i] = epoch;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,539 @@
+package jsat.linear.vectorcollection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import jsat.SimpleDataSet;
+import jsat.classifiers.DataPoint;
+import jsat.clustering.SeedSelectionMethods;
+import jsat.clustering.kmeans.HamerlyKMeans;
+import jsat.linear.DenseVector;
+import jsat.linear.Vec;
+import jsat.linear.distancemetrics.DistanceMetric;
+import jsat.linear.distancemetrics.EuclideanDistance;
+import jsat.utils.DoubleList;
+import jsat.utils.IndexTable;
+import jsat.utils.IntList;
+import jsat.utils.concurrent.ParallelUtils;
+import jsat.utils.random.RandomUtil;
+
+/**
+ * This class implements an inverted file index with product quantization
+ * (IVF-PQ) for approximate nearest neighbor search in the
+ * {@link EuclideanDistance Euclidean} space. A coarse k-means quantizer splits
+ * the data into {@link #getLists() lists}, and the residual of each vector from
+ * its list's centroid is compressed by splitting it into
+ * {@link #getSubspaces() subspaces} and replacing each part with the nearest
+ * of 256 codewords learned for that subspace. Each vector is then stored as
+ * one byte per subspace, instead of 8 bytes per dimension. <br>
+ * A query is compared only against the lists of its {@link #setProbes(int)
+ * nearest coarse centroids}, using a table of distances from the query to
+ * every codeword, so each candidate costs one table lookup per subspace.
+ * <br><br>
+ * If re-ranking is enabled, the original vectors are kept, and the best
+ * candidates found with the compressed codes are re-ranked with their exact
+ * distances. If re-ranking is disabled, the original vectors are discarded to
+ * save memory, distances returned are approximate, and {@link #get(int) }
+ * returns the reconstruction of a vector from its codes as a
+ * {@link DenseVector}.
+ * <br><br>
+ * See: Jégou, H., Douze, M., & Schmid, C. (2011). <i>Product Quantization for
+ * Nearest Neighbor Search</i>. IEEE Transactions on Pattern Analysis and
+ * Machine Intelligence, 33(1), 117–128.
+ *
+ * @param <V> The type of vectors stored in this collection
+ */
+public class IVFPQ<V extends Vec> implements VectorCollection<V> {
+
+    private static final long serialVersionUID = 3126359925178283641L;
+
+    private static EuclideanDistance euclid = new EuclideanDistance();
+    /**
+     * The number of codewords per subspace, so that each code fits in a byte
+     */
+    private static final int K_SUB = 256;
+
+    private int lists;
+    private int subspaces;
+    private int probes;
+    private int rerank;
+    private int trainingSamples = 50000;
+
+    /**
+     * The number of vectors in the collection
+     */
+    private int n;
+    /**
+     * The first dimension of each subspace, with the total dimension at the end
+     */
+    private int[] subStart;
+    private Vec[] coarse;
+    /**
+     * For each subspace, the codewords stored one after the other
+     */
+    private double[][] codebooks;
+    /**
+     * The number of codewords actually learned, which is less than
+     * {@link #K_SUB} for small data sets
+     */
+    private int kSub;
+    private int[][] listIds;
+    /**
+     * The codes of each list, {@link #subspaces} bytes per vector
+     */
+    private byte[][] listCodes;
+    /**
+     * The list each vector is in, and its position in that list
+     */
+    private int[] listOf;
+    private int[] posInList;
+
+    /**
+     * The original vectors, only kept if re-ranking
+     */
+    private List<V> vecs;
+    private DoubleList cache;
+
+    /**
+     * Creates a new IVF-PQ index with 8 subspaces, probing 8 lists and
+     * re-ranking 4 times as many candidates as requested. The number of lists
+     * will be picked based on the size of the data.
+     */
+    public IVFPQ() {
+        this(-1, 8, 8, 4);
+    }
+
+    /**
+     * Creates a new IVF-PQ index
+     *
+     * @param lists     the number of coarse centroids to split the data into,
+     *                  or a non positive value to use 4&radic;<i>n</i>.
+     * @param subspaces the number of subspaces to split each vector into,
+     *                  which is also the number of bytes used per vector
+     * @param probes    the number of lists to search for each query
+     * @param rerank    the multiple of the requested number of neighbors to
+     *                  re-rank with exact distances, or zero to discard the
+     *                  original vectors and return approximate distances
+     */
+    public IVFPQ(int lists, int subspaces, int probes, int rerank) {
+        if (subspaces < 1)
+            throw new IllegalArgumentException("Number of subspaces must be positive, not " + subspaces);
+        if (rerank < 0)
+            throw new IllegalArgumentException("Re-rank multiple must be non-negative, not " + rerank);
+        this.lists = lists;
+        this.subspaces = subspaces;
+        this.rerank = rerank;
+        setProbes(probes);
+    }
+
+    /**
+     * Copy constructor
+     *
+     * @param toCopy the object to copy
+     */
+    public IVFPQ(IVFPQ<V> toCopy) {
+        this.lists = toCopy.lists;
+        this.subspaces = toCopy.subspaces;
+        this.probes = toCopy.probes;
+        this.rerank = toCopy.rerank;
+        this.trainingSamples = toCopy.trainingSamples;
+        this.n = toCopy.n;
+        this.kSub = toCopy.kSub;
+        if (toCopy.coarse != null) {
+            this.subStart = toCopy.subStart.clone();
+            this.coarse = new Vec[toCopy.coarse.length];
+            for (int i = 0; i < coarse.length; i++)
+                this.coarse[i] = toCopy.coarse[i].clone();
+            this.codebooks = new double[subspaces][];
+            for (int j = 0; j < subspaces; j++)
+                this.codebooks[j] = toCopy.codebooks[j].clone();
+            this.listIds = new int[toCopy.listIds.length][];
+            this.listCodes = new byte[toCopy.listCodes.length][];
+            for (int c = 0; c < listIds.length; c++) {
+                this.listIds[c] = toCopy.listIds[c].clone();
+                this.listCodes[c] = toCopy.listCodes[c].clone();
+            }
+            this.listOf = toCopy.listOf.clone();
+            this.posInList = toCopy.posInList.clone();
+        }
+        if (toCopy.vecs != null)
+            this.vecs = new ArrayList<>(toCopy.vecs);
+        if (toCopy.cache != null)
+            this.cache = new DoubleList(toCopy.cache);
+    }
+
+    /**
+     * @return the number of coarse lists requested, or a non positive value if
+     * it is picked based on the data size
+     */
+    public int getLists() {
+        return lists;
+    }
+
+    /**
+     * @return the number of subspaces each vector is split into
+     */
+    public int getSubspaces() {
+        return subspaces;
+    }
+
+    /**
+     * Sets the number of lists, closest to the query, that will be searched.
+     * More probes give better recall at the cost of slower queries.
+     *
+     * @param probes the number of lists to search
+     */
+    public void setProbes(int probes) {
+        if (probes < 1)
+            throw new IllegalArgumentException("Number of probes must be positive, not " + probes);
+        this.probes = probes;
+    }
+
+    /**
+     * @return the number of lists to search
+     */
+    public int getProbes() {
+        return probes;
+    }
+
+    /**
+     * @return the multiple of the requested number of neighbors to re-rank, or
+     * zero if re-ranking is disabled
+     */
+    public int getRerank() {
+        return rerank;
+    }
+
+    /**
+     * Sets the maximum number of vectors used to learn the coarse centroids and
+     * codebooks. A random sample is used if the data is larger.
+     *
+     * @param trainingSamples the maximum number of training vectors
+     */
+    public void setTrainingSamples(int trainingSamples) {
+        if (trainingSamples < 1)
+            throw new IllegalArgumentException("Number of training samples must be positive, not " + trainingSamples);
+        this.trainingSamples = trainingSamples;
+    }
+
+    /**
+     * @return the maximum number of training vectors
+     */
+    public int getTrainingSamples() {
+        return trainingSamples;
+    }
+
+    @Override
+    public void build(boolean parallel, List<V> collection, DistanceMetric dm) {
+        setDistanceMetric(dm);
+        n = collection.size();
+        int d = collection.get(0).length();
+        Random rand = RandomUtil.getRandom();
+        subspaces = Math.min(subspaces, d);
+        subStart = new int[subspaces + 1];
+        for (int j = 0; j <= subspaces; j++)
+            subStart[j] = j * d / subspaces;
+
+        List<Vec> sample = new ArrayList<>(collection);
+        if (sample.size() > trainingSamples) {
+            Collections.shuffle(sample, rand);
+            sample = new ArrayList<>(sample.subList(0, trainingSamples));
+        }
+
+        //coarse quantizer
+        int numLists = lists > 0 ? lists : (int) Math.ceil(4 * Math.sqrt(n));
+        numLists = Math.min(numLists, sample.size());
+        coarse = kMeans(sample, numLists, parallel, rand).toArray(new Vec[0]);
+
+        //codebooks learned on the residuals of the sample
+        kSub = Math.min(K_SUB, sample.size());
+        double[][] sampleResiduals = new double[sample.size()][];
+        List<Vec> sampleList = sample;
+        ParallelUtils.run(parallel, sample.size(), (start, end) ->
+        {
+            for (int i = start; i < end; i++) {
+                Vec x = sampleList.get(i);
+                sampleResiduals[i] = residual(x, coarse[nearestCoarse(x)]);
+            }
+        });
+        codebooks = new double[subspaces][];
+        for (int j = 0; j < subspaces; j++) {
+            int from = subStart[j], to = subStart[j + 1];
+            List<Vec> part = new ArrayList<>(sampleResiduals.length);
+            for (double[] r : sampleResiduals)
+                part.add(new DenseVector(Arrays.copyOfRange(r, from, to)));
+            List<Vec> means = kMeans(part, kSub, parallel, rand);
+            codebooks[j] = new double[kSub * (to - from)];
+            for (int k = 0; k < means.size(); k++)
+                for (int i = from; i < to; i++)
+                    codebooks[j][k * (to - from) + i - from] = means.get(k).get(i - from);
+        }
+
+        //assign and encode every vector
+        listOf = new int[n];
+        byte[] codes = new byte[n * subspaces];
+        ParallelUtils.run(parallel, n, (start, end) ->
+        {
+            for (int i = start; i < end; i++) {
+                Vec x = collection.get(i);
+                listOf[i] = nearestCoarse(x);
+                encode(residual(x, coarse[listOf[i]]), codes, i * subspaces);
+            }
+        });
+
+        int[] listSizes = new int[coarse.length];
+        for (int c : listOf)
+            listSizes[c]++;
+        listIds = new int[coarse.length][];
+        listCodes = new byte[coarse.length][];
+        for (int c = 0; c < coarse.length; c++) {
+            listIds[c] = new int[listSizes[c]];
+            listCodes[c] = new byte[listSizes[c] * subspaces];
+        }
+        posInList = new int[n];
+        Arrays.fill(listSizes, 0);
+        for (int i = 0; i < n; i++) {
+            int c = listOf[i];
+            int pos = listSizes[c]++;
+            listIds[c][pos] = i;
+            posInList[i] = pos;
+            System.arraycopy(codes, i * subspaces, listCodes[c], pos * subspaces, subspaces);
+        }
+
+        if (rerank > 0) {
+            vecs = new ArrayList<>(collection);
+            cache = euclid.getPrimitiveAccelerationCache(vecs, parallel);
+        } else {
+            vecs = null;
+            cache = null;
+        }
+    }
+
+    private static List<Vec> kMeans(List<Vec> data, int k, boolean parallel, Random rand) {
+        List<DataPoint> points = new ArrayList<>(data.size());
+        for (Vec v : data)
+            points.add(new DataPoint(v));
+        HamerlyKMeans kMeans = new HamerlyKMeans(euclid, SeedSelectionMethods.SeedSelection.KPP, rand);
+        kMeans.setIterationLimit(25);
+        kMeans.cluster(new SimpleDataSet(points), k, parallel, null);
+        return kMeans.getMeans();
+    }
+
+    private int nearestCoarse(Vec x) {
+        int best = 0;
+        double bestDist = Double.POSITIVE_INFINITY;
+        for (int c = 0; c < coarse.length; c++) {
+            double dist = euclid.dist(x, coarse[c]);
+            if (dist < bestDist) {
+                bestDist = dist;
+                best = c;
+            }
+        }
+        return best;
+    }
+
+    private static double[] residual(Vec x, Vec centroid) {
+        double[] r = x.arrayCopy();
+        for (int i = 0; i < r.length; i++)
+            r[i] -= centroid.get(i);
+        return r;
+    }
+
+    /**
+     * Writes the code of the nearest codeword in each subspace
+     */
+    private void encode(double[] r, byte[] codes, int offset) {
+        for (int j = 0; j < subspaces; j++) {
+            int from = subStart[j], width = subStart[j + 1] - from;
+            double[] book = codebooks[j];
+            int best = 0;
+            double bestDist = Double.POSITIVE_INFINITY;
+            for (int k = 0; k < kSub; k++) {
+                double dist = 0;
+                for (int i = 0; i < width; i++) {
+                    double diff = r[from + i] - book[k * width + i];
+                    dist += diff * diff;
+                }
+                if (dist < bestDist) {
+                    bestDist = dist;
+                    best = k;
+                }
+            }
+            codes[offset + j] = (byte) best;
+        }
+    }
+
+    /**
+     * Fills the table of squared distances from the residual of the query to
+     * every codeword of every subspace
+     */
+    private void distanceTable(double[] r, double[] table) {
+        for (int j = 0; j < subspaces; j++) {
+            int from = subStart[j], width = subStart[j + 1] - from;
+            double[] book = codebooks[j];
+            for (int k = 0; k < kSub; k++) {
+                double dist = 0;
+                for (int i = 0; i < width; i++) {
+                    double diff = r[from + i] - book[k * width + i];
+                    dist += diff * diff;
+                }
+                table[j * kSub + k] = dist;
+            }
+        }
+    }
+
+    /**
+     * @return the squared approximate distance for the code at the given
+     * position of a list
+     */
+    private double approxDist(byte[] codes, int pos, double[] table) {
+        int offset = pos * subspaces;
+        double dist = 0;
+        for (int j = 0; j < subspaces; j++)
+            dist += table[j * kSub + (codes[offset + j] & 0xFF)];
+        return dist;
+    }
+
+    /**
+     * @return the lists to search for the given query, nearest first
+     */
+    private int[] probedLists(Vec query) {
+        DoubleList dists = new DoubleList(coarse.length);
+        for (Vec c : coarse)
+            dists.add(euclid.dist(query, c));
+        IndexTable it = new IndexTable(dists);
+        int[] toProbe = new int[Math.min(probes, coarse.length)];
+        for (int i = 0; i < toProbe.length; i++)
+            toProbe[i] = it.index(i);
+        return toProbe;
+    }
+
+    @Override
+    public void setDistanceMetric(DistanceMetric dm) {
+        if (!(dm instanceof EuclideanDistance))
+            throw new IllegalArgumentException("IVFPQ only works for Euclidean Distance Searches");
+    }
+
+    @Override
+    public DistanceMetric getDistanceMetric() {
+        return new EuclideanDistance();
+    }
+
+    @Override
+    public void search(Vec query, double range, List<Integer> neighbors, List<Double> distances) {
+        neighbors.clear();
+        distances.clear();
+        DoubleList qi = vecs == null ? null : euclid.getPrimitiveQueryInfo(query);
+        double[] table = new double[subspaces * kSub];
+        double rangeSqrd = range * range;
+        for (int c : probedLists(query)) {
+            int[] ids = listIds[c];
+            if (vecs != null) {
+                //we have the true vectors, so every vector in the list can be checked exactly
+                for (int id : ids) {
+                    double dist = euclid.dist(id, query, qi, vecs, cache);
+                    if (dist <= range) {
+                        neighbors.add(id);
+                        distances.add(dist);
+                    }
+                }
+                continue;
+            }
+            distanceTable(residual(query, coarse[c]), table);
+            for (int pos = 0; pos < ids.length; pos++) {
+                double dist = approxDist(listCodes[c], pos, table);
+                if (dist <= rangeSqrd) {
+                    neighbors.add(ids[pos]);
+                    distances.add(Math.sqrt(dist));
+                }
+            }
+        }
+
+        IndexTable it = new IndexTable(distances);
+        it.apply(neighbors);
+        it.apply(distances);
+    }
+
+    @Override
+    public void search(Vec query, int numNeighbors, List<Integer> neighbors, List<Double> distances) {
+        neighbors.clear();
+        distances.clear();
+        int candidates = vecs == null ? numNeighbors : numNeighbors * rerank;
+        PriorityQueue<IndexDistPair> best = new PriorityQueue<>(candidates + 1, Collections.reverseOrder());
+        double[] table = new double[subspaces * kSub];
+        for (int c : probedLists(query)) {
+            distanceTable(residual(query, coarse[c]), table);
+            int[] ids = listIds[c];
+            byte[] codes = listCodes[c];
+            for (int pos = 0; pos < ids.length; pos++) {
+                double dist = approxDist(codes, pos, table);
+                if (best.size() < candidates)
+                    best.add(new IndexDistPair(ids[pos], dist));
+                else if (dist < best.peek().getDist()) {
+                    best.poll();
+                    best.add(new IndexDistPair(ids[pos], dist));
+                }
+            }
+        }
+
+        List<IndexDistPair> found = new ArrayList<>(best);
+        if (vecs != null) {
+            DoubleList qi = euclid.getPrimitiveQueryInfo(query);
+            for (IndexDistPair p : found)
+                p.setDist(euclid.dist(p.getIndex(), query, qi, vecs, cache));
+        } else
+            for (IndexDistPair p : found)
+                p.setDist(Math.sqrt(p.getDist()));
+        Collections.sort(found);
+
+        for (int i = 0; i < Math.min(numNeighbors, found.size()); i++) {
+            neighbors.add(found.get(i).getIndex());
+            distances.add(found.get(i).getDist());
+        }
+    }
+
+    /**
+     * Returns the vector at the given index. If re-ranking is disabled, the
+     * original vectors are not stored, and an approximation reconstructed from
+     * the compressed codes is returned as a {@link DenseVector}, in which case
+     * the type <tt>V</tt> must be {@link Vec}.
+     *
+     * @param indx the index of the vector to access
+     * @return the vector, or its approximation
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(int indx) {
+        if (vecs != null)
+            return vecs.get(indx);
+        Vec x = coarse[listOf[indx]].clone();
+        byte[] codes = listCodes[listOf[indx]];
+        int offset = posInList[indx] * subspaces;
+        for (int j = 0; j < subspaces; j++) {
+            int from = subStart[j], width = subStart[j + 1] - from;
+            int code = codes[offset + j] & 0xFF;
+            for (int i = 0; i < width; i++)
+                x.increment(from + i, codebooks[j][code * width + i]);
+        }
+        return (V) x;
+    }
+
+    @Override
+    public List<Double> getAccelerationCache() {
+        return cache;
+    }
+
+    @Override
+    public int size() {
+        return n;
+    }
+
+    @Override
+    public IVFPQ<V> clone() {
+        return new IVFPQ<>(this);
+    }
+}
@@ -47,7 +47,7 @@ public class KDTree<V extends Vec> implements IncrementalCollection<V> {
     private int size;
     private int leaf_node_size = 20;
     private List<V> allVecs;
-    private List<Double> distCache;
+    private DoubleList distCache;
 
     /**
      * KDTree uses an index of the vector at each stage to use as a pivot,
@@ -167,7 +167,7 @@ public class KDTree<V extends Vec> implements IncrementalCollection<V> {
         setDistanceMetric(dm);
         this.size = vecs.size();
         allVecs = vecs = new ArrayList<>(vecs);//copy to avoid altering the input set
-        distCache = distanceMetric.getAccelerationCache(vecs, parallel);
+        distCache = distanceMetric.getPrimitiveAccelerationCache(vecs, parallel);
         List<Integer> vecIndices = new IntList(size);
         ListUtils.addRange(vecIndices, 0, size, 1);
 
@@ -189,7 +189,7 @@ public class KDTree<V extends Vec> implements IncrementalCollection<V> {
         if (allVecs == null)//init
         {
             allVecs = new ArrayList<>();
-            distCache = distanceMetric.getAccelerationCache(allVecs);
+            distCache = distanceMetric.getPrimitiveAccelerationCache(allVecs);
             this.size = 0;
             this.root = new KDLeaf(0, new IntList());
         }
@@ -254,7 +254,7 @@ public class KDTree<V extends Vec> implements IncrementalCollection<V> {
             return new KDNode(this);
         }
 
-        protected void searchK(int k, BoundedSortedList<IndexDistPair> knn, Vec target, List<Double> qi) {
+        protected void searchK(int k, BoundedIndexDistList knn, Vec target, DoubleList qi) {
             double target_s = target.get(axis);
             boolean target_in_left = target_s <= pivot_s;
 
@@ -271,11 +271,11 @@ public class KDTree<V extends Vec> implements IncrementalCollection<V> {
             nearKD.searchK(k, knn, target, qi);
 
             double maxDistSoFar = Double.MAX_VALUE;
-            if (knn.size() >= k) maxDistSoFar = knn.get(k - 1).getDist();
+            if (knn.size() >= k) maxDistSoFar = knn.getDist(k - 1);
             if (maxDistSoFar > Math.abs(target_s - pivot_s)) farKD.searchK(k, knn, target, qi);
         }
 
-        protected void searchR(double radius, List<Integer> vecsInRage, List<Double> distVecsInRange, Vec target, List<Double> qi) {
+        protected void searchR(double radius, List<Integer> vecsInRage, List<Double> distVecsInRange, Vec target, DoubleList qi) {
             double target_s = target.get(axis);
 
             if (radius > target_s - pivot_s) left.searchR(radius, vecsInRage, distVecsInRange, target, qi);
@@ -314,15 +314,15 @@ public class KDTree<V extends Vec> implements IncrementalCollection<V> {
         }
 
         @Override
-        protected void searchK(int k, BoundedSortedList<IndexDistPair> knn, Vec target, List<Double> qi) {
-            for (int i : owned) {
-                double dist = distanceMetric.dist(i, target, qi, allVecs, distCache);
-                knn.add(new IndexDistPair(i, dist));
+        protected void searchK(int k, BoundedIndexDistList knn, Vec target, DoubleList qi) {
+            for (int j = 0; j < owned.size(); j++) {
+                int i = owned.getI(j);
+                knn.add(i, distanceMetric.dist(i, target, qi, allVecs, distCache));
             }
         }
 
         @Override
-        protected void searchR(double radius, List<Integer> vecsInRage, List<Double> distVecsInRange, Vec target, List<Double> qi) {
+        protected void searchR(double radius, List<Integer> vecsInRage, List<Double> distVecsInRange, Vec target, DoubleList qi) {
             for (int i : owned) {
                 double dist = distanceMetric.dist(i, target, qi, allVecs, distCache);
                 if (dist <= radius) {
@@ -537,18 +537,17 @@ public class KDTree<V extends Vec> implements IncrementalCollection<V> {
     public void search(Vec query, int numNeighbors, List<Integer> neighbors, List<Double> distances) {
         if (numNeighbors < 1) throw new RuntimeException("Invalid number of neighbors to search for");
 
-        BoundedSortedList<IndexDistPair> knns = new BoundedSortedList<>(numNeighbors);
-
-//        knnKDSearch(query, knns);
-        root.searchK(numNeighbors, knns, query, distanceMetric.getQueryInfo(query));
+        BoundedIndexDistList knns = new BoundedIndexDistList(numNeighbors);
+        search(query, numNeighbors, knns);
+        knns.copyTo(neighbors, distances);
+    }
 
-        neighbors.clear();
-        distances.clear();
-        for (int i = 0; i < knns.size(); i++) {
-            IndexDistPair pm = knns.get(i);
-            neighbors.add(pm.getIndex());
-            distances.add(pm.getDist());
-        }
+    @Override
+    public void search(Vec query, int numNeighbors, BoundedIndexDistList knn) {
+        if (numNeighbors < 1) throw new RuntimeException("Invalid number of neighbors to search for");
+        knn.reset(numNeighbors);
+        if (root != null)
+            root.searchK(numNeighbors, knn, query, distanceMetric.getPrimitiveQueryInfo(query));
     }
 
     @Override
@@ -568,7 +567,7 @@ public class KDTree<V extends Vec> implements IncrementalCollection<V> {
         distances.clear();
 
 
-        List<Double> qi = distanceMetric.getQueryInfo(query);
+        DoubleList qi = distanceMetric.getPrimitiveQueryInfo(query);
 
         root.searchR(range, neighbors, distances, query, qi);
 
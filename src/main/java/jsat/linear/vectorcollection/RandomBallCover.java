@@ -50,7 +50,7 @@ public class RandomBallCover<V extends Vec> implements IncrementalCollection<V>
     private List<Integer> R;
     private int size;
     private List<V> allVecs;
-    private List<Double> distCache;
+    private DoubleList distCache;
 
     /**
      * Distance from representative i to its farthest neighbor it owns
@@ -124,7 +124,7 @@ public class RandomBallCover<V extends Vec> implements IncrementalCollection<V>
         setDistanceMetric(dm);
         this.size = collection.size();
         this.allVecs = new ArrayList<>(collection);
-        this.distCache = dm.getAccelerationCache(allVecs, parallel);
+        this.distCache = dm.getPrimitiveAccelerationCache(allVecs, parallel);
         IntList allIndices = new IntList(allVecs.size());
         ListUtils.addRange(allIndices, 0, size, 1);
         setUp(allIndices, parallel);
@@ -176,7 +176,7 @@ public class RandomBallCover<V extends Vec> implements IncrementalCollection<V>
         neighbors.clear();
         distances.clear();
 
-        List<Double> qi = dm.getQueryInfo(query);
+        DoubleList qi = dm.getPrimitiveQueryInfo(query);
 
         if (repRadius == null)//brute force search b/c small collection
         {
@@ -234,7 +234,7 @@ public class RandomBallCover<V extends Vec> implements IncrementalCollection<V>
         neighbors.clear();
         distances.clear();
 
-        List<Double> qi = dm.getQueryInfo(query);
+        DoubleList qi = dm.getPrimitiveQueryInfo(query);
 
         if (repRadius == null)//brute force search b/c small collection
         {
@@ -304,7 +304,7 @@ public class RandomBallCover<V extends Vec> implements IncrementalCollection<V>
     public void insert(V x) {
         final int new_indx = allVecs.size();
         allVecs.add(x);
-        List<Double> qi = dm.getQueryInfo(x);
+        DoubleList qi = dm.getPrimitiveQueryInfo(x);
         if (distCache != null)
             distCache.addAll(qi);
         size++;
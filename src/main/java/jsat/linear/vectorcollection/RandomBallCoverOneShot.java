@@ -42,7 +42,7 @@ public class RandomBallCoverOneShot<V extends Vec> implements VectorCollection<V
     private List<List<Integer>> ownedVecs;
     private List<Integer> R;
     private List<V> allVecs;
-    private List<Double> distCache;
+    private DoubleList distCache;
 
     /**
      * The number of points each representative will consider
@@ -129,7 +129,7 @@ public class RandomBallCoverOneShot<V extends Vec> implements VectorCollection<V
     @Override
     public void build(boolean parallel, List<V> collection, DistanceMetric dm) {
         this.allVecs = new ArrayList<>(collection);
-        distCache = dm.getAccelerationCache(collection, parallel);
+        distCache = dm.getPrimitiveAccelerationCache(collection, parallel);
         IntList allIndices = new IntList(allVecs.size());
         ListUtils.addRange(allIndices, 0, allVecs.size(), 1);
         if (s < 0)
@@ -176,7 +176,7 @@ public class RandomBallCoverOneShot<V extends Vec> implements VectorCollection<V
         neighbors.clear();
         distances.clear();
 
-        List<Double> qi = dm.getQueryInfo(query);
+        DoubleList qi = dm.getPrimitiveQueryInfo(query);
         //Find the best representative r_q
         double tmp;
         double bestDist = Double.POSITIVE_INFINITY;
@@ -212,7 +212,7 @@ public class RandomBallCoverOneShot<V extends Vec> implements VectorCollection<V
         BoundedSortedList<IndexDistPair> knn =
                 new BoundedSortedList<>(numNeighbors);
 
-        List<Double> qi = dm.getQueryInfo(query);
+        DoubleList qi = dm.getPrimitiveQueryInfo(query);
         //Find the best representative r_q
         double tmp;
         double bestDist = Double.POSITIVE_INFINITY;
@@ -44,7 +44,7 @@ public class SVPTree<V extends Vec> implements IncrementalCollection<V>, DualTre
 
     private static final long serialVersionUID = -7271540108746353762L;
     private DistanceMetric dm;
-    private List<Double> distCache;
+    private DoubleList distCache;
     private List<V> allVecs;
     protected volatile TreeNode root;
     private int size;
@@ -115,7 +115,7 @@ public class SVPTree<V extends Vec> implements IncrementalCollection<V>, DualTre
 
         this.size = list.size();
         this.allVecs = list;
-        distCache = dm.getAccelerationCache(allVecs, parallel);
+        distCache = dm.getPrimitiveAccelerationCache(allVecs, parallel);
         //Use simple list so both halves can be modified simultaniously
         List<Pair<Double, Integer>> tmpList = new SimpleList<>(list.size());
         for (int i = 0; i < allVecs.size(); i++)
@@ -207,7 +207,7 @@ public class SVPTree<V extends Vec> implements IncrementalCollection<V>, DualTre
 
     @Override
     public void search(Vec query, double range, List<Integer> neighbors, List<Double> distances) {
-        List<Double> qi = dm.getQueryInfo(query);
+        DoubleList qi = dm.getPrimitiveQueryInfo(query);
         root.searchRange(VecPaired.extractTrueVec(query), range, neighbors, distances, 0.0, qi);
 
         IndexTable it = new IndexTable(distances);
@@ -219,7 +219,7 @@ public class SVPTree<V extends Vec> implements IncrementalCollection<V>, DualTre
     public void search(Vec query, int numNeighbors, List<Integer> neighbors, List<Double> distances) {
         BoundedSortedList<IndexDistPair> boundedList = new BoundedSortedList<>(numNeighbors, numNeighbors);
 
-        List<Double> qi = dm.getQueryInfo(query);
+        DoubleList qi = dm.getPrimitiveQueryInfo(query);
         root.searchKNN(VecPaired.extractTrueVec(query), numNeighbors, boundedList, 0.0, qi);
 
         for (IndexDistPair pm : boundedList) {
@@ -387,7 +387,7 @@ public class SVPTree<V extends Vec> implements IncrementalCollection<V>, DualTre
          * @param qi    the value of qi
          */
 
-        public abstract void searchKNN(Vec query, int k, BoundedSortedList<IndexDistPair> list, double x, List<Double> qi);
+        public abstract void searchKNN(Vec query, int k, BoundedSortedList<IndexDistPair> list, double x, DoubleList qi);
 
         /**
          * Performs a range query on this node
@@ -405,7 +405,7 @@ public class SVPTree<V extends Vec> implements IncrementalCollection<V>, DualTre
          * @param qi        the value of qi
          */
 
-        public abstract void searchRange(Vec query, double range, List<Integer> neighbors, List<Double> distances, double x, List<Double> qi);
+        public abstract void searchRange(Vec query, double range, List<Integer> neighbors, List<Double> distances, double x, DoubleList qi);
 
         public abstract boolean isLeaf();
 
@@ -504,7 +504,7 @@ public class SVPTree<V extends Vec> implements IncrementalCollection<V>, DualTre
         }
 
         @Override
-        public void searchKNN(Vec query, int k, BoundedSortedList<IndexDistPair> list, double x, List<Double> qi) {
+        public void searchKNN(Vec query, int k, BoundedSortedList<IndexDistPair> list, double x, DoubleList qi) {
             Deque<VPNode> curNode_stack = new ArrayDeque<VPNode>();
 
             DoubleList distToParrent_stack = new DoubleList();
@@ -580,7 +580,7 @@ public class SVPTree<V extends Vec> implements IncrementalCollection<V>, DualTre
 
         }
 
-        public void searchKNN_recurse(Vec query, int k, BoundedSortedList<IndexDistPair> list, double x, List<Double> qi) {
+        public void searchKNN_recurse(Vec query, int k, BoundedSortedList<IndexDistPair> list, double x, DoubleList qi) {
             x = dm.dist(p, query, qi, allVecs, distCache);
             if (list.size() < k || x < list.get(k - 1).getDist())
                 list.add(new IndexDistPair(this.p, x));
@@ -606,7 +606,7 @@ public class SVPTree<V extends Vec> implements IncrementalCollection<V>, DualTre
         }
 
         @Override
-        public void searchRange(Vec query, double range, List<Integer> neighbors, List<Double> distances, double x, List<Double> qi) {
+        public void searchRange(Vec query, double range, List<Integer> neighbors, List<Double> distances, double x, DoubleList qi) {
             x = dm.dist(this.p, query, qi, allVecs, distCache);
             if (x <= range) {
                 neighbors.add(this.p);
@@ -634,13 +634,13 @@ public class SVPTree<V extends Vec> implements IncrementalCollection<V>, DualTre
             if (other instanceof jsat.linear.vectorcollection.SVPTree.VPNode) {
                 jsat.linear.vectorcollection.SVPTree.VPNode o = (jsat.linear.vectorcollection.SVPTree.VPNode) other;
                 Vec ov = o.getVec(o.p);
-                List<Double> qi = dm.getQueryInfo(ov);
+                DoubleList qi = dm.getPrimitiveQueryInfo(ov);
                 return dm.dist(this.p, ov, qi, allVecs, distCache) + this.right_high + o.right_high;
             } else {
 //                VPLeaf c = (jsat.linear.vectorcollection.SVPTree.VPLeaf) other;
 //                VPNode o = c.getParrent();
 //                Vec ov = o.getVec(o.p);
-//                List<Double> qi = dm.getQueryInfo(ov);
+//                DoubleList qi = dm.getQueryInfo(ov);
 //                return dm.dist(this.p, ov, qi, allVecs, distCache) + this.right_high + c.getParentDistance();
                 return Double.POSITIVE_INFINITY;
             }
@@ -652,13 +652,13 @@ public class SVPTree<V extends Vec> implements IncrementalCollection<V>, DualTre
                 jsat.linear.vectorcollection.SVPTree.VPNode o = (jsat.linear.vectorcollection.SVPTree.VPNode) other;
 
                 Vec ov = o.getVec(o.p);
-                List<Double> qi = dm.getQueryInfo(ov);
+                DoubleList qi = dm.getPrimitiveQueryInfo(ov);
                 return max(dm.dist(this.p, ov, qi, allVecs, distCache) - this.right_high - o.right_high, 0);
             } else {
 //                VPLeaf c = (jsat.linear.vectorcollection.SVPTree.VPLeaf) other;
 //                VPNode o = c.getParrent();
 //                Vec ov = o.getVec(o.p);
-//                List<Double> qi = dm.getQueryInfo(ov);
+//                DoubleList qi = dm.getQueryInfo(ov);
 //                return dm.dist(this.p, ov, qi, allVecs, distCache) - this.right_high - c.getParentDistance();
                 return 0;
             }
@@ -670,7 +670,7 @@ public class SVPTree<V extends Vec> implements IncrementalCollection<V>, DualTre
                 jsat.linear.vectorcollection.SVPTree.VPNode o = (jsat.linear.vectorcollection.SVPTree.VPNode) other;
 
                 Vec ov = o.getVec(o.p);
-                List<Double> qi = dm.getQueryInfo(ov);
+                DoubleList qi = dm.getPrimitiveQueryInfo(ov);
                 double d = dm.dist(this.p, ov, qi, allVecs, distCache);
                 return new double[]
                         {
@@ -767,7 +767,7 @@ public class SVPTree<V extends Vec> implements IncrementalCollection<V>, DualTre
         }
 
         @Override
-        public void searchKNN(Vec query, int k, BoundedSortedList<IndexDistPair> list, double x, List<Double> qi) {
+        public void searchKNN(Vec query, int k, BoundedSortedList<IndexDistPair> list, double x, DoubleList qi) {
             double dist = -1;
 
             //The zero check, for the case that the leaf is the ONLY node, x will be passed as 0.0 <= Max value will be true 
@@ -788,7 +788,7 @@ public class SVPTree<V extends Vec> implements IncrementalCollection<V>, DualTre
         }
 
         @Override
-        public void searchRange(Vec query, double range, List<Integer> neighbors, List<Double> distances, double x, List<Double> qi) {
+        public void searchRange(Vec query, double range, List<Integer> neighbors, List<Double> distances, double x, DoubleList qi) {
             double dist = Double.MAX_VALUE;
 
             for (int i = 0; i < points.size(); i++) {
@@ -829,7 +829,7 @@ public class SVPTree<V extends Vec> implements IncrementalCollection<V>, DualTre
 //                VPLeaf c = (jsat.linear.vectorcollection.SVPTree.VPLeaf) other;
 //                VPNode o = c.getParrent();
 //                Vec ov = o.getVec(o.p);
-//                List<Double> qi = dm.getQueryInfo(ov);
+//                DoubleList qi = dm.getQueryInfo(ov);
 //                return dm.dist(this.getParrent().p, ov, qi, allVecs, distCache) + this.getParentDistance() + c.getParentDistance();
 //            }
         }
@@ -847,7 +847,7 @@ public class SVPTree<V extends Vec> implements IncrementalCollection<V>, DualTre
 //                VPLeaf c = (jsat.linear.vectorcollection.SVPTree.VPLeaf) other;
 //                VPNode o = c.getParrent();
 //                Vec ov = o.getVec(o.p);
-//                List<Double> qi = dm.getQueryInfo(ov);
+//                DoubleList qi = dm.getQueryInfo(ov);
 //                return dm.dist(this.getParrent().p, ov, qi, allVecs, distCache) - this.getParentDistance() - c.getParentDistance();
 //            }
         }
@@ -20,7 +20,6 @@ import jsat.linear.VecPaired;
 import jsat.linear.distancemetrics.DistanceMetric;
 import jsat.linear.distancemetrics.EuclideanDistance;
 import jsat.utils.BooleanList;
-import jsat.utils.BoundedSortedList;
 import jsat.utils.DoubleList;
 import jsat.utils.IndexTable;
 import jsat.utils.IntList;
@@ -49,7 +48,7 @@ public class VPTree<V extends Vec> implements IncrementalCollection<V>, DualTree
 
     private static final long serialVersionUID = -7271540108746353762L;
     private DistanceMetric dm;
-    private List<Double> distCache;
+    private DoubleList distCache;
     private List<V> allVecs;
     private Random rand;
     private int sampleSize;
@@ -149,7 +148,7 @@ public class VPTree<V extends Vec> implements IncrementalCollection<V>, DualTree
 
         this.size = list.size();
         this.allVecs = list;
-        distCache = dm.getAccelerationCache(allVecs, parallel);
+        distCache = dm.getPrimitiveAccelerationCache(allVecs, parallel);
         //Use simple list so both halves can be modified simultaniously
         List<Pair<Double, Integer>> tmpList = new SimpleList<>(list.size());
         for (int i = 0; i < allVecs.size(); i++)
@@ -241,7 +240,7 @@ public class VPTree<V extends Vec> implements IncrementalCollection<V>, DualTree
 
     @Override
     public void search(Vec query, double range, List<Integer> neighbors, List<Double> distances) {
-        List<Double> qi = dm.getQueryInfo(query);
+        DoubleList qi = dm.getPrimitiveQueryInfo(query);
         root.searchRange(VecPaired.extractTrueVec(query), range, neighbors, distances, 0.0, qi);
 
         IndexTable it = new IndexTable(distances);
@@ -251,28 +250,26 @@ public class VPTree<V extends Vec> implements IncrementalCollection<V>, DualTree
 
     @Override
     public void search(Vec query, int numNeighbors, List<Integer> neighbors, List<Double> distances) {
-        BoundedSortedList<IndexDistPair> boundedList = new BoundedSortedList<>(numNeighbors, numNeighbors);
-
-        List<Double> qi = dm.getQueryInfo(query);
-        root.searchKNN(VecPaired.extractTrueVec(query), numNeighbors, boundedList, 0.0, qi);
+        BoundedIndexDistList boundedList = new BoundedIndexDistList(numNeighbors);
+        search(query, numNeighbors, boundedList);
+        boundedList.copyTo(neighbors, distances);
+    }
 
-        for (IndexDistPair pm : boundedList) {
-            neighbors.add(pm.getIndex());
-            distances.add(pm.getDist());
-        }
+    @Override
+    public void search(Vec query, int numNeighbors, BoundedIndexDistList knn) {
+        knn.reset(numNeighbors);
+        DoubleList qi = dm.getPrimitiveQueryInfo(query);
+        root.searchKNN(VecPaired.extractTrueVec(query), numNeighbors, knn, 0.0, qi);
     }
 
     @Override
     public void search(Vec query, int numNeighbors, double range, List<Integer> neighbors, List<Double> distances) {
-        BoundedSortedList<IndexDistPair> boundedList = new BoundedSortedList<>(numNeighbors, numNeighbors);
+        BoundedIndexDistList boundedList = new BoundedIndexDistList(numNeighbors);
 
-        List<Double> qi = dm.getQueryInfo(query);
+        DoubleList qi = dm.getPrimitiveQueryInfo(query);
         root.searchKNN_range(VecPaired.extractTrueVec(query), numNeighbors, range, boundedList, 0.0, qi);
 
-        for (IndexDistPair pm : boundedList) {
-            neighbors.add(pm.getIndex());
-            distances.add(pm.getDist());
-        }
+        boundedList.copyTo(neighbors, distances);
     }
 
     /**
@@ -491,7 +488,7 @@ public class VPTree<V extends Vec> implements IncrementalCollection<V>, DualTree
          *              Initial calls from the root node may choose to us zero.
          * @param qi    the value of qi
          */
-        public abstract void searchKNN(Vec query, int k, BoundedSortedList<IndexDistPair> list, double x, List<Double> qi);
+        public abstract void searchKNN(Vec query, int k, BoundedIndexDistList list, double x, DoubleList qi);
 
         /**
          * Performs a KNN query on this node.
@@ -506,7 +503,7 @@ public class VPTree<V extends Vec> implements IncrementalCollection<V>, DualTree
          *               Initial calls from the root node may choose to us zero.
          * @param qi     the value of qi
          */
-        public abstract void searchKNN_range(Vec query, int k, double radius, BoundedSortedList<IndexDistPair> list, double x, List<Double> qi);
+        public abstract void searchKNN_range(Vec query, int k, double radius, BoundedIndexDistList list, double x, DoubleList qi);
 
         /**
          * Performs a range query on this node
@@ -524,7 +521,7 @@ public class VPTree<V extends Vec> implements IncrementalCollection<V>, DualTree
          * @param qi        the value of qi
          */
 
-        public abstract void searchRange(Vec query, double range, List<Integer> neighbors, List<Double> distances, double x, List<Double> qi);
+        public abstract void searchRange(Vec query, double range, List<Integer> neighbors, List<Double> distances, double x, DoubleList qi);
 
         public abstract boolean isLeaf();
 
@@ -624,7 +621,7 @@ public class VPTree<V extends Vec> implements IncrementalCollection<V>, DualTree
         }
 
         @Override
-        public void searchKNN(Vec query, int k, BoundedSortedList<IndexDistPair> list, double x, List<Double> qi) {
+        public void searchKNN(Vec query, int k, BoundedIndexDistList list, double x, DoubleList qi) {
             Deque<VPNode> curNode_stack = new ArrayDeque<>();
 
             DoubleList distToParrent_stack = new DoubleList();
@@ -638,9 +635,9 @@ public class VPTree<V extends Vec> implements IncrementalCollection<V>, DualTree
                     VPNode node = curNode_stack.peek();
                     x = dm.dist(node.p, query, qi, allVecs, distCache);
                     distToParrent_stack.push(x);
-                    if (list.size() < k || x < list.get(k - 1).getDist())
-                        list.add(new IndexDistPair(node.p, x));
-                    double tau = list.get(list.size() - 1).getDist();
+                    if (list.size() < k || x < list.getDist(k - 1))
+                        list.add(node.p, x);
+                    double tau = list.lastDist();
                     double middle = (node.left_high + node.right_low) * 0.5;
                     boolean leftFirst = x < middle;
 
@@ -669,7 +666,7 @@ public class VPTree<V extends Vec> implements IncrementalCollection<V>, DualTree
                 {
                     VPNode node = curNode_stack.pop();//pop, we are defintly done with this node after
                     x = distToParrent_stack.pop();
-                    double tau = list.get(list.size() - 1).getDist();
+                    double tau = list.lastDist();
                     Boolean finishLeft = search_left_stack.pop();
 
 
@@ -700,11 +697,11 @@ public class VPTree<V extends Vec> implements IncrementalCollection<V>, DualTree
 
         }
 
-        public void searchKNN_recurse(Vec query, int k, BoundedSortedList<IndexDistPair> list, double x, List<Double> qi) {
+        public void searchKNN_recurse(Vec query, int k, BoundedIndexDistList list, double x, DoubleList qi) {
             x = dm.dist(p, query, qi, allVecs, distCache);
-            if (list.size() < k || x < list.get(k - 1).getDist())
-                list.add(new IndexDistPair(this.p, x));
-            double tau = list.get(list.size() - 1).getDist();
+            if (list.size() < k || x < list.getDist(k - 1))
+                list.add(this.p, x);
+            double tau = list.lastDist();
             double middle = (this.left_high + this.right_low) * 0.5;
 
 //            if(this.left instanceof VPNode && this.right in)
@@ -713,20 +710,20 @@ public class VPTree<V extends Vec> implements IncrementalCollection<V>, DualTree
             if (x < middle) {
                 if (searchInLeft(x, tau) || list.size() < k)
                     this.left.searchKNN(query, k, list, x, qi);
-                tau = list.get(list.size() - 1).getDist();
+                tau = list.lastDist();
                 if (searchInRight(x, tau) || list.size() < k)
                     this.right.searchKNN(query, k, list, x, qi);
             } else {
                 if (searchInRight(x, tau) || list.size() < k)
                     this.right.searchKNN(query, k, list, x, qi);
-                tau = list.get(list.size() - 1).getDist();
+                tau = list.lastDist();
                 if (searchInLeft(x, tau) || list.size() < k)
                     this.left.searchKNN(query, k, list, x, qi);
             }
         }
 
         @Override
-        public void searchKNN_range(Vec query, int k, double radius, BoundedSortedList<IndexDistPair> list, double x, List<Double> qi) {
+        public void searchKNN_range(Vec query, int k, double radius, BoundedIndexDistList list, double x, DoubleList qi) {
             Deque<VPNode> curNode_stack = new ArrayDeque<>();
 
             DoubleList distToParrent_stack = new DoubleList();
@@ -740,9 +737,9 @@ public class VPTree<V extends Vec> implements IncrementalCollection<V>, DualTree
                     VPNode node = curNode_stack.peek();
                     x = dm.dist(node.p, query, qi, allVecs, distCache);
                     distToParrent_stack.push(x);
-                    if (x < radius && (list.size() < k || x < list.get(k - 1).getDist()))
-                        list.add(new IndexDistPair(node.p, x));
-                    double tau = list.size() < k ? radius : min(radius, list.get(list.size() - 1).getDist());
+                    if (x < radius && (list.size() < k || x < list.getDist(k - 1)))
+                        list.add(node.p, x);
+                    double tau = list.size() < k ? radius : min(radius, list.lastDist());
                     double middle = (node.left_high + node.right_low) * 0.5;
                     boolean leftFirst = x < middle;
 
@@ -771,7 +768,7 @@ public class VPTree<V extends Vec> implements IncrementalCollection<V>, DualTree
                 {
                     VPNode node = curNode_stack.pop();//pop, we are defintly done with this node after
                     x = distToParrent_stack.pop();
-                    double tau = list.size() < k ? radius : min(radius, list.get(list.size() - 1).getDist());
+                    double tau = list.size() < k ? radius : min(radius, list.lastDist());
                     Boolean finishLeft = search_left_stack.pop();
 
 
@@ -802,7 +799,7 @@ public class VPTree<V extends Vec> implements IncrementalCollection<V>, DualTree
         }
 
         @Override
-        public void searchRange(Vec query, double range, List<Integer> neighbors, List<Double> distances, double x, List<Double> qi) {
+        public void searchRange(Vec query, double range, List<Integer> neighbors, List<Double> distances, double x, DoubleList qi) {
             x = dm.dist(this.p, query, qi, allVecs, distCache);
             if (x <= range) {
                 neighbors.add(this.p);
@@ -831,7 +828,7 @@ public class VPTree<V extends Vec> implements IncrementalCollection<V>, DualTree
                 jsat.linear.vectorcollection.VPTree.VPNode o = (jsat.linear.vectorcollection.VPTree.VPNode) other;
 //                return dm.dist(this.p, o.p, allVecs, distCache) - this.right_high - o.right_high;
                 Vec ov = o.getVec(o.p);
-                List<Double> qi = dm.getQueryInfo(ov);
+                DoubleList qi = dm.getPrimitiveQueryInfo(ov);
                 return dm.dist(this.p, ov, qi, allVecs, distCache) + this.right_high + o.right_high;
             } else {
 //                jsat.linear.vectorcollection.VPTree.VPLeaf o = (jsat.linear.vectorcollection.VPTree.VPLeaf) other;
@@ -845,7 +842,7 @@ public class VPTree<V extends Vec> implements IncrementalCollection<V>, DualTree
                 jsat.linear.vectorcollection.VPTree.VPNode o = (jsat.linear.vectorcollection.VPTree.VPNode) other;
 //                return dm.dist(this.p, o.p, allVecs, distCache) - this.right_high - o.right_high;
                 Vec ov = o.getVec(o.p);
-                List<Double> qi = dm.getQueryInfo(ov);
+                DoubleList qi = dm.getPrimitiveQueryInfo(ov);
                 return dm.dist(this.p, ov, qi, allVecs, distCache) - this.right_high - o.right_high;
 //                return dm.dist(ov, get(this.p)) - this.right_high - o.right_high;
 //                return 0;
@@ -861,7 +858,7 @@ public class VPTree<V extends Vec> implements IncrementalCollection<V>, DualTree
                 jsat.linear.vectorcollection.VPTree.VPNode o = (jsat.linear.vectorcollection.VPTree.VPNode) other;
 
                 Vec ov = o.getVec(o.p);
-                List<Double> qi = dm.getQueryInfo(ov);
+                DoubleList qi = dm.getPrimitiveQueryInfo(ov);
                 double d = dm.dist(this.p, ov, qi, allVecs, distCache);
                 return new double[]
                         {
@@ -973,28 +970,28 @@ public class VPTree<V extends Vec> implements IncrementalCollection<V>, DualTree
         }
 
         @Override
-        public void searchKNN(Vec query, int k, BoundedSortedList<IndexDistPair> list, double x, List<Double> qi) {
+        public void searchKNN(Vec query, int k, BoundedIndexDistList list, double x, DoubleList qi) {
             double dist = -1;
 
             //The zero check, for the case that the leaf is the ONLY node, x will be passed as 0.0 <= Max value will be true 
-            double tau = list.isEmpty() ? Double.MAX_VALUE : list.get(list.size() - 1).getDist();
+            double tau = list.isEmpty() ? Double.MAX_VALUE : list.lastDist();
             for (int i = 0; i < points.size(); i++) {
                 int point_i = points.getI(i);
                 double bound_i = bounds.getD(i);
                 if (list.size() < k) {
 
-                    list.add(new IndexDistPair(point_i, dm.dist(point_i, query, qi, allVecs, distCache)));
-                    tau = list.get(list.size() - 1).getDist();
+                    list.add(point_i, dm.dist(point_i, query, qi, allVecs, distCache));
+                    tau = list.lastDist();
                 } else if (bound_i - tau <= x && x <= bound_i + tau)//Bound check agains the distance to our parrent node, provided by x
                     if ((dist = dm.dist(point_i, query, qi, allVecs, distCache)) < tau) {
-                        list.add(new IndexDistPair(point_i, dist));
-                        tau = list.get(list.size() - 1).getDist();
+                        list.add(point_i, dist);
+                        tau = list.lastDist();
                     }
             }
         }
 
         @Override
-        public void searchRange(Vec query, double range, List<Integer> neighbors, List<Double> distances, double x, List<Double> qi) {
+        public void searchRange(Vec query, double range, List<Integer> neighbors, List<Double> distances, double x, DoubleList qi) {
             double dist = Double.MAX_VALUE;
 
             for (int i = 0; i < points.size(); i++) {
@@ -1009,18 +1006,18 @@ public class VPTree<V extends Vec> implements IncrementalCollection<V>, DualTree
         }
 
         @Override
-        public void searchKNN_range(Vec query, int k, double range, BoundedSortedList<IndexDistPair> list, double x, List<Double> qi) {
+        public void searchKNN_range(Vec query, int k, double range, BoundedIndexDistList list, double x, DoubleList qi) {
             double dist = -1;
 
             //The zero check, for the case that the leaf is the ONLY node, x will be passed as 0.0 <= Max value will be true 
-            double tau = list.size() < k ? range : min(range, list.get(list.size() - 1).getDist());
+            double tau = list.size() < k ? range : min(range, list.lastDist());
             for (int i = 0; i < points.size(); i++) {
                 int point_i = points.getI(i);
                 double bound_i = bounds.getD(i);
                 if (bound_i - tau <= x && x <= bound_i + tau)//Bound check agains the distance to our parrent node, provided by x
                     if ((dist = dm.dist(point_i, query, qi, allVecs, distCache)) < tau) {
-                        list.add(new IndexDistPair(point_i, dist));
-                        tau = min(range, list.get(list.size() - 1).getDist());
+                        list.add(point_i, dist);
+                        tau = min(range, list.lastDist());
                     }
             }
         }
@@ -23,7 +23,7 @@ import jsat.utils.IndexTable;
 public class VectorArray<V extends Vec> extends ArrayList<V> implements IncrementalCollection<V> {
     private static final long serialVersionUID = 5365949686370986234L;
     private DistanceMetric distanceMetric;
-    private List<Double> distCache;
+    private DoubleList distCache;
 
     public VectorArray() {
         this(new EuclideanDistance(), 20);
@@ -40,7 +40,7 @@ public class VectorArray<V extends Vec> extends ArrayList<V> implements Incremen
         super(c);
         this.distanceMetric = distanceMetric;
         if (distanceMetric.supportsAcceleration())
-            distCache = distanceMetric.getAccelerationCache(this);
+            distCache = distanceMetric.getPrimitiveAccelerationCache(this);
     }
 
     public VectorArray(DistanceMetric distanceMetric) {
@@ -61,7 +61,7 @@ public class VectorArray<V extends Vec> extends ArrayList<V> implements Incremen
             return;//avoid recomputing neadlessly
         this.distanceMetric = distanceMetric;
         if (distanceMetric.supportsAcceleration())
-            this.distCache = distanceMetric.getAccelerationCache(this);
+            this.distCache = distanceMetric.getPrimitiveAccelerationCache(this);
         else
             this.distCache = null;
     }
@@ -102,14 +102,14 @@ public class VectorArray<V extends Vec> extends ArrayList<V> implements Incremen
     @Override
     public void clear() {
         super.clear();
-        this.distCache = distanceMetric.getAccelerationCache(this);
+        this.distCache = distanceMetric.getPrimitiveAccelerationCache(this);
     }
 
     @Override
     public void search(Vec query, double range, List<Integer> neighbors, List<Double> distances) {
         neighbors.clear();
         distances.clear();
-        List<Double> qi = distanceMetric.getQueryInfo(query);
+        DoubleList qi = distanceMetric.getPrimitiveQueryInfo(query);
 
         for (int i = 0; i < size(); i++) {
             double dist = distanceMetric.dist(i, query, qi, this, distCache);
@@ -130,7 +130,7 @@ public class VectorArray<V extends Vec> extends ArrayList<V> implements Incremen
         distances.clear();
         BoundedSortedList<IndexDistPair> knns = new BoundedSortedList<>(numNeighbors);
 
-        List<Double> qi = distanceMetric.getQueryInfo(query);
+        DoubleList qi = distanceMetric.getPrimitiveQueryInfo(query);
 
         for (int i = 0; i < size(); i++) {
             double distance = distanceMetric.dist(i, query, qi, this, distCache);
@@ -12,6 +12,7 @@ import jsat.linear.VecPaired;
 import jsat.linear.distancemetrics.DistanceMetric;
 import jsat.utils.DoubleList;
 import jsat.utils.IntList;
+import jsat.utils.SystemInfo;
 import jsat.utils.concurrent.ParallelUtils;
 
 /**
@@ -244,6 +245,110 @@ public interface VectorCollection<V extends Vec> extends Cloneable, Serializable
         });
     }
 
+    /**
+     * Performs k-Nearest Neighbor search of the current collection, storing
+     * the results in a reusable primitive list. Implementations should
+     * override this to fill the list directly, which avoids creating objects
+     * for every neighbor. By default,
+     * {@link #search(jsat.linear.Vec, int, java.util.List, java.util.List) }
+     * is called and its results copied.
+     *
+     * @param query        the point to search for the k-nearest neighbors of
+     * @param numNeighbors the number of neighbors <i>k</i> to search for.
+     * @param knn          the list to store the neighbors in, which will be
+     *                     {@link BoundedIndexDistList#reset(int) reset} to hold
+     *                     <i>k</i> values
+     */
+    default public void search(Vec query, int numNeighbors, BoundedIndexDistList knn) {
+        IntList neighbors = new IntList(numNeighbors);
+        DoubleList distances = new DoubleList(numNeighbors);
+        search(query, numNeighbors, neighbors, distances);
+        knn.reset(numNeighbors);
+        for (int i = 0; i < neighbors.size(); i++)
+            knn.add(neighbors.getI(i), distances.getD(i));
+    }
+
+    /**
+     * Performs k-Nearest Neighbor search for every query in a batch, storing
+     * the results in the given primitive arrays. The neighbors of query
+     * <i>i</i> are stored in positions [<i>i</i>&middot;<i>k</i>,
+     * (<i>i</i>+1)&middot;<i>k</i>), sorted by distance. If fewer than
+     * <i>k</i> neighbors are found, the remaining slots have an index of -1
+     * and a distance of {@link Double#POSITIVE_INFINITY}.
+     *
+     * @param Q            the queries to search for
+     * @param numNeighbors the number of neighbors <i>k</i> to search for.
+     * @param neighbors    the array to store the index of the neighbors in,
+     *                     of length at least |Q|&middot;<i>k</i>
+     * @param distances    the array to store the distance of the neighbors in,
+     *                     of length at least |Q|&middot;<i>k</i>
+     * @param parallel     {@code true} if the searches should be done in
+     *                     parallel
+     */
+    default public void search(List<? extends Vec> Q, int numNeighbors, int[] neighbors, double[] distances, boolean parallel) {
+        ParallelUtils.run(parallel, Q.size(), (start, end) ->
+        {
+            BoundedIndexDistList knn = new BoundedIndexDistList(numNeighbors);
+            for (int i = start; i < end; i++) {
+                search(Q.get(i), numNeighbors, knn);
+                knn.copyTo(neighbors, distances, i * numNeighbors);
+            }
+        });
+    }
+
+    /**
+     * Performs a range search for every query in a batch, storing the results
+     * in a compressed sparse row layout. The neighbors of query <i>i</i> are
+     * stored in positions [offsets[<i>i</i>], offsets[<i>i</i>+1]) of the
+     * given lists, sorted by distance.
+     *
+     * @param Q         the queries to search for
+     * @param range     the radius to search for all the neighbors with a
+     *                  distance &le; range.
+     * @param neighbors the list to store the index of the neighbors in. Its
+     *                  contents will be replaced.
+     * @param distances the list to store the distance of the neighbors in. Its
+     *                  contents will be replaced.
+     * @param parallel  {@code true} if the searches should be done in parallel
+     * @return the offsets of each query's neighbors, of length |Q|+1
+     */
+    default public int[] search(List<? extends Vec> Q, double range, IntList neighbors, DoubleList distances, boolean parallel) {
+        int[] offsets = new int[Q.size() + 1];
+        int chunks = parallel ? Math.max(1, Math.min(Q.size(), SystemInfo.LogicalCores * 4)) : 1;
+        IntList[] chunkNeighbors = new IntList[chunks];
+        DoubleList[] chunkDistances = new DoubleList[chunks];
+        ParallelUtils.run(parallel, chunks, c ->
+        {
+            int start = ParallelUtils.getStartBlock(Q.size(), c, chunks);
+            int end = ParallelUtils.getEndBlock(Q.size(), c, chunks);
+            IntList n_c = chunkNeighbors[c] = new IntList();
+            DoubleList d_c = chunkDistances[c] = new DoubleList();
+            IntList n_q = new IntList();
+            DoubleList d_q = new DoubleList();
+            for (int i = start; i < end; i++) {
+                n_q.clear();
+                d_q.clear();
+                search(Q.get(i), range, n_q, d_q);
+                for (int j = 0; j < n_q.size(); j++) {
+                    n_c.add(n_q.getI(j));
+                    d_c.add(d_q.getD(j));
+                }
+                offsets[i + 1] = n_q.size();
+            }
+        });
+
+        for (int i = 0; i < Q.size(); i++)
+            offsets[i + 1] += offsets[i];
+        neighbors.clear();
+        distances.clear();
+        for (int c = 0; c < chunks; c++)
+            for (int j = 0; j < chunkNeighbors[c].size(); j++) {
+                neighbors.add(chunkNeighbors[c].getI(j));
+                distances.add(chunkDistances[c].getD(j));
+            }
+        return offsets;
+    }
+
     public VectorCollection<V> clone();
 
     public default List<Vec> getVecs() {
@@ -1,6 +1,5 @@
 package jsat.outlier;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import jsat.DataSet;
@@ -72,15 +71,16 @@ public class LOF implements Outlier {
 
         int N = X.size();
         k_distance = new double[N];
-        List<List<Integer>> all_knn = new ArrayList<>();
-        List<List<Double>> all_knn_dists = new ArrayList<>();
+        int k = minPnts + 1;//+1 to avoid self distance
+        int[] all_knn = new int[N * k];
+        double[] all_knn_dists = new double[N * k];
 
-        vc.search(X, minPnts + 1, all_knn, all_knn_dists, parallel);//+1 to avoid self distance
+        vc.search(X, k, all_knn, all_knn_dists, parallel);
 
         ParallelUtils.run(parallel, N, (start, end) ->
         {
             for (int i = start; i < end; i++)
-                k_distance[i] = all_knn_dists.get(i).get(minPnts);
+                k_distance[i] = all_knn_dists[i * k + minPnts];
         });
 
         lrd_internal = new double[N];
@@ -90,8 +90,8 @@ public class LOF implements Outlier {
                 double reachSum = 0;
 
                 for (int j_indx = 1; j_indx < minPnts + 1; j_indx++) {
-                    int neighbor = all_knn.get(i).get(j_indx);
-                    double dist = all_knn_dists.get(i).get(j_indx);
+                    int neighbor = all_knn[i * k + j_indx];
+                    double dist = all_knn_dists[i * k + j_indx];
                     reachSum += Math.max(k_distance[neighbor], dist);
                 }
 
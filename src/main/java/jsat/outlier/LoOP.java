@@ -1,6 +1,5 @@
 package jsat.outlier;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import jsat.DataSet;
@@ -78,16 +77,20 @@ public class LoOP implements Outlier {
 
         int N = X.size();
         standard_distance = new double[N];
-        List<List<Integer>> all_knn = new ArrayList<>();
-        List<List<Double>> all_knn_dists = new ArrayList<>();
+        int k = minPnts + 1;//+1 to avoid self distance
+        int[] all_knn = new int[N * k];
+        double[] all_knn_dists = new double[N * k];
 
-        vc.search(X, minPnts + 1, all_knn, all_knn_dists, parallel);//+1 to avoid self distance
+        vc.search(X, k, all_knn, all_knn_dists, parallel);
 
         ParallelUtils.run(parallel, N, (start, end) ->
         {
-            for (int i = start; i < end; i++)
-                standard_distance[i] = Math.sqrt(all_knn_dists.get(i).stream()
-                        .mapToDouble(z -> z * z).sum() / minPnts + 1e-6);
+            for (int i = start; i < end; i++) {
+                double sqrdSum = 0;
+                for (int j = i * k; j < (i + 1) * k; j++)
+                    sqrdSum += all_knn_dists[j] * all_knn_dists[j];
+                standard_distance[i] = Math.sqrt(sqrdSum / minPnts + 1e-6);
+            }
         });
 
         double[] plof_internal = new double[N];
@@ -99,7 +102,7 @@ public class LoOP implements Outlier {
                 double neighborSD = 0;
 
                 for (int j_indx = 1; j_indx < minPnts + 1; j_indx++) {
-                    int neighbor = all_knn.get(i).get(j_indx);
+                    int neighbor = all_knn[i * k + j_indx];
                     neighborSD += standard_distance[neighbor];
                 }
 
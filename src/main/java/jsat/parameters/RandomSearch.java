@@ -208,6 +208,24 @@ public class RandomSearch extends ModelSearch {
             throw new IllegalArgumentException("Parameter " + name + " is not for double or int values");
     }
 
+    /**
+     * Sets every parameter being searched to a new random value sampled from
+     * its distribution.
+     *
+     * @param rand the source of randomness
+     */
+    protected void sampleParameters(Random rand) {
+        for (int i = 0; i < searchParams.size(); i++) {
+            double sampledValue = searchValues.get(i).invCdf(rand.nextDouble());
+
+            Parameter param = searchParams.get(i);
+            if (param instanceof DoubleParameter)
+                ((DoubleParameter) param).setValue(sampledValue);
+            else if (param instanceof IntParameter)
+                ((IntParameter) param).setValue((int) Math.round(sampledValue));
+        }
+    }
+
     @Override
     public void train(final ClassificationDataSet dataSet, final boolean parallel) {
         final PriorityQueue<ClassificationModelEvaluation> bestModels
@@ -227,16 +245,7 @@ public class RandomSearch extends ModelSearch {
 
         Random rand = RandomUtil.getRandom();
         for (int trial = 0; trial < trials; trial++) {
-            for (int i = 0; i < searchParams.size(); i++) {
-                double sampledValue = searchValues.get(i).invCdf(rand.nextDouble());
-
-                Parameter param = searchParams.get(i);
-                if (param instanceof DoubleParameter)
-                    ((DoubleParameter) param).setValue(sampledValue);
-                else if (param instanceof IntParameter)
-                    ((IntParameter) param).setValue((int) Math.round(sampledValue));
-            }
-
+            sampleParameters(rand);
             paramsToEval.add(baseClassifier.clone());
         }
 
@@ -299,16 +308,7 @@ public class RandomSearch extends ModelSearch {
 
         Random rand = RandomUtil.getRandom();
         for (int trial = 0; trial < trials; trial++) {
-            for (int i = 0; i < searchParams.size(); i++) {
-                double sampledValue = searchValues.get(i).invCdf(rand.nextDouble());
-
-                Parameter param = searchParams.get(i);
-                if (param instanceof DoubleParameter)
-                    ((DoubleParameter) param).setValue(sampledValue);
-                else if (param instanceof IntParameter)
-                    ((IntParameter) param).setValue((int) Math.round(sampledValue));
-            }
-
+            sampleParameters(rand);
             paramsToEval.add(baseRegressor.clone());
         }
 
@@ -0,0 +1,348 @@
+package jsat.parameters;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.BiFunction;
+import java.util.function.ToDoubleBiFunction;
+
+import jsat.DataSet;
+import jsat.classifiers.ClassificationDataSet;
+import jsat.classifiers.Classifier;
+import jsat.classifiers.WarmClassifier;
+import jsat.classifiers.evaluation.ClassificationScore;
+import jsat.exceptions.FailedToFitException;
+import jsat.regression.RegressionDataSet;
+import jsat.regression.Regressor;
+import jsat.regression.WarmRegressor;
+import jsat.regression.evaluation.RegressionScore;
+import jsat.utils.IntList;
+import jsat.utils.concurrent.ParallelUtils;
+import jsat.utils.random.RandomUtil;
+
+/**
+ * Successive Halving is a faster alternative to {@link RandomSearch}. The
+ * same number of parameter combinations are sampled, but rather than
+ * evaluating every one of them with cross validation on all of the data, they
+ * are first evaluated using only a small fraction of the training data in
+ * each fold. Only the best 1/&eta; of the candidates are kept, and they are
+ * evaluated again with &eta; times as much training data. This repeats until
+ * the remaining candidates are evaluated using all of the training data, so
+ * that most of the time is spent on the candidates that look the most
+ * promising. <br>
+ * When the model supports warm starts, a candidate that survives a round is
+ * warm started from the model it produced on the same fold in the previous
+ * round. <br>
+ * Every fold of every candidate in a round is trained as an independent task,
+ * and all of the tasks for a round are scheduled together rather than one
+ * candidate at a time, so that no threads sit idle waiting on the slowest
+ * fold of a candidate.
+ * <p>
+ * See: Jamieson, K., & Talwalkar, A. (2016). <i>Non-stochastic Best Arm
+ * Identification and Hyperparameter Optimization</i>. In Proceedings of the
+ * 19th International Conference on Artificial Intelligence and Statistics
+ * (pp. 240–248).
+ */
+public class SuccessiveHalvingSearch extends RandomSearch {
+
+    private double eta = 3;
+    private double minTrainingFraction = 0.1;
+    private boolean useWarmStarts = true;
+
+    /**
+     * Creates a new search to tune the specified parameters of a regression
+     * model. The parameters still need to be specified by calling
+     * {@link #addParameter(jsat.parameters.DoubleParameter, jsat.distributions.Distribution) }
+     *
+     * @param baseRegressor the regressor to tune the parameters of
+     * @param folds         the number of folds of cross-validation to perform to
+     *                      evaluate each combination of parameters
+     * @throws FailedToFitException if the base regressor does not implement
+     *                              {@link Parameterized}
+     */
+    public SuccessiveHalvingSearch(Regressor baseRegressor, int folds) {
+        super(baseRegressor, folds);
+    }
+
+    /**
+     * Creates a new search to tune the specified parameters of a
+     * classification model. The parameters still need to be specified by
+     * calling
+     * {@link #addParameter(jsat.parameters.DoubleParameter, jsat.distributions.Distribution) }
+     *
+     * @param baseClassifier the classifier to tune the parameters of
+     * @param folds          the number of folds of cross-validation to perform to
+     *                       evaluate each combination of parameters
+     * @throws FailedToFitException if the base classifier does not implement
+     *                              {@link Parameterized}
+     */
+    public SuccessiveHalvingSearch(Classifier baseClassifier, int folds) {
+        super(baseClassifier, folds);
+    }
+
+    /**
+     * Copy constructor
+     *
+     * @param toCopy the object to copy
+     */
+    public SuccessiveHalvingSearch(SuccessiveHalvingSearch toCopy) {
+        super(toCopy);
+        this.eta = toCopy.eta;
+        this.minTrainingFraction = toCopy.minTrainingFraction;
+        this.useWarmStarts = toCopy.useWarmStarts;
+    }
+
+    /**
+     * Sets the rate &eta; at which candidates are removed. After each round
+     * only 1/&eta; of the candidates are kept, and the amount of training data
+     * used is increased by a factor of &eta;.
+     *
+     * @param eta the reduction factor, must be greater than 1
+     */
+    public void setEta(double eta) {
+        if (!(eta > 1) || Double.isInfinite(eta))
+            throw new IllegalArgumentException("eta must be greater than 1, not " + eta);
+        this.eta = eta;
+    }
+
+    /**
+     * @return the reduction factor
+     */
+    public double getEta() {
+        return eta;
+    }
+
+    /**
+     * Sets the smallest fraction of each fold's training data that will be
+     * used to evaluate the candidates. Models that can not learn anything
+     * useful from very little data should use a larger value.
+     *
+     * @param minTrainingFraction the minimum fraction of the training data to
+     *                            use, in (0, 1]
+     */
+    public void setMinTrainingFraction(double minTrainingFraction) {
+        if (!(minTrainingFraction > 0 && minTrainingFraction <= 1))
+            throw new IllegalArgumentException("minTrainingFraction must be in (0, 1], not " + minTrainingFraction);
+        this.minTrainingFraction = minTrainingFraction;
+    }
+
+    /**
+     * @return the smallest fraction of the training data that will be used
+     */
+    public double getMinTrainingFraction() {
+        return minTrainingFraction;
+    }
+
+    /**
+     * Sets whether or not warm starts are used, but only if the model in use
+     * supports warm starts from models trained on different data. This is set
+     * to {@code true} by default.
+     *
+     * @param useWarmStarts {@code true} if warm starts should be used when
+     *                      possible, {@code false} otherwise.
+     */
+    public void setUseWarmStarts(boolean useWarmStarts) {
+        this.useWarmStarts = useWarmStarts;
+    }
+
+    /**
+     * @return {@code true} if warm starts will be used when possible.
+     * {@code false} if they will not.
+     */
+    public boolean isUseWarmStarts() {
+        return useWarmStarts;
+    }
+
+    /**
+     * Trains a clone of a candidate on the given data, warm starting from the
+     * given model if it is not {@code null}.
+     */
+    private interface CandidateTrainer<D, M> {
+        M train(M candidate, D data, M warmSolution, boolean parallel);
+    }
+
+    @Override
+    public void train(final ClassificationDataSet dataSet, final boolean parallel) {
+        List<Classifier> candidates = new ArrayList<>(getTrials());
+        Random rand = RandomUtil.getRandom();
+        for (int trial = 0; trial < getTrials(); trial++) {
+            sampleParameters(rand);
+            candidates.add(baseClassifier.clone());
+        }
+
+        List<ClassificationDataSet> preFolded = dataSet.cvSet(folds);
+        List<ClassificationDataSet> trainCombinations = new ArrayList<>(preFolded.size());
+        for (int i = 0; i < preFolded.size(); i++)
+            trainCombinations.add(ClassificationDataSet.comineAllBut(preFolded, i));
+
+        boolean warm = useWarmStarts && baseClassifier instanceof WarmClassifier
+                && !((WarmClassifier) baseClassifier).warmFromSameDataOnly();
+
+        Classifier bestClassifier = search(candidates, preFolded, trainCombinations,
+                (data, n) ->
+                {
+                    ClassificationDataSet subset = new ClassificationDataSet(data.getNumNumericalVars(), data.getCategories(), data.getPredicting());
+                    for (int i = 0; i < n; i++)
+                        subset.addDataPoint(data.getDataPoint(i), data.getDataPointCategory(i), data.getWeight(i));
+                    return subset;
+                },
+                (candidate, data, warmSolution, p) ->
+                {
+                    Classifier model = candidate.clone();
+                    if (warmSolution != null)
+                        ((WarmClassifier) model).train(data, warmSolution, p);
+                    else
+                        model.train(data, p);
+                    return model;
+                },
+                (model, test) ->
+                {
+                    ClassificationScore score = classificationTargetScore.clone();
+                    score.prepare(test.getPredicting());
+                    for (int i = 0; i < test.size(); i++)
+                        score.addResult(model.classify(test.getDataPoint(i)), test.getDataPointCategory(i), test.getWeight(i));
+                    return score.getScore();
+                },
+                classificationTargetScore.lowerIsBetter(), warm, parallel).clone();
+
+        if (trainFinalModel)
+            bestClassifier.train(dataSet, parallel);
+        trainedClassifier = bestClassifier;
+    }
+
+    @Override
+    public void train(final RegressionDataSet dataSet, final boolean parallel) {
+        List<Regressor> candidates = new ArrayList<>(getTrials());
+        Random rand = RandomUtil.getRandom();
+        for (int trial = 0; trial < getTrials(); trial++) {
+            sampleParameters(rand);
+            candidates.add(baseRegressor.clone());
+        }
+
+        List<RegressionDataSet> preFolded = dataSet.cvSet(folds);
+        List<RegressionDataSet> trainCombinations = new ArrayList<>(preFolded.size());
+        for (int i = 0; i < preFolded.size(); i++)
+            trainCombinations.add(RegressionDataSet.comineAllBut(preFolded, i));
+
+        boolean warm = useWarmStarts && baseRegressor instanceof WarmRegressor
+                && !((WarmRegressor) baseRegressor).warmFromSameDataOnly();
+
+        Regressor bestRegressor = search(candidates, preFolded, trainCombinations,
+                (data, n) ->
+                {
+                    RegressionDataSet subset = new RegressionDataSet(data.getNumNumericalVars(), data.getCategories());
+                    for (int i = 0; i < n; i++)
+                        subset.addDataPoint(data.getDataPoint(i), data.getTargetValue(i), data.getWeight(i));
+                    return subset;
+                },
+                (candidate, data, warmSolution, p) ->
+                {
+                    Regressor model = candidate.clone();
+                    if (warmSolution != null)
+                        ((WarmRegressor) model).train(data, warmSolution, p);
+                    else
+                        model.train(data, p);
+                    return model;
+                },
+                (model, test) ->
+                {
+                    RegressionScore score = regressionTargetScore.clone();
+                    score.prepare();
+                    for (int i = 0; i < test.size(); i++)
+                        score.addResult(model.regress(test.getDataPoint(i)), test.getTargetValue(i), test.getWeight(i));
+                    return score.getScore();
+                },
+                regressionTargetScore.lowerIsBetter(), warm, parallel).clone();
+
+        if (trainFinalModel)
+            bestRegressor.train(dataSet, parallel);
+        trainedRegressor = bestRegressor;
+    }
+
+    /**
+     * Performs the rounds of successive halving.
+     *
+     * @param candidates    the models to choose from
+     * @param testSets      the test set of each fold
+     * @param trainSets     the training set of each fold
+     * @param prefix        returns a data set containing the first <i>n</i>
+     *                      points of a training set
+     * @param trainer       trains a candidate
+     * @param scorer        returns the score of a trained model on a test set
+     * @param lowerIsBetter {@code true} if a lower score is better
+     * @param warm          {@code true} if the models should be warm started
+     *                      from the previous round
+     * @param parallel      {@code true} to evaluate in parallel
+     * @return the best candidate
+     */
+    @SuppressWarnings("unchecked")
+    private <D extends DataSet<D>, M> M search(List<M> candidates, List<D> testSets, List<D> trainSets,
+                                               BiFunction<D, Integer, D> prefix, CandidateTrainer<D, M> trainer,
+                                               ToDoubleBiFunction<M, D> scorer, boolean lowerIsBetter, boolean warm,
+                                               boolean parallel) {
+        final int F = testSets.size();
+        //the number of rounds after the first, where the last round uses all of the data
+        int rounds = 0;
+        while (Math.pow(eta, rounds + 1) <= candidates.size())
+            rounds++;
+
+        IntList alive = IntList.range(candidates.size());
+        Object[][] models = new Object[candidates.size()][];
+        if (warm)
+            for (int c = 0; c < models.length; c++)
+                models[c] = new Object[F];
+        final boolean modelParallel = parallel && !trainModelsInParallel;
+
+        for (int round = 0; round <= rounds; round++) {
+            double fraction = Math.max(minTrainingFraction, Math.pow(eta, round - rounds));
+            List<D> roundTrain = new ArrayList<>(F);
+            for (D train : trainSets)
+                if (fraction >= 1)
+                    roundTrain.add(train);
+                else
+                    roundTrain.add(prefix.apply(train, Math.max(1, (int) Math.ceil(fraction * train.size()))));
+
+            final int C = alive.size();
+            final IntList curAlive = alive;
+            final boolean warmStart = warm && round > 0;
+            final double[] foldScores = new double[C * F];
+            //every fold of every candidate is its own task, balanced by work stealing
+            ParallelUtils.range(C * F, parallel && trainModelsInParallel).forEach(task ->
+            {
+                int c = curAlive.getI(task / F);
+                int f = task % F;
+                M warmSolution = warmStart ? (M) models[c][f] : null;
+                M model = trainer.train(candidates.get(c), roundTrain.get(f), warmSolution, modelParallel);
+                if (warm)
+                    models[c][f] = model;
+                double score = scorer.applyAsDouble(model, testSets.get(f));
+                if (Double.isNaN(score))
+                    score = lowerIsBetter ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY;
+                foldScores[task] = score;
+            });
+
+            double[] scores = new double[C];
+            for (int task = 0; task < C * F; task++)
+                scores[task / F] += foldScores[task] / F;
+
+            IntList order = IntList.range(C);
+            order.sort((a, b) -> lowerIsBetter ? Double.compare(scores[a], scores[b]) : Double.compare(scores[b], scores[a]));
+
+            int toKeep = round == rounds ? 1 : Math.max(1, (int) (C / eta));
+            IntList nextAlive = new IntList(toKeep);
+            for (int i = 0; i < toKeep; i++)
+                nextAlive.add(alive.getI(order.getI(i)));
+            //the models of dropped candidates are no longer needed
+            for (int i = toKeep; i < C; i++)
+                models[alive.getI(order.getI(i))] = null;
+            alive = nextAlive;
+        }
+
+        return candidates.get(alive.getI(0));
+    }
+
+    @Override
+    public SuccessiveHalvingSearch clone() {
+        return new SuccessiveHalvingSearch(this);
+    }
+}
@@ -4,6 +4,9 @@ import java.util.*;
 
 import jsat.classifiers.DataPoint;
 import jsat.classifiers.DataPointPair;
+import jsat.classifiers.trees.DecisionStump;
+import jsat.classifiers.trees.DecisionTree;
+import jsat.classifiers.trees.FeatureBins;
 import jsat.exceptions.UntrainedModelException;
 import jsat.math.Function1D;
 import jsat.math.rootfinding.RootFinder;
@@ -78,6 +81,12 @@ public class StochasticGradientBoosting implements Regressor, Parameterized {
 
     private int maxIterations;
 
+    /**
+     * The number of bins tree weak learners should quantize numeric features
+     * into, or zero to leave the weak learner as it is
+     */
+    private int numericBins = 0;
+
     /**
      * Creates a new initialized SGB learner.
      *
@@ -148,6 +157,32 @@ public class StochasticGradientBoosting implements Regressor, Parameterized {
         return maxIterations;
     }
 
+    /**
+     * Sets the number of bins that numeric features are quantized into when
+     * the weak learner is a {@link DecisionTree} or {@link DecisionStump}.
+     * When positive, the bins are found once from the training set and shared
+     * by the weak learner of every iteration, which then finds its splits from
+     * histograms over the bins instead of by sorting. This has no effect for
+     * other weak learners. The default of zero leaves the weak learner's own
+     * setting unchanged.
+     *
+     * @param numericBins the number of bins to use in [2, {@value FeatureBins#MAX_BINS}],
+     *                    or zero to not alter the weak learner
+     */
+    public void setNumericBins(int numericBins) {
+        if (numericBins != 0 && (numericBins < 2 || numericBins > FeatureBins.MAX_BINS))
+            throw new IllegalArgumentException("Number of bins must be zero or in [2, " + FeatureBins.MAX_BINS + "], not " + numericBins);
+        this.numericBins = numericBins;
+    }
+
+    /**
+     * @return the number of bins numeric features are quantized into for tree
+     * weak learners, or zero if the weak learner is left unchanged
+     */
+    public int getNumericBins() {
+        return numericBins;
+    }
+
     /**
      * Sets the learning rate of the algorithm. The GB version uses a learning
      * rate of 1. SGB uses a learning rate in (0,1) to avoid overfitting. The
@@ -238,6 +273,9 @@ public class StochasticGradientBoosting implements Regressor, Parameterized {
         final List<DataPointPair<Double>> randSampleList = new ArrayList<>(randSampleSize);
         final Random rand = RandomUtil.getRandom();
         IntList randOrder = IntList.range(resids.size());
+        //residuals change the targets but never the features, so the bins only need to be found once
+        final boolean binTrees = numericBins > 0 && (weakLearner instanceof DecisionTree || weakLearner instanceof DecisionStump);
+        final FeatureBins bins = binTrees ? FeatureBins.fit(dataSet, numericBins) : null;
 
         for (int iter = 0; iter < maxIterations; iter++) {
             final double lastCoef = coef.get(iter);
@@ -263,6 +301,13 @@ public class StochasticGradientBoosting implements Regressor, Parameterized {
                 subSet.addDataPoint(resids.getDataPoint(i), resids.getTargetValue(i), resids.getWeight(i));
 
             final Regressor h = weakLearner.clone();
+            if (binTrees && h instanceof DecisionTree) {
+                ((DecisionTree) h).setNumericBins(numericBins);
+                ((DecisionTree) h).setFeatureBins(bins);
+            } else if (binTrees && h instanceof DecisionStump) {
+                ((DecisionStump) h).setNumericBins(numericBins);
+                ((DecisionStump) h).setFeatureBins(bins);
+            }
 
             h.train(subSet, parallel);
             double y = getMinimizingErrorConst(resids, h);
@@ -355,6 +400,7 @@ public class StochasticGradientBoosting implements Regressor, Parameterized {
     @Override
     public StochasticGradientBoosting clone() {
         StochasticGradientBoosting clone = new StochasticGradientBoosting(weakLearner.clone(), maxIterations, learningRate, trainingProportion);
+        clone.numericBins = this.numericBins;
 
         if (F != null) {
             clone.F = new ArrayList<>(F.size());
@@ -286,6 +286,24 @@ public class DoubleList extends AbstractList<Double> implements Serializable, Ra
         return new DoubleList(array, length);
     }
 
+    /**
+     * Returns the given list as a DoubleList. If the list is already a
+     * DoubleList it is returned directly, otherwise a new DoubleList containing
+     * a copy of the values is returned. This is meant for small lists, such as
+     * the query information of a distance metric or kernel, where the cost of
+     * a copy is less than that of unboxing every value on each access.
+     *
+     * @param list the list of values to obtain as a DoubleList, may be
+     *             {@code null}
+     * @return a DoubleList with the same values as the given list, or
+     * {@code null} if the input was {@code null}
+     */
+    public static DoubleList asDoubleList(List<Double> list) {
+        if (list == null || list instanceof DoubleList)
+            return (DoubleList) list;
+        return new DoubleList(list);
+    }
+
     /**
      * @return the maximum value stored in this list.
      */
@@ -1,63 +1,348 @@
 package jsat.utils.concurrent;
 
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicLong;
-
-import jsat.utils.Pair;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
 
 /**
- * This class defines a Concurrent LRU cache. The current implementation may not
- * be the most consistent, as it uses a time stamp from last access to determine
- * LRU items. It is also designed for read-heavy work loads
+ * This class defines a bounded Concurrent LRU cache. The cache is split into a
+ * number of independently locked segments, each of which keeps its entries in
+ * access order. Lookups, insertions, and evictions are all amortized O(1), and
+ * threads only contend when they access keys that hash to the same segment.
+ * Because of the segmentation, eviction is LRU within each segment rather than
+ * exactly LRU over the whole cache. To keep this close to a true LRU, the
+ * number of segments is limited so that each one can hold at least
+ * {@value #MIN_ENTRIES_PER_SEGMENT} entries, and a small cache uses a single
+ * segment.<br>
+ * <br>
+ * The size of the cache can be bounded either by the number of entries, or by
+ * a total weight where each value is assigned a weight by a user provided
+ * function. The latter allows the cache to be given a memory budget, see
+ * {@link #ofDoubleRows(long, int) }. Either way, the total size of the cache
+ * never exceeds its bound. <br>
+ * The number of hits, misses, and evictions are tracked and can be obtained
+ * with {@link #getHitCount() }, {@link #getMissCount() }, and
+ * {@link #getEvictionCount() }.
  *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
  * @author Edward Raff
  */
 public class ConcurrentCacheLRU<K, V> {
-    private final ConcurrentHashMap<K, Pair<V, AtomicLong>> cache;
-    private final int maxEntries;
+    /**
+     * Estimated number of bytes of overhead for each cached array, covering
+     * the array header, the map entry, and the references to them.
+     */
+    private static final long ENTRY_OVERHEAD_BYTES = 64;
+    /**
+     * The fewest typical entries that each segment should be able to hold
+     */
+    private static final int MIN_ENTRIES_PER_SEGMENT = 16;
+
+    private final Segment[] segments;
+    private final int segmentMask;
+    private final ToLongFunction<? super V> weigher;
+    private final long maxWeight;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
 
+    /**
+     * Creates a new cache that will hold at most the given number of entries.
+     * The number of segments is chosen based on the number of available cores.
+     *
+     * @param max_entries the maximum number of entries to keep in the cache
+     */
     public ConcurrentCacheLRU(int max_entries) {
-        this.maxEntries = max_entries;
-        cache = new ConcurrentHashMap<K, Pair<V, AtomicLong>>(max_entries);
+        this(max_entries, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a new cache that will hold at most the given number of entries.
+     *
+     * @param max_entries      the maximum number of entries to keep in the
+     *                         cache
+     * @param concurrencyLevel the expected number of threads concurrently
+     *                         accessing the cache
+     */
+    public ConcurrentCacheLRU(int max_entries, int concurrencyLevel) {
+        this(max_entries, v -> 1L, 1, concurrencyLevel);
+    }
+
+    /**
+     * Creates a new cache bounded by the total weight of its values. A value
+     * whose weight is too large to ever fit in the cache is not stored, and is
+     * counted as an eviction.
+     *
+     * @param maxWeight        the maximum total weight of all values in the
+     *                         cache
+     * @param weigher          the function that determines the weight of each
+     *                         value. Must return a non-negative value, and must
+     *                         return the same value for the same object.
+     * @param entryWeight      the weight of a typical value, used to decide how
+     *                         many segments the cache can be split into
+     * @param concurrencyLevel the expected number of threads concurrently
+     *                         accessing the cache
+     */
+    @SuppressWarnings("unchecked")
+    public ConcurrentCacheLRU(long maxWeight, ToLongFunction<? super V> weigher, long entryWeight, int concurrencyLevel) {
+        if (maxWeight <= 0)
+            throw new IllegalArgumentException("Cache size must be positive, not " + maxWeight);
+        if (entryWeight <= 0)
+            throw new IllegalArgumentException("Entry weight must be positive, not " + entryWeight);
+        if (concurrencyLevel <= 0)
+            throw new IllegalArgumentException("Concurrency level must be positive, not " + concurrencyLevel);
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+
+        //Use the largest power of 2 that does not exceed the concurrency level, or leave segments too small to be useful
+        long entriesThatFit = Math.max(1, maxWeight / entryWeight);
+        long maxSegments = Math.min(concurrencyLevel, Math.max(1, entriesThatFit / MIN_ENTRIES_PER_SEGMENT));
+        int numSegments = 1;
+        while (numSegments * 2L <= maxSegments && numSegments < (1 << 16))
+            numSegments <<= 1;
+        segmentMask = numSegments - 1;
+        segments = new ConcurrentCacheLRU.Segment[numSegments];
+        //split the budget evenly, giving any remainder to the first segments. The budgets sum to exactly maxWeight
+        long base = maxWeight / numSegments;
+        long remainder = maxWeight % numSegments;
+        for (int i = 0; i < numSegments; i++)
+            segments[i] = new Segment(base + (i < remainder ? 1 : 0));
+    }
+
+    /**
+     * Creates a new cache for arrays of doubles, such as the rows of a kernel
+     * matrix, that will use at most approximately the given number of bytes of
+     * memory.
+     *
+     * @param <K>       the type of the keys
+     * @param bytes     the number of bytes of memory to allow the cached arrays
+     *                  to use
+     * @param rowLength the typical length of the arrays that will be cached
+     * @return a new cache bounded by the memory use of its arrays
+     */
+    public static <K> ConcurrentCacheLRU<K, double[]> ofDoubleRows(long bytes, int rowLength) {
+        return ofDoubleRows(bytes, rowLength, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a new cache for arrays of doubles, such as the rows of a kernel
+     * matrix, that will use at most approximately the given number of bytes of
+     * memory.
+     *
+     * @param <K>              the type of the keys
+     * @param bytes            the number of bytes of memory to allow the
+     *                         cached arrays to use
+     * @param rowLength        the typical length of the arrays that will be
+     *                         cached
+     * @param concurrencyLevel the expected number of threads concurrently
+     *                         accessing the cache
+     * @return a new cache bounded by the memory use of its arrays
+     */
+    public static <K> ConcurrentCacheLRU<K, double[]> ofDoubleRows(long bytes, int rowLength, int concurrencyLevel) {
+        return new ConcurrentCacheLRU<>(bytes, ConcurrentCacheLRU::bytesOf, bytesOf(rowLength), concurrencyLevel);
     }
 
+    private static long bytesOf(double[] row) {
+        return bytesOf(row.length);
+    }
+
+    private static long bytesOf(int rowLength) {
+        return ENTRY_OVERHEAD_BYTES + (long) rowLength * (Double.SIZE / 8);
+    }
+
+    private Segment segmentFor(Object key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        h *= 0x85ebca6b;
+        h ^= (h >>> 13);
+        return segments[h & segmentMask];
+    }
+
+    /**
+     * Inserts the value into the cache if no value is currently associated
+     * with the key.
+     *
+     * @param key   the key to insert
+     * @param value the value to associate with the key
+     * @return the value already in the cache, or {@code null} if there was
+     * none and the given value was used
+     */
     public V putIfAbsentAndGet(K key, V value) {
-        Pair<V, AtomicLong> pair = cache.putIfAbsent(key, new Pair<V, AtomicLong>(value, new AtomicLong(System.currentTimeMillis())));
-
-        evictOld();
-
-        if (pair == null)
-            return null;
-        return pair.getFirstItem();
-    }
-
-    private void evictOld() {
-        while (cache.size() > maxEntries) {
-            K oldest_key = null;
-            long oldest_time = Long.MAX_VALUE;
-            for (Map.Entry<K, Pair<V, AtomicLong>> entry : cache.entrySet())
-                if (entry.getValue().getSecondItem().get() < oldest_time) {
-                    oldest_time = entry.getValue().getSecondItem().get();
-                    oldest_key = entry.getKey();
-                }
-            if (cache.size() > maxEntries)//anotehr thread may have already evicted things
-                cache.remove(oldest_key);
+        Segment seg = segmentFor(key);
+        synchronized (seg) {
+            V prev = seg.map.get(key);
+            if (prev != null)
+                return prev;
+            seg.insert(key, value);
         }
+        return null;
     }
 
+    /**
+     * Associates the value with the given key, replacing any existing value.
+     *
+     * @param key   the key to insert
+     * @param value the value to associate with the key
+     */
     public void put(K key, V value) {
-        cache.put(key, new Pair<V, AtomicLong>(value, new AtomicLong(System.currentTimeMillis())));
-
-        evictOld();
+        Segment seg = segmentFor(key);
+        synchronized (seg) {
+            seg.insert(key, value);
+        }
     }
 
+    /**
+     * Returns the value associated with the key, and marks it as the most
+     * recently used entry.
+     *
+     * @param key the key to look up
+     * @return the value associated with the key, or {@code null} if not in the
+     * cache
+     */
     public V get(K key) {
-        Pair<V, AtomicLong> pair = cache.get(key);
-        if (pair == null)
-            return null;
-        pair.getSecondItem().set(System.currentTimeMillis());
-        return pair.getFirstItem();
+        Segment seg = segmentFor(key);
+        V val;
+        synchronized (seg) {
+            val = seg.map.get(key);
+        }
+        if (val == null)
+            misses.increment();
+        else
+            hits.increment();
+        return val;
     }
 
+    /**
+     * Removes the value associated with the key from the cache. This does not
+     * count as an eviction.
+     *
+     * @param key the key to remove
+     * @return the value that was removed, or {@code null} if not in the cache
+     */
+    public V remove(K key) {
+        Segment seg = segmentFor(key);
+        synchronized (seg) {
+            V prev = seg.map.remove(key);
+            if (prev != null)
+                seg.weight -= weigher.applyAsLong(prev);
+            return prev;
+        }
+    }
+
+    /**
+     * Removes all entries from the cache. The hit, miss, and eviction counts
+     * are not reset.
+     */
+    public void clear() {
+        for (Segment seg : segments)
+            synchronized (seg) {
+                seg.map.clear();
+                seg.weight = 0;
+            }
+    }
+
+    /**
+     * @return the number of entries currently in the cache
+     */
+    public int size() {
+        int size = 0;
+        for (Segment seg : segments)
+            synchronized (seg) {
+                size += seg.map.size();
+            }
+        return size;
+    }
+
+    /**
+     * @return the total weight of the entries currently in the cache. If the
+     * cache is bounded by the number of entries, this is the same as
+     * {@link #size() }
+     */
+    public long weightedSize() {
+        long weight = 0;
+        for (Segment seg : segments)
+            synchronized (seg) {
+                weight += seg.weight;
+            }
+        return weight;
+    }
+
+    /**
+     * @return the maximum total weight, or number of entries, of the cache
+     */
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    /**
+     * @return the number of calls to {@link #get(java.lang.Object) } that
+     * found a value
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of calls to {@link #get(java.lang.Object) } that did
+     * not find a value
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the number of entries that have been removed to keep the cache
+     * within its size limit
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * One lock-protected piece of the cache, holding its entries in least to
+     * most recently used order.
+     */
+    private final class Segment {
+        final LinkedHashMap<K, V> map = new LinkedHashMap<>(16, 0.75f, true);
+        final long maxWeight;
+        long weight = 0;
+
+        Segment(long maxWeight) {
+            this.maxWeight = maxWeight;
+        }
+
+        /**
+         * Inserts the entry and evicts the least recently used entries until
+         * the segment is within budget. Must be called while holding the lock
+         * on this segment.
+         */
+        void insert(K key, V value) {
+            long valueWeight = weigher.applyAsLong(value);
+            if (valueWeight > maxWeight) {//can never fit, so drop it and any older value for the key
+                V prev = map.remove(key);
+                if (prev != null)
+                    weight -= weigher.applyAsLong(prev);
+                evictions.increment();
+                return;
+            }
+
+            V prev = map.put(key, value);
+            if (prev != null)
+                weight -= weigher.applyAsLong(prev);
+            weight += valueWeight;
+
+            //the new entry is the most recent and fits on its own, so it is never evicted here
+            Iterator<Map.Entry<K, V>> iter = map.entrySet().iterator();
+            while (weight > maxWeight) {
+                Map.Entry<K, V> eldest = iter.next();
+                weight -= weigher.applyAsLong(eldest.getValue());
+                iter.remove();
+                evictions.increment();
+            }
+        }
+    }
 }
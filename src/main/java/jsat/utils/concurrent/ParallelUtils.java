@@ -3,13 +3,19 @@ package jsat.utils.concurrent;
 import static java.lang.Math.min;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.BrokenBarrierException;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BinaryOperator;
+import java.util.function.IntConsumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.DoubleStream;
@@ -17,8 +23,10 @@ import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import jsat.utils.FakeExecutor;
+import jsat.utils.IntList;
 import jsat.utils.ListUtils;
 import jsat.utils.SystemInfo;
+import jsat.utils.random.RandomUtil;
 
 /**
  * @author Edward Raff
@@ -309,4 +317,117 @@ public class ParallelUtils {
     public static int getEndBlock(int N, int ID) {
         return getEndBlock(N, ID, SystemInfo.LogicalCores);
     }
+
+    /**
+     * Performs a number of epochs of stochastic updates over {@code N} items,
+     * visiting every item once per epoch in a random order. When run in
+     * parallel, this is done in the lock-free "Hogwild!" style: the items are
+     * randomly split into one shard per thread, and every thread makes its
+     * updates to the shared model without any locking. The {@code update} must
+     * be safe to call concurrently, in the sense that racing updates may be
+     * lost or interleaved but never corrupt the model's structure. For sparse
+     * inputs, where two updates rarely touch the same weight, this works as
+     * well as serial training. <br>
+     * <br>
+     * By default the threads run freely, so one thread may get far ahead of
+     * another. The {@code maxStaleness} bounds this, making all threads wait
+     * for each other after every {@code maxStaleness} updates.
+     * <br>
+     * See: Niu, F., Recht, B., Ré, C.,&amp;Wright, S. J. (2011). <i>HOGWILD!: A
+     * Lock-Free Approach to Parallelizing Stochastic Gradient Descent</i>. In
+     * Advances in Neural Information Processing Systems 24 (pp. 693–701).
+     *
+     * @param parallel     {@code true} to use multiple threads, {@code false}
+     *                     to do all the updates on the calling thread
+     * @param N            the number of items
+     * @param epochs       the number of passes over all items
+     * @param maxStaleness the number of updates each thread may make before
+     *                     waiting for all other threads to catch up, or a
+     *                     non-positive value to never wait.
+     * @param update       the update to perform for an item's index
+     */
+    public static void runHogwild(boolean parallel, int N, int epochs, int maxStaleness, IntConsumer update) {
+        runHogwild(parallel ? SystemInfo.LogicalCores : 1, N, epochs, maxStaleness, update);
+    }
+
+    /**
+     * Performs a number of epochs of lock-free stochastic updates over
+     * {@code N} items with a specific number of threads. See
+     * {@link #runHogwild(boolean, int, int, int, java.util.function.IntConsumer) }
+     * for details.
+     *
+     * @param threads      the number of threads to use
+     * @param N            the number of items
+     * @param epochs       the number of passes over all items
+     * @param maxStaleness the number of updates each thread may make before
+     *                     waiting for all other threads to catch up, or a
+     *                     non-positive value to never wait.
+     * @param update       the update to perform for an item's index
+     */
+    public static void runHogwild(int threads, int N, int epochs, int maxStaleness, IntConsumer update) {
+        IntList order = new IntList(N);
+        ListUtils.addRange(order, 0, N, 1);
+        final int P = Math.min(threads, N);
+        if (P <= 1) {
+            for (int epoch = 0; epoch < epochs; epoch++) {
+                Collections.shuffle(order);
+                for (int i : order)
+                    update.accept(i);
+            }
+            return;
+        }
+
+        Collections.shuffle(order);
+        //the first shard is the largest, everyone waits the same number of times
+        final int maxShard = getEndBlock(N, 0, P);
+        final int step = maxStaleness > 0 ? Math.min(maxStaleness, maxShard) : maxShard;
+        final int rounds = (maxShard + step - 1) / step;
+        final CyclicBarrier barrier = maxStaleness > 0 ? new CyclicBarrier(P) : null;
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        ExecutorService threadPool = Executors.newFixedThreadPool(P);
+        List<Future<?>> futures = new ArrayList<>(P);
+        for (int id = 0; id < P; id++) {
+            final IntList shard = new IntList(order.subList(getStartBlock(N, id, P), getEndBlock(N, id, P)));
+            futures.add(threadPool.submit(() ->
+            {
+                Random rand = RandomUtil.getRandom();
+                try {
+                    for (int epoch = 0; epoch < epochs; epoch++) {
+                        Collections.shuffle(shard, rand);
+                        for (int r = 0; r < rounds; r++) {
+                            //after a failure keep meeting at the barrier, so no one waits forever
+                            for (int i = r * step; i < Math.min((r + 1) * step, shard.size()) && failure.get() == null; i++)
+                                try {
+                                    update.accept(shard.getI(i));
+                                } catch (Throwable ex) {
+                                    failure.compareAndSet(null, ex);
+                                }
+                            if (barrier != null)
+                                barrier.await();
+                        }
+                    }
+                } catch (InterruptedException | BrokenBarrierException ex) {
+                    failure.compareAndSet(null, ex);
+                }
+            }));
+        }
+
+        try {
+            for (Future<?> future : futures)
+                future.get();
+        } catch (InterruptedException | ExecutionException ex) {
+            failure.compareAndSet(null, ex);
+        } finally {
+            threadPool.shutdownNow();
+        }
+
+        Throwable ex = failure.get();
+        if (ex instanceof RuntimeException)
+            throw (RuntimeException) ex;
+        else if (ex instanceof Error)
+            throw (Error) ex;
+        else if (ex != null)
+            throw new RuntimeException(ex);
+    }
 }
@@ -0,0 +1,91 @@
+package jsat.linear;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The {@link DenseKernels} implemented with the Java Vector API, using the
+ * widest vectors the CPU supports. This class is only part of the Java 17+
+ * section of the multi-release jar, and can only be loaded when the
+ * {@code jdk.incubator.vector} module has been added.
+ */
+final class VectorApiKernels implements DenseKernels.Impl {
+    private static final VectorSpecies<Double> S = DoubleVector.SPECIES_PREFERRED;
+
+    public VectorApiKernels() {
+        //a single lane means no SIMD support, where the scalar loop is faster
+        if (S.length() < 2)
+            throw new UnsupportedOperationException("No SIMD support for doubles");
+    }
+
+    @Override
+    public double dot(double[] a, int aOff, double[] b, int bOff, int length) {
+        DoubleVector acc = DoubleVector.zero(S);
+        int i = 0;
+        for (int bound = S.loopBound(length); i < bound; i += S.length()) {
+            DoubleVector va = DoubleVector.fromArray(S, a, aOff + i);
+            DoubleVector vb = DoubleVector.fromArray(S, b, bOff + i);
+            acc = acc.add(va.mul(vb));
+        }
+        double dot = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++)
+            dot += a[aOff + i] * b[bOff + i];
+        return dot;
+    }
+
+    @Override
+    public double sqrdDist(double[] a, int aOff, double[] b, int bOff, int length) {
+        DoubleVector acc = DoubleVector.zero(S);
+        int i = 0;
+        for (int bound = S.loopBound(length); i < bound; i += S.length()) {
+            DoubleVector diff = DoubleVector.fromArray(S, a, aOff + i).sub(DoubleVector.fromArray(S, b, bOff + i));
+            acc = acc.add(diff.mul(diff));
+        }
+        double d = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++) {
+            double tmp = a[aOff + i] - b[bOff + i];
+            d += tmp * tmp;
+        }
+        return d;
+    }
+
+    @Override
+    public double l1Dist(double[] a, int aOff, double[] b, int bOff, int length) {
+        DoubleVector acc = DoubleVector.zero(S);
+        int i = 0;
+        for (int bound = S.loopBound(length); i < bound; i += S.length()) {
+            DoubleVector diff = DoubleVector.fromArray(S, a, aOff + i).sub(DoubleVector.fromArray(S, b, bOff + i));
+            acc = acc.add(diff.abs());
+        }
+        double d = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++)
+            d += Math.abs(a[aOff + i] - b[bOff + i]);
+        return d;
+    }
+
+    @Override
+    public double sumOfSquares(double[] a, int aOff, int length) {
+        DoubleVector acc = DoubleVector.zero(S);
+        int i = 0;
+        for (int bound = S.loopBound(length); i < bound; i += S.length()) {
+            DoubleVector va = DoubleVector.fromArray(S, a, aOff + i);
+            acc = acc.add(va.mul(va));
+        }
+        double d = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++)
+            d += a[aOff + i] * a[aOff + i];
+        return d;
+    }
+
+    @Override
+    public void axpy(double c, double[] x, int xOff, double[] y, int yOff, int length) {
+        int i = 0;
+        for (int bound = S.loopBound(length); i < bound; i += S.length()) {
+            DoubleVector vy = DoubleVector.fromArray(S, y, yOff + i);
+            vy.add(DoubleVector.fromArray(S, x, xOff + i).mul(c)).intoArray(y, yOff + i);
+        }
+        for (; i < length; i++)
+            y[yOff + i] += c * x[xOff + i];
+    }
+}
@@ -0,0 +1,171 @@
+package jsat;
+
+import java.util.Collections;
+
+import jsat.classifiers.CategoricalData;
+import jsat.classifiers.ClassificationDataSet;
+import jsat.classifiers.DataPoint;
+import jsat.datatransform.DenseSparceTransform;
+import jsat.datatransform.PolynomialTransform;
+import jsat.linear.DenseVector;
+import jsat.linear.FloatDenseVector;
+import jsat.linear.FloatSparseVector;
+import jsat.linear.SparseVector;
+import jsat.linear.Vec;
+import jsat.utils.random.RandomUtil;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link PackedStore}
+ */
+public class PackedStoreTest {
+
+    public PackedStoreTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() {
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+    }
+
+    @Before
+    public void setUp() {
+    }
+
+    @After
+    public void tearDown() {
+    }
+
+    @Test
+    public void testAddAndGet() {
+        System.out.println("addAndGet");
+        PackedStore store = new PackedStore();
+        RowMajorStore expected = new RowMajorStore();
+        for (int i = 0; i < 100; i++) {
+            //the number of features grows as points are added, and some are sparse
+            Vec x = i % 2 == 0 ? new DenseVector(1 + i / 10) : new SparseVector(1 + i / 10);
+            for (int j = 0; j < x.length(); j += 2)
+                x.set(j, i + j);
+            int[] cats = new int[i / 30];
+            for (int j = 0; j < cats.length; j++)
+                cats[j] = (i * 7) % 300;//past what a byte can hold
+            store.addDataPoint(new DataPoint(x, cats, null));
+            expected.addDataPoint(new DataPoint(x.clone(), cats.clone(), null));
+        }
+        store.finishAdding();
+        expected.finishAdding();
+
+        assertEquals(100, store.size());
+        assertEquals(expected.numNumeric(), store.numNumeric());
+        assertEquals(expected.numCategorical(), store.numCategorical());
+        for (int i = 0; i < store.size(); i++) {
+            DataPoint exp = expected.getDataPoint(i);
+            DataPoint dp = store.getDataPoint(i);
+            assertTrue(exp.getNumericalValues().equals(dp.getNumericalValues()));
+            assertArrayEquals(exp.getCategoricalValues(), dp.getCategoricalValues());
+        }
+        //categories were found from the values
+        int maxCat = 0;
+        for (int v : expected.getCatColumn(0))
+            maxCat = Math.max(maxCat, v);
+        assertEquals(maxCat + 1, store.getCategoricalDataInfo()[0].getNumOfCategories());
+
+        for (int j = 0; j < store.numNumeric(); j++)
+            assertTrue(expected.getNumericColumn(j).equals(store.getNumericColumn(j)));
+        for (int j = 0; j < store.numCategorical(); j++)
+            assertArrayEquals(expected.getCatColumn(j), store.getCatColumn(j));
+        assertEquals(1.0, store.getSparsityStats().getMean(), 0.0);
+    }
+
+    @Test
+    public void testViews() {
+        System.out.println("views");
+        PackedStore store = new PackedStore(3, new CategoricalData[]{new CategoricalData(4)});
+        for (int i = 0; i < 10; i++)
+            store.addDataPoint(new DataPoint(DenseVector.toDenseVec(i, 2 * i, 3 * i), new int[]{i % 4}, null));
+
+        //points are backed by the store
+        store.getDataPoint(3).getNumericalValues().set(1, -1.0);
+        assertEquals(-1.0, store.getDataPoint(3).getNumericalValues().get(1), 0.0);
+
+        Vec col = store.getNumericColumnView(2);
+        assertEquals(10, col.length());
+        for (int i = 0; i < 10; i++)
+            assertEquals(3 * i, col.get(i), 0.0);
+        col.set(5, 100.0);
+        assertEquals(100.0, store.getDataPoint(5).getNumericalValues().get(2), 0.0);
+
+        //but getNumericColumn is a copy
+        store.getNumericColumn(0).set(0, 50.0);
+        assertEquals(0.0, store.getDataPoint(0).getNumericalValues().get(0), 0.0);
+
+        //setting a point with itself should not lose anything
+        DataPoint dp = store.getDataPoint(7);
+        store.setDataPoint(7, dp);
+        assertEquals(14.0, store.getDataPoint(7).getNumericalValues().get(1), 0.0);
+
+        PackedStore clone = store.clone();
+        clone.getDataPoint(0).getNumericalValues().set(0, 9.0);
+        assertEquals(0.0, store.getDataPoint(0).getNumericalValues().get(0), 0.0);
+        assertEquals(10, clone.size());
+        clone.addDataPoint(new DataPoint(DenseVector.toDenseVec(1, 1, 1), new int[]{1}, null));
+        assertEquals(11, clone.size());
+        assertEquals(10, store.size());
+    }
+
+    @Test
+    public void testTransform() {
+        System.out.println("transform");
+        for (boolean parallel : new boolean[]{true, false}) {
+            SimpleDataSet expected = new SimpleDataSet(FixedProblems.get2ClassLinear(500, RandomUtil.getRandom()).getDataPoints());
+            PackedStore store = new PackedStore();
+            for (DataPoint dp : expected.getDataPoints())
+                store.addDataPoint(dp);
+            store.finishAdding();
+            SimpleDataSet packed = new SimpleDataSet(store);
+
+            //changes the number of features while setting points
+            packed.applyTransform(new PolynomialTransform(2), parallel);
+            expected.applyTransform(new PolynomialTransform(2), parallel);
+
+            assertEquals(expected.getNumNumericalVars(), packed.getNumNumericalVars());
+            for (int i = 0; i < expected.size(); i++)
+                assertTrue(expected.getDataPoint(i).getNumericalValues().equals(packed.getDataPoint(i).getNumericalValues(), 1e-12));
+        }
+
+        assertTrue(new PackedStore().getNumericColumns(Collections.emptySet()).length == 0);
+    }
+
+    @Test
+    public void testFloatStorage() {
+        System.out.println("floatStorage");
+        ClassificationDataSet data = FixedProblems.get2ClassLinear(100, RandomUtil.getRandom());
+        data.applyTransform(new DenseSparceTransform(0.5));
+        for (DataStore store : new DataStore[]{new PackedStore(0, null, 16, true), new RowMajorStore(0, null, true)})
+            for (int k = 0; k < 2; k++) {//again with the empty clone, which keeps the storage option
+                for (DataPoint dp : data.getDataPoints())
+                    store.addDataPoint(dp);
+                store.finishAdding();
+
+                assertEquals(data.size(), store.size());
+                for (int i = 0; i < data.size(); i++) {
+                    Vec expected = data.getDataPoint(i).getNumericalValues();
+                    Vec x = store.getDataPoint(i).getNumericalValues();
+                    assertTrue(x instanceof FloatDenseVector || x instanceof FloatSparseVector);
+                    assertEquals(expected.isSparse() && store instanceof RowMajorStore, x.isSparse());
+                    for (int j = 0; j < expected.length(); j++)
+                        assertEquals((float) expected.get(j), x.get(j), 0.0);
+                }
+                store = store.emptyClone();
+            }
+    }
+}
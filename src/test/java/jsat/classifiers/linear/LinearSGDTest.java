@@ -68,6 +68,25 @@ public class LinearSGDTest {
         }
     }
 
+    @Test
+    public void testClassifyBinary_Parallel() {
+        System.out.println("binary classifiation, parallel");
+
+        for (int maxStaleness : new int[]{0, 10}) {
+            LinearSGD linearsgd = new LinearSGD(new HingeLoss(), 1e-4, 1e-5);
+            linearsgd.setMaxStaleness(maxStaleness);
+
+            ClassificationDataSet train = FixedProblems.get2ClassLinear(500, RandomUtil.getRandom());
+
+            linearsgd.train(train, true);
+
+            ClassificationDataSet test = FixedProblems.get2ClassLinear(200, RandomUtil.getRandom());
+
+            for (DataPointPair<Integer> dpp : test.getAsDPPList())
+                assertEquals(dpp.getPair().longValue(), linearsgd.classify(dpp.getDataPoint()).mostLikely());
+        }
+    }
+
     @Test
     public void testClassifyMulti() {
         System.out.println("multi class classification");
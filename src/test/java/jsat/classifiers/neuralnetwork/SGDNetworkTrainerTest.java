@@ -0,0 +1,98 @@
+package jsat.classifiers.neuralnetwork;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import jsat.classifiers.neuralnetwork.activations.ActivationLayer;
+import jsat.classifiers.neuralnetwork.activations.ReLU;
+import jsat.classifiers.neuralnetwork.activations.SoftmaxLayer;
+import jsat.classifiers.neuralnetwork.initializers.ConstantInit;
+import jsat.classifiers.neuralnetwork.initializers.GaussianNormalInit;
+import jsat.linear.DenseVector;
+import jsat.linear.SparseVector;
+import jsat.linear.Vec;
+import jsat.utils.random.XORWOW;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SGDNetworkTrainerTest {
+
+    public SGDNetworkTrainerTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() {
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+    }
+
+    @Before
+    public void setUp() {
+    }
+
+    @After
+    public void tearDown() {
+    }
+
+    private static SGDNetworkTrainer getNetwork() {
+        SGDNetworkTrainer network = new SGDNetworkTrainer();
+        network.setLayerSizes(5, 16, 8, 3);
+        List<ActivationLayer> activations = new ArrayList<>(Arrays.asList(new ReLU(), new ReLU(), new SoftmaxLayer()));
+        network.setLayersActivation(activations);
+        network.setWeightInit(new GaussianNormalInit(1e-1));
+        network.setBiasInit(new ConstantInit(0.1));
+        network.setEta(0.1);
+        //dropout is random, so would make the results differ
+        network.setDropoutInput(0);
+        network.setDropoutHidden(0);
+        network.setup();
+        return network;
+    }
+
+    /**
+     * The data-parallel update must give the same result no matter how many
+     * micro-batches the mini-batch is split into.
+     */
+    @Test
+    public void testUpdateMiniBatch_dataParallel() {
+        System.out.println("updateMiniBatch, data parallel");
+        Random rand = new XORWOW(123);
+        List<Vec> x = new ArrayList<>();
+        List<Vec> y = new ArrayList<>();
+        for (int i = 0; i < 23; i++) {
+            x.add(DenseVector.random(5, rand));
+            Vec y_i = new SparseVector(3);
+            y_i.set(rand.nextInt(3), 1.0);
+            y.add(y_i);
+        }
+
+        SGDNetworkTrainer serial = getNetwork();
+        SGDNetworkTrainer[] others = new SGDNetworkTrainer[]{serial.clone(), serial.clone(), serial.clone()};
+        int[] threads = new int[]{2, 4, 50};
+
+        for (int iter = 0; iter < 5; iter++)
+            //the last mini-batch is smaller, so the buffers must be resized
+            for (int start = 0; start < x.size(); start += 10) {
+                List<Vec> x_b = x.subList(start, Math.min(start + 10, x.size()));
+                List<Vec> y_b = y.subList(start, Math.min(start + 10, x.size()));
+                double err = serial.updateMiniBatch(x_b, y_b);
+                for (int i = 0; i < others.length; i++)
+                    assertEquals(err, others[i].updateMiniBatch(x_b, y_b, threads[i]), 1e-10);
+            }
+
+        for (Vec x_i : x) {
+            Vec expected = serial.feedfoward(x_i);
+            for (SGDNetworkTrainer other : others)
+                assertTrue(expected.equals(other.feedfoward(x_i), 1e-10));
+        }
+    }
+}
@@ -78,6 +78,140 @@ public class PlattSMOTest {
             }
     }
 
+    @Test
+    public void testTrainC_SecondOrder() {
+        System.out.println("trainC_SecondOrder");
+        ClassificationDataSet trainSet = FixedProblems.getInnerOuterCircle(150, new Random(2));
+        ClassificationDataSet testSet = FixedProblems.getInnerOuterCircle(50, new Random(3));
+
+        PlattSMO firstOrder = new PlattSMO(new RBFKernel(0.5));
+        firstOrder.setC(10);
+        firstOrder.setTolerance(1e-5);
+        firstOrder.train(trainSet);
+
+        for (boolean parallel : new boolean[]{true, false})
+            for (boolean shrinking : new boolean[]{true, false})
+                for (SupportVectorLearner.CacheMode cacheMode : SupportVectorLearner.CacheMode.values()) {
+                    PlattSMO classifier = new PlattSMO(new RBFKernel(0.5));
+                    classifier.setCacheMode(cacheMode);
+                    classifier.setC(10);
+                    classifier.setTolerance(1e-5);
+                    classifier.setSecondOrder(true);
+                    classifier.setShrinking(shrinking);
+                    classifier.train(trainSet, parallel);
+
+                    for (int i = 0; i < testSet.size(); i++) {
+                        assertEquals(testSet.getDataPointCategory(i), classifier.classify(testSet.getDataPoint(i)).mostLikely());
+                        //both solvers find the same optimum
+                        assertEquals(firstOrder.getScore(testSet.getDataPoint(i)), classifier.getScore(testSet.getDataPoint(i)), 1e-2);
+                    }
+                }
+    }
+
+    /**
+     * Uses a training set large enough that the second order solver splits its
+     * work over threads, which must not change the solution found.
+     */
+    @Test
+    public void testTrainC_SecondOrderParallel() {
+        System.out.println("trainC_SecondOrderParallel");
+        ClassificationDataSet trainSet = FixedProblems.getInnerOuterCircle(5000, new Random(2));
+        ClassificationDataSet testSet = FixedProblems.getInnerOuterCircle(100, new Random(3));
+
+        PlattSMO serial = new PlattSMO(new RBFKernel(0.5));
+        serial.setCacheMode(SupportVectorLearner.CacheMode.ROWS);
+        serial.setCacheValue(200);
+        serial.setC(10);
+        serial.setSecondOrder(true);
+        serial.train(trainSet, false);
+
+        PlattSMO parallel = serial.clone();
+        parallel.train(trainSet, true);
+
+        for (int i = 0; i < testSet.size(); i++) {
+            assertEquals(testSet.getDataPointCategory(i), parallel.classify(testSet.getDataPoint(i)).mostLikely());
+            assertEquals(serial.getScore(testSet.getDataPoint(i)), parallel.getScore(testSet.getDataPoint(i)), 1e-8);
+        }
+    }
+
+    @Test
+    public void testTrainC_SecondOrderWarm() {
+        System.out.println("trainC_SecondOrderWarm");
+        ClassificationDataSet trainSet = FixedProblems.getInnerOuterCircle(150, new Random(2));
+        ClassificationDataSet testSet = FixedProblems.getInnerOuterCircle(50, new Random(3));
+
+        PlattSMO warmModel = new PlattSMO(new RBFKernel(0.5));
+        warmModel.setC(1);
+        warmModel.train(trainSet);
+
+        PlattSMO classifier = new PlattSMO(new RBFKernel(0.5));
+        classifier.setC(10);
+        classifier.setSecondOrder(true);
+        classifier.train(trainSet, warmModel);
+
+        for (int i = 0; i < testSet.size(); i++)
+            assertEquals(testSet.getDataPointCategory(i), classifier.classify(testSet.getDataPoint(i)).mostLikely());
+    }
+
+    /**
+     * Uses a ROWS cache much smaller than the training set so rows are evicted
+     * and re-computed, which must not change the solution found.
+     */
+    @Test
+    public void testTrainC_RowsCacheWithEvictions() {
+        System.out.println("trainC_RowsCache");
+        ClassificationDataSet trainSet = FixedProblems.getInnerOuterCircle(150, new Random(2));
+        ClassificationDataSet testSet = FixedProblems.getInnerOuterCircle(50, new Random(3));
+
+        for (boolean modification1 : new boolean[]{true, false}) {
+            PlattSMO[] models = new PlattSMO[3];
+            SupportVectorLearner.CacheMode[] modes = {SupportVectorLearner.CacheMode.NONE, SupportVectorLearner.CacheMode.FULL, SupportVectorLearner.CacheMode.ROWS};
+            for (int m = 0; m < modes.length; m++) {
+                models[m] = new PlattSMO(new RBFKernel(0.5));
+                models[m].setCacheMode(modes[m]);
+                models[m].setCacheValue(10);
+                models[m].setC(10);
+                models[m].setModificationOne(modification1);
+                models[m].train(trainSet);
+            }
+
+            assertTrue(models[2].cacheEvictions > 0);
+            //cached rows must actually be re-used, not re-computed
+            assertTrue(models[2].evalCount < models[0].evalCount);
+            for (int i = 0; i < testSet.size(); i++) {
+                double expected = models[0].getScore(testSet.getDataPoint(i));
+                assertEquals(expected, models[1].getScore(testSet.getDataPoint(i)), 1e-8);
+                assertEquals(expected, models[2].getScore(testSet.getDataPoint(i)), 1e-8);
+            }
+        }
+    }
+
+    @Test
+    public void testTrain_RegressionDataSet_RowsCacheWithEvictions() {
+        System.out.println("train_RowsCache");
+        RegressionDataSet trainSet = FixedProblems.getSimpleRegression1(150, new Random(2));
+        RegressionDataSet testSet = FixedProblems.getSimpleRegression1(50, new Random(3));
+
+        PlattSMO[] models = new PlattSMO[3];
+        SupportVectorLearner.CacheMode[] modes = {SupportVectorLearner.CacheMode.NONE, SupportVectorLearner.CacheMode.FULL, SupportVectorLearner.CacheMode.ROWS};
+        for (int m = 0; m < modes.length; m++) {
+            models[m] = new PlattSMO(new RBFKernel(0.5));
+            models[m].setCacheMode(modes[m]);
+            models[m].setCacheValue(10);
+            models[m].setC(1);
+            models[m].setEpsilon(0.1);
+            models[m].train(trainSet);
+        }
+
+        assertTrue(models[2].cacheEvictions > 0);
+        assertTrue(models[2].evalCount < models[0].evalCount);
+        for (int i = 0; i < testSet.size(); i++) {
+            double expected = models[0].regress(testSet.getDataPoint(i));
+            assertEquals(expected, models[1].regress(testSet.getDataPoint(i)), 1e-8);
+            assertEquals(expected, models[2].regress(testSet.getDataPoint(i)), 1e-8);
+        }
+    }
+
     /**
      * Test of train method, of class PlattSMO.
      */
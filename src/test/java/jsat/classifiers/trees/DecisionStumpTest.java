@@ -270,4 +270,38 @@ public class DecisionStumpTest {
                     instance.classify(dpp.getDataPoint()).mostLikely());
     }
 
+    @Test
+    public void testTrainC_binned() {
+        System.out.println("trainC binned");
+        for (boolean para : new boolean[]{true, false}) {
+            stump = new DecisionStump();
+            stump.setNumericBins(16);
+            ClassificationDataSet toTrain = easyNumAtTrain.shallowClone();
+            toTrain.applyTransform(new InsertMissingValuesTransform(0.1));
+            stump.train(toTrain, para);
+            for (int i = 0; i < easyNumAtTest.size(); i++)
+                assertEquals(easyNumAtTest.getDataPointCategory(i), stump.classify(easyNumAtTest.getDataPoint(i)).mostLikely());
+        }
+    }
+
+    @Test
+    public void testTrainR_binned() {
+        System.out.println("trainR binned");
+        for (boolean para : new boolean[]{true, false}) {
+            stump = new DecisionStump();
+            stump.setNumericBins(16);
+            RegressionDataSet toTrain = easyNumAtTrain_R.shallowClone();
+            toTrain.applyTransform(new InsertMissingValuesTransform(0.1));
+            stump.train(toTrain, para);
+            for (int i = 0; i < easyNumAtTest_R.size(); i++)
+                assertEquals(easyNumAtTest_R.getTargetValue(i), stump.regress(easyNumAtTest_R.getDataPoint(i)), 0.2);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSetNumericBins() {
+        System.out.println("setNumericBins");
+        new DecisionStump().setNumericBins(FeatureBins.MAX_BINS + 1);
+    }
+
 }
@@ -272,4 +272,68 @@ public class DecisionTreeTest {
         }
     }
 
+    @Test
+    public void testTrainC_ClassificationDataSet_binned() {
+        System.out.println("trainC binned");
+
+        for (boolean parallel : new boolean[]{true, false}) {
+            DecisionTree instance = new DecisionTree();
+            instance.setNumericBins(64);
+            instance.setPruningMethod(TreePruner.PruningMethod.NONE);
+
+            int attempts = 3;
+            do {
+                ClassificationDataSet train = FixedProblems.getCircles(5000, 1.0, 10.0, 100.0);
+                ClassificationDataSet test = FixedProblems.getCircles(200, 1.0, 10.0, 100.0);
+
+                ClassificationModelEvaluation cme = new ClassificationModelEvaluation(instance, train, parallel);
+                cme.evaluateTestSet(test);
+
+                if (cme.getErrorRate() < 0.075)
+                    break;
+            }
+            while (attempts-- > 0);
+            assertTrue(attempts > 0);
+        }
+    }
+
+    @Test
+    public void testTrain_RegressionDataSet_binned() {
+        System.out.println("train binned");
+
+        for (boolean parallel : new boolean[]{true, false}) {
+            DecisionTree instance = new DecisionTree();
+            instance.setNumericBins(64);
+            instance.setPruningMethod(TreePruner.PruningMethod.NONE);
+
+            RegressionDataSet train = FixedProblems.getLinearRegression(3000, RandomUtil.getRandom());
+            RegressionDataSet test = FixedProblems.getLinearRegression(100, RandomUtil.getRandom());
+            train.applyTransform(new InsertMissingValuesTransform(0.1));
+
+            RegressionModelEvaluation rme = new RegressionModelEvaluation(instance, train, parallel);
+            rme.evaluateTestSet(test);
+
+            assertTrue(rme.getMeanError() <= test.getTargetValues().mean() * 3);
+        }
+    }
+
+    @Test
+    public void testBinnedClone() {
+        System.out.println("binned clone");
+        ClassificationDataSet data = FixedProblems.getCircles(1000, 1.0, 10.0, 100.0);
+        FeatureBins bins = FeatureBins.fit(data, 32);
+
+        DecisionTree instance = new DecisionTree();
+        instance.setNumericBins(32);
+        instance.setFeatureBins(bins);
+        DecisionTree clone = instance.clone();
+        assertEquals(32, clone.getNumericBins());
+        assertSame(bins, clone.getFeatureBins());
+
+        clone.train(data);
+        DecisionTree trainedClone = clone.clone();
+        for (int i = 0; i < data.size(); i++)
+            assertEquals(clone.classify(data.getDataPoint(i)).mostLikely(), trainedClone.classify(data.getDataPoint(i)).mostLikely());
+    }
+
 }
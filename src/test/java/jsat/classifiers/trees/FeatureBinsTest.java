@@ -0,0 +1,163 @@
+package jsat.classifiers.trees;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import jsat.DataSet;
+import jsat.FixedProblems;
+import jsat.classifiers.CategoricalData;
+import jsat.classifiers.ClassificationDataSet;
+import jsat.classifiers.DataPoint;
+import jsat.linear.DenseVector;
+import jsat.linear.SparseVector;
+import jsat.linear.Vec;
+import jsat.regression.RegressionDataSet;
+import jsat.utils.random.RandomUtil;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link FeatureBins} and the {@link NodeHistogram}s built from them
+ */
+public class FeatureBinsTest {
+
+    public FeatureBinsTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() {
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+    }
+
+    @Before
+    public void setUp() {
+    }
+
+    @After
+    public void tearDown() {
+    }
+
+    @Test
+    public void testFitFewValues() {
+        System.out.println("fitFewValues");
+        //feature 0 has 5 distinct values, feature 1 is constant, feature 2 is sparse
+        ClassificationDataSet data = new ClassificationDataSet(3, new CategoricalData[0], new CategoricalData(2));
+        for (int i = 0; i < 100; i++) {
+            Vec x = new SparseVector(3);
+            x.set(0, i % 5);
+            x.set(1, 3.0);
+            if (i % 4 == 0)
+                x.set(2, -1.0);
+            data.addDataPoint(x, i % 2);
+        }
+        data.addDataPoint(new DenseVector(new double[]{Double.NaN, 3.0, 0.0}), 0);
+
+        FeatureBins bins = FeatureBins.fit(data, 16);
+        assertEquals(3, bins.getNumFeatures());
+
+        assertEquals(5, bins.getNumBins(0));
+        for (int v = 0; v < 5; v++)
+            assertEquals(v, bins.getBin(0, v));
+        for (int b = 0; b < 4; b++)
+            assertEquals(b + 0.5, bins.getThreshold(0, b), 0.0);
+
+        assertEquals(1, bins.getNumBins(1));
+        assertEquals(0, bins.getBin(1, 3.0));
+
+        //the implicit zeros must be counted as a value
+        assertEquals(2, bins.getNumBins(2));
+        assertEquals(0, bins.getBin(2, -1.0));
+        assertEquals(1, bins.getBin(2, 0.0));
+    }
+
+    @Test
+    public void testFitManyValues() {
+        System.out.println("fitManyValues");
+        Random rand = RandomUtil.getRandom();
+        RegressionDataSet data = FixedProblems.getLinearRegression(5000, rand);
+        for (int maxBins : new int[]{2, 17, FeatureBins.MAX_BINS}) {
+            FeatureBins bins = FeatureBins.fit(data, maxBins);
+            for (int j = 0; j < data.getNumNumericalVars(); j++) {
+                assertTrue(bins.getNumBins(j) <= maxBins);
+                assertTrue(bins.getNumBins(j) >= maxBins / 2);
+
+                int[] counts = new int[bins.getNumBins(j)];
+                for (int i = 0; i < data.size(); i++) {
+                    double v = data.getDataPoint(i).getNumericalValues().get(j);
+                    int b = bins.getBin(j, v);
+                    counts[b]++;
+                    if (b > 0)
+                        assertTrue(v > bins.getThreshold(j, b - 1));
+                    if (b < counts.length - 1)
+                        assertTrue(v <= bins.getThreshold(j, b));
+                }
+                //quantile bins should hold roughly the same number of points
+                for (int c : counts)
+                    assertEquals(data.size() / (double) counts.length, c, data.size() / (double) counts.length * 0.5);
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFitBadBins() {
+        System.out.println("fitBadBins");
+        FeatureBins.fit(FixedProblems.getLinearRegression(10, RandomUtil.getRandom()), 1);
+    }
+
+    @Test
+    public void testHistogramSubtraction() {
+        System.out.println("histogramSubtraction");
+        Random rand = RandomUtil.getRandom();
+        ClassificationDataSet cData = FixedProblems.getSimpleKClassLinear(600, 3, rand);
+        RegressionDataSet rData = FixedProblems.getLinearRegression(600, rand);
+        for (int i = 0; i < cData.size(); i++)
+            cData.setWeight(i, 0.5 + rand.nextDouble());
+
+        for (boolean classification : new boolean[]{true, false}) {
+            FeatureBins bins = FeatureBins.fit(classification ? cData : rData, 32);
+            NodeHistogram root = classification ? new NodeHistogram(bins, cData) : new NodeHistogram(bins, rData);
+            //the root must have its histograms before the children can subtract from them
+            for (int j = 0; j < bins.getNumFeatures(); j++)
+                root.get(j);
+
+            List<? extends DataSet<?>> splits = classification ? splitC(cData, rand) : splitR(rData, rand);
+            NodeHistogram[] children = root.children(splits);
+            for (int c = 0; c < splits.size(); c++) {
+                NodeHistogram fresh = classification
+                        ? new NodeHistogram(bins, (ClassificationDataSet) splits.get(c))
+                        : new NodeHistogram(bins, (RegressionDataSet) splits.get(c));
+                for (int j = 0; j < bins.getNumFeatures(); j++)
+                    assertArrayEquals(fresh.get(j), children[c].get(j), 1e-8);
+            }
+        }
+    }
+
+    private static List<ClassificationDataSet> splitC(ClassificationDataSet data, Random rand) {
+        List<ClassificationDataSet> splits = new ArrayList<>();
+        for (int c = 0; c < 3; c++)
+            splits.add(data.emptyClone());
+        for (int i = 0; i < data.size(); i++) {
+            DataPoint dp = data.getDataPoint(i);
+            splits.get(rand.nextInt(3)).addDataPoint(dp, data.getDataPointCategory(i), data.getWeight(i));
+        }
+        return splits;
+    }
+
+    private static List<RegressionDataSet> splitR(RegressionDataSet data, Random rand) {
+        List<RegressionDataSet> splits = new ArrayList<>();
+        for (int c = 0; c < 2; c++)
+            splits.add(data.emptyClone());
+        for (int i = 0; i < data.size(); i++)
+            splits.get(rand.nextInt(4) == 0 ? 0 : 1).addDataPoint(data.getDataPoint(i), data.getTargetValue(i), data.getWeight(i));
+        return splits;
+    }
+}
@@ -0,0 +1,187 @@
+package jsat.classifiers.trees;
+
+import jsat.FixedProblems;
+import jsat.TestTools;
+import jsat.classifiers.ClassificationDataSet;
+import jsat.classifiers.ClassificationModelEvaluation;
+import jsat.datatransform.DataTransformProcess;
+import jsat.datatransform.InsertMissingValuesTransform;
+import jsat.datatransform.NumericalToHistogram;
+import jsat.lossfunctions.HuberLoss;
+import jsat.parameters.IntParameter;
+import jsat.regression.RegressionDataSet;
+import jsat.regression.RegressionModelEvaluation;
+import jsat.utils.random.RandomUtil;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link HistogramGradientBoosting}
+ */
+public class HistogramGradientBoostingTest {
+
+    public HistogramGradientBoostingTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() {
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+    }
+
+    @Before
+    public void setUp() {
+    }
+
+    @After
+    public void tearDown() {
+    }
+
+    @Test
+    public void testTrainC_Binary() {
+        System.out.println("trainC binary");
+        for (boolean parallel : new boolean[]{true, false})
+            for (boolean useCatFeatures : new boolean[]{true, false}) {
+                HistogramGradientBoosting instance = new HistogramGradientBoosting();
+
+                ClassificationDataSet train = FixedProblems.get2ClassLinear(2000, RandomUtil.getRandom());
+                ClassificationDataSet test = FixedProblems.get2ClassLinear(200, RandomUtil.getRandom());
+
+                ClassificationModelEvaluation cme = new ClassificationModelEvaluation(instance, train, parallel);
+                if (useCatFeatures)
+                    cme.setDataTransformProcess(new DataTransformProcess(new NumericalToHistogram(20)));
+                cme.evaluateTestSet(test);
+
+                assertTrue(cme.getErrorRate() <= 0.05);
+            }
+    }
+
+    @Test
+    public void testTrainC_MultiClass() {
+        System.out.println("trainC multi-class");
+        for (boolean parallel : new boolean[]{true, false}) {
+            HistogramGradientBoosting instance = new HistogramGradientBoosting();
+
+            ClassificationDataSet train = FixedProblems.getCircles(3000, 1.0, 10.0, 100.0);
+            ClassificationDataSet test = FixedProblems.getCircles(200, 1.0, 10.0, 100.0);
+
+            ClassificationModelEvaluation cme = new ClassificationModelEvaluation(instance, train, parallel);
+            cme.evaluateTestSet(test);
+
+            assertTrue(cme.getErrorRate() <= 0.05);
+        }
+    }
+
+    @Test
+    public void testTrainC_Missing() {
+        System.out.println("trainC missing");
+        HistogramGradientBoosting instance = new HistogramGradientBoosting();
+        instance.setRowSampling(0.7);
+        instance.setColumnSampling(0.7);
+
+        ClassificationDataSet train = FixedProblems.getCircles(3000, 1.0, 10.0, 100.0);
+        ClassificationDataSet test = FixedProblems.getCircles(200, 1.0, 10.0, 100.0);
+        train.applyTransform(new InsertMissingValuesTransform(0.1));
+
+        ClassificationModelEvaluation cme = new ClassificationModelEvaluation(instance, train, true);
+        cme.evaluateTestSet(test);
+
+        assertTrue(cme.getErrorRate() <= 0.1);
+    }
+
+    @Test
+    public void testTrainR() {
+        System.out.println("train");
+        for (boolean parallel : new boolean[]{true, false})
+            for (boolean useCatFeatures : new boolean[]{true, false}) {
+                HistogramGradientBoosting instance = new HistogramGradientBoosting();
+
+                RegressionDataSet train = FixedProblems.getLinearRegression(3000, RandomUtil.getRandom());
+                RegressionDataSet test = FixedProblems.getLinearRegression(100, RandomUtil.getRandom());
+
+                RegressionModelEvaluation rme = new RegressionModelEvaluation(instance, train, parallel);
+                if (useCatFeatures)
+                    rme.setDataTransformProcess(new DataTransformProcess(new NumericalToHistogram(20)));
+                rme.evaluateTestSet(test);
+
+                assertTrue(rme.getMeanError() <= test.getTargetValues().mean() * 0.5);
+            }
+    }
+
+    @Test
+    public void testTrainR_Missing() {
+        System.out.println("train missing");
+        HistogramGradientBoosting instance = new HistogramGradientBoosting();
+        instance.setRegressionLoss(new HuberLoss());
+
+        RegressionDataSet train = FixedProblems.getLinearRegression(3000, RandomUtil.getRandom());
+        RegressionDataSet test = FixedProblems.getLinearRegression(100, RandomUtil.getRandom());
+        train.applyTransform(new InsertMissingValuesTransform(0.1));
+
+        RegressionModelEvaluation rme = new RegressionModelEvaluation(instance, train, true);
+        rme.evaluateTestSet(test);
+
+        assertTrue(rme.getMeanError() <= test.getTargetValues().mean() * 1.5);
+    }
+
+    @Test
+    public void testEarlyStopping() {
+        System.out.println("earlyStopping");
+        HistogramGradientBoosting instance = new HistogramGradientBoosting(5000, 0.3, 31);
+        instance.setValidationFraction(0.2);
+        instance.setEarlyStoppingRounds(5);
+
+        //overlapping classes, so the held out loss must eventually get worse
+        ClassificationDataSet train = FixedProblems.get2ClassLinear2D(500, 500, 0.5, RandomUtil.getRandom());
+        instance.train(train);
+
+        assertTrue(instance.getNumRounds() >= 1);
+        assertTrue(instance.getNumRounds() < 5000);
+    }
+
+    @Test
+    public void testParameters() {
+        System.out.println("parameters");
+        HistogramGradientBoosting instance = new HistogramGradientBoosting();
+        for (String name : new String[]{"Max Iterations", "Learning Rate", "Max Leaves", "Lambda", "Row Sampling", "Column Sampling"})
+            assertNotNull(name, instance.getParameter(name));
+        IntParameter leaves = (IntParameter) instance.getParameter("Max Leaves");
+        assertNotNull(leaves.getGuess(FixedProblems.get2ClassLinear(100, RandomUtil.getRandom())));
+    }
+
+    @Test
+    public void testClone() {
+        System.out.println("clone");
+
+        HistogramGradientBoosting instance = new HistogramGradientBoosting();
+
+        ClassificationDataSet t1 = FixedProblems.getSimpleKClassLinear(1000, 2);
+        ClassificationDataSet t2 = FixedProblems.getSimpleKClassLinear(1000, 3);
+
+        instance = instance.clone();
+        instance = TestTools.deepCopy(instance);
+
+        instance.train(t1);
+
+        HistogramGradientBoosting result = instance.clone();
+        for (int i = 0; i < t1.size(); i++)
+            assertEquals(t1.getDataPointCategory(i), result.classify(t1.getDataPoint(i)).mostLikely());
+        result = TestTools.deepCopy(instance);
+        for (int i = 0; i < t1.size(); i++)
+            assertEquals(t1.getDataPointCategory(i), result.classify(t1.getDataPoint(i)).mostLikely());
+        result.train(t2);
+
+        for (int i = 0; i < t1.size(); i++)
+            assertEquals(t1.getDataPointCategory(i), instance.classify(t1.getDataPoint(i)).mostLikely());
+
+        for (int i = 0; i < t2.size(); i++)
+            assertEquals(t2.getDataPointCategory(i), result.classify(t2.getDataPoint(i)).mostLikely());
+    }
+}
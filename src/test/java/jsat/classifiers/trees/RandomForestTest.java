@@ -63,6 +63,22 @@ public class RandomForestTest {
         }
     }
 
+    @Test
+    public void testTrainC_RegressionDataSet_binned() {
+        System.out.println("train binned");
+        RandomForest instance = new RandomForest();
+        instance.setNumericBins(32);
+
+        RegressionDataSet train = FixedProblems.getLinearRegression(1000, RandomUtil.getRandom(), coefs);
+        RegressionDataSet test = FixedProblems.getLinearRegression(100, RandomUtil.getRandom(), coefs);
+        train.applyTransform(new InsertMissingValuesTransform(0.1));
+
+        RegressionModelEvaluation rme = new RegressionModelEvaluation(instance, train, true);
+        rme.evaluateTestSet(test);
+
+        assertTrue(rme.getMeanError() <= test.getTargetValues().mean() * 3.5);
+    }
+
     @Test
     public void testTrainC_RegressionDataSetMiingValue() {
         System.out.println("train");
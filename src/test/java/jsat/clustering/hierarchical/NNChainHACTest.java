@@ -140,4 +140,21 @@ public class NNChainHACTest {
                 assertEquals(thisClass, dp.getCategoricalValue(0));
         }
     }
+
+    @Test
+    public void testCluster_SingleLinkMST() {
+        System.out.println("cluster(dataset, int) single link MST");
+        //uniform noise, so the merge order is all that decides the clusters
+        SimpleDataSet data = new GridDataGenerator(new Uniform(-0.5, 0.5), new Random(3), 1, 1).generateData(200);
+        int[] expected = new SimpleHAC(new SingleLinkDissimilarity()).cluster(data, 7, (int[]) null);
+
+        for (boolean parallel : new boolean[]{false, true}) {
+            int[] nnchain = new NNChainHAC(new SingleLinkDissimilarity()).cluster(data, 7, parallel, null);
+            int[] priority = new PriorityHAC(new SingleLinkDissimilarity()).cluster(data, 7, parallel, null);
+            for (int[] found : new int[][]{nnchain, priority})
+                for (int i = 0; i < expected.length; i++)
+                    for (int j = 0; j < i; j++)
+                        assertEquals(expected[i] == expected[j], found[i] == found[j]);
+        }
+    }
 }
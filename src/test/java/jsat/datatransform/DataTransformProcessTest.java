@@ -0,0 +1,146 @@
+package jsat.datatransform;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import jsat.SimpleDataSet;
+import jsat.classifiers.CategoricalData;
+import jsat.classifiers.DataPoint;
+import jsat.linear.DenseVector;
+import jsat.linear.Vec;
+import jsat.utils.random.XORWOW;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link DataTransformProcess}, checking the fused application of
+ * the transforms against applying them one at a time.
+ */
+public class DataTransformProcessTest {
+
+    public DataTransformProcessTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() {
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+    }
+
+    @Before
+    public void setUp() {
+    }
+
+    @After
+    public void tearDown() {
+    }
+
+    private static SimpleDataSet getData() {
+        Random rand = new XORWOW(123);
+        List<DataPoint> dps = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            Vec x = DenseVector.random(5, rand);
+            x.mutableMultiply(1 + i % 7);
+            dps.add(new DataPoint(x, new int[]{i % 3}, new CategoricalData[]{new CategoricalData(3)}));
+        }
+        return new SimpleDataSet(dps);
+    }
+
+    private static DataTransformProcess getProcess() {
+        return new DataTransformProcess(new StandardizeTransform(), new PolynomialTransform(2),
+                new LinearTransform(), new PNormNormalization());
+    }
+
+    /**
+     * @return the data set after applying each transform in the process one
+     * at a time
+     */
+    private static SimpleDataSet applySequentially(SimpleDataSet data) {
+        SimpleDataSet expected = data.shallowClone();
+        for (DataTransform dt : new DataTransform[]{new StandardizeTransform(), new PolynomialTransform(2),
+                new LinearTransform(), new PNormNormalization()}) {
+            dt.fit(expected);
+            expected.applyTransform(dt);
+        }
+        return expected;
+    }
+
+    private static void assertSameData(SimpleDataSet expected, SimpleDataSet actual) {
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected.getNumNumericalVars(), actual.getNumNumericalVars());
+        for (int i = 0; i < expected.size(); i++) {
+            Vec a = expected.getDataPoint(i).getNumericalValues();
+            Vec b = actual.getDataPoint(i).getNumericalValues();
+            assertEquals(0.0, a.subtract(b).pNorm(2), 1e-10);
+            assertArrayEquals(expected.getDataPoint(i).getCategoricalValues(), actual.getDataPoint(i).getCategoricalValues());
+        }
+    }
+
+    @Test
+    public void testLearnApplyTransforms() {
+        System.out.println("learnApplyTransforms");
+        SimpleDataSet expected = applySequentially(getData());
+
+        for (boolean parallel : new boolean[]{false, true}) {
+            SimpleDataSet data = getData();
+            DataTransformProcess process = getProcess();
+            process.learnApplyTransforms(data, parallel);
+            assertSameData(expected, data);
+        }
+    }
+
+    @Test
+    public void testApplyTo() {
+        System.out.println("applyTo");
+        SimpleDataSet expected = applySequentially(getData());
+
+        for (boolean parallel : new boolean[]{false, true})
+            for (boolean mutate : new boolean[]{false, true}) {
+                SimpleDataSet data = getData();
+                SimpleDataSet copy = data.shallowClone();
+                Vec firstOrig = data.getDataPoint(0).getNumericalValues().clone();
+
+                DataTransformProcess process = getProcess();
+                process.leanTransforms(data, parallel);
+                //learning does not change the data
+                assertEquals(0.0, firstOrig.subtract(data.getDataPoint(0).getNumericalValues()).pNorm(2), 0.0);
+
+                process.applyTo(data, mutate, parallel);
+                assertSameData(expected, data);
+                //the first transform is in place, so only mutating alters the shared points
+                double change = firstOrig.subtract(copy.getDataPoint(0).getNumericalValues()).pNorm(2);
+                if (mutate)
+                    assertTrue(change > 0);
+                else
+                    assertEquals(0.0, change, 0.0);
+            }
+    }
+
+    @Test
+    public void testTransform_mutate() {
+        System.out.println("transform");
+        SimpleDataSet data = getData();
+        DataTransformProcess process = new DataTransformProcess(new StandardizeTransform(), new LinearTransform());
+        process.leanTransforms(data);
+
+        DataPoint dp = data.getDataPoint(3);
+        Vec orig = dp.getNumericalValues().clone();
+        DataPoint transformed = process.transform(dp);
+        assertNotSame(dp, transformed);
+        assertEquals(0.0, orig.subtract(dp.getNumericalValues()).pNorm(2), 0.0);
+
+        //every transform is in place, so the original point is altered
+        DataPoint mutated = process.transform(dp, true);
+        assertSame(dp, mutated);
+        assertEquals(0.0, transformed.getNumericalValues().subtract(dp.getNumericalValues()).pNorm(2), 1e-12);
+    }
+}
@@ -7,6 +7,7 @@ import jsat.classifiers.ClassificationModelEvaluation;
 import jsat.classifiers.Classifier;
 import jsat.classifiers.knn.NearestNeighbour;
 import jsat.distributions.Normal;
+import jsat.linear.Vec;
 import jsat.utils.GridDataGenerator;
 import org.junit.After;
 import org.junit.AfterClass;
@@ -74,5 +75,44 @@ public class PCATest {
         assertTrue(cme.getErrorRate() < (errorRate + 0.01) * 1.05);
     }
 
+    @Test
+    public void testTransform_Randomized() {
+        System.out.println("transform randomized");
+        GridDataGenerator gdg = new GridDataGenerator(new Normal(0, 0.05), new Random(12), 1, 1, 1);
+        ClassificationDataSet easyTrain = new ClassificationDataSet(gdg.generateData(80).getList(), 0);
+        ClassificationDataSet easyTest = new ClassificationDataSet(gdg.generateData(10).getList(), 0);
+
+        JLTransform jl = new JLTransform(30, JLTransform.TransformMode.GAUSS);
+        jl.fit(easyTrain);
+        easyTrain.applyTransform(jl);
+        easyTest.applyTransform(jl);
+
+        ClassificationModelEvaluation cme = new ClassificationModelEvaluation(new NearestNeighbour(3), easyTrain);
+        cme.evaluateTestSet(easyTest);
+        double errorRate = cme.getErrorRate();
+
+        PCA pca = new PCA(10);
+        pca.setRandomized(true);
+        pca.fit(easyTrain);
+        assertEquals(10, pca.transform(easyTrain.getDataPoint(0)).getNumericalValues().length());
+
+        //the same subspace as NIPALS, so distances are preserved the same way
+        PCA nipals = new PCA(3);
+        nipals.fit(easyTrain);
+        PCA randomized = (PCA) nipals.clone();
+        randomized.setRandomized(true);
+        randomized.fit(easyTrain);
+        for (int i = 0; i < 20; i++) {
+            Vec a = nipals.transform(easyTrain.getDataPoint(i)).getNumericalValues();
+            Vec b = randomized.transform(easyTrain.getDataPoint(i)).getNumericalValues();
+            assertEquals(a.pNorm(2), b.pNorm(2), a.pNorm(2) * 1e-2);
+        }
+
+        PCA pca3 = new PCA(3);
+        pca3.setRandomized(true);
+        cme = new ClassificationModelEvaluation(new DataModelPipeline((Classifier) new NearestNeighbour(3), pca3), easyTrain);
+        cme.evaluateTestSet(easyTest);
+        assertTrue(cme.getErrorRate() < (errorRate + 0.01) * 1.05);
+    }
 
 }
@@ -0,0 +1,39 @@
+package jsat.distributions.kernels;
+
+import jsat.linear.distancemetrics.EuclideanDistance;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Tests for {@link GeneralRBFKernel}
+ */
+public class GeneralRBFKernelTest {
+
+    public GeneralRBFKernelTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() {
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+    }
+
+    @Before
+    public void setUp() {
+    }
+
+    @After
+    public void tearDown() {
+    }
+
+    @Test
+    public void testCachedEval() {
+        System.out.println("cachedEval");
+        KernelTestUtils.checkCachedEvals(new GeneralRBFKernel(new EuclideanDistance(), 1.5));
+    }
+}
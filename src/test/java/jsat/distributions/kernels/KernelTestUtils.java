@@ -0,0 +1,83 @@
+package jsat.distributions.kernels;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import jsat.linear.DenseVector;
+import jsat.linear.SparseVector;
+import jsat.linear.Vec;
+import jsat.utils.DoubleList;
+import jsat.utils.random.RandomUtil;
+
+import static org.junit.Assert.*;
+
+/**
+ * Shared checks for the cache accelerated methods of {@link KernelTrick}
+ * implementations.
+ */
+class KernelTestUtils {
+
+    private KernelTestUtils() {
+    }
+
+    /**
+     * Creates a mix of dense and sparse random vectors
+     *
+     * @param n the number of vectors
+     * @param d the dimension of the vectors
+     * @return a list of random vectors
+     */
+    static List<Vec> randomVecs(int n, int d) {
+        Random rand = RandomUtil.getRandom();
+        List<Vec> vecs = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            Vec v = new DenseVector(d);
+            for (int j = 0; j < d; j++)
+                v.set(j, rand.nextGaussian());
+            vecs.add(i % 2 == 0 ? v : new SparseVector(v));
+        }
+        return vecs;
+    }
+
+    /**
+     * Checks that every cache accelerated evaluation, using both the
+     * {@code List<Double>} and {@link DoubleList} forms of the cache, gives
+     * the same result as {@link KernelTrick#eval(jsat.linear.Vec, jsat.linear.Vec) }
+     *
+     * @param k the kernel to test
+     */
+    static void checkCachedEvals(KernelTrick k) {
+        List<Vec> vecs = randomVecs(10, 5);
+        List<Double> cache = k.getAccelerationCache(vecs);
+        DoubleList primCache = k.getPrimitiveAccelerationCache(vecs);
+        if (k.supportsAcceleration())
+            assertNotNull(primCache);
+
+        double[] alpha = new double[vecs.size()];
+        for (int i = 0; i < alpha.length; i++)
+            alpha[i] = (i + 1) / 10.0;
+
+        for (int j = 0; j < vecs.size(); j++) {
+            Vec q = vecs.get(j);
+            List<Double> qi = k.getQueryInfo(q);
+            DoubleList primQi = k.getPrimitiveQueryInfo(q);
+
+            double expectedSum = 0;
+            for (int i = 0; i < vecs.size(); i++) {
+                double expected = k.eval(vecs.get(i), q);
+                expectedSum += alpha[i] * expected;
+
+                assertEquals(expected, k.eval(i, j, vecs, cache), 1e-10);
+                assertEquals(expected, k.eval(i, j, vecs, primCache), 1e-10);
+                assertEquals(expected, k.eval(i, q, qi, vecs, cache), 1e-10);
+                assertEquals(expected, k.eval(i, q, primQi, vecs, primCache), 1e-10);
+            }
+
+            assertEquals(expectedSum, k.evalSum(vecs, cache, alpha, q, 0, vecs.size()), 1e-10);
+            assertEquals(expectedSum, k.evalSum(vecs, primCache, alpha, q, 0, vecs.size()), 1e-10);
+            assertEquals(expectedSum, k.evalSum(vecs, cache, alpha, q, qi, 0, vecs.size()), 1e-10);
+            assertEquals(expectedSum, k.evalSum(vecs, primCache, alpha, q, primQi, 0, vecs.size()), 1e-10);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package jsat.distributions.kernels;
+
+import java.util.List;
+
+import jsat.linear.Vec;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link PukKernel}
+ */
+public class PukKernelTest {
+
+    public PukKernelTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() {
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+    }
+
+    @Before
+    public void setUp() {
+    }
+
+    @After
+    public void tearDown() {
+    }
+
+    @Test
+    public void testCachedEval() {
+        System.out.println("cachedEval");
+        KernelTestUtils.checkCachedEvals(new PukKernel(1.5, 2.0));
+    }
+
+    /**
+     * eval(int, int, ...) used to measure the distance from b to itself, so
+     * every pair of distinct points evaluated to the kernel's maximum of 1
+     */
+    @Test
+    public void testEval_int_int_distinctPoints() {
+        System.out.println("eval_int_int");
+        PukKernel k = new PukKernel(1.5, 2.0);
+        List<Vec> vecs = KernelTestUtils.randomVecs(4, 5);
+        List<Double> cache = k.getAccelerationCache(vecs);
+        for (int i = 0; i < vecs.size(); i++)
+            for (int j = 0; j < vecs.size(); j++) {
+                double expected = k.eval(vecs.get(i), vecs.get(j));
+                if (i != j)
+                    assertTrue(expected < 1);
+                assertEquals(expected, k.eval(i, j, vecs, cache), 1e-10);
+            }
+    }
+}
@@ -0,0 +1,38 @@
+package jsat.distributions.kernels;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Tests for {@link RationalQuadraticKernel}
+ */
+public class RationalQuadraticKernelTest {
+
+    public RationalQuadraticKernelTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() {
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+    }
+
+    @Before
+    public void setUp() {
+    }
+
+    @After
+    public void tearDown() {
+    }
+
+    @Test
+    public void testCachedEval() {
+        System.out.println("cachedEval");
+        KernelTestUtils.checkCachedEvals(new RationalQuadraticKernel(2.0));
+    }
+}
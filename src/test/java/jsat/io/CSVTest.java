@@ -413,6 +413,59 @@ public class CSVTest {
         }
     }
 
+    @Test
+    public void testReadChunked() throws IOException {
+        System.out.println("readChunked");
+        Random rand = RandomUtil.getRandom();
+        String[] names = {"alpha", "beta", "gamma", "delta", "eps"};
+        String[] newLines = {"\n", "\r\n"};
+        StringBuilder csv = new StringBuilder();
+        csv.append("header,line\n");
+        for (int i = 0; i < 3000; i++) {
+            csv.append(rand.nextInt(4)).append(", ");
+            csv.append(names[rand.nextInt(names.length)]).append(',');
+            if (rand.nextInt(20) != 0)//missing values
+                csv.append(rand.nextGaussian());
+            csv.append(" ,").append(rand.nextInt(100) / 10.0).append(',');
+            if (rand.nextInt(20) != 0)
+                csv.append(names[rand.nextInt(3)]);
+            if (rand.nextInt(10) == 0)
+                csv.append(" # a comment, with a delimiter");
+            csv.append(newLines[rand.nextInt(newLines.length)]);
+            if (rand.nextInt(50) == 0)
+                csv.append("\n");//empty line
+        }
+
+        File tmp = File.createTempFile("chunked", ".csv");
+        tmp.deleteOnExit();
+        try (Writer out = new FileWriter(tmp)) {
+            out.write(csv.toString());
+        }
+        Set<Integer> cat_cols = new HashSet<>(Arrays.asList(1, 4));
+
+        SimpleDataSet simple = CSV.read(new StringReader(csv.toString()), ',', 1, '#', cat_cols);
+        RegressionDataSet reg = CSV.readR(3, new StringReader(csv.toString()), ',', 1, '#', cat_cols);
+        ClassificationDataSet cls = CSV.readC(0, new StringReader(csv.toString()), ',', 1, '#', cat_cols);
+        assertEquals(3000, simple.size());
+
+        for (int chunks : new int[]{1, 3, 8, 64}) {
+            compareDataSetPoints(simple, CSV.readCSVChunked(tmp.toPath(), 1, ',', '#', cat_cols, -1, -1, true, chunks));
+
+            RegressionDataSet reg_in = (RegressionDataSet) CSV.readCSVChunked(tmp.toPath(), 1, ',', '#', cat_cols, 3, -1, true, chunks);
+            compareDataSetPoints(reg, reg_in);
+            assertTrue(reg.getTargetValues().equals(reg_in.getTargetValues()));
+
+            ClassificationDataSet cls_in = (ClassificationDataSet) CSV.readCSVChunked(tmp.toPath(), 1, ',', '#', cat_cols, -1, 0, false, chunks);
+            compareDataSetPoints(cls, cls_in);
+            for (int i = 0; i < cls.size(); i++)
+                assertEquals(cls.getDataPointCategory(i), cls_in.getDataPointCategory(i));
+        }
+
+        compareDataSetPoints(simple, CSV.read(tmp.toPath(), ',', 1, '#', cat_cols, true));
+        compareDataSetPoints(reg, CSV.readR(3, tmp.toPath(), ',', 1, '#', cat_cols, true));
+        compareDataSetPoints(cls, CSV.readC(0, tmp.toPath(), ',', 1, '#', cat_cols, true));
+    }
+
     private void compareDataSetPoints(DataSet<?> truth_data, DataSet<?> simpleIn) {
         assertEquals(truth_data.size(), simpleIn.size());
         assertEquals(truth_data.getNumCategoricalVars(), simpleIn.getNumCategoricalVars());
@@ -6,8 +6,10 @@ import java.util.Random;
 import jsat.ColumnMajorStore;
 import jsat.DataSet;
 import jsat.DataStore;
+import jsat.PackedStore;
 import jsat.RowMajorStore;
 import jsat.SimpleDataSet;
+import jsat.TestTools;
 import jsat.classifiers.*;
 import jsat.datatransform.DenseSparceTransform;
 import jsat.linear.DenseVector;
@@ -138,7 +140,7 @@ public class JSATDataTest {
     public void testReadWriteSimple() throws Exception {
         System.out.println("ReadWriteSimple");
 
-        for (DataStore store : new DataStore[]{new RowMajorStore(), new ColumnMajorStore()}) {
+        for (DataStore store : new DataStore[]{new RowMajorStore(), new ColumnMajorStore(), new PackedStore()}) {
             //Prime by writting out the data
             ByteArrayOutputStream baos = new ByteArrayOutputStream();
             JSATData.writeData(simpleData, baos);
@@ -183,7 +185,7 @@ public class JSATDataTest {
         ClassificationDataSet cds = simpleData.asClassificationDataSet(simpleData.getNumCategoricalVars() - 1);
 
 
-        for (DataStore store : new DataStore[]{new RowMajorStore(), new ColumnMajorStore()}) {
+        for (DataStore store : new DataStore[]{new RowMajorStore(), new ColumnMajorStore(), new PackedStore()}) {
             //Prime by writting out the data
             ByteArrayOutputStream baos = new ByteArrayOutputStream();
             JSATData.writeData(cds, baos);
@@ -239,7 +241,7 @@ public class JSATDataTest {
         System.out.println("ReadWriteRegression");
 
 
-        for (DataStore store : new DataStore[]{new RowMajorStore(), new ColumnMajorStore()}) {
+        for (DataStore store : new DataStore[]{new RowMajorStore(), new ColumnMajorStore(), new PackedStore()}) {
             //use the last categorical feature as the read target so that forcing as a standard dataset produces the same expected result as the original simple dataset
             RegressionDataSet rds = simpleData.asRegressionDataSet(simpleData.getNumNumericalVars() - 1);
 
@@ -295,6 +297,64 @@ public class JSATDataTest {
 
     }
 
+    @Test
+    public void testLoadMapped() throws Exception {
+        System.out.println("loadMapped");
+
+        for (boolean sparse : new boolean[]{false, true}) {
+            if (sparse) {
+                simpleData.applyTransform(new DenseSparceTransform(0.5));
+                byteIntegerData.applyTransform(new DenseSparceTransform(0.5));
+            }
+            ClassificationDataSet cds = simpleData.asClassificationDataSet(0);
+            RegressionDataSet rds = simpleData.asRegressionDataSet(simpleData.getNumNumericalVars() - 1);
+
+            for (DataSet data : new DataSet[]{simpleData, cds, rds}) {
+                File file = writeTemp(data, JSATData.FloatStorageMethod.FP64);
+                checkDataSet(data, JSATData.loadMapped(file));
+                //small segments so that rows are spread over many mappings
+                checkDataSet(data, JSATData.loadMapped(file, 600));
+            }
+
+            for (JSATData.FloatStorageMethod fpStore : JSATData.FloatStorageMethod.values())
+                if (fpStore != JSATData.FloatStorageMethod.AUTO)
+                    checkDataSet(byteIntegerData, JSATData.loadMapped(writeTemp(byteIntegerData, fpStore), 300));
+        }
+
+        File file = writeTemp(simpleData.asClassificationDataSet(0), JSATData.FloatStorageMethod.FP32);
+        ClassificationDataSet mapped = JSATData.loadMappedClassification(file);
+        Vec x = mapped.getDataPoint(0).getNumericalValues();
+        try {
+            x.set(0, 1.0);
+            fail("mapped vectors should be read only");
+        } catch (UnsupportedOperationException ex) {
+            //expected
+        }
+        //copies are normal vectors
+        Vec copy = x.clone();
+        copy.set(0, 5.0);
+        assertEquals(5.0, copy.get(0), 0.0);
+        assertEquals(x, TestTools.deepCopy(x));
+
+        //points may still be replaced and added
+        DataPoint dp = new DataPoint(new DenseVector(mapped.getNumNumericalVars()), new int[mapped.getNumCategoricalVars()], mapped.getCategories());
+        mapped.setDataPoint(1, dp);
+        mapped.addDataPoint(dp, 1);
+        assertEquals(0.0, mapped.getDataPoint(1).getNumericalValues().get(0), 0.0);
+        assertEquals(11, mapped.size());
+        assertEquals(1, mapped.getDataPointCategory(10));
+        assertEquals(x, mapped.getDataPoint(0).getNumericalValues());
+    }
+
+    private static File writeTemp(DataSet data, JSATData.FloatStorageMethod fpStore) throws IOException {
+        File file = File.createTempFile("jsat", ".jsat");
+        file.deleteOnExit();
+        try (OutputStream out = new FileOutputStream(file)) {
+            JSATData.writeData(data, out, fpStore);
+        }
+        return file;
+    }
+
     private void checkDataSet(DataSet ogData, DataSet cpData) {
         assertEquals(ogData.getClass().getCanonicalName(), cpData.getClass().getCanonicalName());
 
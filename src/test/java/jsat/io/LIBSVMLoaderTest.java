@@ -3,14 +3,21 @@ package jsat.io;
 import java.io.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import jsat.ColumnMajorStore;
 import jsat.DataStore;
+import jsat.PackedStore;
 import jsat.RowMajorStore;
+import jsat.classifiers.ClassificationDataSet;
+import jsat.classifiers.DataPointPair;
 import jsat.linear.DenseVector;
 import jsat.linear.Vec;
 import jsat.regression.RegressionDataSet;
 import jsat.utils.DoubleList;
+import jsat.utils.random.RandomUtil;
 import org.junit.After;
 import org.junit.AfterClass;
 import org.junit.Before;
@@ -97,7 +104,7 @@ public class LIBSVMLoaderTest {
 
         String[] newLines = new String[]{"\n", "\n\r", "\r\n", "\n\r\n"};
 
-        for (DataStore ds : new DataStore[]{new RowMajorStore(), new ColumnMajorStore()})
+        for (DataStore ds : new DataStore[]{new RowMajorStore(), new ColumnMajorStore(), new PackedStore()})
             for (boolean endInNewLines : new boolean[]{true, false})
                 for (String newLine : newLines)
                     for (int i = 0; i < testLines.size(); i++) {
@@ -134,4 +141,61 @@ public class LIBSVMLoaderTest {
                     }
     }
 
+    @Test
+    public void testLoadChunked() throws Exception {
+        System.out.println("loadChunked");
+        Random rand = RandomUtil.getRandom();
+        String[] newLines = {"\n", "\r\n", "\n\n"};
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < 4000; i++) {
+            input.append(rand.nextInt(5) - 2);
+            for (int j = 0; j < 30; j++)
+                if (rand.nextInt(4) == 0)
+                    input.append(' ').append(j + 1).append(':').append(rand.nextInt(1000) / 100.0);
+            if (rand.nextBoolean())
+                input.append(' ');
+            input.append(newLines[rand.nextInt(newLines.length)]);
+        }
+        input.append("1 31:0");//last line has no new line, and only an explicit zero
+
+        File tmp = File.createTempFile("chunked", ".libsvm");
+        tmp.deleteOnExit();
+        try (Writer out = new FileWriter(tmp)) {
+            out.write(input.toString());
+        }
+
+        RegressionDataSet expectedR = LIBSVMLoader.loadR(new StringReader(input.toString()), 0.5, -1);
+        ClassificationDataSet expectedC = LIBSVMLoader.loadC(new StringReader(input.toString()), 0.5, -1);
+        assertEquals(4001, expectedR.size());
+        assertEquals(31, expectedR.getNumNumericalVars());
+
+        for (DataStore ds : new DataStore[]{new RowMajorStore(), new PackedStore()})
+            for (int chunks : new int[]{1, 2, 7, 50}) {
+                RegressionDataSet r = (RegressionDataSet) LIBSVMLoader.loadChunked(tmp.toPath(), 0.5, -1, false, ds, true, chunks);
+                ClassificationDataSet c = (ClassificationDataSet) LIBSVMLoader.loadChunked(tmp.toPath(), 0.5, -1, true, ds, true, chunks);
+                assertEquals(expectedR.size(), r.size());
+                assertEquals(expectedR.getNumNumericalVars(), r.getNumNumericalVars());
+                assertEquals(expectedC.getClassSize(), c.getClassSize());
+                for (int i = 0; i < r.size(); i++) {
+                    assertEquals(expectedR.getTargetValue(i), r.getTargetValue(i), 0.0);
+                    assertEquals(expectedC.getDataPointCategory(i), c.getDataPointCategory(i));
+                    assertTrue(expectedR.getDataPoint(i).getNumericalValues().equals(r.getDataPoint(i).getNumericalValues()));
+                    assertTrue(expectedR.getDataPoint(i).getNumericalValues().equals(c.getDataPoint(i).getNumericalValues()));
+                }
+            }
+
+        RegressionDataSet r = LIBSVMLoader.loadR(tmp, 0.5, 40, new RowMajorStore(), true);
+        assertEquals(40, r.getNumNumericalVars());
+        assertEquals(expectedR.size(), r.size());
+
+        for (boolean parallel : new boolean[]{false, true})
+            try (Stream<DataPointPair<Double>> stream = LIBSVMLoader.stream(tmp.toPath(), 31, parallel)) {
+                List<DataPointPair<Double>> rows = stream.collect(Collectors.toList());
+                assertEquals(expectedR.size(), rows.size());
+                for (int i = 0; i < rows.size(); i++) {
+                    assertEquals(expectedR.getTargetValue(i), rows.get(i).getPair(), 0.0);
+                    assertTrue(expectedR.getDataPoint(i).getNumericalValues().equals(rows.get(i).getVector()));
+                }
+            }
+    }
 }
@@ -0,0 +1,220 @@
+package jsat.io;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import jsat.classifiers.BaseUpdateableClassifier;
+import jsat.classifiers.CategoricalData;
+import jsat.classifiers.ClassificationDataSet;
+import jsat.classifiers.linear.PassiveAggressive;
+import jsat.linear.DenseVector;
+import jsat.linear.Vec;
+import jsat.regression.BaseUpdateableRegressor;
+import jsat.regression.RegressionDataSet;
+import jsat.utils.random.XORWOW;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link StreamingDataSource}, and the streaming readers of the
+ * loaders that create them.
+ */
+public class StreamingDataSourceTest {
+    private static ClassificationDataSet classData;
+    private static RegressionDataSet regData;
+
+    public StreamingDataSourceTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() {
+        Random rand = new XORWOW(42);
+        CategoricalData predicting = new CategoricalData(2);
+        predicting.setOptionName("neg", 0);
+        predicting.setOptionName("pos", 1);
+        classData = new ClassificationDataSet(4, new CategoricalData[0], predicting);
+        regData = new RegressionDataSet(4, new CategoricalData[0]);
+        for (int i = 0; i < 2000; i++) {
+            Vec x = DenseVector.random(4, rand);
+            x.mutableSubtract(0.5);
+            classData.addDataPoint(x, x.get(0) + x.get(1) > 0 ? 1 : 0);
+            regData.addDataPoint(x, 2 * x.get(0) - x.get(2));
+        }
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+    }
+
+    @Before
+    public void setUp() {
+    }
+
+    @After
+    public void tearDown() {
+    }
+
+    private static File writeJSAT(jsat.DataSet data) throws IOException {
+        File file = File.createTempFile("stream", ".jsat");
+        file.deleteOnExit();
+        try (OutputStream out = new FileOutputStream(file)) {
+            JSATData.writeData(data, out);
+        }
+        return file;
+    }
+
+    @Test
+    public void testForEach() throws IOException {
+        System.out.println("forEach");
+        File file = writeJSAT(regData);
+        StreamingDataSource<Double> source = JSATData.streamRegression(file.toPath());
+        assertEquals(4, source.getNumNumericalVars());
+        assertNull(source.getPredicting());
+
+        //in file order
+        List<Double> targets = new ArrayList<>();
+        source.setPrefetchSize(100);
+        source.forEach(row -> targets.add(row.getTarget()));
+        assertEquals(regData.size(), targets.size());
+        for (int i = 0; i < regData.size(); i++)
+            assertEquals(regData.getTargetValue(i), targets.get(i), 0.0);
+
+        //shuffled, but every row is still seen once per epoch
+        source.setEpochs(3);
+        source.setShuffleBufferSize(500);
+        targets.clear();
+        source.forEach(row -> targets.add(row.getTarget()));
+        assertEquals(3 * regData.size(), targets.size());
+        List<Double> expected = new ArrayList<>();
+        for (int i = 0; i < regData.size(); i++)
+            expected.add(regData.getTargetValue(i));
+        boolean reordered = false;
+        for (int epoch = 0; epoch < 3; epoch++) {
+            List<Double> epochTargets = new ArrayList<>(targets.subList(epoch * regData.size(), (epoch + 1) * regData.size()));
+            reordered |= !epochTargets.equals(expected);
+            Collections.sort(epochTargets);
+            List<Double> sortedExpected = new ArrayList<>(expected);
+            Collections.sort(sortedExpected);
+            assertEquals(sortedExpected, epochTargets);
+        }
+        assertTrue(reordered);
+    }
+
+    @Test
+    public void testForEach_errors() throws IOException {
+        System.out.println("forEach");
+        StreamingDataSource<Double> failing = new StreamingDataSource<>(() ->
+        {
+            throw new IOException("test");
+        }, 1, new CategoricalData[0], null);
+        try {
+            failing.forEach(row -> fail("no rows should be read"));
+            fail("exception should have been thrown");
+        } catch (IOException ex) {
+            assertEquals("test", ex.getMessage());
+        }
+
+        //the reader must stop when the consumer fails, even with a full buffer
+        StreamingDataSource<Double> endless = new StreamingDataSource<>(() -> IntStream.iterate(0, i -> i + 1)
+                .mapToObj(i -> new StreamingDataSource.Row<>(null, 1.0, (double) i)), 1, new CategoricalData[0], null);
+        endless.setPrefetchSize(10);
+        AtomicInteger seen = new AtomicInteger();
+        try {
+            endless.forEach(row ->
+            {
+                if (seen.incrementAndGet() == 1000)
+                    throw new IllegalStateException("stop");
+            });
+            fail("exception should have been thrown");
+        } catch (IllegalStateException ex) {
+            assertEquals(1000, seen.get());
+        }
+    }
+
+    @Test
+    public void testTrainStreaming_Classification() throws IOException {
+        System.out.println("trainStreaming");
+        File libsvm = File.createTempFile("stream", ".libsvm");
+        libsvm.deleteOnExit();
+        try (OutputStream out = new FileOutputStream(libsvm)) {
+            LIBSVMLoader.write(classData, out);
+        }
+        File csv = File.createTempFile("stream", ".csv");
+        csv.deleteOnExit();
+        try (Writer out = new FileWriter(csv)) {
+            CSV.write(classData, out, ',');
+        }
+
+        List<StreamingDataSource<Integer>> sources = new ArrayList<>();
+        sources.add(LIBSVMLoader.streamC(libsvm.toPath(), 4, 1, 0));
+        sources.add(CSV.streamC(0, csv.toPath(), ',', 0, '#', "neg", "pos"));
+        sources.add(JSATData.streamClassification(writeJSAT(classData).toPath()));
+
+        for (StreamingDataSource<Integer> source : sources) {
+            assertEquals(4, source.getNumNumericalVars());
+            assertEquals(2, source.getPredicting().getNumOfCategories());
+            source.setEpochs(2);
+            source.setShuffleBufferSize(256);
+
+            PassiveAggressive model = new PassiveAggressive();
+            BaseUpdateableClassifier.trainStreaming(source, model);
+
+            int errors = 0;
+            for (int i = 0; i < classData.size(); i++)
+                if (model.classify(classData.getDataPoint(i)).mostLikely() != classData.getDataPointCategory(i))
+                    errors++;
+            assertTrue(errors < classData.size() * 0.1);
+        }
+    }
+
+    @Test
+    public void testTrainStreaming_Regression() throws IOException {
+        System.out.println("trainStreaming");
+        File libsvm = File.createTempFile("stream", ".libsvm");
+        libsvm.deleteOnExit();
+        try (OutputStream out = new FileOutputStream(libsvm)) {
+            LIBSVMLoader.write(regData, out);
+        }
+        File csv = File.createTempFile("stream", ".csv");
+        csv.deleteOnExit();
+        try (Writer out = new FileWriter(csv)) {
+            CSV.write(regData, out, ',');
+        }
+
+        List<StreamingDataSource<Double>> sources = new ArrayList<>();
+        sources.add(LIBSVMLoader.streamR(libsvm.toPath(), 4));
+        sources.add(CSV.streamR(0, csv.toPath(), ',', 0, '#'));
+        sources.add(JSATData.streamRegression(writeJSAT(regData).toPath()));
+
+        for (StreamingDataSource<Double> source : sources) {
+            assertEquals(4, source.getNumNumericalVars());
+            source.setEpochs(5);
+            source.setShuffleBufferSize(256);
+
+            PassiveAggressive model = new PassiveAggressive();
+            BaseUpdateableRegressor.trainStreaming(source, model);
+
+            double mse = 0;
+            for (int i = 0; i < regData.size(); i++)
+                mse += Math.pow(model.regress(regData.getDataPoint(i)) - regData.getTargetValue(i), 2);
+            mse /= regData.size();
+            assertTrue(mse < 0.05);
+        }
+    }
+}
@@ -0,0 +1,455 @@
+package jsat.linear;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import jsat.SimpleDataSet;
+import jsat.classifiers.DataPoint;
+import jsat.linear.CompressedSparseMatrix.Format;
+import jsat.utils.SystemInfo;
+import jsat.utils.random.XORWOW;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link CompressedSparseMatrix}, checking every operation in both
+ * formats against the same operation on a {@link DenseMatrix}.
+ */
+public class CompressedSparseMatrixTest {
+    private static ExecutorService ex;
+
+    private Random rand;
+
+    public CompressedSparseMatrixTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() {
+        ex = Executors.newFixedThreadPool(SystemInfo.LogicalCores);
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+        ex.shutdown();
+    }
+
+    @Before
+    public void setUp() {
+        rand = new XORWOW(1234);
+    }
+
+    @After
+    public void tearDown() {
+    }
+
+    /**
+     * @return a dense matrix where about a fifth of the values are non zero
+     */
+    private DenseMatrix randomSparse(int rows, int cols) {
+        DenseMatrix A = new DenseMatrix(rows, cols);
+        for (int i = 0; i < rows; i++)
+            for (int j = 0; j < cols; j++)
+                if (rand.nextDouble() < 0.2)
+                    A.set(i, j, rand.nextGaussian());
+        return A;
+    }
+
+    private static SparseVector sparseCopy(Vec v) {
+        return new SparseVector(v);
+    }
+
+    private static SparseMatrix toSparseMatrix(Matrix A) {
+        SparseVector[] rows = new SparseVector[A.rows()];
+        for (int i = 0; i < rows.length; i++)
+            rows[i] = sparseCopy(A.getRowView(i));
+        return new SparseMatrix(rows);
+    }
+
+    @Test
+    public void testGetSet() {
+        System.out.println("get/set");
+        for (Format format : Format.values()) {
+            DenseMatrix expected = randomSparse(17, 11);
+            CompressedSparseMatrix A = new CompressedSparseMatrix(expected, format);
+            assertEquals(format, A.getFormat());
+            assertTrue(expected.equals(A, 0.0));
+            long nnz = 0;
+            for (int i = 0; i < expected.rows(); i++)
+                for (int j = 0; j < expected.cols(); j++)
+                    if (expected.get(i, j) != 0)
+                        nnz++;
+            assertEquals(nnz, A.nnz());
+
+            for (int trial = 0; trial < 200; trial++) {
+                int i = rand.nextInt(expected.rows());
+                int j = rand.nextInt(expected.cols());
+                double val = rand.nextInt(3) == 0 ? 0.0 : rand.nextGaussian();
+                if (rand.nextBoolean()) {
+                    expected.set(i, j, val);
+                    A.set(i, j, val);
+                } else {
+                    expected.increment(i, j, val);
+                    A.increment(i, j, val);
+                }
+            }
+            assertTrue(expected.equals(A, 1e-14));
+
+            try {
+                A.get(expected.rows(), 0);
+                fail("exception should have been thrown");
+            } catch (IndexOutOfBoundsException e) {
+            }
+        }
+    }
+
+    @Test
+    public void testFromRows() {
+        System.out.println("fromRows");
+        DenseMatrix expected = randomSparse(40, 13);
+        List<Vec> rows = new ArrayList<>();
+        for (int i = 0; i < expected.rows(); i++)//mix of sparse and dense rows
+            rows.add(i % 2 == 0 ? sparseCopy(expected.getRowView(i)) : new DenseVector(expected.getRowView(i)));
+
+        for (Format format : Format.values())
+            for (boolean parallel : new boolean[]{false, true}) {
+                CompressedSparseMatrix A = CompressedSparseMatrix.fromRows(rows, 13, format, parallel);
+                assertEquals(format, A.getFormat());
+                assertTrue(expected.equals(A, 0.0));
+            }
+
+        List<DataPoint> dps = new ArrayList<>();
+        for (Vec row : rows)
+            dps.add(new DataPoint(row));
+        SimpleDataSet data = new SimpleDataSet(dps);
+        assertTrue(expected.equals(data.getCompressedDataMatrix(Format.CSC, true), 0.0));
+
+        rows.add(new DenseVector(12));
+        try {
+            CompressedSparseMatrix.fromRows(rows, 13, Format.CSR, false);
+            fail("exception should have been thrown");
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    @Test
+    public void testWrapArrays() {
+        System.out.println("wrapArrays");
+        int[] ptr = new int[]{0, 2, 2, 3};
+        int[] idx = new int[]{0, 3, 1};
+        double[] values = new double[]{1.0, 2.0, 3.0};
+        CompressedSparseMatrix A = new CompressedSparseMatrix(3, 4, ptr, idx, values, Format.CSR);
+        assertEquals(2.0, A.get(0, 3), 0.0);
+        assertEquals(3.0, A.get(2, 1), 0.0);
+        assertEquals(0.0, A.get(1, 1), 0.0);
+        //no copy was made
+        A.set(0, 0, 5.0);
+        assertEquals(5.0, values[0], 0.0);
+        assertSame(values, A.getValues());
+
+        CompressedSparseMatrix B = new CompressedSparseMatrix(4, 3, ptr, idx, values, Format.CSC);
+        assertTrue(A.transpose().equals(B, 0.0));
+
+        try {
+            new CompressedSparseMatrix(3, 4, new int[]{0, 1, 2}, idx, values, Format.CSR);
+            fail("exception should have been thrown");
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    @Test
+    public void testMultiplyVec() {
+        System.out.println("multiply vec");
+        for (Format format : Format.values()) {
+            DenseMatrix dense = randomSparse(37, 23);
+            CompressedSparseMatrix A = new CompressedSparseMatrix(dense, format);
+            Vec b = DenseVector.random(23, rand);
+            Vec c = DenseVector.random(37, rand);
+
+            Vec expected = c.clone();
+            dense.multiply(b, 1.5, expected);
+
+            Vec result = c.clone();
+            A.multiply(b, 1.5, result);
+            assertTrue(expected.equals(result, 1e-12));
+
+            result = c.clone();
+            A.multiply(b, 1.5, result, ex);
+            assertTrue(expected.equals(result, 1e-12));
+
+            //sparse input and output
+            Vec sparseResult = sparseCopy(c);
+            A.multiply(sparseCopy(b), 1.5, sparseResult, ex);
+            assertTrue(expected.equals(sparseResult, 1e-12));
+
+            //vector views into a larger array
+            DenseMatrix holder = new DenseMatrix(2, 37);
+            holder.getRowView(1).mutableAdd(c);
+            A.multiply(b, 1.5, holder.getRowView(1), ex);
+            assertTrue(expected.equals(holder.getRowView(1), 1e-12));
+
+            assertTrue(dense.multiply(b).equals(A.multiply(b), 1e-12));
+
+            try {
+                A.multiply(c, 1.0, c);
+                fail("exception should have been thrown");
+            } catch (ArithmeticException e) {
+            }
+        }
+    }
+
+    @Test
+    public void testTransposeMultiplyVec() {
+        System.out.println("transposeMultiply vec");
+        for (Format format : Format.values()) {
+            DenseMatrix dense = randomSparse(37, 23);
+            CompressedSparseMatrix A = new CompressedSparseMatrix(dense, format);
+            Vec b = DenseVector.random(37, rand);
+            b.set(3, 0.0);
+            Vec x = DenseVector.random(23, rand);
+
+            Vec expected = x.clone();
+            dense.transposeMultiply(-0.5, b, expected);
+
+            Vec result = x.clone();
+            A.transposeMultiply(-0.5, b, result);
+            assertTrue(expected.equals(result, 1e-12));
+
+            result = x.clone();
+            A.transposeMultiply(-0.5, b, result, ex);
+            assertTrue(expected.equals(result, 1e-12));
+
+            Vec sparseResult = sparseCopy(x);
+            A.transposeMultiply(-0.5, sparseCopy(b), sparseResult, ex);
+            assertTrue(expected.equals(sparseResult, 1e-12));
+
+            try {
+                A.transposeMultiply(1.0, x, x);
+                fail("exception should have been thrown");
+            } catch (ArithmeticException e) {
+            }
+        }
+    }
+
+    @Test
+    public void testMultiplyMatrix() {
+        System.out.println("multiply matrix");
+        for (Format format : Format.values())
+            for (Matrix B : new Matrix[]{randomSparse(23, 9), toSparseMatrix(randomSparse(23, 9))}) {
+                DenseMatrix dense = randomSparse(31, 23);
+                CompressedSparseMatrix A = new CompressedSparseMatrix(dense, format);
+                DenseMatrix C = randomSparse(31, 9);
+
+                DenseMatrix expected = C.clone();
+                dense.multiply(B, expected);
+
+                Matrix result = C.clone();
+                A.multiply(B, result);
+                assertTrue(expected.equals(result, 1e-12));
+
+                result = C.clone();
+                A.multiply(B, result, ex);
+                assertTrue(expected.equals(result, 1e-12));
+
+                result = toSparseMatrix(C);
+                A.multiply(B, result, ex);
+                assertTrue(expected.equals(result, 1e-12));
+
+                try {
+                    A.multiply(C, C.clone());
+                    fail("exception should have been thrown");
+                } catch (ArithmeticException e) {
+                }
+            }
+    }
+
+    @Test
+    public void testTransposeMultiplyMatrix() {
+        System.out.println("transposeMultiply matrix");
+        for (Format format : Format.values())
+            for (Matrix B : new Matrix[]{randomSparse(31, 9), new CompressedSparseMatrix(randomSparse(31, 9), Format.CSC)}) {
+                DenseMatrix dense = randomSparse(31, 23);
+                CompressedSparseMatrix A = new CompressedSparseMatrix(dense, format);
+                DenseMatrix C = randomSparse(23, 9);
+
+                DenseMatrix expected = C.clone();
+                dense.transposeMultiply(B, expected);
+
+                Matrix result = C.clone();
+                A.transposeMultiply(B, result);
+                assertTrue(expected.equals(result, 1e-12));
+
+                result = C.clone();
+                A.transposeMultiply(B, result, ex);
+                assertTrue(expected.equals(result, 1e-12));
+            }
+    }
+
+    @Test
+    public void testMultiplyTranspose() {
+        System.out.println("multiplyTranspose");
+        for (Format format : Format.values()) {
+            DenseMatrix dense = randomSparse(31, 23);
+            CompressedSparseMatrix A = new CompressedSparseMatrix(dense, format);
+            DenseMatrix B = randomSparse(11, 23);
+            DenseMatrix C = randomSparse(31, 11);
+
+            DenseMatrix expected = C.clone();
+            dense.multiplyTranspose(B, expected);
+
+            Matrix result = C.clone();
+            A.multiplyTranspose(B, result);
+            assertTrue(expected.equals(result, 1e-12));
+
+            result = C.clone();
+            A.multiplyTranspose(B, result, ex);
+            assertTrue(expected.equals(result, 1e-12));
+        }
+    }
+
+    @Test
+    public void testMutableAdd() {
+        System.out.println("mutableAdd");
+        for (Format format : Format.values())
+            for (Format otherFormat : Format.values()) {
+                DenseMatrix dense = randomSparse(19, 27);
+                DenseMatrix other = randomSparse(19, 27);
+                CompressedSparseMatrix A = new CompressedSparseMatrix(dense, format);
+
+                DenseMatrix expected = dense.clone();
+                expected.mutableAdd(2.5, other);
+
+                CompressedSparseMatrix result = A.clone();
+                result.mutableAdd(2.5, new CompressedSparseMatrix(other, otherFormat));
+                assertTrue(expected.equals(result, 1e-12));
+
+                result = A.clone();
+                result.mutableAdd(2.5, other, ex);
+                assertTrue(expected.equals(result, 1e-12));
+
+                result = A.clone();
+                result.mutableAdd(-1.0, result.clone());
+                assertTrue(new DenseMatrix(19, 27).equals(result, 0.0));
+
+                expected = dense.clone();
+                expected.mutableAdd(0.75);
+                result = A.clone();
+                result.mutableAdd(0.75);
+                assertTrue(expected.equals(result, 1e-12));
+                assertEquals(19 * 27, result.nnz());
+
+                expected = dense.clone();
+                expected.mutableMultiply(-3.0);
+                result = A.clone();
+                result.mutableMultiply(-3.0, ex);
+                assertTrue(expected.equals(result, 1e-12));
+            }
+    }
+
+    @Test
+    public void testTranspose() {
+        System.out.println("transpose");
+        for (Format format : Format.values()) {
+            DenseMatrix dense = randomSparse(19, 27);
+            CompressedSparseMatrix A = new CompressedSparseMatrix(dense, format);
+            Matrix expected = dense.transpose();
+
+            assertTrue(expected.equals(A.transpose(), 0.0));
+
+            Matrix C = new DenseMatrix(27, 19);
+            A.transpose(C);
+            assertTrue(expected.equals(C, 0.0));
+
+            C = new CompressedSparseMatrix(27, 19, format);
+            A.transpose(C);
+            assertTrue(expected.equals(C, 0.0));
+
+            CompressedSparseMatrix toFlip = A.clone();
+            toFlip.mutableTranspose();
+            assertEquals(27, toFlip.rows());
+            assertEquals(19, toFlip.cols());
+            assertTrue(expected.equals(toFlip, 0.0));
+
+            assertTrue(dense.equals(A.toFormat(Format.CSR), 0.0));
+            assertTrue(dense.equals(A.toFormat(Format.CSC), 0.0));
+        }
+    }
+
+    @Test
+    public void testSwapRows() {
+        System.out.println("swapRows");
+        for (Format format : Format.values()) {
+            DenseMatrix expected = randomSparse(15, 12);
+            expected.getRowView(4).zeroOut();
+            CompressedSparseMatrix A = new CompressedSparseMatrix(expected, format);
+            int[][] swaps = new int[][]{{0, 14}, {3, 9}, {9, 3}, {4, 11}, {7, 7}, {2, 3}};
+            for (int[] swap : swaps) {
+                expected.swapRows(swap[0], swap[1]);
+                A.swapRows(swap[0], swap[1]);
+                assertTrue(expected.equals(A, 0.0));
+            }
+        }
+    }
+
+    @Test
+    public void testChangeSize() {
+        System.out.println("changeSize");
+        for (Format format : Format.values()) {
+            DenseMatrix dense = randomSparse(15, 12);
+            CompressedSparseMatrix A = new CompressedSparseMatrix(dense, format);
+            A.changeSize(10, 16);
+            assertEquals(10, A.rows());
+            assertEquals(16, A.cols());
+            for (int i = 0; i < 10; i++)
+                for (int j = 0; j < 16; j++)
+                    assertEquals(j < 12 ? dense.get(i, j) : 0.0, A.get(i, j), 0.0);
+            A.changeSize(15, 12);
+            for (int i = 0; i < 15; i++)
+                for (int j = 0; j < 12; j++)
+                    assertEquals(i < 10 ? dense.get(i, j) : 0.0, A.get(i, j), 0.0);
+        }
+    }
+
+    @Test
+    public void testViews() {
+        System.out.println("views");
+        for (Format format : Format.values()) {
+            DenseMatrix dense = randomSparse(15, 12);
+            CompressedSparseMatrix A = new CompressedSparseMatrix(dense, format);
+            for (int i = 0; i < dense.rows(); i++) {
+                Vec row = A.getRowView(i);
+                assertTrue(dense.getRowView(i).equals(row, 0.0));
+                assertTrue(dense.getRowView(i).equals(row.clone(), 0.0));
+                Vec x = DenseVector.random(12, rand);
+                assertEquals(dense.getRowView(i).dot(x), row.dot(x), 1e-12);
+            }
+            for (int j = 0; j < dense.cols(); j++)
+                assertTrue(dense.getColumnView(j).equals(A.getColumnView(j), 0.0));
+
+            //writes through a view change the matrix
+            A.getRowView(2).set(5, 7.0);
+            A.getColumnView(3).increment(1, -2.0);
+            dense.set(2, 5, 7.0);
+            dense.increment(1, 3, -2.0);
+            assertTrue(dense.equals(A, 0.0));
+
+            A.zeroOut();
+            assertEquals(0, A.nnz());
+            assertTrue(new DenseMatrix(15, 12).equals(A, 0.0));
+        }
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testLup() {
+        System.out.println("lup");
+        new CompressedSparseMatrix(randomSparse(5, 5), Format.CSR).lup();
+    }
+}
@@ -0,0 +1,277 @@
+package jsat.linear;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import jsat.linear.ContiguousDenseMatrix.Layout;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link ContiguousDenseMatrix}, checked against {@link DenseMatrix}
+ */
+public class ContiguousDenseMatrixTest {
+
+    static ExecutorService threadpool;
+
+    /**
+     * Shapes that are smaller than, equal to, and not multiples of the block
+     * sizes used by the GEMM
+     */
+    static final int[][] SHAPES = {
+            {1, 1, 1},
+            {5, 7, 3},
+            {4, 4, 4},
+            {67, 130, 300},
+            {129, 5, 257},
+    };
+
+    public ContiguousDenseMatrixTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() {
+        threadpool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() + 1, r ->
+        {
+            Thread thread = new Thread(r);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+        threadpool.shutdownNow();
+    }
+
+    @Before
+    public void setUp() {
+    }
+
+    @After
+    public void tearDown() {
+    }
+
+    private static ContiguousDenseMatrix random(int rows, int cols, Layout layout, Random rand) {
+        ContiguousDenseMatrix m = new ContiguousDenseMatrix(rows, cols, layout);
+        for (int i = 0; i < rows; i++)
+            for (int j = 0; j < cols; j++)
+                m.set(i, j, rand.nextDouble() * 2 - 1);
+        return m;
+    }
+
+    private static void assertMatrixEquals(Matrix expected, Matrix actual) {
+        assertEquals(expected.rows(), actual.rows());
+        assertEquals(expected.cols(), actual.cols());
+        for (int i = 0; i < expected.rows(); i++)
+            for (int j = 0; j < expected.cols(); j++)
+                assertEquals(expected.get(i, j), actual.get(i, j), 1e-10);
+    }
+
+    @Test
+    public void testLayout() {
+        System.out.println("layout");
+        double[] data = {1, 2, 3, 4, 5, 6};
+        ContiguousDenseMatrix rowMajor = new ContiguousDenseMatrix(data, 2, 3, Layout.ROW_MAJOR);
+        ContiguousDenseMatrix colMajor = new ContiguousDenseMatrix(data, 2, 3, Layout.COLUMN_MAJOR);
+
+        assertEquals(2, rowMajor.get(0, 1), 0.0);
+        assertEquals(4, rowMajor.get(1, 0), 0.0);
+        assertEquals(3, colMajor.get(0, 1), 0.0);
+        assertEquals(2, colMajor.get(1, 0), 0.0);
+
+        //wrapping does not copy
+        rowMajor.set(1, 2, 10);
+        assertEquals(10, data[5], 0.0);
+        assertSame(data, rowMajor.getBackingArray());
+
+        assertEquals(new DenseVector(new double[]{4, 5, 10}), rowMajor.getRowView(1));
+        assertEquals(new DenseVector(new double[]{3, 4}), colMajor.getColumnView(1));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetOutOfBounds() {
+        System.out.println("getOutOfBounds");
+        new ContiguousDenseMatrix(3, 3).get(0, 3);
+    }
+
+    @Test
+    public void testMultiply() {
+        System.out.println("multiply");
+        Random rand = new Random(1);
+        for (int[] shape : SHAPES)
+            for (Layout aL : Layout.values())
+                for (Layout bL : Layout.values())
+                    for (Layout cL : Layout.values()) {
+                        ContiguousDenseMatrix A = random(shape[0], shape[2], aL, rand);
+                        ContiguousDenseMatrix B = random(shape[2], shape[1], bL, rand);
+                        Matrix expected = new DenseMatrix(A).multiply(new DenseMatrix(B));
+
+                        ContiguousDenseMatrix C = new ContiguousDenseMatrix(shape[0], shape[1], cL);
+                        A.multiply(B, C);
+                        assertMatrixEquals(expected, C);
+
+                        C.zeroOut();
+                        A.multiply(B, C, threadpool);
+                        assertMatrixEquals(expected, C);
+
+                        //the product is added to what is already in C
+                        A.multiply(B, C, threadpool);
+                        expected.mutableMultiply(2);
+                        assertMatrixEquals(expected, C);
+                    }
+    }
+
+    @Test
+    public void testTransposeMultiply() {
+        System.out.println("transposeMultiply");
+        Random rand = new Random(2);
+        for (int[] shape : SHAPES)
+            for (Layout aL : Layout.values())
+                for (Layout bL : Layout.values()) {
+                    ContiguousDenseMatrix A = random(shape[2], shape[0], aL, rand);
+                    ContiguousDenseMatrix B = random(shape[2], shape[1], bL, rand);
+                    Matrix expected = new DenseMatrix(A).transposeMultiply(new DenseMatrix(B));
+
+                    ContiguousDenseMatrix C = new ContiguousDenseMatrix(shape[0], shape[1], bL);
+                    A.transposeMultiply(B, C);
+                    assertMatrixEquals(expected, C);
+
+                    C.zeroOut();
+                    A.transposeMultiply(B, C, threadpool);
+                    assertMatrixEquals(expected, C);
+                }
+    }
+
+    @Test
+    public void testMultiplyTranspose() {
+        System.out.println("multiplyTranspose");
+        Random rand = new Random(3);
+        for (int[] shape : SHAPES)
+            for (Layout aL : Layout.values())
+                for (Layout bL : Layout.values()) {
+                    ContiguousDenseMatrix A = random(shape[0], shape[2], aL, rand);
+                    ContiguousDenseMatrix B = random(shape[1], shape[2], bL, rand);
+                    Matrix expected = new DenseMatrix(A).multiplyTranspose(new DenseMatrix(B));
+
+                    ContiguousDenseMatrix C = new ContiguousDenseMatrix(shape[0], shape[1], aL);
+                    A.multiplyTranspose(B, C);
+                    assertMatrixEquals(expected, C);
+
+                    C.zeroOut();
+                    A.multiplyTranspose(B, C, threadpool);
+                    assertMatrixEquals(expected, C);
+                }
+    }
+
+    @Test
+    public void testMultiplyOtherTypes() {
+        System.out.println("multiplyOtherTypes");
+        Random rand = new Random(4);
+        ContiguousDenseMatrix A = random(9, 6, Layout.ROW_MAJOR, rand);
+        DenseMatrix B = new DenseMatrix(random(6, 4, Layout.COLUMN_MAJOR, rand));
+        Matrix expected = new DenseMatrix(A).multiply(B);
+
+        assertMatrixEquals(expected, A.multiply(B));
+        assertMatrixEquals(expected, A.multiply(B, threadpool));
+    }
+
+    @Test
+    public void testMultiplyVec() {
+        System.out.println("multiplyVec");
+        Random rand = new Random(5);
+        for (Layout layout : Layout.values()) {
+            ContiguousDenseMatrix A = random(13, 21, layout, rand);
+            DenseMatrix denseA = new DenseMatrix(A);
+
+            Vec dense = DenseVector.random(21, rand);
+            SparseVector sparse = new SparseVector(21);
+            sparse.set(2, 1.5);
+            sparse.set(17, -3.0);
+
+            for (Vec b : new Vec[]{dense, sparse}) {
+                Vec expected = new DenseVector(13);
+                denseA.multiply(b, 0.5, expected);
+                Vec actual = new DenseVector(13);
+                A.multiply(b, 0.5, actual);
+                for (int i = 0; i < 13; i++)
+                    assertEquals(expected.get(i), actual.get(i), 1e-10);
+            }
+
+            Vec b = DenseVector.random(13, rand);
+            Vec expected = new DenseVector(21);
+            denseA.transposeMultiply(2.0, b, expected);
+            Vec actual = new DenseVector(21);
+            A.transposeMultiply(2.0, b, actual);
+            for (int i = 0; i < 21; i++)
+                assertEquals(expected.get(i), actual.get(i), 1e-10);
+        }
+    }
+
+    @Test
+    public void testMutableTranspose() {
+        System.out.println("mutableTranspose");
+        Random rand = new Random(6);
+        for (Layout layout : Layout.values()) {
+            ContiguousDenseMatrix A = random(5, 8, layout, rand);
+            Matrix expected = new DenseMatrix(A).transpose();
+            double[] before = A.getBackingArray();
+
+            A.mutableTranspose();
+            assertMatrixEquals(expected, A);
+            assertSame(before, A.getBackingArray());
+            assertNotEquals(layout, A.getLayout());
+
+            assertMatrixEquals(expected, new ContiguousDenseMatrix(expected).transpose().transpose());
+            assertMatrixEquals(new DenseMatrix(A).transpose(), A.transpose());
+        }
+    }
+
+    @Test
+    public void testChangeSize() {
+        System.out.println("changeSize");
+        Random rand = new Random(7);
+        for (Layout layout : Layout.values()) {
+            ContiguousDenseMatrix A = random(6, 4, layout, rand);
+            ContiguousDenseMatrix orig = A.clone();
+
+            A.changeSize(8, 3);
+            assertEquals(8, A.rows());
+            assertEquals(3, A.cols());
+            for (int i = 0; i < 8; i++)
+                for (int j = 0; j < 3; j++)
+                    assertEquals(i < 6 ? orig.get(i, j) : 0.0, A.get(i, j), 0.0);
+
+            A.changeSize(2, 5);
+            for (int i = 0; i < 2; i++)
+                for (int j = 0; j < 5; j++)
+                    assertEquals(j < 3 ? orig.get(i, j) : 0.0, A.get(i, j), 0.0);
+        }
+    }
+
+    @Test
+    public void testSwapRowsAndLup() {
+        System.out.println("swapRowsAndLup");
+        Random rand = new Random(8);
+        for (Layout layout : Layout.values()) {
+            ContiguousDenseMatrix A = random(7, 7, layout, rand);
+            DenseMatrix denseA = new DenseMatrix(A);
+
+            A.swapRows(1, 5);
+            denseA.swapRows(1, 5);
+            assertMatrixEquals(denseA, A);
+
+            Matrix[] lup = A.clone().lup();
+            Matrix PA = lup[2].multiply(A);
+            Matrix LU = lup[0].multiply(lup[1]);
+            assertMatrixEquals(PA, LU);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package jsat.linear;
+
+import java.util.Random;
+
+import jsat.utils.random.XORWOW;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks the {@link DenseKernels} in use against simple loops, over lengths
+ * that do and do not fill a whole number of SIMD lanes, and non-zero offsets.
+ */
+public class DenseKernelsTest {
+
+    public DenseKernelsTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() {
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+    }
+
+    @Before
+    public void setUp() {
+    }
+
+    @After
+    public void tearDown() {
+    }
+
+    private static double[] random(int n, Random rand) {
+        double[] x = new double[n];
+        for (int i = 0; i < n; i++)
+            x[i] = rand.nextGaussian();
+        return x;
+    }
+
+    @Test
+    public void testKernels() {
+        System.out.println("kernels, vectorized=" + DenseKernels.isVectorized());
+        Random rand = new XORWOW(123);
+        for (int length : new int[]{0, 1, 3, 4, 7, 8, 9, 15, 16, 17, 33, 100, 1001})
+            for (int aOff : new int[]{0, 1, 5})
+                for (int bOff : new int[]{0, 3}) {
+                    double[] a = random(length + aOff + 2, rand);
+                    double[] b = random(length + bOff + 2, rand);
+
+                    double dot = 0, sqrd = 0, l1 = 0, sumSqrd = 0;
+                    for (int i = 0; i < length; i++) {
+                        dot += a[aOff + i] * b[bOff + i];
+                        sqrd += Math.pow(a[aOff + i] - b[bOff + i], 2);
+                        l1 += Math.abs(a[aOff + i] - b[bOff + i]);
+                        sumSqrd += a[aOff + i] * a[aOff + i];
+                    }
+                    double tol = 1e-12 * (length + 1);
+                    assertEquals(dot, DenseKernels.dot(a, aOff, b, bOff, length), tol);
+                    assertEquals(sqrd, DenseKernels.sqrdDist(a, aOff, b, bOff, length), tol);
+                    assertEquals(l1, DenseKernels.l1Dist(a, aOff, b, bOff, length), tol);
+                    assertEquals(sumSqrd, DenseKernels.sumOfSquares(a, aOff, length), tol);
+
+                    double[] expected = b.clone();
+                    for (int i = 0; i < length; i++)
+                        expected[bOff + i] += 0.5 * a[aOff + i];
+                    DenseKernels.axpy(0.5, a, aOff, b, bOff, length);
+                    //values outside the range must not be touched
+                    assertArrayEquals(expected, b, 1e-14);
+                }
+    }
+
+    @Test
+    public void testDenseVector() {
+        System.out.println("DenseVector");
+        Random rand = new XORWOW(123);
+        //sub-vectors of a larger array have a non-zero start index
+        DenseVector x = new DenseVector(random(40, rand), 3, 26);
+        DenseVector y = new DenseVector(random(30, rand), 5, 28);
+        Vec x_c = new DenseVector(x.arrayCopy());
+        Vec y_c = new DenseVector(y.arrayCopy());
+
+        double dot = 0, sqrd = 0, l1 = 0;
+        for (int i = 0; i < x.length(); i++) {
+            dot += x.get(i) * y.get(i);
+            sqrd += Math.pow(x.get(i) - y.get(i), 2);
+            l1 += Math.abs(x.get(i) - y.get(i));
+        }
+        assertEquals(dot, x.dot(y), 1e-12);
+        assertEquals(Math.sqrt(sqrd), x.pNormDist(2, y), 1e-12);
+        assertEquals(l1, x.pNormDist(1, y), 1e-12);
+        assertEquals(Math.sqrt(x_c.dot(x_c)), x.pNorm(2), 1e-12);
+
+        x.mutableAdd(2.0, y);
+        x_c.mutableAdd(2.0, y_c);
+        for (int i = 0; i < x.length(); i++)
+            assertEquals(x_c.get(i), x.get(i), 1e-12);
+    }
+}
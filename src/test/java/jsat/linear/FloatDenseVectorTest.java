@@ -0,0 +1,149 @@
+package jsat.linear;
+
+import java.util.Random;
+
+import jsat.TestTools;
+import jsat.utils.random.RandomUtil;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link FloatDenseVector}, checked against {@link DenseVector}
+ * holding the same single precision values.
+ */
+public class FloatDenseVectorTest {
+    private static final int N = 37;
+    private DenseVector a;
+    private DenseVector b;
+    private SparseVector s;
+
+    public FloatDenseVectorTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() {
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+    }
+
+    @Before
+    public void setUp() {
+        Random rand = RandomUtil.getRandom();
+        a = new DenseVector(N);
+        b = new DenseVector(N);
+        s = new SparseVector(N);
+        for (int i = 0; i < N; i++) {
+            a.set(i, (float) rand.nextGaussian());
+            b.set(i, (float) rand.nextGaussian());
+            if (rand.nextInt(4) == 0)
+                s.set(i, (float) rand.nextGaussian());
+        }
+    }
+
+    @After
+    public void tearDown() {
+    }
+
+    @Test
+    public void testGetSet() {
+        System.out.println("getSet");
+        FloatDenseVector x = new FloatDenseVector(a);
+        assertEquals(N, x.length());
+        for (int i = 0; i < N; i++)
+            assertEquals(a.get(i), x.get(i), 0.0);
+        x.set(3, 0.1);
+        assertEquals((float) 0.1, x.get(3), 0.0);
+        x.increment(3, 1.0);
+        assertEquals((float) 0.1 + 1.0f, x.get(3), 1e-7);
+
+        //views share the array
+        float[] array = new float[10];
+        FloatDenseVector view = new FloatDenseVector(array, 2, 6);
+        assertEquals(4, view.length());
+        view.set(0, 5.0);
+        assertEquals(5.0f, array[2], 0.0f);
+        assertEquals(5.0, view.sum(), 0.0);
+        assertEquals(5.0, view.max(), 0.0);
+        assertEquals(0.0, view.min(), 0.0);
+    }
+
+    @Test
+    public void testDot() {
+        System.out.println("dot");
+        FloatDenseVector x = new FloatDenseVector(a);
+        FloatDenseVector y = new FloatDenseVector(b);
+        assertEquals(a.dot(b), x.dot(y), 1e-10);
+        assertEquals(a.dot(b), x.dot(b), 1e-10);
+        assertEquals(a.dot(b), b.dot(x), 1e-10);
+        assertEquals(a.dot(s), x.dot(s), 1e-10);
+        assertEquals(a.dot(s), x.dot(new FloatSparseVector(s)), 1e-10);
+        assertEquals(a.dot(s), new FloatSparseVector(s).dot(x), 1e-10);
+    }
+
+    @Test
+    public void testMutableAdd() {
+        System.out.println("mutableAdd");
+        for (Vec other : new Vec[]{b, new FloatDenseVector(b), s, new FloatSparseVector(s)}) {
+            FloatDenseVector x = new FloatDenseVector(a);
+            DenseVector expected = a.clone();
+            x.mutableAdd(0.5, other);
+            expected.mutableAdd(0.5, other);
+            assertTrue(expected.equals(x, 1e-6));
+        }
+
+        FloatDenseVector x = new FloatDenseVector(a);
+        x.mutableAdd(2.0);
+        x.mutableMultiply(3.0);
+        x.mutableDivide(2.0);
+        DenseVector expected = a.clone();
+        expected.mutableAdd(2.0);
+        expected.mutableMultiply(3.0);
+        expected.mutableDivide(2.0);
+        assertTrue(expected.equals(x, 1e-5));
+    }
+
+    @Test
+    public void testPNormDist() {
+        System.out.println("pNormDist");
+        FloatDenseVector x = new FloatDenseVector(a);
+        for (double p : new double[]{1, 2, 3}) {
+            assertEquals(a.pNormDist(p, b), x.pNormDist(p, new FloatDenseVector(b)), 1e-9);
+            assertEquals(a.pNormDist(p, b), x.pNormDist(p, b), 1e-9);
+            assertEquals(a.pNormDist(p, s), x.pNormDist(p, s), 1e-9);
+            assertEquals(a.pNorm(p), x.pNorm(p), 1e-9);
+        }
+        assertEquals(a.pNorm(Double.POSITIVE_INFINITY), x.pNorm(Double.POSITIVE_INFINITY), 0.0);
+
+        x.normalize();
+        assertEquals(1.0, x.pNorm(2), 1e-6);
+    }
+
+    @Test
+    public void testCloneAndSerialize() {
+        System.out.println("cloneAndSerialize");
+        float[] array = new float[N + 4];
+        FloatDenseVector x = new FloatDenseVector(array, 2, N + 2);
+        for (int i = 0; i < N; i++)
+            x.set(i, a.get(i));
+
+        Vec copy = x.clone();
+        copy.set(0, 100);
+        assertEquals(a.get(0), x.get(0), 0.0);
+
+        FloatDenseVector read = TestTools.deepCopy(x);
+        assertEquals(N, read.length());
+        assertTrue(x.equals(read));
+
+        x.zeroOut();
+        assertEquals(0.0, x.pNorm(1), 0.0);
+        x.setLength(N + 1);
+        assertEquals(N + 1, x.length());
+    }
+}
@@ -0,0 +1,159 @@
+package jsat.linear;
+
+import java.util.Iterator;
+import java.util.Random;
+
+import jsat.TestTools;
+import jsat.utils.random.RandomUtil;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link FloatSparseVector}, checked against {@link SparseVector}
+ * holding the same single precision values.
+ */
+public class FloatSparseVectorTest {
+    private static final int N = 60;
+    private SparseVector a;
+    private SparseVector b;
+    private DenseVector d;
+
+    public FloatSparseVectorTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() {
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+    }
+
+    @Before
+    public void setUp() {
+        Random rand = RandomUtil.getRandom();
+        a = new SparseVector(N);
+        b = new SparseVector(N);
+        d = new DenseVector(N);
+        for (int i = 0; i < N; i++) {
+            if (rand.nextInt(3) == 0)
+                a.set(i, (float) rand.nextGaussian());
+            if (rand.nextInt(3) == 0)
+                b.set(i, (float) rand.nextGaussian());
+            d.set(i, (float) rand.nextGaussian());
+        }
+    }
+
+    @After
+    public void tearDown() {
+    }
+
+    @Test
+    public void testGetSet() {
+        System.out.println("getSet");
+        FloatSparseVector x = new FloatSparseVector(a);
+        assertEquals(a.nnz(), x.nnz());
+        for (int i = 0; i < N; i++)
+            assertEquals(a.get(i), x.get(i), 0.0);
+
+        x = new FloatSparseVector(N, 2);
+        x.set(10, 1.0);
+        x.set(5, 2.0);
+        x.set(40, 3.0);
+        x.set(20, 4.0);
+        assertEquals(4, x.nnz());
+        x.set(5, 0.0);
+        assertEquals(3, x.nnz());
+        x.increment(10, -1.0);
+        assertEquals(2, x.nnz());
+        x.increment(11, 1.5);
+        assertEquals(1.5, x.get(11), 0.0);
+        assertEquals(0.0, x.get(10), 0.0);
+
+        //iteration is in order of index, and may start part way
+        int[] expected = {11, 20, 40};
+        int pos = 0;
+        for (IndexValue iv : x)
+            assertEquals(expected[pos++], iv.getIndex());
+        assertEquals(3, pos);
+        Iterator<IndexValue> iter = x.getNonZeroIterator(12);
+        assertEquals(20, iter.next().getIndex());
+        assertEquals(40, iter.next().getIndex());
+        assertFalse(iter.hasNext());
+
+        assertEquals(8.5, x.sum(), 0.0);
+        assertEquals(4.0, x.max(), 0.0);
+        assertEquals(0.0, x.min(), 0.0);
+    }
+
+    @Test
+    public void testDot() {
+        System.out.println("dot");
+        FloatSparseVector x = new FloatSparseVector(a);
+        FloatSparseVector y = new FloatSparseVector(b);
+        assertEquals(a.dot(b), x.dot(y), 1e-10);
+        assertEquals(a.dot(b), x.dot(b), 1e-10);
+        assertEquals(a.dot(b), b.dot(x), 1e-10);
+        assertEquals(a.dot(d), x.dot(d), 1e-10);
+        assertEquals(a.dot(d), d.dot(x), 1e-10);
+        assertEquals(a.dot(d), x.dot(new FloatDenseVector(d)), 1e-10);
+    }
+
+    @Test
+    public void testMutableAdd() {
+        System.out.println("mutableAdd");
+        for (Vec other : new Vec[]{b, new FloatSparseVector(b), d, a}) {
+            FloatSparseVector x = new FloatSparseVector(a);
+            SparseVector expected = a.clone();
+            x.mutableAdd(-1.0, other);
+            expected.mutableAdd(-1.0, other);
+            assertTrue(expected.equals(x, 1e-6));
+            for (IndexValue iv : x)
+                assertTrue(iv.getValue() != 0);
+        }
+
+        FloatSparseVector x = new FloatSparseVector(a);
+        x.mutableMultiply(3.0);
+        x.mutableDivide(2.0);
+        SparseVector expected = a.clone();
+        expected.mutableMultiply(3.0);
+        expected.mutableDivide(2.0);
+        assertTrue(expected.equals(x, 1e-6));
+    }
+
+    @Test
+    public void testPNormDist() {
+        System.out.println("pNormDist");
+        FloatSparseVector x = new FloatSparseVector(a);
+        for (double p : new double[]{1, 2, 3}) {
+            assertEquals(a.pNormDist(p, b), x.pNormDist(p, new FloatSparseVector(b)), 1e-9);
+            assertEquals(a.pNormDist(p, b), x.pNormDist(p, b), 1e-9);
+            assertEquals(a.pNormDist(p, d), x.pNormDist(p, d), 1e-9);
+            assertEquals(a.pNorm(p), x.pNorm(p), 1e-9);
+        }
+    }
+
+    @Test
+    public void testCloneAndSerialize() {
+        System.out.println("cloneAndSerialize");
+        FloatSparseVector x = new FloatSparseVector(a);
+
+        FloatSparseVector copy = x.clone();
+        copy.set(0, 100);
+        assertEquals(a.get(0), x.get(0), 0.0);
+
+        FloatSparseVector read = TestTools.deepCopy(x);
+        assertEquals(N, read.length());
+        assertEquals(x.nnz(), read.nnz());
+        assertTrue(x.equals(read));
+
+        assertTrue(a.equals(new DenseVector(x)));
+        x.zeroOut();
+        assertEquals(0, x.nnz());
+    }
+}
@@ -2,7 +2,11 @@ package jsat.linear;
 
 import java.util.Arrays;
 import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+import jsat.utils.FakeExecutor;
+import jsat.utils.SystemInfo;
 import jsat.utils.random.RandomUtil;
 import org.junit.After;
 import org.junit.AfterClass;
@@ -65,4 +69,63 @@ public class TruncatedSVDTest {
         }
     }
 
+    @Test
+    public void testRandomized() {
+        System.out.println("randomized");
+        Random rand = RandomUtil.getRandom(123);
+        //a rank 8 matrix plus a little noise, so the top 8 singular values are well separated
+        Matrix L = DenseMatrix.random(300, 8, rand);
+        Matrix R = DenseMatrix.random(8, 60, rand);
+        Matrix X = L.multiply(R);
+        for (int i = 0; i < X.rows(); i++)
+            for (int j = 0; j < X.cols(); j++)
+                X.increment(i, j, rand.nextGaussian() * 1e-3);
+        double[] expected = new SingularValueDecomposition(X.clone()).getSingularValues();
+        //the error of the best possible rank 8 approximation
+        double bestError = 0;
+        for (int i = 8; i < expected.length; i++)
+            bestError += expected[i] * expected[i];
+        bestError = Math.sqrt(bestError);
+
+        ExecutorService ex = Executors.newFixedThreadPool(SystemInfo.LogicalCores);
+        try {
+            for (Matrix A : Arrays.asList(X, X.transpose(), new CompressedSparseMatrix(X, CompressedSparseMatrix.Format.CSC)))
+                for (ExecutorService threadPool : Arrays.asList(new FakeExecutor(), ex)) {
+                    int k = 8;
+                    Matrix A_orig = A.clone();
+                    TruncatedSVD svd = new TruncatedSVD(A, k, 10, 2, RandomUtil.getRandom(7), threadPool);
+                    assertTrue(A_orig.equals(A, 0.0));
+
+                    double[] s = svd.getSingularValues();
+                    assertEquals(k, s.length);
+                    for (int i = 0; i < k; i++)
+                        assertEquals(expected[i], s[i], expected[i] * 1e-6);
+
+                    Matrix U = svd.getU();
+                    Matrix V = svd.getV();
+                    assertEquals(A.rows(), U.rows());
+                    assertEquals(k, U.cols());
+                    assertEquals(k, V.rows());
+                    assertEquals(A.cols(), V.cols());
+                    assertTrue(Matrix.eye(k).equals(U.transposeMultiply(U), 1e-10));
+                    assertTrue(Matrix.eye(k).equals(V.multiplyTranspose(V), 1e-10));
+
+                    Matrix rec = U.clone();
+                    Matrix.diagMult(rec, DenseVector.toDenseVec(s));
+                    rec = rec.multiply(V);
+                    assertEquals(bestError, rec.subtract(A).frobenius(), bestError * 1e-3);
+                }
+
+            //asking for more than the rank gives zeros, not garbage
+            Matrix lowRank = L.multiply(R);
+            TruncatedSVD svd = new TruncatedSVD(lowRank, 20, 5, 1, RandomUtil.getRandom(7), ex);
+            double[] s = svd.getSingularValues();
+            assertEquals(20, s.length);
+            for (int i = 8; i < 20; i++)
+                assertEquals(0.0, s[i], s[0] * 1e-5);
+        } finally {
+            ex.shutdown();
+        }
+    }
+
 }
@@ -8,6 +8,7 @@ import static jsat.TestTools.*;
 
 import jsat.distributions.multivariate.NormalM;
 import jsat.linear.*;
+import jsat.utils.DoubleList;
 import jsat.utils.SystemInfo;
 import jsat.utils.random.RandomUtil;
 import org.junit.After;
@@ -89,6 +90,7 @@ public class NormalizedEuclideanDistanceTest {
 
         List<Double> cache = dist.getAccelerationCache(vecs);
         List<Double> cache2 = dist.getAccelerationCache(vecs, true);
+        DoubleList primCache = dist.getPrimitiveAccelerationCache(vecs);
 
         if (cache != null) {
             assertEquals(cache.size(), cache2.size());
@@ -122,6 +124,10 @@ public class NormalizedEuclideanDistanceTest {
                     assertEqualsRelDiff(expected[i][j], d.dist(i, j, vecs, cache), 1e-1);
                     assertEqualsRelDiff(expected[i][j], d.dist(i, vecs.get(j), vecs, cache), 1e-1);
                     assertEqualsRelDiff(expected[i][j], d.dist(i, vecs.get(j), dist.getQueryInfo(vecs.get(j)), vecs, cache), 1e-1);
+                    //the primitive cache must give exactly the same result as the boxed one
+                    assertEquals(d.dist(i, j, vecs, cache), d.dist(i, j, vecs, primCache), 0.0);
+                    assertEquals(d.dist(i, vecs.get(j), vecs, cache), d.dist(i, vecs.get(j), vecs, primCache), 0.0);
+                    assertEquals(d.dist(i, vecs.get(j), dist.getQueryInfo(vecs.get(j)), vecs, cache), d.dist(i, vecs.get(j), dist.getPrimitiveQueryInfo(vecs.get(j)), vecs, primCache), 0.0);
                 }
         }
     }
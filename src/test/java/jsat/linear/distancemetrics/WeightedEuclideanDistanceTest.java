@@ -7,6 +7,7 @@ import java.util.concurrent.Executors;
 
 import jsat.linear.DenseVector;
 import jsat.linear.Vec;
+import jsat.utils.DoubleList;
 import jsat.utils.SystemInfo;
 import org.junit.After;
 import org.junit.AfterClass;
@@ -87,6 +88,7 @@ public class WeightedEuclideanDistanceTest {
 
         List<Double> cache = dist.getAccelerationCache(vecs);
         List<Double> cache2 = dist.getAccelerationCache(vecs, true);
+        DoubleList primCache = dist.getPrimitiveAccelerationCache(vecs);
         if (cache != null) {
             assertEquals(cache.size(), cache2.size());
             for (int i = 0; i < cache.size(); i++)
@@ -111,6 +113,9 @@ public class WeightedEuclideanDistanceTest {
                 assertEquals(expected[i][j], d.dist(i, j, vecs, cache), 1e-8);
                 assertEquals(expected[i][j], d.dist(i, vecs.get(j), vecs, cache), 1e-8);
                 assertEquals(expected[i][j], d.dist(i, vecs.get(j), dist.getQueryInfo(vecs.get(j)), vecs, cache), 1e-8);
+                assertEquals(expected[i][j], d.dist(i, j, vecs, primCache), 1e-8);
+                assertEquals(expected[i][j], d.dist(i, vecs.get(j), vecs, primCache), 1e-8);
+                assertEquals(expected[i][j], d.dist(i, vecs.get(j), dist.getPrimitiveQueryInfo(vecs.get(j)), vecs, primCache), 1e-8);
             }
     }
 
@@ -0,0 +1,102 @@
+package jsat.linear.vectorcollection;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import jsat.utils.DoubleList;
+import jsat.utils.IntList;
+import jsat.utils.random.XORWOW;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BoundedIndexDistListTest {
+
+    public BoundedIndexDistListTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() {
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+    }
+
+    @Before
+    public void setUp() {
+    }
+
+    @After
+    public void tearDown() {
+    }
+
+    @Test
+    public void testAdd() {
+        System.out.println("add");
+        Random rand = new XORWOW(123);
+        BoundedIndexDistList list = new BoundedIndexDistList(10);
+
+        for (int trial = 0; trial < 5; trial++) {
+            int k = 1 + rand.nextInt(20);
+            list.reset(k);
+            assertTrue(list.isEmpty());
+            assertEquals(k, list.maxSize());
+
+            double[] dists = new double[100];
+            for (int i = 0; i < dists.length; i++) {
+                dists[i] = rand.nextDouble();
+                list.add(i, dists[i]);
+                assertTrue(list.size() <= k);
+            }
+            assertEquals(k, list.size());
+
+            double[] sorted = dists.clone();
+            Arrays.sort(sorted);
+            for (int i = 0; i < k; i++) {
+                assertEquals(sorted[i], list.getDist(i), 0.0);
+                assertEquals(sorted[i], dists[list.getIndex(i)], 0.0);
+            }
+            assertEquals(sorted[k - 1], list.lastDist(), 0.0);
+        }
+
+        //ties keep the order they were added in, and can't displace a full list
+        list.reset(3);
+        list.add(0, 1.0);
+        list.add(1, 1.0);
+        list.add(2, 0.5);
+        assertFalse(list.add(3, 1.0));
+        assertTrue(list.add(4, 0.5));
+        assertArrayEquals(new int[]{2, 4, 0}, new int[]{list.getIndex(0), list.getIndex(1), list.getIndex(2)});
+
+        list.reset(0);
+        assertFalse(list.add(0, 0.0));
+        assertTrue(list.isEmpty());
+    }
+
+    @Test
+    public void testCopyTo() {
+        System.out.println("copyTo");
+        BoundedIndexDistList list = new BoundedIndexDistList(4);
+        list.add(7, 3.0);
+        list.add(2, 1.0);
+
+        IntList neighbors = new IntList();
+        DoubleList distances = new DoubleList();
+        neighbors.add(99);
+        distances.add(99.0);
+        list.copyTo(neighbors, distances);
+        assertEquals(Arrays.asList(2, 7), neighbors);
+        assertEquals(Arrays.asList(1.0, 3.0), distances);
+
+        int[] n = new int[6];
+        double[] d = new double[6];
+        list.copyTo(n, d, 1);
+        assertArrayEquals(new int[]{0, 2, 7, -1, -1, 0}, n);
+        assertArrayEquals(new double[]{0, 1.0, 3.0, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, 0}, d, 0.0);
+    }
+}
@@ -188,4 +188,80 @@ public class DualTreeTest {
 
     }
 
+    /**
+     * Computes the weight of the MST with Prim's algorithm over all edges
+     */
+    private static double primWeight(List<Vec> X, double[] core) {
+        int N = X.size();
+        double[] C = new double[N];
+        Arrays.fill(C, Double.POSITIVE_INFINITY);
+        boolean[] done = new boolean[N];
+        C[0] = 0;
+        double total = 0;
+        for (int iter = 0; iter < N; iter++) {
+            int v = -1;
+            for (int i = 0; i < N; i++)
+                if (!done[i] && (v < 0 || C[i] < C[v]))
+                    v = i;
+            done[v] = true;
+            total += C[v];
+            for (int w = 0; w < N; w++) {
+                double d = X.get(v).pNormDist(2, X.get(w));
+                if (core != null)
+                    d = Math.max(d, Math.max(core[v], core[w]));
+                C[w] = Math.min(C[w], d);
+            }
+        }
+        return total;
+    }
+
+    @Test
+    public void testMinimumSpanningTree() {
+        System.out.println("minimumSpanningTree");
+        Random rand = RandomUtil.getRandom();
+
+        List<Vec> X = new ArrayList<>();
+        for (int i = 0; i < 1500; i++)
+            X.add(DenseVector.random(3, rand));
+        double[] core = new double[X.size()];
+        for (int i = 0; i < core.length; i++)
+            core[i] = rand.nextDouble() * 0.1;
+
+        for (double[] c : Arrays.asList(null, core)) {
+            double expected = primWeight(X, c);
+            for (boolean parallel : new boolean[]{false, true})
+                for (DualTree<Vec> base : Arrays.asList(new BallTree<>(), new VPTree<>())) {
+                    DualTree<Vec> tree = base.clone();
+                    tree.build(parallel, X, new EuclideanDistance());
+
+                    IntList from = new IntList();
+                    IntList to = new IntList();
+                    DoubleList weights = new DoubleList();
+                    tree.minimumSpanningTree(c, from, to, weights, parallel);
+                    assertEquals(X.size() - 1, weights.size());
+
+                    //every point must be connected, with the weights of a minimal tree
+                    int[] parent = new int[X.size()];
+                    for (int i = 0; i < parent.length; i++)
+                        parent[i] = i;
+                    double total = 0;
+                    for (int i = 0; i < weights.size(); i++) {
+                        int a = from.getI(i), b = to.getI(i);
+                        double d = X.get(a).pNormDist(2, X.get(b));
+                        if (c != null)
+                            d = Math.max(d, Math.max(c[a], c[b]));
+                        assertEquals(d, weights.getD(i), 1e-10);
+                        total += weights.getD(i);
+
+                        while (parent[a] != a)
+                            a = parent[a];
+                        while (parent[b] != b)
+                            b = parent[b];
+                        assertNotEquals(a, b);
+                        parent[a] = b;
+                    }
+                    assertEquals(expected, total, 1e-8);
+                }
+        }
+    }
 }
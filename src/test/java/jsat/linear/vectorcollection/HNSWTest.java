@@ -0,0 +1,149 @@
+package jsat.linear.vectorcollection;
+
+import java.util.Random;
+
+import jsat.TestTools;
+import jsat.linear.DenseVector;
+import jsat.linear.Vec;
+import jsat.linear.distancemetrics.DistanceMetric;
+import jsat.linear.distancemetrics.EuclideanDistance;
+import jsat.linear.distancemetrics.ManhattanDistance;
+import jsat.utils.DoubleList;
+import jsat.utils.IntList;
+import jsat.utils.random.XORWOW;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link HNSW}, checking the recall of its approximate results
+ * against a brute force search.
+ */
+public class HNSWTest {
+
+    public HNSWTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() {
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+    }
+
+    @Before
+    public void setUp() {
+    }
+
+    @After
+    public void tearDown() {
+    }
+
+    private static VectorArray<Vec> randomData(int n, int d, DistanceMetric dm, Random rand) {
+        VectorArray<Vec> vecCol = new VectorArray<>(dm);
+        for (int i = 0; i < n; i++)
+            vecCol.add(DenseVector.random(d, rand));
+        return vecCol;
+    }
+
+    /**
+     * @return the fraction of the true neighbors found, over a number of
+     * random queries
+     */
+    private static double recall(VectorArray<Vec> vecCol, VectorCollection<Vec> collection, int k, Random rand) {
+        int found = 0;
+        int total = 0;
+        IntList nn_true = new IntList();
+        IntList nn_test = new IntList();
+        DoubleList nd_true = new DoubleList();
+        DoubleList nd_test = new DoubleList();
+        for (int iters = 0; iters < 50; iters++) {
+            Vec query = DenseVector.random(vecCol.get(0).length(), rand);
+            vecCol.search(query, k, nn_true, nd_true);
+            collection.search(query, k, nn_test, nd_test);
+            assertEquals(k, nn_test.size());
+            for (int i = 1; i < nd_test.size(); i++)
+                assertTrue(nd_test.getD(i - 1) <= nd_test.getD(i));
+            found += nn_test.streamInts().filter(nn_true::contains).count();
+            total += k;
+        }
+        return found / (double) total;
+    }
+
+    @Test
+    public void testSearch_Vec_int() {
+        System.out.println("search");
+        Random rand = new XORWOW(123);
+
+        for (DistanceMetric dm : new DistanceMetric[]{new EuclideanDistance(), new ManhattanDistance()}) {
+            VectorArray<Vec> vecCol = randomData(3000, 10, dm, rand);
+            for (boolean parallel : new boolean[]{false, true}) {
+                HNSW<Vec> collection = new HNSW<>(12, 100, 50, dm);
+                collection.build(parallel, vecCol, dm);
+                assertEquals(vecCol.size(), collection.size());
+
+                for (int k : new int[]{1, 5, 20})
+                    assertTrue(recall(vecCol, collection, k, rand) >= 0.9);
+
+                assertTrue(recall(vecCol, collection.clone(), 10, rand) >= 0.9);
+                assertTrue(recall(vecCol, TestTools.deepCopy(collection), 10, rand) >= 0.9);
+            }
+        }
+    }
+
+    @Test
+    public void testSearch_Vec_double() {
+        System.out.println("search");
+        Random rand = new XORWOW(123);
+
+        VectorArray<Vec> vecCol = randomData(2000, 3, new EuclideanDistance(), rand);
+        HNSW<Vec> collection = new HNSW<>();
+        collection.build(true, vecCol);
+
+        IntList nn_true = new IntList();
+        IntList nn_test = new IntList();
+        DoubleList nd_true = new DoubleList();
+        DoubleList nd_test = new DoubleList();
+        for (int iters = 0; iters < 10; iters++)
+            for (double range : new double[]{0.1, 0.25, 0.5}) {
+                Vec query = vecCol.get(rand.nextInt(vecCol.size()));
+                vecCol.search(query, range, nn_true, nd_true);
+                collection.search(query, range, nn_test, nd_test);
+
+                for (double d : nd_test)
+                    assertTrue(d <= range);
+                int found = (int) nn_test.streamInts().filter(nn_true::contains).count();
+                assertEquals(nn_true.size(), found, nn_true.size() * 0.1);
+            }
+    }
+
+    @Test
+    public void testInsert() {
+        System.out.println("insert");
+        Random rand = new XORWOW(123);
+
+        VectorArray<Vec> vecCol = randomData(2000, 10, new EuclideanDistance(), rand);
+        HNSW<Vec> collection = new HNSW<>(12, 100, 50, new EuclideanDistance());
+        IntList nn = new IntList();
+        DoubleList nd = new DoubleList();
+        collection.search(vecCol.get(0), 5, nn, nd);
+        assertTrue(nn.isEmpty());
+
+        for (Vec v : vecCol)
+            collection.insert(v);
+        assertEquals(vecCol.size(), collection.size());
+        assertTrue(recall(vecCol, collection, 10, rand) >= 0.9);
+
+        //a built index can keep growing
+        collection = new HNSW<>(12, 100, 50, new EuclideanDistance());
+        collection.build(vecCol.subList(0, 1000));
+        for (Vec v : vecCol.subList(1000, vecCol.size()))
+            collection.insert(v);
+        assertTrue(recall(vecCol, collection, 10, rand) >= 0.9);
+    }
+}
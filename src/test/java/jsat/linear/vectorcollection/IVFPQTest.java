@@ -0,0 +1,135 @@
+package jsat.linear.vectorcollection;
+
+import java.util.Random;
+
+import jsat.TestTools;
+import jsat.linear.DenseVector;
+import jsat.linear.Vec;
+import jsat.linear.distancemetrics.EuclideanDistance;
+import jsat.utils.DoubleList;
+import jsat.utils.IntList;
+import jsat.utils.random.XORWOW;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link IVFPQ}, checking the recall of its approximate results
+ * against a brute force search.
+ */
+public class IVFPQTest {
+    private static VectorArray<Vec> vecCol;
+
+    public IVFPQTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() {
+        Random rand = new XORWOW(123);
+        vecCol = new VectorArray<>(new EuclideanDistance());
+        //clustered data, like real embeddings, rather than uniform noise
+        Vec[] centers = new Vec[20];
+        for (int c = 0; c < centers.length; c++) {
+            centers[c] = DenseVector.random(16, rand);
+            centers[c].mutableMultiply(10);
+        }
+        for (int i = 0; i < 3000; i++) {
+            Vec x = centers[rand.nextInt(centers.length)].clone();
+            for (int j = 0; j < x.length(); j++)
+                x.increment(j, rand.nextGaussian());
+            vecCol.add(x);
+        }
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+    }
+
+    @Before
+    public void setUp() {
+    }
+
+    @After
+    public void tearDown() {
+    }
+
+    /**
+     * @return the fraction of the true neighbors found, over a number of
+     * random queries
+     */
+    private static double recall(VectorCollection<Vec> collection, int k, Random rand) {
+        int found = 0;
+        IntList nn_true = new IntList();
+        IntList nn_test = new IntList();
+        DoubleList nd_true = new DoubleList();
+        DoubleList nd_test = new DoubleList();
+        for (int iters = 0; iters < 50; iters++) {
+            Vec query = vecCol.get(rand.nextInt(vecCol.size()));
+            vecCol.search(query, k, nn_true, nd_true);
+            collection.search(query, k, nn_test, nd_test);
+            assertEquals(k, nn_test.size());
+            for (int i = 1; i < nd_test.size(); i++)
+                assertTrue(nd_test.getD(i - 1) <= nd_test.getD(i));
+            found += nn_test.streamInts().filter(nn_true::contains).count();
+        }
+        return found / (50.0 * k);
+    }
+
+    @Test
+    public void testSearch_Vec_int() {
+        System.out.println("search");
+        Random rand = new XORWOW(321);
+
+        for (boolean parallel : new boolean[]{false, true}) {
+            IVFPQ<Vec> collection = new IVFPQ<>(20, 8, 4, 10);
+            collection.build(parallel, vecCol, new EuclideanDistance());
+            assertEquals(vecCol.size(), collection.size());
+            assertTrue(recall(collection, 10, rand) >= 0.9);
+            assertTrue(recall(collection.clone(), 10, rand) >= 0.9);
+            assertTrue(recall(TestTools.deepCopy(collection), 10, rand) >= 0.9);
+            //with re-ranking, the stored vectors are the originals
+            assertSame(vecCol.get(5), collection.get(5));
+
+            //without re-ranking only the codes are kept, which are less accurate
+            collection = new IVFPQ<>(20, 8, 4, 0);
+            collection.build(parallel, vecCol, new EuclideanDistance());
+            assertTrue(recall(collection, 10, rand) >= 0.5);
+            for (int i = 0; i < 20; i++) {
+                Vec x = vecCol.get(rand.nextInt(vecCol.size()));
+                IntList nn = new IntList();
+                DoubleList nd = new DoubleList();
+                collection.search(x, 1, nn, nd);
+                //the reconstruction is much closer than the spread of the data
+                assertTrue(x.pNormDist(2, collection.get(nn.getI(0))) < 4.0);
+            }
+        }
+    }
+
+    @Test
+    public void testSearch_Vec_double() {
+        System.out.println("search");
+        Random rand = new XORWOW(321);
+
+        //probing every list with the original vectors kept gives exact results
+        IVFPQ<Vec> collection = new IVFPQ<>(10, 4, 10, 1);
+        collection.build(true, vecCol, new EuclideanDistance());
+
+        IntList nn_true = new IntList();
+        IntList nn_test = new IntList();
+        DoubleList nd_true = new DoubleList();
+        DoubleList nd_test = new DoubleList();
+        for (int iters = 0; iters < 10; iters++)
+            for (double range : new double[]{1.0, 2.0, 4.0}) {
+                Vec query = vecCol.get(rand.nextInt(vecCol.size()));
+                vecCol.search(query, range, nn_true, nd_true);
+                collection.search(query, range, nn_test, nd_test);
+                assertEquals(nn_true.size(), nn_test.size());
+                for (int i = 0; i < nn_true.size(); i++)
+                    assertEquals(nd_true.getD(i), nd_test.getD(i), 1e-10);
+            }
+    }
+}
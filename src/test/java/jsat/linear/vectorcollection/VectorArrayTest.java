@@ -239,4 +239,72 @@ public class VectorArrayTest {
     }
 
 
+
+    @Test
+    public void testSearch_batch() {
+        System.out.println("search");
+        Random rand = RandomUtil.getRandom();
+
+        VectorArray<Vec> vecCol = new VectorArray<>(new EuclideanDistance());
+        for (int i = 0; i < 1000; i++)
+            vecCol.add(DenseVector.random(3, rand));
+        List<Vec> queries = new ArrayList<>();
+        for (int i = 0; i < 50; i++)
+            queries.add(DenseVector.random(3, rand));
+
+        List<VectorCollection<Vec>> collections = new ArrayList<>();
+        collections.add(new VectorArray<>());
+        collections.add(new KDTree<>());
+        collections.add(new VPTree<>());
+        collections.add(new BallTree<>());
+        collections.add(new CoverTree<>(new EuclideanDistance()));
+
+        IntList nn = new IntList();
+        DoubleList nd = new DoubleList();
+        for (VectorCollection<Vec> factory : collections)
+            for (boolean parallel : new boolean[]{false, true}) {
+                VectorCollection<Vec> collection = factory.clone();
+                collection.build(parallel, vecCol, new EuclideanDistance());
+                String name = collection.getClass().getSimpleName();
+
+                for (int k : new int[]{1, 5, 20}) {
+                    int[] neighbors = new int[queries.size() * k];
+                    double[] distances = new double[neighbors.length];
+                    collection.search(queries, k, neighbors, distances, parallel);
+                    for (int q = 0; q < queries.size(); q++) {
+                        vecCol.search(queries.get(q), k, nn, nd);
+                        for (int i = 0; i < k; i++) {
+                            assertEquals(name, nn.getI(i), neighbors[q * k + i]);
+                            assertEquals(name, nd.getD(i), distances[q * k + i], 1e-10);
+                        }
+                    }
+                }
+
+                //asking for more neighbors than exist pads the results
+                int k = vecCol.size() + 2;
+                int[] neighbors = new int[k];
+                double[] distances = new double[k];
+                collection.search(queries.subList(0, 1), k, neighbors, distances, parallel);
+                assertEquals(name, -1, neighbors[k - 1]);
+                assertEquals(name, Double.POSITIVE_INFINITY, distances[k - 2], 0.0);
+                for (int i = 1; i < vecCol.size(); i++)
+                    assertTrue(name, distances[i - 1] <= distances[i]);
+
+                for (double range : new double[]{0.05, 0.2}) {
+                    IntList neighbors_r = new IntList();
+                    DoubleList distances_r = new DoubleList();
+                    int[] offsets = collection.search(queries, range, neighbors_r, distances_r, parallel);
+                    assertEquals(queries.size() + 1, offsets.length);
+                    assertEquals(neighbors_r.size(), offsets[queries.size()]);
+                    for (int q = 0; q < queries.size(); q++) {
+                        vecCol.search(queries.get(q), range, nn, nd);
+                        assertEquals(name, nn.size(), offsets[q + 1] - offsets[q]);
+                        for (int i = 0; i < nn.size(); i++) {
+                            assertEquals(name, nn.getI(i), neighbors_r.getI(offsets[q] + i));
+                            assertEquals(name, nd.getD(i), distances_r.getD(offsets[q] + i), 1e-10);
+                        }
+                    }
+                }
+            }
+    }
 }
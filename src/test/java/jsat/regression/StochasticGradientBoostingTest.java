@@ -63,6 +63,22 @@ public class StochasticGradientBoostingTest {
         assertTrue(rme.getMeanError() <= test.getTargetValues().mean() * 0.25);
     }
 
+    @Test
+    public void testTrainC_RegressionDataSet_binned() {
+        System.out.println("train binned");
+
+        StochasticGradientBoosting instance = new StochasticGradientBoosting(new DecisionTree(), 50);
+        instance.setNumericBins(64);
+
+        RegressionDataSet train = FixedProblems.get2DLinearRegression(500, RandomUtil.getRandom());
+        RegressionDataSet test = FixedProblems.get2DLinearRegression(100, RandomUtil.getRandom());
+
+        RegressionModelEvaluation rme = new RegressionModelEvaluation(instance, train);
+        rme.evaluateTestSet(test);
+
+        assertTrue(rme.getMeanError() <= test.getTargetValues().mean() * 0.25);
+    }
+
     @Ignore
     @Test
     public void testClone() {
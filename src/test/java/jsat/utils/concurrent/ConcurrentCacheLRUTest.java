@@ -0,0 +1,159 @@
+package jsat.utils.concurrent;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link ConcurrentCacheLRU}
+ */
+public class ConcurrentCacheLRUTest {
+
+    public ConcurrentCacheLRUTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() {
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+    }
+
+    @Before
+    public void setUp() {
+    }
+
+    @After
+    public void tearDown() {
+    }
+
+    /**
+     * Test that the least recently used entry is the one evicted
+     */
+    @Test
+    public void testEvictionOrder() {
+        System.out.println("evictionOrder");
+        ConcurrentCacheLRU<Integer, String> cache = new ConcurrentCacheLRU<>(3, 1);
+
+        cache.put(0, "0");
+        cache.put(1, "1");
+        cache.put(2, "2");
+        assertEquals("0", cache.get(0));//0 is now most recent, 1 is oldest
+        cache.put(3, "3");
+
+        assertEquals(3, cache.size());
+        assertNull(cache.get(1));
+        assertEquals("0", cache.get(0));
+        assertEquals("2", cache.get(2));
+        assertEquals("3", cache.get(3));
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(4, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void testPutIfAbsentAndGet() {
+        System.out.println("putIfAbsentAndGet");
+        ConcurrentCacheLRU<Integer, String> cache = new ConcurrentCacheLRU<>(10);
+
+        assertNull(cache.putIfAbsentAndGet(5, "a"));
+        assertEquals("a", cache.putIfAbsentAndGet(5, "b"));
+        assertEquals("a", cache.get(5));
+        assertEquals("a", cache.remove(5));
+        assertNull(cache.get(5));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testOfDoubleRows() {
+        System.out.println("ofDoubleRows");
+        int rowLength = 1000;
+        long rowBytes = rowLength * 8 + 64;
+        long budget = 10 * rowBytes;
+        ConcurrentCacheLRU<Integer, double[]> cache = ConcurrentCacheLRU.ofDoubleRows(budget, rowLength, 16);
+
+        for (int i = 0; i < 100; i++) {
+            cache.put(i, new double[rowLength]);
+            assertTrue(cache.weightedSize() <= budget);
+        }
+
+        //10 rows is too few to split, so this is an exact LRU holding the last 10
+        assertEquals(10, cache.size());
+        for (int i = 90; i < 100; i++)
+            assertNotNull(cache.get(i));
+        assertEquals(90, cache.getEvictionCount());
+
+        //a row larger than the whole budget can't be kept
+        double[] big = new double[rowLength * 20];
+        cache.put(-1, big);
+        assertNull(cache.get(-1));
+        assertTrue(cache.weightedSize() <= budget);
+    }
+
+    /**
+     * The number of segments must not let the cache hold more entries than
+     * asked for
+     */
+    @Test
+    public void testConcurrencyAboveMaxEntries() {
+        System.out.println("concurrencyAboveMaxEntries");
+        for (int max : new int[]{1, 3, 26, 100}) {
+            ConcurrentCacheLRU<Integer, Integer> cache = new ConcurrentCacheLRU<>(max, 32);
+            for (int i = 0; i < 10 * max + 100; i++) {
+                cache.put(i, i);
+                assertTrue(cache.size() <= max);
+            }
+            //evictions only happen when needed, so it should be full
+            assertEquals(max, cache.size());
+        }
+    }
+
+    /**
+     * A budget smaller than one row per requested segment must still be
+     * respected, and still cache rows
+     */
+    @Test
+    public void testBudgetBelowSegmentsTimesRow() {
+        System.out.println("budgetBelowSegmentsTimesRow");
+        int rowLength = 500;
+        long rowBytes = rowLength * 8 + 64;
+        long budget = 3 * rowBytes + rowBytes / 2;
+        ConcurrentCacheLRU<Integer, double[]> cache = ConcurrentCacheLRU.ofDoubleRows(budget, rowLength, 16);
+        for (int i = 0; i < 50; i++) {
+            cache.put(i, new double[rowLength]);
+            assertTrue(cache.weightedSize() <= budget);
+        }
+        assertEquals(3, cache.size());
+        assertNotNull(cache.get(49));
+    }
+
+    @Test
+    public void testConcurrent() throws InterruptedException {
+        System.out.println("concurrent");
+        final int max = 64;
+        final ConcurrentCacheLRU<Integer, Integer> cache = new ConcurrentCacheLRU<>(max, 8);
+        final AtomicInteger badValues = new AtomicInteger();
+
+        ParallelUtils.run(true, 8, id -> {
+            for (int i = 0; i < 10000; i++) {
+                int key = (i * 31 + id) % 200;
+                Integer val = cache.get(key);
+                if (val == null)
+                    val = cache.putIfAbsentAndGet(key, key);
+                if (val != null && val != key)
+                    badValues.incrementAndGet();
+            }
+        });
+
+        assertEquals(0, badValues.get());
+        assertTrue(cache.size() <= max);
+        assertEquals(8 * 10000, cache.getHitCount() + cache.getMissCount());
+    }
+}
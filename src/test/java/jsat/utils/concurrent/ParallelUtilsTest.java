@@ -0,0 +1,76 @@
+package jsat.utils.concurrent;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ParallelUtilsTest {
+
+    public ParallelUtilsTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() {
+    }
+
+    @AfterClass
+    public static void tearDownClass() {
+    }
+
+    @Before
+    public void setUp() {
+    }
+
+    @After
+    public void tearDown() {
+    }
+
+    @Test
+    public void testRunHogwild() {
+        System.out.println("runHogwild");
+        for (int threads : new int[]{1, 3, 4})
+            for (int N : new int[]{1, 2, 10, 1001})
+                for (int maxStaleness : new int[]{0, 1, 7, 5000}) {
+                    AtomicIntegerArray visits = new AtomicIntegerArray(N);
+                    ParallelUtils.runHogwild(threads, N, 3, maxStaleness, visits::incrementAndGet);
+                    for (int i = 0; i < N; i++)
+                        assertEquals(3, visits.get(i));
+                }
+    }
+
+    @Test
+    public void testRunHogwild_staleness() {
+        System.out.println("runHogwild staleness");
+        //with a staleness of 1 no thread can get more than one round ahead
+        int threads = 4;
+        AtomicIntegerArray perThread = new AtomicIntegerArray(threads);
+        ThreadLocal<Integer> id = new ThreadLocal<>();
+        AtomicInteger nextId = new AtomicInteger();
+        ParallelUtils.runHogwild(threads, 400, 2, 1, i ->
+        {
+            if (id.get() == null)
+                id.set(nextId.getAndIncrement());
+            int mine = perThread.incrementAndGet(id.get());
+            for (int t = 0; t < threads; t++)
+                assertTrue(Math.abs(mine - perThread.get(t)) <= 2);
+        });
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testRunHogwild_exception() {
+        System.out.println("runHogwild exception");
+        //a failure in one thread must not leave the others waiting forever
+        ParallelUtils.runHogwild(4, 100, 1, 1, i ->
+        {
+            if (i == 42)
+                throw new IllegalStateException();
+        });
+    }
+}